@@ -0,0 +1,84 @@
+package benchmarks;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import entities.Sale;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Test data shared by the benchmarks.
+ *
+ * Data is generated from a fixed seed so every run and every fork measures
+ * the same shapes. Product IDs are "P0" .. "P(n-1)", and sales are spread
+ * uniformly over the first products of the catalog.
+ */
+final class BenchmarkData {
+
+    //Seed for all generated data
+    static final long SEED = 42;
+
+    //Number of distinct products sales are spread over
+    static final int SOLD_PRODUCTS = 1000;
+
+    private BenchmarkData() {}
+
+    /**
+     * Sends System.out to a null stream. The services print a confirmation
+     * line for most operations, which would otherwise dominate the timings.
+     */
+    static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    static String productId(int i) {
+        return "P" + i;
+    }
+
+    /**
+     * @return count products with generated names, prices and quantities;
+     *         roughly one in twenty is out of stock
+     */
+    static DoublyLinkedList products(int count) {
+        Random random = new Random(SEED);
+        DoublyLinkedList products = new DoublyLinkedList();
+        for (int i = 0; i < count; i++) {
+            products.add(
+                new Product(
+                    productId(i),
+                    "Product " + Integer.toString(i, 36),
+                    1 + random.nextInt(100_000) / 100.0,
+                    random.nextInt(20) == 0 ? 0 : 1 + random.nextInt(1000)
+                )
+            );
+        }
+        return products;
+    }
+
+    /**
+     * @return count historical sales over the first SOLD_PRODUCTS products
+     *         of a catalog of productCount products
+     */
+    static DoublyLinkedList sales(int count, int productCount) {
+        Random random = new Random(SEED);
+        DoublyLinkedList sales = new DoublyLinkedList();
+        LocalDateTime date = LocalDateTime.of(2025, 1, 1, 0, 0);
+        int products = Math.min(SOLD_PRODUCTS, productCount);
+        for (int i = 0; i < count; i++) {
+            int product = random.nextInt(products);
+            sales.add(
+                new Sale(
+                    productId(product),
+                    "Product " + Integer.toString(product, 36),
+                    1 + random.nextInt(5),
+                    1 + random.nextInt(100_000) / 100.0,
+                    date.plusSeconds(i)
+                )
+            );
+        }
+        return sales;
+    }
+}
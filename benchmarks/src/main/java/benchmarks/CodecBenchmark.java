@@ -0,0 +1,170 @@
+package benchmarks;
+
+import entities.Product;
+import entities.Sale;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.codec.EntityCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for EntityCodec against Java serialization, encoding and
+ * decoding one Product and one Sale.
+ *
+ * The entities are not Serializable, since a Sale holds process-local
+ * dictionary ordinals, so the serialization side writes records with the
+ * same fields instead. Run with -prof gc to compare allocation as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    record SerializableProduct(
+        String id,
+        String name,
+        double price,
+        int quantity
+    ) implements Serializable {}
+
+    record SerializableSale(
+        UUID id,
+        String productId,
+        String productName,
+        int quantity,
+        double unitPrice,
+        double totalAmount,
+        LocalDateTime date
+    ) implements Serializable {}
+
+    Product product;
+    Sale sale;
+    SerializableProduct serializableProduct;
+    SerializableSale serializableSale;
+
+    ByteBuffer buffer;
+    ByteBuffer encodedProduct;
+    ByteBuffer encodedSale;
+    byte[] serializedProduct;
+    byte[] serializedSale;
+
+    @Setup
+    public void setup() throws IOException {
+        product = new Product("P12345", "Wireless Keyboard", 49.99, 120);
+        sale = new Sale(
+            "P12345",
+            "Wireless Keyboard",
+            3,
+            49.99,
+            LocalDateTime.of(2024, 3, 15, 10, 30, 45)
+        );
+        serializableProduct = new SerializableProduct(
+            product.getId(),
+            product.getName(),
+            product.getPrice(),
+            product.getQuantity()
+        );
+        serializableSale = new SerializableSale(
+            sale.getId(),
+            sale.getProductId(),
+            sale.getProductName(),
+            sale.getQuantity(),
+            sale.getUnitPrice(),
+            sale.getTotalAmount(),
+            sale.getDate()
+        );
+
+        buffer = ByteBuffer.allocate(256);
+        encodedProduct = ByteBuffer.allocate(EntityCodec.encodedSize(product));
+        EntityCodec.encode(product, encodedProduct);
+        encodedSale = ByteBuffer.allocate(EntityCodec.encodedSize(sale));
+        EntityCodec.encode(sale, encodedSale);
+        serializedProduct = serialize(serializableProduct);
+        serializedSale = serialize(serializableSale);
+    }
+
+    @Benchmark
+    public int encodeProduct() {
+        buffer.clear();
+        EntityCodec.encode(product, buffer);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public Product decodeProduct() {
+        encodedProduct.clear();
+        return EntityCodec.decodeProduct(encodedProduct);
+    }
+
+    @Benchmark
+    public int encodeSale() {
+        buffer.clear();
+        EntityCodec.encode(sale, buffer);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public Sale decodeSale() {
+        encodedSale.clear();
+        return EntityCodec.decodeSale(encodedSale);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws IOException {
+        return serialize(serializableProduct);
+    }
+
+    @Benchmark
+    public Object deserializeProduct() throws Exception {
+        return deserialize(serializedProduct);
+    }
+
+    @Benchmark
+    public byte[] serializeSale() throws IOException {
+        return serialize(serializableSale);
+    }
+
+    @Benchmark
+    public Object deserializeSale() throws Exception {
+        return deserialize(serializedSale);
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws Exception {
+        try (
+            ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes)
+            )
+        ) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import entities.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import service.inventory.InventoryService;
+import service.inventory.InventoryServiceImpl;
+import service.report.ReportService;
+import service.report.ReportServiceImpl;
+import service.sale.SaleService;
+import service.sale.SaleServiceImpl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded throughput of the read-only service paths, run on every
+ * available core against one shared set of services. Only reads are
+ * measured because the sale service does not synchronize writes; reads
+ * racing inventory writes are measured by InventoryContentionBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class ConcurrentReadBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    int size;
+
+    InventoryService inventoryService;
+    ReportService reportService;
+
+    @Setup
+    public void setup() {
+        BenchmarkData.silenceConsole();
+        inventoryService = new InventoryServiceImpl();
+        inventoryService.addProducts(BenchmarkData.products(size));
+        SaleService saleService = new SaleServiceImpl(inventoryService);
+        saleService.addSales(BenchmarkData.sales(size, size));
+        reportService = new ReportServiceImpl(inventoryService, saleService);
+    }
+
+    @Benchmark
+    public Product findProductById() {
+        int i = ThreadLocalRandom.current().nextInt(size);
+        return inventoryService.findProductById(BenchmarkData.productId(i));
+    }
+
+    @Benchmark
+    public double getTotalSalesRevenue() {
+        return reportService.getTotalSalesRevenue();
+    }
+
+    @Benchmark
+    public int getOutOfStockCount() {
+        return reportService.getOutOfStockProducts().size();
+    }
+}
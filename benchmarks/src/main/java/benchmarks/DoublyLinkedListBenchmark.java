@@ -0,0 +1,78 @@
+package benchmarks;
+
+import entities.DoublyLinkedList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the DoublyLinkedList collection at different sizes.
+ *
+ * The add/remove pair keeps the list at its parameter size between
+ * invocations, so each measurement sees the same list length.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoublyLinkedListBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    int size;
+
+    DoublyLinkedList list;
+    Object extra;
+
+    @Setup
+    public void setup() {
+        list = new DoublyLinkedList();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        extra = new Object();
+    }
+
+    //append at the tail, then remove it again by index (walks from head)
+    @Benchmark
+    public void addThenRemoveLast() {
+        list.add(extra);
+        list.remove(list.size() - 1);
+    }
+
+    //append at the tail, then remove it again by reference (walks from head)
+    @Benchmark
+    public boolean addThenRemoveByReference() {
+        list.add(extra);
+        return list.remove(extra);
+    }
+
+    @Benchmark
+    public Object getMiddle() {
+        return list.get(size / 2);
+    }
+
+    @Benchmark
+    public Object getFirst() {
+        return list.get(0);
+    }
+
+    @Benchmark
+    public void scanIterator(Blackhole blackhole) {
+        for (Object o : list) {
+            blackhole.consume(o);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import entities.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.inventory.InventoryServiceImpl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read throughput of InventoryServiceImpl while a writer keeps changing
+ * stock, the mix the StampedLock read path is built for. Readers look up
+ * products optimistically; the writer adds one unit to a random product
+ * and takes it back on its next call, so stock never runs out.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryContentionBenchmark {
+
+    @Param({ "1000", "100000" })
+    int size;
+
+    InventoryServiceImpl inventoryService;
+    String target;
+
+    @Setup
+    public void setup() {
+        BenchmarkData.silenceConsole();
+        inventoryService = new InventoryServiceImpl();
+        inventoryService.addProducts(BenchmarkData.products(size));
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(3)
+    public Product findProductById() {
+        int i = ThreadLocalRandom.current().nextInt(size);
+        return inventoryService.findProductById(BenchmarkData.productId(i));
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public void adjustQuantity() {
+        if (target == null) {
+            int i = ThreadLocalRandom.current().nextInt(size);
+            target = BenchmarkData.productId(i);
+            inventoryService.adjustQuantity(target, 1);
+        } else {
+            inventoryService.adjustQuantity(target, -1);
+            target = null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.inventory.InventoryService;
+import service.inventory.InventoryServiceImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded benchmarks for InventoryServiceImpl at different catalog
+ * sizes. The service is not thread-safe, so mutating operations are only
+ * measured on one thread; see ConcurrentReadBenchmark for multi-threaded
+ * reads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryServiceBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    int size;
+
+    InventoryService inventoryService;
+    int next;
+
+    @Setup
+    public void setup() {
+        BenchmarkData.silenceConsole();
+        inventoryService = new InventoryServiceImpl();
+        inventoryService.addProducts(BenchmarkData.products(size));
+    }
+
+    private String nextId() {
+        next = (next + 7919) % size;
+        return BenchmarkData.productId(next);
+    }
+
+    @Benchmark
+    public Product findProductById() {
+        return inventoryService.findProductById(nextId());
+    }
+
+    @Benchmark
+    public void updateProduct() {
+        inventoryService.updateProduct(nextId(), "Renamed", 12.5, 100);
+    }
+
+    //add a new product, then delete it so the catalog size stays constant
+    @Benchmark
+    public void addThenDeleteProduct() {
+        inventoryService.addProduct(new Product("NEW", "New Product", 9.99, 5));
+        inventoryService.deleteProduct("NEW");
+    }
+
+    @Benchmark
+    public DoublyLinkedList searchProductsByName() {
+        return inventoryService.searchProductsByName("uct 1a", 20);
+    }
+
+    @Benchmark
+    public DoublyLinkedList findProductsByPriceRange() {
+        return inventoryService.findProductsByPriceRange(10, 11);
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import entities.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.inventory.InventoryService;
+import service.inventory.InventoryServiceImpl;
+import service.metrics.InstrumentedInventoryService;
+import service.metrics.MetricsRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the metrics decorator: the same cheap lookup with and without
+ * InstrumentedInventoryService in front of it. The difference between the
+ * two results is the per-call overhead of the instrumentation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    InventoryService plain;
+    InventoryService instrumented;
+
+    @Setup
+    public void setup() {
+        BenchmarkData.silenceConsole();
+        plain = new InventoryServiceImpl();
+        plain.addProducts(BenchmarkData.products(1000));
+        instrumented = new InstrumentedInventoryService(
+            plain,
+            new MetricsRegistry(null, MetricsRegistry.DEFAULT_SAMPLE_INTERVAL)
+        );
+    }
+
+    @Benchmark
+    public Product plainFind() {
+        return plain.findProductById("P500");
+    }
+
+    @Benchmark
+    public Product instrumentedFind() {
+        return instrumented.findProductById("P500");
+    }
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import entities.DoublyLinkedList;
+import entities.ProductSales;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.inventory.InventoryService;
+import service.inventory.InventoryServiceImpl;
+import service.report.ReportEngine;
+import service.report.ReportService;
+import service.report.ReportServiceImpl;
+import service.sale.SaleService;
+import service.sale.SaleServiceImpl;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for each ReportServiceImpl method with a catalog and a sales
+ * history of the parameter size. Reports only read, so the same benchmarks
+ * can be run on several threads with the JMH -t option; ConcurrentReadBenchmark
+ * does this by default.
+ *
+ * With parallel=false the ReportEngine threshold is set beyond any history
+ * size, so the sales scans stay sequential for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportServiceBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    int size;
+
+    @Param({ "true", "false" })
+    boolean parallel;
+
+    ReportService reportService;
+
+    @Setup
+    public void setup() {
+        BenchmarkData.silenceConsole();
+        InventoryService inventoryService = new InventoryServiceImpl();
+        inventoryService.addProducts(BenchmarkData.products(size));
+        SaleService saleService = new SaleServiceImpl(inventoryService);
+        saleService.addSales(BenchmarkData.sales(size, size));
+        ReportEngine engine = parallel
+            ? new ReportEngine()
+            : new ReportEngine(ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+        reportService = new ReportServiceImpl(
+            inventoryService,
+            saleService,
+            engine
+        );
+    }
+
+    @Benchmark
+    public int getTotalNumberOfProducts() {
+        return reportService.getTotalNumberOfProducts();
+    }
+
+    @Benchmark
+    public double getTotalSalesRevenue() {
+        return reportService.getTotalSalesRevenue();
+    }
+
+    @Benchmark
+    public ProductSales getProductWithHighestSales() {
+        return reportService.getProductWithHighestSales();
+    }
+
+    @Benchmark
+    public void displayProductWithHighestSales() {
+        reportService.displayProductWithHighestSales();
+    }
+
+    @Benchmark
+    public DoublyLinkedList getOutOfStockProducts() {
+        return reportService.getOutOfStockProducts();
+    }
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import service.inventory.InventoryService;
+import service.inventory.InventoryServiceImpl;
+import service.sale.SaleService;
+import service.sale.SaleServiceImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded benchmarks for SaleServiceImpl with a sales history of
+ * the parameter size over a catalog of the same size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaleServiceBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    int size;
+
+    InventoryService inventoryService;
+    SaleService saleService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkData.silenceConsole();
+        inventoryService = new InventoryServiceImpl();
+        inventoryService.addProducts(BenchmarkData.products(size));
+        inventoryService.addProduct(
+            new Product("BENCH", "Benchmark Product", 1.0, Integer.MAX_VALUE)
+        );
+        saleService = new SaleServiceImpl(inventoryService);
+        saleService.addSales(BenchmarkData.sales(size, size));
+    }
+
+    //the history grows during the run; the stock never runs out
+    @Benchmark
+    public void recordSale() {
+        saleService.recordSale("BENCH", 1);
+    }
+
+    @Benchmark
+    public DoublyLinkedList getAllSales() {
+        return saleService.getAllSales();
+    }
+
+    @Benchmark
+    public void forEachSale(Blackhole blackhole) {
+        saleService.forEachSale(blackhole::consume);
+    }
+}
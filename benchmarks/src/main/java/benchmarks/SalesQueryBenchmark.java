@@ -0,0 +1,98 @@
+package benchmarks;
+
+import entities.ProductSales;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.inventory.InventoryService;
+import service.inventory.InventoryServiceImpl;
+import service.query.QueryResult;
+import service.query.SalesQuery;
+import service.query.SalesQueryEngine;
+import service.report.ReportEngine;
+import service.report.ReportService;
+import service.report.ReportServiceImpl;
+import service.sale.SaleServiceImpl;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for SalesQueryEngine queries over a sales history of the
+ * parameter size, next to the sequential ReportServiceImpl scan that
+ * answers the same question as groupByProduct from Sale objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SalesQueryBenchmark {
+
+    @Param({ "100000", "1000000" })
+    int size;
+
+    SalesQueryEngine engine;
+    ReportService reportService;
+
+    SalesQuery total;
+    SalesQuery groupByProduct;
+    SalesQuery filteredByHour;
+
+    @Setup
+    public void setup() {
+        BenchmarkData.silenceConsole();
+        InventoryService inventoryService = new InventoryServiceImpl();
+        inventoryService.addProducts(BenchmarkData.products(size));
+        SaleServiceImpl saleService = new SaleServiceImpl(inventoryService);
+        saleService.addSales(BenchmarkData.sales(size, size));
+        engine = new SalesQueryEngine(saleService);
+        reportService = new ReportServiceImpl(
+            inventoryService,
+            saleService,
+            new ReportEngine(ForkJoinPool.commonPool(), Integer.MAX_VALUE)
+        );
+        total = SalesQuery.parse(new String[] { "select=sum(amount)" });
+        groupByProduct = SalesQuery.parse(
+            new String[] { "group=product", "select=sum(amount)", "limit=1" }
+        );
+        filteredByHour = SalesQuery.parse(
+            new String[] {
+                "group=hour",
+                "select=count,avg(price),max(quantity)",
+                "minprice=100",
+                "maxprice=500",
+                "product=P1,P2,P3,P4,P5,P6,P7,P8",
+            }
+        );
+    }
+
+    @Benchmark
+    public QueryResult total() {
+        return engine.run(total);
+    }
+
+    @Benchmark
+    public QueryResult groupByProduct() {
+        return engine.run(groupByProduct);
+    }
+
+    @Benchmark
+    public QueryResult filteredByHour() {
+        return engine.run(filteredByHour);
+    }
+
+    @Benchmark
+    public ProductSales reportScan() {
+        return reportService.getProductWithHighestSales();
+    }
+}
@@ -1,14 +1,51 @@
 import entities.DoublyLinkedList;
 import entities.Product;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 
+import service.admission.AdmissionController;
+import service.admission.AdmittedReportService;
+import service.admission.AdmittedSaleService;
+import service.archive.SaleArchive;
+import service.exporter.ExportFormat;
+import service.exporter.ExportService;
+import service.exporter.ExportServiceImpl;
+import service.importer.ImportResult;
+import service.importer.ImportService;
+import service.importer.ImportServiceImpl;
 import service.inventory.InventoryService;
 import service.inventory.InventoryServiceImpl;
+import service.metrics.InstrumentedInventoryService;
+import service.metrics.InstrumentedReportService;
+import service.metrics.InstrumentedSaleService;
+import service.metrics.MetricsRegistry;
+import service.replication.ReplicatingInventoryService;
+import service.replication.ReplicatingSaleService;
+import service.replication.ReplicationFollower;
+import service.replication.ReplicationPrimary;
+import service.query.SalesQuery;
+import service.query.SalesQueryEngine;
+import service.report.CachingReportService;
 import service.report.ReportService;
 import service.report.ReportServiceImpl;
+import service.report.ViewReportService;
+import service.reservation.Reservation;
+import service.reservation.ReservationService;
+import service.reservation.ReservationServiceImpl;
 import service.sale.SaleService;
 import service.sale.SaleServiceImpl;
+import service.shard.ShardGroup;
+import service.shard.ShardedInventoryService;
+import service.shard.ShardedReportService;
+import service.shard.ShardedSaleService;
+import service.view.SalesRate;
+import service.workload.WorkloadConfig;
+import service.workload.WorkloadGenerator;
 
 /**
  * Main entry point for the Smart Inventory Management System application.
@@ -24,6 +61,12 @@ import service.sale.SaleServiceImpl;
  *   InventoryService - Product and inventory management
  *   SaleService - Sales transaction recording and history
  *   ReportService - Analytics and business intelligence
+ *   ReservationService - Time-limited stock holds for shopping carts
+ *   ImportService - Bulk loading of products and sales from CSV files
+ *   ExportService - Streaming export of data and reports to CSV or JSON
+ *   MetricsRegistry - Per-method call metrics, also published over JMX
+ *   ReplicationPrimary / ReplicationFollower - Change stream to read-only
+ *   report replicas
  *
  *
  * Features:
@@ -32,8 +75,13 @@ import service.sale.SaleServiceImpl;
  *   Sales recording and transaction history
  *   Business reports (revenue, top products, stock alerts)
  *   Bidirectional product listing (forward/backward)
+ *   Bulk CSV import of products and sales
+ *   CSV and JSON export of products, sales and reports
+ *   Service latency and throughput metrics
  *   Input validation with error handling
  *   Demo data population for testing
+ *   Synthetic load generation with throughput and latency reporting
+ *   Replication to follower processes serving reports
 
  */
 public class Main {
@@ -47,8 +95,212 @@ public class Main {
      */
     static final Scanner scanner = new Scanner(System.in);
 
+    /**
+     * Maximum number of products listed for a single name search, so that
+     * very short queries against a large catalog stay readable.
+     */
+    static final int SEARCH_RESULT_LIMIT = 20;
+
+    /**
+     * Port value meaning the interactive application does not replicate.
+     */
+    static final int NO_REPLICATION = -1;
+
+    /**
+     * Starts the interactive application, or another mode selected by the
+     * first argument:
+     *
+     *   --workload key=value... - runs a synthetic workload, see WorkloadConfig
+     *   --primary PORT - the interactive application, replicating its changes
+     *   to followers connecting on PORT
+     *   --follower PORT - a read-only replica of the primary on PORT that
+     *   serves the reports menu
+     *
+     * For example:
+     *
+     *   java Main --workload products=100000 sales=1000000 reports=500 threads=4 skew=1.1
+     *
+     * @param args the command line arguments
+     */
     public static void main(String[] args) {
-        smartInventoryApp();
+        String mode = args.length > 0 ? args[0] : "";
+        switch (mode) {
+            case "--workload" -> runWorkload(
+                Arrays.copyOfRange(args, 1, args.length)
+            );
+            case "--primary", "--follower" -> {
+                int port;
+                try {
+                    port = Integer.parseInt(args.length > 1 ? args[1] : "");
+                } catch (NumberFormatException e) {
+                    System.err.println("✗ Usage: " + mode + " PORT");
+                    return;
+                }
+                if (mode.equals("--primary")) {
+                    smartInventoryApp(port);
+                } else {
+                    runFollower(port);
+                }
+            }
+            default -> smartInventoryApp();
+        }
+    }
+
+    /**
+     * Runs a read-only replica of the primary listening on the given port and
+     * serves the reports menu from it until the user leaves the menu.
+     *
+     * The replica receives a snapshot of the primary's data when it connects
+     * and every change after that, so its reports follow the primary while
+     * adding no report load to it.
+     *
+     * @param port the primary's replication port on this machine
+     */
+    public static void runFollower(int port) {
+        try (ReplicationFollower follower = new ReplicationFollower(
+            "localhost",
+            port
+        )) {
+            if (!follower.awaitSnapshot(30, TimeUnit.SECONDS)) {
+                System.err.println("✗ Timed out waiting for the primary.");
+                return;
+            }
+            System.out.println(
+                "\n✓ Replicating from port " +
+                    port +
+                    " (change " +
+                    follower.getAppliedSequence() +
+                    ")"
+            );
+            reportMenu(follower.getReportService(), null);
+        } catch (IOException e) {
+            System.err.println(
+                "✗ Could not connect to the primary: " + e.getMessage()
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scanner.close();
+    }
+
+    /**
+     * Runs a synthetic workload against freshly wired services and prints
+     * its throughput and latency percentiles, followed by the per-method
+     * service metrics.
+     *
+     * Unlike fillDummyData, which loads a handful of hand-written records
+     * for the interactive menus, this creates as many products, sales and
+     * reports as requested, so the services can be measured at scale.
+     *
+     * @param args key=value workload options
+     */
+    public static void runWorkload(String[] args) {
+        WorkloadConfig config;
+        try {
+            config = WorkloadConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.err.println(
+                "Options: products=N sales=N reports=N threads=N skew=S " +
+                    "shards=N views=true|false cache=true|false " +
+                    "archive=DIR hot=SECONDS pages=N ingest=true|false " +
+                    "admit=N queue=N seed=N"
+            );
+            return;
+        }
+
+        // With shards=N the catalog is partitioned across N single-writer
+        // shards and the generator may call the services concurrently;
+        // admission workers do too, so admit=N needs at least one shard
+        ShardGroup shards = config.getShards() > 0 || config.getAdmit() > 0
+            ? new ShardGroup(Math.max(1, config.getShards()))
+            : null;
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        InventoryServiceImpl inventoryStore = new InventoryServiceImpl();
+        InventoryService inventoryService = new InstrumentedInventoryService(
+            shards != null ? new ShardedInventoryService(shards) : inventoryStore,
+            metricsRegistry
+        );
+        SaleServiceImpl salesStore;
+        if (config.getArchive() != null && shards == null) {
+            // Sales older than the hot age move to paged segments
+            try {
+                salesStore = new SaleServiceImpl(
+                    inventoryService,
+                    new SaleArchive(
+                        Path.of(config.getArchive()),
+                        config.getPages()
+                    ),
+                    Duration.ofSeconds(config.getHotSeconds())
+                );
+            } catch (IOException e) {
+                System.err.println(
+                    "✗ Could not open the archive: " + e.getMessage()
+                );
+                return;
+            }
+        } else {
+            salesStore = new SaleServiceImpl(inventoryService);
+        }
+        SaleService saleService = new InstrumentedSaleService(
+            shards != null ? new ShardedSaleService(shards) : salesStore,
+            metricsRegistry
+        );
+        ReportService reports;
+        if (shards != null) {
+            reports = new ShardedReportService(shards);
+        } else if (config.isViewReports()) {
+            reports = new ViewReportService(inventoryStore, salesStore);
+        } else {
+            reports = new ReportServiceImpl(inventoryService, saleService);
+        }
+        if (config.isCacheReports()) {
+            reports = new CachingReportService(
+                reports,
+                inventoryService,
+                saleService
+            );
+        }
+        ReportService reportService = new InstrumentedReportService(
+            reports,
+            metricsRegistry
+        );
+
+        // With admit=N sales and reports queue for N workers, sales first,
+        // and are rejected when their queue is full
+        AdmissionController admission = null;
+        if (config.getAdmit() > 0) {
+            int workers = config.getAdmit();
+            admission = new AdmissionController(
+                workers,
+                workers / 2,
+                config.getQueue(),
+                config.getQueue()
+            );
+            saleService = new AdmittedSaleService(saleService, admission);
+            reportService = new AdmittedReportService(reportService, admission);
+        }
+
+        System.out.println("\nRunning " + config + "...");
+        try {
+            new WorkloadGenerator(
+                inventoryService,
+                saleService,
+                reportService,
+                shards != null || admission != null
+            ).run(config).display();
+        } finally {
+            if (admission != null) {
+                admission.close();
+            }
+            if (shards != null) {
+                shards.close();
+            }
+        }
+        if (admission != null) {
+            admission.display();
+        }
+        metricsRegistry.display();
     }
 
     /**
@@ -66,13 +318,77 @@ public class Main {
      * and wired together.
      */
     public static void smartInventoryApp() {
-        // Initialize service layer components
-        InventoryService inventoryService = new InventoryServiceImpl();
-        SaleService saleService = new SaleServiceImpl(inventoryService);
-        ReportService reportService = new ReportServiceImpl(
+        smartInventoryApp(NO_REPLICATION);
+    }
+
+    /**
+     * Runs the interactive application, additionally shipping every product
+     * and sale change to followers connecting on the given port unless it is
+     * NO_REPLICATION.
+     *
+     * @param replicationPort the port followers connect to, or NO_REPLICATION
+     */
+    public static void smartInventoryApp(int replicationPort) {
+        ReplicationPrimary primary = null;
+        if (replicationPort != NO_REPLICATION) {
+            try {
+                primary = new ReplicationPrimary(replicationPort);
+            } catch (IOException e) {
+                System.err.println(
+                    "✗ Could not start replication: " + e.getMessage()
+                );
+                return;
+            }
+        }
+
+        // Initialize service layer components, each wrapped so that its
+        // calls are measured and visible over JMX and in the metrics menu
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        InventoryServiceImpl inventoryStore = new InventoryServiceImpl();
+        InventoryService inventoryService = new InstrumentedInventoryService(
+            inventoryStore,
+            metricsRegistry
+        );
+        if (primary != null) {
+            inventoryService = new ReplicatingInventoryService(
+                inventoryService,
+                primary
+            );
+        }
+        SaleServiceImpl salesStore = new SaleServiceImpl(inventoryService);
+        SaleService saleService = new InstrumentedSaleService(
+            salesStore,
+            metricsRegistry
+        );
+        if (primary != null) {
+            saleService = new ReplicatingSaleService(saleService, primary);
+            primary.start(inventoryService, saleService);
+            System.out.println(
+                "✓ Replication primary listening on port " + primary.getPort()
+            );
+        }
+        // Reports are read from views kept up to date by every change
+        ReportService reportService = new InstrumentedReportService(
+            new ViewReportService(inventoryStore, salesStore),
+            metricsRegistry
+        );
+        SalesQueryEngine queryEngine = new SalesQueryEngine(salesStore);
+        ReservationServiceImpl reservationService = new ReservationServiceImpl(
+            inventoryService,
+            saleService
+        );
+        // Abandoned holds are released in the background, not only on the
+        // next reservation call
+        reservationService.start();
+        ImportService importService = new ImportServiceImpl(
             inventoryService,
             saleService
         );
+        ExportService exportService = new ExportServiceImpl(
+            inventoryService,
+            saleService,
+            reportService
+        );
 
         // Populate with demo data for immediate usability
         fillDummyData(inventoryService, saleService);
@@ -88,21 +404,159 @@ public class Main {
                 1. Products
                 2. Sales
                 3. Reports
-                4. Exit
+                4. Import / Export Data
+                5. Service Metrics
+                6. Exit
                 """
             );
 
             switch (choice) {
                 case "1" -> productMenu(inventoryService);
-                case "2" -> saleMenu(saleService);
-                case "3" -> reportMenu(reportService);
-                case "4" -> {
+                case "2" -> saleMenu(saleService, reservationService);
+                case "3" -> reportMenu(reportService, queryEngine);
+                case "4" -> dataMenu(importService, exportService);
+                case "5" -> metricsMenu(metricsRegistry);
+                case "6" -> {
                     System.out.println("\n✓ Exiting the application. Goodbye!");
                     scanner.close();
+                    reservationService.close();
+                    if (primary != null) {
+                        try {
+                            primary.close();
+                        } catch (IOException e) {
+                            //followers notice the closed connection
+                        }
+                    }
                     return;
                 }
                 default -> System.err.println(
-                    "✗ Invalid choice. Please select 1-4."
+                    "✗ Invalid choice. Please select 1-6."
+                );
+            }
+        }
+    }
+
+    /**
+     * Displays and handles the Service Metrics submenu.
+     *
+     * Shows call counts, error counts, throughput and latency percentiles
+     * for every service method called so far. The same figures are
+     * available live over JMX under the "smartinventory" domain.
+     *
+     * @param metricsRegistry the registry holding the service metrics
+     */
+    public static void metricsMenu(MetricsRegistry metricsRegistry) {
+        while (true) {
+            String choice = readString(
+                """
+
+                ═══ Metrics Menu ═══
+                1. Show Service Metrics
+                2. Reset Service Metrics
+                3. Back to Main Menu
+                """
+            );
+
+            switch (choice) {
+                case "1" -> metricsRegistry.display();
+                case "2" -> {
+                    metricsRegistry.resetAll();
+                    System.out.println("✓ Metrics reset.");
+                }
+                case "3" -> {
+                    return;
+                }
+                default -> System.err.println(
+                    "✗ Invalid choice. Please select 1-3."
+                );
+            }
+        }
+    }
+
+    /**
+     * Displays and handles the Import / Export Data submenu.
+     *
+     * This menu bulk loads products or historical sales from CSV files and
+     * prints a summary of each import instead of one line per row. It also
+     * exports products, sales and report results to a file, as JSON when the
+     * file name ends in .json and as CSV otherwise.
+     *
+     * CSV columns (shared by import and export):
+     *
+     *   Products - id,name,price,quantity
+     *   Sales - id,productId,productName,quantity,unitPrice,date
+     *
+     * @param importService the import service used to load the files
+     * @param exportService the export service used to write the files
+     */
+    public static void dataMenu(
+        ImportService importService,
+        ExportService exportService
+    ) {
+        while (true) {
+            String choice = readString(
+                """
+
+                ═══ Import / Export Menu ═══
+                1. Import Products from CSV
+                2. Import Sales from CSV
+                3. Export Products
+                4. Export Sales
+                5. Export Reports
+                6. Back to Main Menu
+                """
+            );
+
+            switch (choice) {
+                case "1", "2" -> {
+                    Path file = Path.of(readString("Enter CSV file path: "));
+                    try {
+                        ImportResult result = choice.equals("1")
+                            ? importService.importProducts(file)
+                            : importService.importSales(file);
+                        System.out.println("✓ " + result);
+                        for (Object error : result.getErrors()) {
+                            System.err.println("  ✗ " + error);
+                        }
+                    } catch (IOException e) {
+                        System.err.println(
+                            "✗ Error reading file: " + e.getMessage()
+                        );
+                    } catch (Exception e) {
+                        System.err.println("✗ Error: " + e.getMessage());
+                    }
+                }
+                case "3", "4", "5" -> {
+                    Path file = Path.of(
+                        readString("Enter output file path (.csv or .json): ")
+                    );
+                    ExportFormat format = ExportFormat.fromPath(file);
+                    try {
+                        long count = switch (choice) {
+                            case "3" -> exportService.exportProducts(
+                                file,
+                                format
+                            );
+                            case "4" -> exportService.exportSales(file, format);
+                            default -> exportService.exportReport(file, format);
+                        };
+                        System.out.println(
+                            "✓ Exported " +
+                                (choice.equals("5") ? "report" : count + " records") +
+                                " to " +
+                                file
+                        );
+                    } catch (IOException e) {
+                        System.err.println(
+                            "✗ Error writing file: " + e.getMessage()
+                        );
+                    }
+                }
+                case "6" -> {
+                    return;
+                }
+                default -> System.err.println(
+                    "✗ Invalid choice. Please select 1-6."
                 );
             }
         }
@@ -121,11 +575,20 @@ public class Main {
      *   Best-selling product identification
      *   Out-of-stock product list
      *   Total sales revenue calculation
+     *   Ad-hoc queries grouping and aggregating the sales history
+     *   Best sellers and distinct products sold recently, estimated from
+     *   sketches
+     *   Sales and revenue rates over the last 5, 15 and 60 minutes
      *
      *
      * @param reportService the report service instance for generating analytics
+     * @param queryEngine the engine ad-hoc queries run on, or null where
+     *        they are not available
      */
-    public static void reportMenu(ReportService reportService) {
+    public static void reportMenu(
+        ReportService reportService,
+        SalesQueryEngine queryEngine
+    ) {
         while (true) {
             String choice = readString(
                 """
@@ -135,7 +598,11 @@ public class Main {
                 2. Highest Product Sales
                 3. Out of Stock Products
                 4. Total Sales Revenue
-                5. Back to Main Menu
+                5. Ad-hoc Sales Query
+                6. Best Sellers (Estimated)
+                7. Distinct Products Sold (Estimated)
+                8. Sales Rates
+                9. Back to Main Menu
                 """
             );
 
@@ -174,10 +641,81 @@ public class Main {
                     );
                 }
                 case "5" -> {
+                    if (queryEngine == null) {
+                        System.err.println(
+                            "✗ Ad-hoc queries are only available on the primary."
+                        );
+                        continue;
+                    }
+                    String text = readString(
+                        """
+                        Enter query options, for example:
+                          group=product select=count,sum(amount) limit=5
+                        Options: product=ID,... from=DATE to=DATE minprice=N \
+                        maxprice=N group=none|product|hour|day \
+                        select=count,sum|min|max|avg(quantity|price|amount) \
+                        limit=N"""
+                    );
+                    try {
+                        queryEngine
+                            .run(
+                                SalesQuery.parse(
+                                    text.isEmpty()
+                                        ? new String[0]
+                                        : text.split("\\s+")
+                                )
+                            )
+                            .display();
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("✗ " + e.getMessage());
+                    }
+                }
+                case "6" -> {
+                    DoublyLinkedList heavyHitters =
+                        reportService.getHeavyHitters(10);
+                    if (heavyHitters.isEmpty()) {
+                        System.out.println("\nNo sales available.");
+                    } else {
+                        System.out.println("\nBest Sellers by Quantity:");
+                        for (Object o : heavyHitters) {
+                            System.out.println("  " + o);
+                        }
+                    }
+                }
+                case "7" -> {
+                    int minutes = readInt("Over the last how many minutes: ");
+                    try {
+                        long distinct =
+                            reportService.estimateDistinctProductsSold(
+                                Duration.ofMinutes(minutes)
+                            );
+                        System.out.println(
+                            "\nDistinct Products Sold: about " + distinct
+                        );
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("✗ " + e.getMessage());
+                    }
+                }
+                case "8" -> {
+                    System.out.println("\nSales Rates:");
+                    for (int minutes : new int[] { 5, 15, 60 }) {
+                        SalesRate rate = reportService.getSalesRate(
+                            Duration.ofMinutes(minutes)
+                        );
+                        System.out.printf(
+                            "  Last %2d min: %d sales, %.2f sales/s, $%.2f/min%n",
+                            minutes,
+                            rate.sales(),
+                            rate.salesPerSecond(),
+                            rate.revenuePerMinute()
+                        );
+                    }
+                }
+                case "9" -> {
                     return;
                 }
                 default -> System.err.println(
-                    "✗ Invalid choice. Please select 1-5."
+                    "✗ Invalid choice. Please select 1-9."
                 );
             }
         }
@@ -194,10 +732,15 @@ public class Main {
      *
      *   Record new sales with automatic inventory updates
      *   View complete sales transaction history
+     *   Hold stock for a cart, then check it out or release it
      *
      * @param saleService the sales service instance for transaction management
+     * @param reservationService the service holding stock for carts
      */
-    public static void saleMenu(SaleService saleService) {
+    public static void saleMenu(
+        SaleService saleService,
+        ReservationService reservationService
+    ) {
         while (true) {
             String choice = readString(
                 """
@@ -205,7 +748,10 @@ public class Main {
                 ═══ Sales Menu ═══
                 1. Record Sale
                 2. View Sales
-                3. Back to Main Menu
+                3. Reserve Stock
+                4. Check Out Reservation
+                5. Release Reservation
+                6. Back to Main Menu
                 """
             );
 
@@ -225,10 +771,39 @@ public class Main {
                     saleService.displayAllSales();
                 }
                 case "3" -> {
+                    String productId = readString("Enter Product ID: ");
+                    int quantity = readInt("Enter quantity to reserve: ");
+                    int minutes = readInt("Hold for how many minutes: ");
+                    try {
+                        Reservation reservation = reservationService.reserve(
+                            productId,
+                            quantity,
+                            Duration.ofMinutes(minutes)
+                        );
+                        System.out.println("✓ Stock reserved: " + reservation);
+                    } catch (Exception e) {
+                        System.err.println("✗ Error: " + e.getMessage());
+                    }
+                }
+                case "4", "5" -> {
+                    String id = readString("Enter Reservation ID: ");
+                    try {
+                        if (choice.equals("4")) {
+                            reservationService.commit(id);
+                            System.out.println("✓ Reservation checked out.");
+                        } else {
+                            reservationService.release(id);
+                            System.out.println("✓ Reservation released.");
+                        }
+                    } catch (Exception e) {
+                        System.err.println("✗ Error: " + e.getMessage());
+                    }
+                }
+                case "6" -> {
                     return;
                 }
                 default -> System.err.println(
-                    "✗ Invalid choice. Please select 1-3."
+                    "✗ Invalid choice. Please select 1-6."
                 );
             }
         }
@@ -248,6 +823,8 @@ public class Main {
      *   Update existing product details
      *   Remove products from inventory
      *   Search for specific products by ID
+     *   Search for products by name (prefix or substring)
+     *   Filter products by price range or low stock level
      *
      * @param inventoryService the inventory service instance for product management
      */
@@ -262,7 +839,10 @@ public class Main {
                 3. Update Product Details
                 4. Delete Product
                 5. Search Product by ID
-                6. Back to Main Menu
+                6. Search Products by Name
+                7. Products in Price Range
+                8. Low Stock Products
+                9. Back to Main Menu
                 """
             );
 
@@ -335,15 +915,77 @@ public class Main {
                     }
                 }
                 case "6" -> {
+                    String mode = readString(
+                        """
+                        Select Match Type:
+                        1. Name starts with
+                        2. Name contains
+                        """
+                    );
+                    if (!mode.equals("1") && !mode.equals("2")) {
+                        System.err.println("✗ Invalid choice.");
+                        continue;
+                    }
+                    String text = readString("Enter name to search: ");
+                    DoublyLinkedList matches = mode.equals("1")
+                        ? inventoryService.searchProductsByNamePrefix(
+                              text,
+                              SEARCH_RESULT_LIMIT
+                          )
+                        : inventoryService.searchProductsByName(
+                              text,
+                              SEARCH_RESULT_LIMIT
+                          );
+                    printProducts(matches, "✗ No matching products.");
+                }
+                case "7" -> {
+                    double min = readDouble("Enter minimum price: ");
+                    double max = readDouble("Enter maximum price: ");
+                    printProducts(
+                        inventoryService.findProductsByPriceRange(min, max),
+                        "✗ No products in that price range."
+                    );
+                }
+                case "8" -> {
+                    int threshold = readInt("Show products with quantity below: ");
+                    printProducts(
+                        inventoryService.findProductsWithQuantityBelow(
+                            threshold
+                        ),
+                        "✗ No products below that quantity."
+                    );
+                }
+                case "9" -> {
                     return;
                 }
                 default -> System.err.println(
-                    "✗ Invalid choice. Please select 1-6."
+                    "✗ Invalid choice. Please select 1-9."
                 );
             }
         }
     }
 
+    /**
+     * Prints each product of a query result on its own line, or the given
+     * message when the result is empty.
+     *
+     * @param products the products to print
+     * @param emptyMessage the message to show when there are no products
+     */
+    public static void printProducts(
+        DoublyLinkedList products,
+        String emptyMessage
+    ) {
+        if (products.isEmpty()) {
+            System.err.println(emptyMessage);
+            return;
+        }
+        System.out.println();
+        for (int i = 0; i < products.size(); i++) {
+            System.out.println("  " + products.get(i));
+        }
+    }
+
     /**
      * Populates the system with demonstration data for testing and evaluation.
 
@@ -1,11 +1,14 @@
 package entities;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * A doubly linked list implementation that maintains references to both
  * the next and previous nodes, allowing bidirectional traversal.
  * This implementation stores elements as Object type.
  */
-public class DoublyLinkedList {
+public class DoublyLinkedList implements Iterable<Object> {
 
     private Node head;
     private Node tail;
@@ -104,6 +107,30 @@ public class DoublyLinkedList {
         for (int i = 0; i < index; i++) {
             current = current.next;
         }
+        unlink(current);
+    }
+
+    /**
+     * Removes the first occurrence of the specified element (compared by
+     * reference) from this list, if it is present.
+     * This operation runs in linear time O(n) with a single traversal, unlike
+     * searching with get(int) and then calling remove(int).
+     *
+     * @param data the element to be removed
+     * @return true if the element was found and removed, false otherwise
+     */
+    public boolean remove(Object data) {
+        for (Node current = head; current != null; current = current.next) {
+            if (current.data == data) {
+                unlink(current);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //Detaches the given node from its neighbours and updates head/tail.
+    private void unlink(Node current) {
         if (current.prev != null) {
             current.prev.next = current.next;
         } else {
@@ -134,6 +161,35 @@ public class DoublyLinkedList {
         return size == 0;
     }
 
+    /**
+     * Returns an iterator over the elements in this list from head to tail.
+     * A full traversal runs in linear time O(n), unlike repeated calls to
+     * get(int) which cost O(n) each. The iterator does not support removal.
+     *
+     * @return an iterator over the elements in this list in order
+     */
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<>() {
+            private Node current = head;
+
+            @Override
+            public boolean hasNext() {
+                return current != null;
+            }
+
+            @Override
+            public Object next() {
+                if (current == null) {
+                    throw new NoSuchElementException();
+                }
+                Object data = current.data;
+                current = current.next;
+                return data;
+            }
+        };
+    }
+
     /**
      * Removes all of the elements from this list.
      * The list will be empty after this call returns.
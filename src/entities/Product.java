@@ -4,31 +4,45 @@ package entities;
  * Represents a product in an inventory management system.
  * This class encapsulates the core attributes of a product including
  * its unique identifier, name, price, and available quantity. It provides
- * methods for accessing and modifying these attributes, as well as checking
- * stock availability.
-
-
+ * methods for accessing these attributes, as well as checking stock
+ * availability.
+ *
+ * The name, price and quantity are held together in an immutable, versioned
+ * State that is replaced as a whole, so readers on any thread see a
+ * consistent product without locking.
+ *
+ * Once a product has been added to an inventory it can only be changed by
+ * that inventory, which attaches it with a private key and passes the key
+ * to update. Every change therefore goes through InventoryService, which
+ * keeps its indexes, views and version in step; there are no setters.
  */
 public class Product {
 
-    //The unique identifier for this product.
-    private String id;
-
-    //The display name of the product.
-
-    private String name;
-
     /**
-     * The price of the product in the system's default currency.
-     * Must be non-negative.
+     * The name, price and quantity of a product at one version. A product's
+     * state is never modified, only replaced as a whole, so a reader holding
+     * a State always sees the three values of a single update.
+     *
+     * @param name the display name of the product
+     * @param price the price of the product
+     * @param quantity the available quantity in stock
+     * @param version the number of updates made to the product before this
+     *        state
      */
-    private double price;
+    public record State(String name, double price, int quantity, long version) {}
+
+    //The unique identifier for this product.
+    private final String id;
 
     /**
-     * The available quantity of the product in stock.
-     * Must be non-negative, where 0 indicates out of stock.
+     * The current name, price and quantity. Price must be non-negative, and
+     * a quantity of 0 indicates out of stock. Only replaced by the owning
+     * inventory, which serializes its updates.
      */
-    private int quantity;
+    private volatile State state;
+
+    //Key of the inventory holding the product, null until it is added
+    private volatile Object owner;
 
     /**
      * Constructs a new Product with the specified attributes.
@@ -40,9 +54,7 @@ public class Product {
      */
     public Product(String id, String name, double price, int quantity) {
         this.id = id;
-        this.name = name;
-        this.price = price;
-        this.quantity = quantity;
+        this.state = new State(name, price, quantity, 0);
     }
 
     /**
@@ -50,39 +62,104 @@ public class Product {
      * @return true if the quantity is 0, false otherwise
      */
     public boolean isOutOfStock() {
-        return quantity == 0;
+        return state.quantity() == 0;
     }
 
     public String getId() {
         return id;
     }
 
-    public void setId(String id) {
-        this.id = id;
+    /**
+     * @return the current name, price, quantity and version, read together
+     */
+    public State getState() {
+        return state;
     }
 
-    public String getName() {
-        return name;
+    /**
+     * @return the number of updates made to this product so far
+     */
+    public long getVersion() {
+        return state.version();
     }
 
-    public void setName(String name) {
-        this.name = name;
+    /**
+     * @return true while the product belongs to an inventory
+     */
+    public boolean isAttached() {
+        return owner != null;
     }
 
-    public double getPrice() {
-        return price;
+    /**
+     * Hands the product to an inventory, after which only update calls
+     * carrying the same key can change it.
+     *
+     * @param key the inventory's private key
+     * @throws NullPointerException if key is null
+     * @throws IllegalStateException if the product already belongs to an
+     *         inventory
+     */
+    public synchronized void attach(Object key) {
+        if (key == null) {
+            throw new NullPointerException("Key cannot be null.");
+        }
+        if (owner != null) {
+            throw new IllegalStateException(
+                "Product already belongs to an inventory: " + id
+            );
+        }
+        owner = key;
+    }
+
+    /**
+     * Releases the product from the inventory holding it, once it has been
+     * removed there.
+     *
+     * @param key the key the product was attached with
+     * @throws IllegalStateException if key is not the owner's key
+     */
+    public synchronized void detach(Object key) {
+        checkOwner(key);
+        owner = null;
     }
 
-    public void setPrice(double price) {
-        this.price = price;
+    /**
+     * Replaces the name, price and quantity and bumps the version. Only the
+     * owning inventory calls this, holding the lock that serializes its
+     * writes, so the replacement needs no compare-and-set.
+     *
+     * @param key the key the product was attached with
+     * @param name the new name
+     * @param price the new price
+     * @param quantity the new quantity
+     * @return the state replaced
+     * @throws IllegalStateException if key is not the owner's key
+     */
+    public State update(Object key, String name, double price, int quantity) {
+        checkOwner(key);
+        State old = state;
+        state = new State(name, price, quantity, old.version() + 1);
+        return old;
+    }
+
+    public String getName() {
+        return state.name();
+    }
+
+    public double getPrice() {
+        return state.price();
     }
 
     public int getQuantity() {
-        return quantity;
+        return state.quantity();
     }
 
-    public void setQuantity(int quantity) {
-        this.quantity = quantity;
+    private void checkOwner(Object key) {
+        if (key == null || key != owner) {
+            throw new IllegalStateException(
+                "Product can only be changed by its inventory: " + id
+            );
+        }
     }
 
     /**
@@ -95,12 +172,13 @@ public class Product {
      */
     @Override
     public String toString() {
+        State current = state;
         return String.format(
             "Product[ID=%s, Name=%s, Price=%.2f, Quantity=%d]",
             id,
-            name,
-            price,
-            quantity
+            current.name(),
+            current.price(),
+            current.quantity()
         );
     }
 }
@@ -0,0 +1,190 @@
+package entities;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared dictionary of the product identifiers and names referenced by
+ * sales.
+ *
+ * Every distinct product ID is given a small int ordinal, assigned in the
+ * order the IDs are first seen, and every distinct name a product has been
+ * sold under is given a name ordinal. A Sale stores the two ints instead of
+ * its own String references, so a long history refers to each ID and name
+ * once, and reports can group sales by product with an array indexed by
+ * ordinal instead of hashing and comparing ID strings.
+ *
+ * Name ordinals are per product version: when a product is renamed, its
+ * later sales get a new name ordinal while earlier sales keep the name they
+ * were sold under. Ordinals are never reused or removed, since the sales
+ * referring to them outlive the products.
+ *
+ * The dictionary is process-wide and never trimmed: it grows by one entry
+ * per product ID and name version ever sold, a few dozen bytes each plus
+ * the strings, whether or not the product is still in inventory. There is
+ * deliberately no cap, since a full dictionary would fail every later sale
+ * of a new or renamed product. Instead sales are checked before they are
+ * built, so rows the importer rejects add no entries. Reports should size
+ * per-scan structures to the products they meet, not to size().
+ *
+ * The dictionary is safe to use from any number of threads. Lookups of
+ * known IDs and of a product's latest name take no lock.
+ */
+public final class ProductDictionary {
+
+    //Ordinal of a null product ID
+    public static final int NO_PRODUCT = -1;
+
+    private static final ProductDictionary SHARED = new ProductDictionary();
+
+    /**
+     * A product ordinal paired with one of its names, the key of a name
+     * version.
+     */
+    private record NameKey(int product, String name) {}
+
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+
+    //Only read or written while holding the dictionary's lock
+    private final Map<NameKey, Integer> nameOrdinals = new HashMap<>();
+
+    //Written under the lock and published again through the volatile
+    //field, so lock-free readers see every entry assigned before them
+    private volatile String[] productIds = new String[64];
+    private volatile String[] names = new String[64];
+
+    //Latest name ordinal of each product, -1 before its first name; a stale
+    //read only sends nameOrdinal down the locked path
+    private volatile int[] latestNames = new int[64];
+
+    private int productCount;
+    private int nameCount;
+
+    /**
+     * @return the dictionary used by every Sale
+     */
+    public static ProductDictionary shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the ordinal of a product ID, assigning the next free one if
+     * the ID has not been seen before.
+     *
+     * @param productId the product ID
+     * @return the product's ordinal, or NO_PRODUCT if productId is null
+     */
+    public int ordinalOf(String productId) {
+        if (productId == null) {
+            return NO_PRODUCT;
+        }
+        Integer ordinal = ordinals.get(productId);
+        return ordinal != null ? ordinal : assign(productId);
+    }
+
+    /**
+     * Returns the ordinal of a product ID without assigning one.
+     *
+     * @param productId the product ID
+     * @return the product's ordinal, or NO_PRODUCT if no sale has
+     *         referenced the ID
+     */
+    public int find(String productId) {
+        if (productId == null) {
+            return NO_PRODUCT;
+        }
+        Integer ordinal = ordinals.get(productId);
+        return ordinal != null ? ordinal : NO_PRODUCT;
+    }
+
+    /**
+     * @param ordinal a product ordinal returned by this dictionary
+     * @return the product ID, or null for NO_PRODUCT
+     */
+    public String productId(int ordinal) {
+        return ordinal == NO_PRODUCT ? null : productIds[ordinal];
+    }
+
+    /**
+     * Returns the ordinal of one name of a product, assigning a new name
+     * version if the product has not been seen under that name before.
+     *
+     * @param product the product's ordinal
+     * @param name the name, may be null
+     * @return the name ordinal
+     */
+    public int nameOrdinal(int product, String name) {
+        if (product != NO_PRODUCT) {
+            int latest = latestNames[product];
+            if (latest >= 0 && Objects.equals(names[latest], name)) {
+                return latest;
+            }
+        }
+        synchronized (this) {
+            NameKey key = new NameKey(product, name);
+            Integer existing = nameOrdinals.get(key);
+            if (existing != null) {
+                setLatestName(product, existing);
+                return existing;
+            }
+            if (nameCount == names.length) {
+                names = Arrays.copyOf(names, nameCount * 2);
+            }
+            int ordinal = nameCount++;
+            String[] grown = names;
+            grown[ordinal] = name;
+            names = grown;
+            nameOrdinals.put(key, ordinal);
+            setLatestName(product, ordinal);
+            return ordinal;
+        }
+    }
+
+    /**
+     * @param nameOrdinal a name ordinal returned by this dictionary
+     * @return the name, may be null
+     */
+    public String name(int nameOrdinal) {
+        return names[nameOrdinal];
+    }
+
+    /**
+     * @return the number of product ordinals assigned so far, an upper
+     *         bound for arrays indexed by ordinal
+     */
+    public int size() {
+        return ordinals.size();
+    }
+
+    private synchronized int assign(String productId) {
+        Integer ordinal = ordinals.get(productId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        if (productCount == productIds.length) {
+            productIds = Arrays.copyOf(productIds, productCount * 2);
+            latestNames = Arrays.copyOf(latestNames, productCount * 2);
+        }
+        int assigned = productCount++;
+        String[] grownIds = productIds;
+        grownIds[assigned] = productId;
+        productIds = grownIds;
+        int[] grownNames = latestNames;
+        grownNames[assigned] = -1;
+        latestNames = grownNames;
+        ordinals.put(productId, assigned);
+        return assigned;
+    }
+
+    //called with the lock held
+    private void setLatestName(int product, int ordinal) {
+        if (product != NO_PRODUCT) {
+            int[] latest = latestNames;
+            latest[product] = ordinal;
+            latestNames = latest;
+        }
+    }
+}
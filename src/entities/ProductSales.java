@@ -0,0 +1,77 @@
+package entities;
+
+/**
+ * Aggregated sales figures for a single product.
+ *
+ * A ProductSales is built up by report code as sales are scanned, adding the
+ * amount and quantity of each sale of the product. It carries the product's
+ * identity alongside the totals so a result can be displayed or exported
+ * without looking the product up again.
+ */
+public class ProductSales {
+
+    //The identifier of the product these totals belong to.
+    private final String productId;
+
+    //The display name of the product.
+    private String productName;
+
+    //Sum of the total amounts of all counted sales.
+    private double totalRevenue;
+
+    //Sum of the quantities of all counted sales.
+    private long totalQuantity;
+
+    /**
+     * Constructs an empty aggregate for the given product.
+     *
+     * @param productId the identifier of the product
+     * @param productName the display name of the product
+     */
+    public ProductSales(String productId, String productName) {
+        this.productId = productId;
+        this.productName = productName;
+    }
+
+    /**
+     * Adds one sale's figures to the totals.
+     *
+     * @param amount the total amount of the sale
+     * @param quantity the number of units sold
+     */
+    public void add(double amount, long quantity) {
+        totalRevenue += amount;
+        totalQuantity += quantity;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public double getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "ProductSales[ID=%s, Name=%s, Revenue=%.2f, Quantity=%d]",
+            productId,
+            productName,
+            totalRevenue,
+            totalQuantity
+        );
+    }
+}
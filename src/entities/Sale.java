@@ -13,6 +13,10 @@ import java.util.UUID;
  * The sale stores denormalized data (product name, unit price) to preserve the
  * exact state at the time of sale, even if the product details change later in the
  * inventory. This follows the principle of transaction immutability for audit purposes
+ *
+ * The product ID and name are held as ordinals into the shared
+ * ProductDictionary rather than as String references, so every sale of a
+ * product shares one copy of its ID and of each name it was sold under.
 
  */
 public class Sale {
@@ -23,18 +27,22 @@ public class Sale {
      */
     private final UUID id;
 
+    //Dictionary holding the product IDs and names the ordinals refer to
+    private static final ProductDictionary DICTIONARY =
+        ProductDictionary.shared();
+
     /**
-     * The identifier of the product that was sold.
+     * Dictionary ordinal of the identifier of the product that was sold.
      * References the product in the inventory system.
      */
-    private final String productId;
+    private final int productOrdinal;
 
     /**
-     * The name of the product at the time of sale.
+     * Dictionary ordinal of the name of the product at the time of sale.
      * This is a denormalized snapshot that preserves historical accuracy
      * even if the product name changes in inventory.
      */
-    private String productName;
+    private int nameOrdinal;
 
     /**
      * The number of units sold in this transaction.
@@ -80,9 +88,38 @@ public class Sale {
         double unitPrice,
         LocalDateTime date
     ) {
-        this.id = UUID.randomUUID();
-        this.productId = productId;
-        this.productName = productName;
+        this(
+            UUID.randomUUID(),
+            productId,
+            productName,
+            quantity,
+            unitPrice,
+            date
+        );
+    }
+
+    /**
+     * Constructs a Sale with an existing identifier, used when restoring
+     * previously recorded transactions such as a bulk import.
+     *
+     * @param id the identifier the sale was originally recorded with
+     * @param productId the unique identifier of the product being sold
+     * @param productName the name of the product at the time of sale
+     * @param quantity the number of units sold
+     * @param unitPrice the price per unit at the time of sale
+     * @param date the timestamp of the sale
+     */
+    public Sale(
+        UUID id,
+        String productId,
+        String productName,
+        int quantity,
+        double unitPrice,
+        LocalDateTime date
+    ) {
+        this.id = id;
+        this.productOrdinal = DICTIONARY.ordinalOf(productId);
+        this.nameOrdinal = DICTIONARY.nameOrdinal(productOrdinal, productName);
         this.quantity = quantity;
         this.unitPrice = unitPrice;
         this.totalAmount = unitPrice * quantity;
@@ -94,15 +131,23 @@ public class Sale {
     }
 
     public String getProductId() {
-        return productId;
+        return DICTIONARY.productId(productOrdinal);
+    }
+
+    /**
+     * @return the ProductDictionary ordinal of the product, usable as an
+     *         array index when grouping sales by product
+     */
+    public int getProductOrdinal() {
+        return productOrdinal;
     }
 
     public String getProductName() {
-        return productName;
+        return DICTIONARY.name(nameOrdinal);
     }
 
     public void setProductName(String productName) {
-        this.productName = productName;
+        this.nameOrdinal = DICTIONARY.nameOrdinal(productOrdinal, productName);
     }
 
     public int getQuantity() {
@@ -155,7 +200,7 @@ public class Sale {
         return String.format(
             "Sale[ID=%s, Product=%s, Unit Price=%.2f, Quantity=%d, Total=%.2f, Date=%s]",
             id,
-            productName,
+            getProductName(),
             unitPrice,
             quantity,
             totalAmount,
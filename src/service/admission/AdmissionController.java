@@ -0,0 +1,322 @@
+package service.admission;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admission control in front of the services: bounded queues per
+ * OperationClass, drained by a fixed number of worker threads.
+ *
+ * A request is queued in its class's queue and its caller waits until a
+ * worker has run it. When the queue is full the request is rejected at once
+ * with RejectedExecutionException, so under overload callers fail fast
+ * instead of piling up unbounded work. Workers always take a queued sale
+ * before a queued report, and at most reportConcurrency workers run reports
+ * at a time. reportConcurrency must be below the number of workers, so at
+ * least one worker is always free for sales and sale latency does not grow
+ * with the report backlog.
+ *
+ * Requests made from a worker thread, such as a report reading the sale
+ * service through an admitted decorator, run inline instead of being queued
+ * behind the request that made them.
+ *
+ * Workers run requests concurrently, so the services behind the controller
+ * must be thread-safe, such as the sharded ones.
+ */
+public class AdmissionController implements AutoCloseable {
+
+    /**
+     * A queued request. The future is completed by the worker that runs it.
+     */
+    private static final class Request {
+
+        final Supplier<?> operation;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Request(Supplier<?> operation) {
+            this.operation = operation;
+        }
+    }
+
+    private final int reportConcurrency;
+    private final int[] capacity = new int[OperationClass.values().length];
+
+    //Queues and runningReports are only used while holding lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final ArrayDeque<Request> sales = new ArrayDeque<>();
+    private final ArrayDeque<Request> reports = new ArrayDeque<>();
+    private int runningReports;
+    private boolean closed;
+
+    //Indexed by OperationClass ordinal
+    private final AtomicLongArray admitted = new AtomicLongArray(
+        OperationClass.values().length
+    );
+    private final AtomicLongArray rejected = new AtomicLongArray(
+        OperationClass.values().length
+    );
+
+    private final Thread[] workers;
+
+    /**
+     * Starts a controller and its worker threads.
+     *
+     * @param concurrency the number of worker threads
+     * @param reportConcurrency the most workers running reports at once,
+     *        less than concurrency
+     * @param saleQueueCapacity the most sales waiting for a worker
+     * @param reportQueueCapacity the most reports waiting for a worker
+     * @throws IllegalArgumentException if concurrency is less than 2, a
+     *         capacity is less than 1, or reportConcurrency is not between 1
+     *         and concurrency - 1
+     */
+    public AdmissionController(
+        int concurrency,
+        int reportConcurrency,
+        int saleQueueCapacity,
+        int reportQueueCapacity
+    ) {
+        if (concurrency < 2) {
+            throw new IllegalArgumentException(
+                "Concurrency must be at least 2."
+            );
+        }
+        //one worker is always left for sales
+        if (reportConcurrency < 1 || reportConcurrency >= concurrency) {
+            throw new IllegalArgumentException(
+                "Report concurrency must be between 1 and " +
+                    (concurrency - 1) +
+                    "."
+            );
+        }
+        if (saleQueueCapacity < 1 || reportQueueCapacity < 1) {
+            throw new IllegalArgumentException(
+                "Queue capacities must be at least 1."
+            );
+        }
+        this.reportConcurrency = reportConcurrency;
+        capacity[OperationClass.SALE.ordinal()] = saleQueueCapacity;
+        capacity[OperationClass.REPORT.ordinal()] = reportQueueCapacity;
+        this.workers = new Thread[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            workers[i] = new Thread(this::work, "admission-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Runs the operation on a worker and returns its result.
+     *
+     * @param type the class of the request
+     * @param operation the operation to run
+     * @return the operation's result
+     * @throws RejectedExecutionException if the class's queue is full or
+     *         the controller is closed
+     * @throws RuntimeException whatever the operation threw
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T call(OperationClass type, Supplier<T> operation) {
+        if (isWorker()) {
+            return operation.get();
+        }
+        Request request = new Request(operation);
+        ArrayDeque<Request> queue = queueOf(type);
+        lock.lock();
+        try {
+            if (closed) {
+                throw new RejectedExecutionException(
+                    "Admission controller is closed."
+                );
+            }
+            if (queue.size() >= capacity[type.ordinal()]) {
+                rejected.incrementAndGet(type.ordinal());
+                throw new RejectedExecutionException(
+                    "Too many queued " +
+                        type.name().toLowerCase() +
+                        " requests, try again later."
+                );
+            }
+            queue.add(request);
+            admitted.incrementAndGet(type.ordinal());
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            return (T) request.result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the operation on a worker and waits for it to finish.
+     *
+     * @param type the class of the request
+     * @param operation the operation to run
+     * @throws RejectedExecutionException if the class's queue is full or
+     *         the controller is closed
+     * @throws RuntimeException whatever the operation threw
+     */
+    public void run(OperationClass type, Runnable operation) {
+        call(type, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * @param type a request class
+     * @return the number of requests of the class accepted so far
+     */
+    public long getAdmittedCount(OperationClass type) {
+        return admitted.get(type.ordinal());
+    }
+
+    /**
+     * @param type a request class
+     * @return the number of requests of the class rejected so far
+     */
+    public long getRejectedCount(OperationClass type) {
+        return rejected.get(type.ordinal());
+    }
+
+    /**
+     * @param type a request class
+     * @return the number of requests of the class waiting for a worker
+     */
+    public int getQueueLength(OperationClass type) {
+        lock.lock();
+        try {
+            return queueOf(type).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Prints the admitted and rejected counts of each request class.
+     */
+    public void display() {
+        System.out.println("\n=== ADMISSION ===");
+        for (OperationClass type : OperationClass.values()) {
+            System.out.printf(
+                "%s: Admitted=%d, Rejected=%d, Queued=%d%n",
+                type,
+                getAdmittedCount(type),
+                getRejectedCount(type),
+                getQueueLength(type)
+            );
+        }
+    }
+
+    /**
+     * Runs every request already queued, then stops the workers. Requests
+     * made after this are rejected.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        boolean interrupted = false;
+        for (Thread worker : workers) {
+            while (worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Request request;
+            boolean report;
+            lock.lock();
+            try {
+                while (true) {
+                    if (!sales.isEmpty()) {
+                        request = sales.poll();
+                        report = false;
+                        break;
+                    }
+                    if (
+                        !reports.isEmpty() &&
+                        runningReports < reportConcurrency
+                    ) {
+                        request = reports.poll();
+                        report = true;
+                        runningReports++;
+                        break;
+                    }
+                    if (closed && reports.isEmpty()) {
+                        //a report finishing wakes only one worker, so pass
+                        //the shutdown on to any still waiting for a slot
+                        workAvailable.signalAll();
+                        return;
+                    }
+                    workAvailable.awaitUninterruptibly();
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                request.result.complete(request.operation.get());
+            } catch (Throwable t) {
+                request.result.completeExceptionally(t);
+            }
+
+            if (report) {
+                lock.lock();
+                try {
+                    runningReports--;
+                    //a report may have been waiting for this slot
+                    workAvailable.signal();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private ArrayDeque<Request> queueOf(OperationClass type) {
+        return type == OperationClass.SALE ? sales : reports;
+    }
+
+    private boolean isWorker() {
+        Thread current = Thread.currentThread();
+        for (Thread worker : workers) {
+            if (worker == current) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,106 @@
+package service.admission;
+
+import entities.DoublyLinkedList;
+import entities.ProductSales;
+import service.report.ReportService;
+import service.view.SalesRate;
+
+import java.time.Duration;
+
+/**
+ * ReportService decorator that runs every method through an
+ * AdmissionController as an OperationClass.REPORT request.
+ *
+ * Reports wait behind every queued sale and throw
+ * RejectedExecutionException at once when the report queue is full, so a
+ * burst of reports is shed instead of delaying sales.
+ */
+public class AdmittedReportService implements ReportService {
+
+    private final ReportService delegate;
+    private final AdmissionController controller;
+
+    /**
+     * @param delegate the service that does the actual work; it should read
+     *        sales and inventory directly rather than through admitted
+     *        services, since it already runs on an admission worker
+     * @param controller the controller admitting the calls
+     * @throws NullPointerException if either parameter is null
+     */
+    public AdmittedReportService(
+        ReportService delegate,
+        AdmissionController controller
+    ) {
+        if (delegate == null) {
+            throw new NullPointerException("ReportService cannot be null");
+        }
+        if (controller == null) {
+            throw new NullPointerException(
+                "AdmissionController cannot be null"
+            );
+        }
+        this.delegate = delegate;
+        this.controller = controller;
+    }
+
+    @Override
+    public int getTotalNumberOfProducts() {
+        return controller.call(
+            OperationClass.REPORT,
+            delegate::getTotalNumberOfProducts
+        );
+    }
+
+    @Override
+    public double getTotalSalesRevenue() {
+        return controller.call(
+            OperationClass.REPORT,
+            delegate::getTotalSalesRevenue
+        );
+    }
+
+    @Override
+    public void displayProductWithHighestSales() {
+        controller.run(
+            OperationClass.REPORT,
+            delegate::displayProductWithHighestSales
+        );
+    }
+
+    @Override
+    public ProductSales getProductWithHighestSales() {
+        return controller.call(
+            OperationClass.REPORT,
+            delegate::getProductWithHighestSales
+        );
+    }
+
+    @Override
+    public DoublyLinkedList getOutOfStockProducts() {
+        return controller.call(
+            OperationClass.REPORT,
+            delegate::getOutOfStockProducts
+        );
+    }
+
+    @Override
+    public DoublyLinkedList getHeavyHitters(int limit) {
+        return controller.call(OperationClass.REPORT, () ->
+            delegate.getHeavyHitters(limit)
+        );
+    }
+
+    @Override
+    public long estimateDistinctProductsSold(Duration window) {
+        return controller.call(OperationClass.REPORT, () ->
+            delegate.estimateDistinctProductsSold(window)
+        );
+    }
+
+    @Override
+    public SalesRate getSalesRate(Duration window) {
+        return controller.call(OperationClass.REPORT, () ->
+            delegate.getSalesRate(window)
+        );
+    }
+}
@@ -0,0 +1,91 @@
+package service.admission;
+
+import entities.DoublyLinkedList;
+import entities.Sale;
+import service.sale.SaleService;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * SaleService decorator that runs every method through an
+ * AdmissionController as an OperationClass.SALE request.
+ *
+ * Calls block until a worker has run them and throw
+ * RejectedExecutionException at once when the sale queue is full.
+ */
+public class AdmittedSaleService implements SaleService {
+
+    private final SaleService delegate;
+    private final AdmissionController controller;
+
+    /**
+     * @param delegate the service that does the actual work
+     * @param controller the controller admitting the calls
+     * @throws NullPointerException if either parameter is null
+     */
+    public AdmittedSaleService(
+        SaleService delegate,
+        AdmissionController controller
+    ) {
+        if (delegate == null) {
+            throw new NullPointerException("SaleService cannot be null");
+        }
+        if (controller == null) {
+            throw new NullPointerException(
+                "AdmissionController cannot be null"
+            );
+        }
+        this.delegate = delegate;
+        this.controller = controller;
+    }
+
+    @Override
+    public Sale recordSale(String productId, int quantity) {
+        return controller.call(OperationClass.SALE, () ->
+            delegate.recordSale(productId, quantity)
+        );
+    }
+
+    @Override
+    public void addSales(DoublyLinkedList sales) {
+        controller.run(OperationClass.SALE, () -> delegate.addSales(sales));
+    }
+
+    @Override
+    public void displayAllSales() {
+        controller.run(OperationClass.SALE, delegate::displayAllSales);
+    }
+
+    @Override
+    public DoublyLinkedList getAllSales() {
+        return controller.call(OperationClass.SALE, delegate::getAllSales);
+    }
+
+    @Override
+    public void forEachSale(Consumer<Sale> action) {
+        controller.run(OperationClass.SALE, () -> delegate.forEachSale(action));
+    }
+
+    @Override
+    public void forEachSaleBetween(
+        LocalDateTime from,
+        LocalDateTime to,
+        Consumer<Sale> action
+    ) {
+        controller.run(OperationClass.SALE, () ->
+            delegate.forEachSaleBetween(from, to, action)
+        );
+    }
+
+    @Override
+    public int getSaleCount() {
+        return controller.call(OperationClass.SALE, delegate::getSaleCount);
+    }
+
+    //not admitted, it is a field read made by every cached report
+    @Override
+    public long getVersion() {
+        return delegate.getVersion();
+    }
+}
@@ -0,0 +1,10 @@
+package service.admission;
+
+/**
+ * Classes of requests admitted by an AdmissionController, in priority order:
+ * a free worker always takes a queued sale before a queued report.
+ */
+public enum OperationClass {
+    SALE,
+    REPORT,
+}
@@ -0,0 +1,60 @@
+package service.archive;
+
+import entities.Sale;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decoded archive pages, least recently used first out.
+ *
+ * A page is keyed by its segment's position in the archive and its own
+ * position in the segment. Holding at most capacity pages bounds the
+ * decoded history in memory by the working set of recent scans, however
+ * large the archive on disk grows. Not thread-safe; the archive serializes
+ * access like its other reads.
+ */
+final class PageCache {
+
+    private final int capacity;
+    private final LinkedHashMap<Long, Sale[]> pages;
+
+    /**
+     * @param capacity the most pages kept decoded
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    PageCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(
+                "Page cache capacity must be at least 1."
+            );
+        }
+        this.capacity = capacity;
+        //access order, so iteration starts at the least recently used page
+        this.pages = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Sale[]> e) {
+                return size() > PageCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the decoded page, or null if it is not cached
+     */
+    Sale[] get(int segment, int page) {
+        return pages.get(key(segment, page));
+    }
+
+    /**
+     * Caches a decoded page, evicting the least recently used one if the
+     * cache is full.
+     */
+    void put(int segment, int page, Sale[] sales) {
+        pages.put(key(segment, page), sales);
+    }
+
+    private static long key(int segment, int page) {
+        return ((long) segment << 32) | (page & 0xFFFFFFFFL);
+    }
+}
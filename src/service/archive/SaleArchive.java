@@ -0,0 +1,296 @@
+package service.archive;
+
+import entities.ProductSales;
+import entities.Sale;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Cold storage for sales history: a directory of immutable segment files,
+ * each holding a run of sales in chronological order split into fixed-size
+ * pages.
+ *
+ * Every segment carries a header with its earliest and latest sale date,
+ * per-product totals and the date range of each page. The headers are kept
+ * in memory, so totals are answered without reading any file, and time
+ * range or product scans skip every segment and page whose header shows it
+ * cannot match. Opening the archive reads the headers alone, one per
+ * segment, so it costs time in the number of segments rather than sales;
+ * no sale is decoded until a scan needs its page. Views registered on the
+ * owning SaleService are the exception: they are rebuilt by replaying every
+ * archived sale.
+ *
+ * Decoded pages are kept in an LRU cache of a fixed number of pages, so
+ * memory follows the pages recent scans used rather than the size of the
+ * archive. Scans over the whole history read pages already cached but do
+ * not add new ones, so a full pass does not push out the working set of
+ * the range and product scans.
+ *
+ * Segments are named segment-NNNNNNNNNN.sales in the order they are
+ * written, and an archive opened on an existing directory picks them up in
+ * that order. Appending a segment and reading are not thread-safe; the
+ * owning SaleService serializes them like its other operations.
+ */
+public class SaleArchive {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".sales";
+
+    //Default number of decoded pages kept, about 55,000 sales
+    public static final int DEFAULT_CACHED_PAGES = 64;
+
+    private final Path directory;
+    private final List<SaleSegment> segments = new ArrayList<>();
+    private final PageCache pages;
+    private int saleCount;
+
+    /**
+     * Opens the archive in the given directory, keeping up to
+     * DEFAULT_CACHED_PAGES pages decoded.
+     *
+     * @param directory the directory holding the segment files
+     * @throws IOException if the directory or a segment cannot be read
+     * @throws NullPointerException if directory is null
+     */
+    public SaleArchive(Path directory) throws IOException {
+        this(directory, DEFAULT_CACHED_PAGES);
+    }
+
+    /**
+     * Opens the archive in the given directory, creating the directory if it
+     * does not exist and reading the header of every segment already in it.
+     *
+     * @param directory the directory holding the segment files
+     * @param cachedPages the most pages kept decoded in memory
+     * @throws IOException if the directory or a segment cannot be read
+     * @throws NullPointerException if directory is null
+     * @throws IllegalArgumentException if cachedPages is less than 1
+     */
+    public SaleArchive(Path directory, int cachedPages) throws IOException {
+        if (directory == null) {
+            throw new NullPointerException("Archive directory cannot be null");
+        }
+        this.pages = new PageCache(cachedPages);
+        this.directory = Files.createDirectories(directory);
+
+        List<Path> files = new ArrayList<>();
+        try (
+            DirectoryStream<Path> stream = Files.newDirectoryStream(
+                directory,
+                PREFIX + "*" + SUFFIX
+            )
+        ) {
+            stream.forEach(files::add);
+        }
+        //zero padded names sort in the order the segments were written
+        Collections.sort(files);
+        for (Path file : files) {
+            SaleSegment segment = SaleSegment.open(file);
+            segments.add(segment);
+            saleCount += segment.getSaleCount();
+        }
+    }
+
+    /**
+     * Writes the sales to a new segment at the end of the archive.
+     *
+     * @param sales the sales to archive, oldest first and all newer than
+     *        the sales already archived
+     * @param count the number of sales to take from the array
+     * @throws IOException if the segment cannot be written
+     * @throws IllegalArgumentException if count is not positive
+     */
+    public void append(Sale[] sales, int count) throws IOException {
+        if (count <= 0) {
+            throw new IllegalArgumentException(
+                "A segment must hold at least one sale."
+            );
+        }
+        Path file = directory.resolve(
+            String.format("%s%010d%s", PREFIX, segments.size(), SUFFIX)
+        );
+        SaleSegment segment = SaleSegment.write(file, sales, count);
+        segments.add(segment);
+        saleCount += count;
+    }
+
+    /**
+     * Passes every archived sale, oldest first, to the action.
+     *
+     * @param action the action to run for each sale
+     * @throws IOException if a segment cannot be read
+     */
+    public void forEachSale(Consumer<Sale> action) throws IOException {
+        for (int s = 0; s < segments.size(); s++) {
+            SaleSegment segment = segments.get(s);
+            if (!segment.isPaged()) {
+                segment.forEachSale(action);
+                continue;
+            }
+            for (int p = 0; p < segment.getPageCount(); p++) {
+                for (Sale sale : page(s, p, false)) {
+                    action.accept(sale);
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes every archived sale dated in [from, to), oldest first, to the
+     * action. Segments and pages entirely outside the range are not read.
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @param action the action to run for each matching sale
+     * @throws IOException if a segment cannot be read
+     */
+    public void forEachSale(
+        LocalDateTime from,
+        LocalDateTime to,
+        Consumer<Sale> action
+    ) throws IOException {
+        Consumer<Sale> inRange = sale -> {
+            LocalDateTime date = sale.getDate();
+            if (!date.isBefore(from) && date.isBefore(to)) {
+                action.accept(sale);
+            }
+        };
+        for (int s = 0; s < segments.size(); s++) {
+            SaleSegment segment = segments.get(s);
+            if (!segment.overlaps(from, to)) {
+                continue;
+            }
+            if (!segment.isPaged()) {
+                segment.forEachSale(inRange);
+                continue;
+            }
+            for (int p = 0; p < segment.getPageCount(); p++) {
+                if (!segment.pageOverlaps(p, from, to)) {
+                    continue;
+                }
+                for (Sale sale : page(s, p, true)) {
+                    inRange.accept(sale);
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes every archived sale of one product, oldest first, to the
+     * action. Segments with no sale of the product are not read.
+     *
+     * @param productId the product whose sales to visit
+     * @param action the action to run for each matching sale
+     * @throws IOException if a segment cannot be read
+     */
+    public void forEachSaleOf(String productId, Consumer<Sale> action)
+        throws IOException {
+        Consumer<Sale> ofProduct = sale -> {
+            if (productId.equals(sale.getProductId())) {
+                action.accept(sale);
+            }
+        };
+        for (int s = 0; s < segments.size(); s++) {
+            SaleSegment segment = segments.get(s);
+            if (!segment.contains(productId)) {
+                continue;
+            }
+            if (!segment.isPaged()) {
+                segment.forEachSale(ofProduct);
+                continue;
+            }
+            for (int p = 0; p < segment.getPageCount(); p++) {
+                for (Sale sale : page(s, p, true)) {
+                    ofProduct.accept(sale);
+                }
+            }
+        }
+    }
+
+    //the page from the cache, or decoded and cached only if admit is set
+    private Sale[] page(int segment, int page, boolean admit)
+        throws IOException {
+        Sale[] sales = pages.get(segment, page);
+        if (sales == null) {
+            sales = segments.get(segment).readPage(page);
+            if (admit) {
+                pages.put(segment, page, sales);
+            }
+        }
+        return sales;
+    }
+
+    /**
+     * Returns the archived totals of one product, from the segment headers
+     * alone.
+     *
+     * @param productId the product to total
+     * @return the totals, or null if the product has no archived sales
+     */
+    public ProductSales getProductTotals(String productId) {
+        ProductSales result = null;
+        for (SaleSegment segment : segments) {
+            ProductSales totals = segment.getProducts().get(productId);
+            if (totals == null) {
+                continue;
+            }
+            if (result == null) {
+                result = new ProductSales(productId, totals.getProductName());
+            }
+            result.setProductName(totals.getProductName());
+            result.add(totals.getTotalRevenue(), totals.getTotalQuantity());
+        }
+        return result;
+    }
+
+    /**
+     * @return the total amount of all archived sales, from the segment
+     *         headers alone
+     */
+    public double getTotalRevenue() {
+        double revenue = 0;
+        for (SaleSegment segment : segments) {
+            revenue += segment.getRevenue();
+        }
+        return revenue;
+    }
+
+    /**
+     * @return the date of the newest archived sale, or null if the archive
+     *         is empty
+     */
+    public LocalDateTime getLatestDate() {
+        return segments.isEmpty()
+            ? null
+            : segments.get(segments.size() - 1).getMaxDate();
+    }
+
+    /**
+     * @return the number of archived sales
+     */
+    public int getSaleCount() {
+        return saleCount;
+    }
+
+    /**
+     * @return the number of segment files
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * @return the directory holding the segment files
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+}
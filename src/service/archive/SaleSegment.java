@@ -0,0 +1,655 @@
+package service.archive;
+
+import entities.ProductSales;
+import entities.Sale;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * One immutable file of archived sales.
+ *
+ * File layout, written with DataOutputStream:
+ *
+ *   MAGIC, FORMAT_VERSION, header length
+ *   header - sale count, earliest and latest date, revenue, then one summary
+ *   per product (id, name, revenue, quantity), then one entry per page
+ *   (sale count, earliest and latest date, decoded and compressed length)
+ *   body - the compressed pages in order
+ *
+ * A page holds its sale count followed by that many sales oldest first,
+ * at most PAGE_SIZE bytes, and is compressed with Deflater on its own.
+ * The page offsets are summed from the lengths in the header, so the n-th
+ * page is found without reading the body, and is inflated and decoded
+ * without touching the pages before it.
+ *
+ * Opening a segment reads only the header, which is kept in memory. The
+ * body is memory mapped the first time a page is read, and pages are read
+ * one at a time, so a query whose time range or product the header rules
+ * out never touches the body and one that does touches only the pages it
+ * needs. Caching decoded pages is left to the archive.
+ *
+ * Older segments can still be opened: format 2 pages are stored
+ * uncompressed and zero padded to PAGE_SIZE, and format 1 segments have a
+ * GZIP compressed body with no pages, decompressed in full on every scan.
+ */
+final class SaleSegment {
+
+    //"SLSG"
+    static final int MAGIC = 0x534C5347;
+    static final short FORMAT_VERSION = 3;
+
+    //Older formats, still readable: a GZIP body without pages, and
+    //uncompressed pages padded to PAGE_SIZE
+    private static final short GZIP_FORMAT_VERSION = 1;
+    private static final short PADDED_FORMAT_VERSION = 2;
+
+    //Most bytes in a page before it is compressed
+    static final int PAGE_SIZE = 1 << 16;
+
+    //Bytes before the header: magic, format version and header length
+    private static final int PREAMBLE_LENGTH = 10;
+
+    //Bytes at the start of a page holding its sale count
+    private static final int PAGE_HEADER_LENGTH = 4;
+
+    //Fixed part of an encoded sale: id, string lengths, quantity, unit
+    //price, total amount and date
+    private static final int FIXED_SALE_LENGTH = 16 + 2 + 2 + 4 + 8 + 8 + 12;
+
+    //Encoded length of a null product name
+    private static final int NULL_NAME = 0xFFFF;
+
+    //Buffer size for reading and writing whole files
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path file;
+    private final short version;
+    private final long bodyOffset;
+    private final int saleCount;
+    private final LocalDateTime minDate;
+    private final LocalDateTime maxDate;
+    private final double revenue;
+    private final Map<String, ProductSales> products;
+
+    //Page index from the header, empty in format 1
+    private final int[] pageCounts;
+    private final LocalDateTime[] pageMinDates;
+    private final LocalDateTime[] pageMaxDates;
+
+    //Where each page starts in the body, its stored length there and its
+    //length once inflated; sizes are unused in format 2
+    private final int[] pageOffsets;
+    private final int[] pageLengths;
+    private final int[] pageSizes;
+
+    //The mapped body, null until a page is first read
+    private ByteBuffer body;
+
+    private SaleSegment(
+        Path file,
+        short version,
+        long bodyOffset,
+        int saleCount,
+        LocalDateTime minDate,
+        LocalDateTime maxDate,
+        double revenue,
+        Map<String, ProductSales> products,
+        int[] pageCounts,
+        LocalDateTime[] pageMinDates,
+        LocalDateTime[] pageMaxDates,
+        int[] pageLengths,
+        int[] pageSizes
+    ) {
+        this.file = file;
+        this.version = version;
+        this.bodyOffset = bodyOffset;
+        this.saleCount = saleCount;
+        this.minDate = minDate;
+        this.maxDate = maxDate;
+        this.revenue = revenue;
+        this.products = products;
+        this.pageCounts = pageCounts;
+        this.pageMinDates = pageMinDates;
+        this.pageMaxDates = pageMaxDates;
+        this.pageLengths = pageLengths;
+        this.pageSizes = pageSizes;
+        this.pageOffsets = new int[pageLengths.length];
+        for (int p = 1; p < pageLengths.length; p++) {
+            pageOffsets[p] = pageOffsets[p - 1] + pageLengths[p - 1];
+        }
+    }
+
+    /**
+     * Writes the sales to a new segment file. The file is written under a
+     * temporary name and moved into place, so a crash never leaves a partial
+     * segment behind under the final name.
+     *
+     * @param file the segment file to create
+     * @param sales the sales to archive, oldest first
+     * @param count the number of sales to take from the array
+     * @return the new segment
+     * @throws IOException if the file cannot be written, or a sale's
+     *         product ID and name are too long to fit in a page
+     */
+    static SaleSegment write(Path file, Sale[] sales, int count)
+        throws IOException {
+        LocalDateTime min = sales[0].getDate();
+        LocalDateTime max = min;
+        double revenue = 0;
+        Map<String, ProductSales> products = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            Sale sale = sales[i];
+            if (sale.getDate().isBefore(min)) {
+                min = sale.getDate();
+            }
+            if (sale.getDate().isAfter(max)) {
+                max = sale.getDate();
+            }
+            revenue += sale.getTotalAmount();
+            ProductSales totals = products.computeIfAbsent(
+                sale.getProductId(),
+                id -> new ProductSales(id, sale.getProductName())
+            );
+            //the latest name wins, as in the scanning reports
+            totals.setProductName(sale.getProductName());
+            totals.add(sale.getTotalAmount(), sale.getQuantity());
+        }
+
+        //first pass: split the sales into pages, so the header can index
+        //them before the body is written
+        int[] pageStarts = new int[16];
+        int pageCount = 0;
+        int used = PAGE_SIZE;
+        for (int i = 0; i < count; i++) {
+            int length = encodedLength(sales[i]);
+            if (length > PAGE_SIZE - PAGE_HEADER_LENGTH) {
+                throw new IOException(
+                    "Sale " + sales[i].getId() + " is too large for a page"
+                );
+            }
+            if (used + length > PAGE_SIZE) {
+                if (pageCount == pageStarts.length) {
+                    pageStarts = Arrays.copyOf(pageStarts, pageCount * 2);
+                }
+                pageStarts[pageCount++] = i;
+                used = PAGE_HEADER_LENGTH;
+            }
+            used += length;
+        }
+        int[] pageCounts = new int[pageCount];
+        LocalDateTime[] pageMinDates = new LocalDateTime[pageCount];
+        LocalDateTime[] pageMaxDates = new LocalDateTime[pageCount];
+        for (int p = 0; p < pageCount; p++) {
+            int start = pageStarts[p];
+            int end = p + 1 < pageCount ? pageStarts[p + 1] : count;
+            pageCounts[p] = end - start;
+            pageMinDates[p] = sales[start].getDate();
+            pageMaxDates[p] = sales[start].getDate();
+            for (int i = start + 1; i < end; i++) {
+                LocalDateTime date = sales[i].getDate();
+                if (date.isBefore(pageMinDates[p])) {
+                    pageMinDates[p] = date;
+                }
+                if (date.isAfter(pageMaxDates[p])) {
+                    pageMaxDates[p] = date;
+                }
+            }
+        }
+
+        //compressed before the header is written, since the header holds
+        //each page's length; the body is a fraction of the sales in memory
+        int[] pageLengths = new int[pageCount];
+        int[] pageSizes = new int[pageCount];
+        ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(
+            BUFFER_SIZE
+        );
+        Deflater deflater = new Deflater();
+        try {
+            ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+            byte[] compressed = new byte[BUFFER_SIZE];
+            for (int p = 0; p < pageCount; p++) {
+                page.clear();
+                page.putInt(pageCounts[p]);
+                for (int i = 0; i < pageCounts[p]; i++) {
+                    writeSale(page, sales[pageStarts[p] + i]);
+                }
+                pageSizes[p] = page.position();
+                int before = bodyBytes.size();
+                deflater.reset();
+                deflater.setInput(page.array(), 0, page.position());
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(compressed);
+                    bodyBytes.write(compressed, 0, n);
+                }
+                pageLengths[p] = bodyBytes.size() - before;
+            }
+        } finally {
+            deflater.end();
+        }
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream(
+            64 + products.size() * 48 + pageCount * 36
+        );
+        try (DataOutputStream header = new DataOutputStream(headerBytes)) {
+            header.writeInt(count);
+            writeDate(header, min);
+            writeDate(header, max);
+            header.writeDouble(revenue);
+            header.writeInt(products.size());
+            for (ProductSales totals : products.values()) {
+                header.writeUTF(totals.getProductId());
+                writeNullable(header, totals.getProductName());
+                header.writeDouble(totals.getTotalRevenue());
+                header.writeLong(totals.getTotalQuantity());
+            }
+            header.writeInt(pageCount);
+            for (int p = 0; p < pageCount; p++) {
+                header.writeInt(pageCounts[p]);
+                writeDate(header, pageMinDates[p]);
+                writeDate(header, pageMaxDates[p]);
+                header.writeInt(pageSizes[p]);
+                header.writeInt(pageLengths[p]);
+            }
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (
+            OutputStream raw = new BufferedOutputStream(
+                Files.newOutputStream(temp),
+                BUFFER_SIZE
+            )
+        ) {
+            DataOutputStream out = new DataOutputStream(raw);
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeInt(headerBytes.size());
+            headerBytes.writeTo(out);
+            bodyBytes.writeTo(out);
+            out.flush();
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+
+        return new SaleSegment(
+            file,
+            FORMAT_VERSION,
+            PREAMBLE_LENGTH + headerBytes.size(),
+            count,
+            min,
+            max,
+            revenue,
+            products,
+            pageCounts,
+            pageMinDates,
+            pageMaxDates,
+            pageLengths,
+            pageSizes
+        );
+    }
+
+    /**
+     * Opens an existing segment, reading only its header.
+     *
+     * @param file the segment file
+     * @return the segment
+     * @throws IOException if the file cannot be read or is not a segment
+     */
+    static SaleSegment open(Path file) throws IOException {
+        try (
+            DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file))
+            )
+        ) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a sales segment: " + file);
+            }
+            short version = in.readShort();
+            if (
+                version != FORMAT_VERSION &&
+                version != PADDED_FORMAT_VERSION &&
+                version != GZIP_FORMAT_VERSION
+            ) {
+                throw new IOException(
+                    "Unsupported segment format " + version + ": " + file
+                );
+            }
+            byte[] headerBytes = new byte[in.readInt()];
+            in.readFully(headerBytes);
+
+            DataInputStream header = new DataInputStream(
+                new ByteArrayInputStream(headerBytes)
+            );
+            int count = header.readInt();
+            LocalDateTime min = readDate(header);
+            LocalDateTime max = readDate(header);
+            double revenue = header.readDouble();
+            int productCount = header.readInt();
+            Map<String, ProductSales> products = new LinkedHashMap<>(
+                productCount * 2
+            );
+            for (int i = 0; i < productCount; i++) {
+                ProductSales totals = new ProductSales(
+                    header.readUTF(),
+                    readNullable(header)
+                );
+                totals.add(header.readDouble(), header.readLong());
+                products.put(totals.getProductId(), totals);
+            }
+            int pageCount = version == GZIP_FORMAT_VERSION
+                ? 0
+                : header.readInt();
+            int[] pageCounts = new int[pageCount];
+            LocalDateTime[] pageMinDates = new LocalDateTime[pageCount];
+            LocalDateTime[] pageMaxDates = new LocalDateTime[pageCount];
+            int[] pageLengths = new int[pageCount];
+            int[] pageSizes = new int[pageCount];
+            for (int p = 0; p < pageCount; p++) {
+                pageCounts[p] = header.readInt();
+                pageMinDates[p] = readDate(header);
+                pageMaxDates[p] = readDate(header);
+                if (version == PADDED_FORMAT_VERSION) {
+                    pageLengths[p] = PAGE_SIZE;
+                } else {
+                    pageSizes[p] = header.readInt();
+                    pageLengths[p] = header.readInt();
+                }
+            }
+            return new SaleSegment(
+                file,
+                version,
+                PREAMBLE_LENGTH + headerBytes.length,
+                count,
+                min,
+                max,
+                revenue,
+                products,
+                pageCounts,
+                pageMinDates,
+                pageMaxDates,
+                pageLengths,
+                pageSizes
+            );
+        }
+    }
+
+    /**
+     * @return true if the body is split into pages read with readPage,
+     *         false for a format 1 segment read with forEachSale
+     */
+    boolean isPaged() {
+        return version != GZIP_FORMAT_VERSION;
+    }
+
+    int getPageCount() {
+        return pageCounts.length;
+    }
+
+    /**
+     * @param page the page number
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @return false if no sale in the page can fall in the range
+     */
+    boolean pageOverlaps(int page, LocalDateTime from, LocalDateTime to) {
+        return (
+            !pageMaxDates[page].isBefore(from) &&
+            pageMinDates[page].isBefore(to)
+        );
+    }
+
+    /**
+     * Inflates and decodes one page, mapping the body first if no page has
+     * been read yet.
+     *
+     * @param page the page number
+     * @return the sales of the page, oldest first
+     * @throws IOException if the file cannot be mapped or the page is
+     *         corrupt
+     */
+    Sale[] readPage(int page) throws IOException {
+        if (body == null) {
+            int last = pageCounts.length - 1;
+            try (FileChannel channel = FileChannel.open(file)) {
+                //the mapping stays valid once the channel is closed
+                body = channel.map(
+                    FileChannel.MapMode.READ_ONLY,
+                    bodyOffset,
+                    last < 0 ? 0 : pageOffsets[last] + pageLengths[last]
+                );
+            }
+        }
+        //a view of its own, so decoding leaves the shared position alone
+        ByteBuffer in = body.duplicate();
+        in.position(pageOffsets[page]);
+        in.limit(pageOffsets[page] + pageLengths[page]);
+        if (version != PADDED_FORMAT_VERSION) {
+            in = inflate(in, pageSizes[page], page);
+        }
+        Sale[] sales = new Sale[in.getInt()];
+        for (int i = 0; i < sales.length; i++) {
+            sales[i] = readSale(in);
+        }
+        return sales;
+    }
+
+    private ByteBuffer inflate(ByteBuffer compressed, int size, int page)
+        throws IOException {
+        byte[] decoded = new byte[size];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int length = 0;
+            while (length < size && !inflater.finished()) {
+                int n = inflater.inflate(decoded, length, size - length);
+                if (n == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != size || !inflater.finished()) {
+                throw new IOException("Truncated page " + page + ": " + file);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt page " + page + ": " + file, e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(decoded);
+    }
+
+    /**
+     * Decompresses the body of a format 1 segment and passes every sale,
+     * oldest first, to the action.
+     *
+     * @param action the action to run for each sale
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the segment is paged
+     */
+    void forEachSale(Consumer<Sale> action) throws IOException {
+        if (isPaged()) {
+            throw new IllegalStateException("Paged segments are read by page.");
+        }
+        try (InputStream raw = Files.newInputStream(file)) {
+            raw.skipNBytes(bodyOffset);
+            DataInputStream in = new DataInputStream(
+                new BufferedInputStream(
+                    new GZIPInputStream(raw, BUFFER_SIZE),
+                    BUFFER_SIZE
+                )
+            );
+            for (int i = 0; i < saleCount; i++) {
+                action.accept(readGzipSale(in));
+            }
+        }
+    }
+
+    /**
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @return false if no sale in this segment can fall in the range
+     */
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return !maxDate.isBefore(from) && minDate.isBefore(to);
+    }
+
+    /**
+     * @param productId the product to look for
+     * @return false if no sale in this segment is of the product
+     */
+    boolean contains(String productId) {
+        return products.containsKey(productId);
+    }
+
+    int getSaleCount() {
+        return saleCount;
+    }
+
+    LocalDateTime getMaxDate() {
+        return maxDate;
+    }
+
+    double getRevenue() {
+        return revenue;
+    }
+
+    /**
+     * @return the per-product totals of this segment, keyed by product id
+     */
+    Map<String, ProductSales> getProducts() {
+        return Collections.unmodifiableMap(products);
+    }
+
+    private static int encodedLength(Sale sale) {
+        String name = sale.getProductName();
+        return (
+            FIXED_SALE_LENGTH +
+            utf8Length(sale.getProductId()) +
+            (name == null ? 0 : utf8Length(name))
+        );
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static void writeSale(ByteBuffer out, Sale sale) {
+        out.putLong(sale.getId().getMostSignificantBits());
+        out.putLong(sale.getId().getLeastSignificantBits());
+        writeString(out, sale.getProductId());
+        writeString(out, sale.getProductName());
+        out.putInt(sale.getQuantity());
+        out.putDouble(sale.getUnitPrice());
+        out.putDouble(sale.getTotalAmount());
+        out.putLong(sale.getDate().toEpochSecond(ZoneOffset.UTC));
+        out.putInt(sale.getDate().getNano());
+    }
+
+    private static Sale readSale(ByteBuffer in) {
+        Sale sale = new Sale(
+            new UUID(in.getLong(), in.getLong()),
+            readString(in),
+            readString(in),
+            in.getInt(),
+            in.getDouble(),
+            null
+        );
+        //stored rather than recomputed, it may have been set explicitly
+        sale.setTotalAmount(in.getDouble());
+        sale.setDate(
+            LocalDateTime.ofEpochSecond(
+                in.getLong(),
+                in.getInt(),
+                ZoneOffset.UTC
+            )
+        );
+        return sale;
+    }
+
+    //unsigned length then UTF-8 bytes, NULL_NAME as the length of null
+    private static void writeString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) NULL_NAME);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length == NULL_NAME) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Sale readGzipSale(DataInputStream in) throws IOException {
+        Sale sale = new Sale(
+            new UUID(in.readLong(), in.readLong()),
+            in.readUTF(),
+            readNullable(in),
+            in.readInt(),
+            in.readDouble(),
+            null
+        );
+        sale.setTotalAmount(in.readDouble());
+        sale.setDate(readDate(in));
+        return sale;
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDateTime date)
+        throws IOException {
+        out.writeLong(date.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(date.getNano());
+    }
+
+    private static LocalDateTime readDate(DataInputStream in)
+        throws IOException {
+        return LocalDateTime.ofEpochSecond(
+            in.readLong(),
+            in.readInt(),
+            ZoneOffset.UTC
+        );
+    }
+
+    private static void writeNullable(DataOutputStream out, String value)
+        throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
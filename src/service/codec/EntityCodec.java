@@ -0,0 +1,478 @@
+package service.codec;
+
+import entities.Product;
+import entities.Sale;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Compact, versioned binary encoding of Product and Sale records, read from
+ * and written to ByteBuffers so the same bytes serve files, memory-mapped
+ * pages and network frames.
+ *
+ * Every record is framed as:
+ *
+ *   version - one byte, FORMAT_VERSION
+ *   type - one byte, PRODUCT or SALE
+ *   length - varint byte length of the fields that follow
+ *   fields - the record's fields, in the order below
+ *
+ * Fields:
+ *
+ *   PRODUCT - id, name, price, quantity
+ *   SALE - id, productId, productName, quantity, unitPrice, totalAmount,
+ *   date
+ *
+ * Numbers are fixed width and big-endian: ints 4 bytes, doubles 8 bytes.
+ * A UUID is its two longs; a date is its epoch second, counted as if the
+ * local date-time were UTC, and its nanosecond, with Long.MIN_VALUE as the
+ * second of a null date. Strings are UTF-8 preceded by a varint length;
+ * names, which may be null, store the length plus one and 0 for null.
+ * Varints are unsigned LEB128: seven bits per byte, low bits first, the
+ * high bit set on every byte but the last.
+ *
+ * The length lets a reader skip fields appended by a later version of the
+ * same format: decoding reads the fields it knows and moves past the rest.
+ * A change that existing readers could not skip needs a new version byte.
+ *
+ * Encoding writes straight into the caller's buffer, allocating nothing,
+ * and checks the room needed before writing anything. Decoding allocates
+ * only the decoded record and its strings, UUID and date.
+ *
+ * Protocols that frame their own fields around records, such as the
+ * replication change stream, write bare strings with encodeString, in the
+ * same encoding as a record's string fields. Archive segments keep their
+ * own record layout, since segment files already written must stay
+ * readable.
+ */
+public final class EntityCodec {
+
+    public static final byte FORMAT_VERSION = 1;
+
+    //Record types
+    public static final byte PRODUCT = 1;
+    public static final byte SALE = 2;
+
+    //Bytes before the length: version and type
+    private static final int TAG_LENGTH = 2;
+
+    //Epoch second stored for a null date
+    private static final long NULL_DATE = Long.MIN_VALUE;
+
+    //Fixed part of the fields: price, quantity for a product; id,
+    //quantity, unit price, total amount and date for a sale
+    private static final int PRODUCT_FIXED_LENGTH = 8 + 4;
+    private static final int SALE_FIXED_LENGTH = 16 + 4 + 8 + 8 + 12;
+
+    private EntityCodec() {}
+
+    /**
+     * @param product the product to measure
+     * @return the number of bytes encode writes for the product
+     * @throws NullPointerException if product or its id is null
+     */
+    public static int encodedSize(Product product) {
+        return frameSize(productFieldsLength(product, product.getState()));
+    }
+
+    /**
+     * @param sale the sale to measure
+     * @return the number of bytes encode writes for the sale
+     * @throws NullPointerException if sale or its product ID is null
+     */
+    public static int encodedSize(Sale sale) {
+        return frameSize(saleFieldsLength(sale));
+    }
+
+    /**
+     * @param value the string to measure
+     * @return the number of bytes encodeString writes for the value
+     * @throws NullPointerException if value is null
+     */
+    public static int encodedStringSize(String value) {
+        return stringSize(value);
+    }
+
+    /**
+     * Writes a bare string, without a record frame, at the buffer's
+     * position, advancing it.
+     *
+     * @param value the string to encode
+     * @param out the buffer to write to
+     * @throws NullPointerException if either parameter is null
+     * @throws BufferOverflowException if the string does not fit in the
+     *         buffer's remaining space, in which case nothing is written
+     */
+    public static void encodeString(String value, ByteBuffer out) {
+        if (out.remaining() < stringSize(value)) {
+            throw new BufferOverflowException();
+        }
+        writeString(out, value);
+    }
+
+    /**
+     * Reads a bare string written by encodeString, advancing past it.
+     *
+     * @param in the buffer to read from
+     * @return the decoded string
+     * @throws IllegalArgumentException if the length is malformed
+     * @throws BufferUnderflowException if the string is truncated
+     */
+    public static String decodeString(ByteBuffer in) {
+        return readString(in);
+    }
+
+    /**
+     * Writes one product record at the buffer's position, advancing it.
+     * The name, price and quantity are read together from one state.
+     *
+     * @param product the product to encode
+     * @param out the buffer to write to, in big-endian order
+     * @throws NullPointerException if either parameter or the product's id
+     *         is null
+     * @throws BufferOverflowException if the record does not fit in the
+     *         buffer's remaining space, in which case nothing is written
+     * @throws IllegalArgumentException if the buffer is little-endian
+     */
+    public static void encode(Product product, ByteBuffer out) {
+        Product.State state = product.getState();
+        int length = productFieldsLength(product, state);
+        writeFrame(out, PRODUCT, length);
+        writeString(out, product.getId());
+        writeNullable(out, state.name());
+        out.putDouble(state.price());
+        out.putInt(state.quantity());
+    }
+
+    /**
+     * Writes one sale record at the buffer's position, advancing it.
+     *
+     * @param sale the sale to encode
+     * @param out the buffer to write to, in big-endian order
+     * @throws NullPointerException if either parameter, the sale's id or its
+     *         product ID is null
+     * @throws BufferOverflowException if the record does not fit in the
+     *         buffer's remaining space, in which case nothing is written
+     * @throws IllegalArgumentException if the buffer is little-endian
+     */
+    public static void encode(Sale sale, ByteBuffer out) {
+        if (sale.getId() == null) {
+            throw new NullPointerException("Sale ID cannot be null");
+        }
+        int length = saleFieldsLength(sale);
+        writeFrame(out, SALE, length);
+        out.putLong(sale.getId().getMostSignificantBits());
+        out.putLong(sale.getId().getLeastSignificantBits());
+        writeString(out, sale.getProductId());
+        writeNullable(out, sale.getProductName());
+        out.putInt(sale.getQuantity());
+        out.putDouble(sale.getUnitPrice());
+        out.putDouble(sale.getTotalAmount());
+        LocalDateTime date = sale.getDate();
+        out.putLong(
+            date == null ? NULL_DATE : date.toEpochSecond(ZoneOffset.UTC)
+        );
+        out.putInt(date == null ? 0 : date.getNano());
+    }
+
+    /**
+     * Returns the type of the record at the buffer's position without
+     * consuming it, for streams that mix record types.
+     *
+     * @param in the buffer positioned at a record
+     * @return PRODUCT or SALE
+     * @throws IllegalArgumentException if the record's version or type is
+     *         not one this codec reads
+     * @throws BufferUnderflowException if fewer than two bytes remain
+     */
+    public static byte peekType(ByteBuffer in) {
+        if (in.remaining() < TAG_LENGTH) {
+            throw new BufferUnderflowException();
+        }
+        checkVersion(in.get(in.position()));
+        byte type = in.get(in.position() + 1);
+        if (type != PRODUCT && type != SALE) {
+            throw new IllegalArgumentException("Unknown record type: " + type);
+        }
+        return type;
+    }
+
+    /**
+     * Reads one product record at the buffer's position, advancing past
+     * it.
+     *
+     * @param in the buffer to read from, in big-endian order
+     * @return the decoded product, at version 0
+     * @throws IllegalArgumentException if the record is not a product of a
+     *         supported version, or the buffer is little-endian
+     * @throws BufferUnderflowException if the record is truncated
+     */
+    public static Product decodeProduct(ByteBuffer in) {
+        int end = readFrame(in, PRODUCT);
+        Product product = new Product(
+            readString(in),
+            readNullable(in),
+            in.getDouble(),
+            in.getInt()
+        );
+        in.position(end);
+        return product;
+    }
+
+    /**
+     * Reads one sale record at the buffer's position, advancing past it.
+     *
+     * @param in the buffer to read from, in big-endian order
+     * @return the decoded sale, with its original id and total amount
+     * @throws IllegalArgumentException if the record is not a sale of a
+     *         supported version, or the buffer is little-endian
+     * @throws BufferUnderflowException if the record is truncated
+     */
+    public static Sale decodeSale(ByteBuffer in) {
+        int end = readFrame(in, SALE);
+        Sale sale = new Sale(
+            new UUID(in.getLong(), in.getLong()),
+            readString(in),
+            readNullable(in),
+            in.getInt(),
+            in.getDouble(),
+            null
+        );
+        //stored rather than recomputed, it may have been set explicitly
+        sale.setTotalAmount(in.getDouble());
+        long second = in.getLong();
+        int nano = in.getInt();
+        if (second != NULL_DATE) {
+            sale.setDate(
+                LocalDateTime.ofEpochSecond(second, nano, ZoneOffset.UTC)
+            );
+        }
+        in.position(end);
+        return sale;
+    }
+
+    private static int productFieldsLength(
+        Product product,
+        Product.State state
+    ) {
+        if (product.getId() == null) {
+            throw new NullPointerException("Product ID cannot be null");
+        }
+        return (
+            PRODUCT_FIXED_LENGTH +
+            stringSize(product.getId()) +
+            nullableSize(state.name())
+        );
+    }
+
+    private static int saleFieldsLength(Sale sale) {
+        if (sale.getProductId() == null) {
+            throw new NullPointerException("Product ID cannot be null");
+        }
+        return (
+            SALE_FIXED_LENGTH +
+            stringSize(sale.getProductId()) +
+            nullableSize(sale.getProductName())
+        );
+    }
+
+    private static int frameSize(int fieldsLength) {
+        return TAG_LENGTH + varintSize(fieldsLength) + fieldsLength;
+    }
+
+    //checks the room for the whole record first, so an overflow never
+    //leaves a partial record behind
+    private static void writeFrame(ByteBuffer out, byte type, int length) {
+        checkOrder(out);
+        if (out.remaining() < frameSize(length)) {
+            throw new BufferOverflowException();
+        }
+        out.put(FORMAT_VERSION);
+        out.put(type);
+        writeVarint(out, length);
+    }
+
+    //reads the tags and length, returning the position just past the record
+    private static int readFrame(ByteBuffer in, byte type) {
+        checkOrder(in);
+        checkVersion(in.get());
+        byte actual = in.get();
+        if (actual != type) {
+            throw new IllegalArgumentException(
+                "Expected record type " + type + " but found " + actual
+            );
+        }
+        int length = readVarint(in);
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return in.position() + length;
+    }
+
+    private static void checkVersion(byte version) {
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException(
+                "Unsupported record format: " + version
+            );
+        }
+    }
+
+    private static void checkOrder(ByteBuffer buffer) {
+        if (buffer.order() != ByteOrder.BIG_ENDIAN) {
+            throw new IllegalArgumentException("Buffer must be big-endian.");
+        }
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void writeVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                //lengths are ints, so a fifth byte may carry only 3 bits
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint.");
+    }
+
+    private static int stringSize(String value) {
+        int length = utf8Length(value);
+        return varintSize(length) + length;
+    }
+
+    private static int nullableSize(String value) {
+        if (value == null) {
+            return 1;
+        }
+        int length = utf8Length(value);
+        return varintSize(length + 1) + length;
+    }
+
+    private static void writeString(ByteBuffer out, String value) {
+        writeVarint(out, utf8Length(value));
+        writeUtf8(out, value);
+    }
+
+    private static void writeNullable(ByteBuffer out, String value) {
+        if (value == null) {
+            out.put((byte) 0);
+            return;
+        }
+        writeVarint(out, utf8Length(value) + 1);
+        writeUtf8(out, value);
+    }
+
+    private static String readString(ByteBuffer in) {
+        return readUtf8(in, readVarint(in));
+    }
+
+    private static String readNullable(ByteBuffer in) {
+        int length = readVarint(in);
+        return length == 0 ? null : readUtf8(in, length - 1);
+    }
+
+    //UTF-8 length of the string as String.getBytes would encode it, an
+    //unpaired surrogate becoming a one-byte '?'
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (!Character.isSurrogate(c)) {
+                length += 3;
+            } else if (isPairAt(value, i)) {
+                length += 4;
+                i++;
+            } else {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    //encodes char by char, so no byte array is allocated
+    private static void writeUtf8(ByteBuffer out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (!Character.isSurrogate(c)) {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (isPairAt(value, i)) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                out.put((byte) '?');
+            }
+        }
+    }
+
+    private static boolean isPairAt(String value, int i) {
+        return (
+            Character.isHighSurrogate(value.charAt(i)) &&
+            i + 1 < value.length() &&
+            Character.isLowSurrogate(value.charAt(i + 1))
+        );
+    }
+
+    //heap buffers are decoded in place; others are copied out first
+    private static String readUtf8(ByteBuffer in, int length) {
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value;
+        if (in.hasArray()) {
+            value = new String(
+                in.array(),
+                in.arrayOffset() + in.position(),
+                length,
+                StandardCharsets.UTF_8
+            );
+            in.position(in.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,53 @@
+package service.console;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * The console the services print their confirmations and warnings to.
+ *
+ * Services print through out() and err() rather than System.out and
+ * System.err, so a caller driving them at high volume, like the
+ * WorkloadGenerator, can switch their messages off without replacing the
+ * JVM-wide streams everything else in the process prints to. Output is on
+ * by default. The switch is shared by all services and threads, including
+ * shard and ingestion threads that run operations on a caller's behalf.
+ */
+public final class Console {
+
+    private static final PrintStream DISCARD = new PrintStream(
+        OutputStream.nullOutputStream()
+    );
+
+    private static volatile boolean enabled = true;
+
+    private Console() {}
+
+    /**
+     * @return System.out while output is enabled, otherwise a stream that
+     *         discards everything
+     */
+    public static PrintStream out() {
+        return enabled ? System.out : DISCARD;
+    }
+
+    /**
+     * @return System.err while output is enabled, otherwise a stream that
+     *         discards everything
+     */
+    public static PrintStream err() {
+        return enabled ? System.err : DISCARD;
+    }
+
+    /**
+     * Switches the services' output on or off.
+     *
+     * @param on whether services should print
+     * @return whether output was enabled before, to restore it afterwards
+     */
+    public static boolean setEnabled(boolean on) {
+        boolean previous = enabled;
+        enabled = on;
+        return previous;
+    }
+}
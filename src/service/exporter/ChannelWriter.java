@@ -0,0 +1,106 @@
+package service.exporter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes UTF-8 text to a file through one large reusable direct buffer.
+ *
+ * Text is encoded straight into the buffer, which is written to the
+ * FileChannel only when it fills up or the writer is closed. Memory use is
+ * therefore fixed at BUFFER_SIZE no matter how large the file becomes, and the
+ * number of system calls is one per megabyte instead of one per record.
+ */
+class ChannelWriter implements Closeable {
+
+    //Size of the output buffer in bytes
+    static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    //Used only for non-ASCII text, ASCII is copied byte by byte
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8
+        .newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    /**
+     * Opens the file for writing, creating it or truncating an existing one.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be opened
+     */
+    ChannelWriter(Path file) throws IOException {
+        this.channel = FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE
+        );
+    }
+
+    /**
+     * Appends text to the output.
+     *
+     * @param text the text to append
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     */
+    ChannelWriter append(CharSequence text) throws IOException {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                encode(CharBuffer.wrap(text, i, length));
+                return this;
+            }
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
+            }
+            buffer.put((byte) c);
+        }
+        return this;
+    }
+
+    private void encode(CharBuffer in) throws IOException {
+        encoder.reset();
+        while (encoder.encode(in, buffer, true) == CoderResult.OVERFLOW) {
+            flushBuffer();
+        }
+        while (encoder.flush(buffer) == CoderResult.OVERFLOW) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes out any buffered text and closes the file.
+     *
+     * @throws IOException if writing or closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+}
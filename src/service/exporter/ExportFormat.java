@@ -0,0 +1,24 @@
+package service.exporter;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * File formats supported by the ExportService.
+ */
+public enum ExportFormat {
+    CSV,
+    JSON;
+
+    /**
+     * Picks the format from a file name, JSON for a .json extension and CSV
+     * for anything else.
+     *
+     * @param file the target file
+     * @return the matching export format
+     */
+    public static ExportFormat fromPath(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".json") ? JSON : CSV;
+    }
+}
@@ -0,0 +1,10 @@
+package service.exporter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface ExportService {
+    long exportProducts(Path file, ExportFormat format) throws IOException;
+    long exportSales(Path file, ExportFormat format) throws IOException;
+    long exportReport(Path file, ExportFormat format) throws IOException;
+}
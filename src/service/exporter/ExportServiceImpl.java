@@ -0,0 +1,326 @@
+package service.exporter;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import entities.ProductSales;
+import entities.Sale;
+import service.inventory.InventoryService;
+import service.report.ReportService;
+import service.sale.SaleService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Implementation of the ExportService interface that streams products, sales
+ * and report results to CSV or JSON files.
+ *
+ * Records are written one at a time through a ChannelWriter. Sales are read
+ * in place through SaleService.forEachSale, so a sales export never holds a
+ * copy of the history and its memory use does not grow with it. Products
+ * are read from InventoryService.getAllProducts, a list of references to
+ * the current products taken so the export does not hold the inventory
+ * lock while writing; it grows with the catalog, not with the history.
+ *
+ * CSV files use the same columns the ImportService reads, so an exported file
+ * can be imported again:
+ *
+ *   Products: id,name,price,quantity
+ *   Sales: id,productId,productName,quantity,unitPrice,date
+ *   Report: metric,value (one row per out-of-stock product)
+ *
+ * JSON files hold a single array of objects for products and sales, and a
+ * single object for the report.
+ */
+public class ExportServiceImpl implements ExportService {
+
+    private final InventoryService inventoryService;
+    private final SaleService saleService;
+    private final ReportService reportService;
+
+    /**
+     * Constructs a new ExportServiceImpl over the given services.
+     *
+     * @param inventoryService the source of product data
+     * @param saleService the source of sales data
+     * @param reportService the source of report results
+     * @throws NullPointerException if any service parameter is null
+     */
+    public ExportServiceImpl(
+        InventoryService inventoryService,
+        SaleService saleService,
+        ReportService reportService
+    ) {
+        if (inventoryService == null) {
+            throw new NullPointerException("InventoryService cannot be null");
+        }
+        if (saleService == null) {
+            throw new NullPointerException("SaleService cannot be null");
+        }
+        if (reportService == null) {
+            throw new NullPointerException("ReportService cannot be null");
+        }
+        this.inventoryService = inventoryService;
+        this.saleService = saleService;
+        this.reportService = reportService;
+    }
+
+    /**
+     * Writes every product in inventory order.
+     *
+     * @param file the file to write, replaced if it exists
+     * @param format the output format
+     * @return the number of products written
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public long exportProducts(Path file, ExportFormat format)
+        throws IOException {
+        boolean json = format == ExportFormat.JSON;
+        StringBuilder record = new StringBuilder(256);
+        long count = 0;
+
+        try (ChannelWriter writer = new ChannelWriter(file)) {
+            writer.append(json ? "[" : "id,name,price,quantity\n");
+            for (Object o : inventoryService.getAllProducts()) {
+                record.setLength(0);
+                if (json) {
+                    record.append(count == 0 ? "\n" : ",\n");
+                    appendJson(record, (Product) o);
+                } else {
+                    appendCsv(record, (Product) o);
+                }
+                writer.append(record);
+                count++;
+            }
+            if (json) {
+                writer.append(count == 0 ? "]\n" : "\n]\n");
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes every recorded sale, oldest first.
+     *
+     * @param file the file to write, replaced if it exists
+     * @param format the output format
+     * @return the number of sales written
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public long exportSales(Path file, ExportFormat format) throws IOException {
+        boolean json = format == ExportFormat.JSON;
+        StringBuilder record = new StringBuilder(256);
+        long[] count = { 0 };
+
+        try (ChannelWriter writer = new ChannelWriter(file)) {
+            writer.append(
+                json ? "[" : "id,productId,productName,quantity,unitPrice,date\n"
+            );
+            try {
+                saleService.forEachSale(sale -> {
+                    record.setLength(0);
+                    if (json) {
+                        record.append(count[0] == 0 ? "\n" : ",\n");
+                        appendJson(record, sale);
+                    } else {
+                        appendCsv(record, sale);
+                    }
+                    try {
+                        writer.append(record);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    count[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (json) {
+                writer.append(count[0] == 0 ? "]\n" : "\n]\n");
+            }
+        }
+        return count[0];
+    }
+
+    /**
+     * Writes the results of every ReportService report: total products,
+     * total revenue, the product with the highest sales and the out-of-stock
+     * products.
+     *
+     * @param file the file to write, replaced if it exists
+     * @param format the output format
+     * @return the number of out-of-stock products written
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public long exportReport(Path file, ExportFormat format)
+        throws IOException {
+        int totalProducts = reportService.getTotalNumberOfProducts();
+        double totalRevenue = reportService.getTotalSalesRevenue();
+        ProductSales top = reportService.getProductWithHighestSales();
+        DoublyLinkedList outOfStock = reportService.getOutOfStockProducts();
+
+        StringBuilder out = new StringBuilder(256);
+        if (format == ExportFormat.JSON) {
+            out.append("{\n  \"totalProducts\": ").append(totalProducts);
+            out.append(",\n  \"totalSalesRevenue\": ");
+            appendJsonNumber(out, totalRevenue);
+            out.append(",\n  \"productWithHighestSales\": ");
+            if (top == null) {
+                out.append("null");
+            } else {
+                out.append("{\"productId\":");
+                appendJsonString(out, top.getProductId());
+                out.append(",\"productName\":");
+                appendJsonString(out, top.getProductName());
+                out.append(",\"totalRevenue\":");
+                appendJsonNumber(out, top.getTotalRevenue());
+                out.append(",\"totalQuantity\":");
+                out.append(top.getTotalQuantity()).append('}');
+            }
+            out.append(",\n  \"outOfStockProducts\": [");
+            boolean first = true;
+            for (Object o : outOfStock) {
+                out.append(first ? "\n    " : ",\n    ");
+                appendJson(out, (Product) o);
+                first = false;
+            }
+            out.append(first ? "]\n}\n" : "\n  ]\n}\n");
+        } else {
+            out.append("metric,value\n");
+            out.append("totalProducts,").append(totalProducts).append('\n');
+            out.append("totalSalesRevenue,").append(totalRevenue).append('\n');
+            if (top != null) {
+                out.append("topProductId,");
+                appendCsvField(out, top.getProductId());
+                out.append("\ntopProductName,");
+                appendCsvField(out, top.getProductName());
+                out.append("\ntopProductRevenue,").append(top.getTotalRevenue());
+                out.append("\ntopProductQuantity,");
+                out.append(top.getTotalQuantity()).append('\n');
+            }
+            for (Object o : outOfStock) {
+                out.append("outOfStockProductId,");
+                appendCsvField(out, ((Product) o).getId());
+                out.append('\n');
+            }
+        }
+
+        try (ChannelWriter writer = new ChannelWriter(file)) {
+            writer.append(out);
+        }
+        return outOfStock.size();
+    }
+
+    private static void appendCsv(StringBuilder out, Product product) {
+        Product.State state = product.getState();
+        appendCsvField(out, product.getId());
+        out.append(',');
+        appendCsvField(out, state.name());
+        out.append(',').append(state.price());
+        out.append(',').append(state.quantity()).append('\n');
+    }
+
+    private static void appendCsv(StringBuilder out, Sale sale) {
+        out.append(sale.getId()).append(',');
+        appendCsvField(out, sale.getProductId());
+        out.append(',');
+        appendCsvField(out, sale.getProductName());
+        out.append(',').append(sale.getQuantity());
+        out.append(',').append(sale.getUnitPrice());
+        out.append(',').append(sale.getDate()).append('\n');
+    }
+
+    private static void appendJson(StringBuilder out, Product product) {
+        Product.State state = product.getState();
+        out.append("{\"id\":");
+        appendJsonString(out, product.getId());
+        out.append(",\"name\":");
+        appendJsonString(out, state.name());
+        out.append(",\"price\":");
+        appendJsonNumber(out, state.price());
+        out.append(",\"quantity\":").append(state.quantity()).append('}');
+    }
+
+    private static void appendJson(StringBuilder out, Sale sale) {
+        out.append("{\"id\":\"").append(sale.getId()).append('"');
+        out.append(",\"productId\":");
+        appendJsonString(out, sale.getProductId());
+        out.append(",\"productName\":");
+        appendJsonString(out, sale.getProductName());
+        out.append(",\"quantity\":").append(sale.getQuantity());
+        out.append(",\"unitPrice\":");
+        appendJsonNumber(out, sale.getUnitPrice());
+        out.append(",\"totalAmount\":");
+        appendJsonNumber(out, sale.getTotalAmount());
+        out.append(",\"date\":");
+        appendJsonString(
+            out,
+            sale.getDate() == null ? null : sale.getDate().toString()
+        );
+        out.append('}');
+    }
+
+    //quotes the field only when it contains a separator, quote or newline
+    private static void appendCsvField(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static void appendJsonString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    //JSON has no NaN or Infinity, those are written as null
+    private static void appendJsonNumber(StringBuilder out, double value) {
+        if (Double.isFinite(value)) {
+            out.append(value);
+        } else {
+            out.append("null");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package service.importer;
+
+import entities.DoublyLinkedList;
+
+/**
+ * Summary of a single bulk import run.
+ *
+ * Holds how many data rows were read from the file, how many were inserted
+ * and how many were rejected, together with the first few rejection messages
+ * so the user can locate bad rows without the importer printing one line per
+ * row.
+ */
+public class ImportResult {
+
+    //Number of data rows read, excluding the header and blank lines
+    private final long rowsRead;
+
+    //Number of rows inserted into the target service
+    private final long rowsImported;
+
+    //Number of rows skipped because they failed parsing or validation
+    private final long rowsRejected;
+
+    /**
+     * The first rejection messages as Strings, at most
+     * ImportServiceImpl.MAX_REPORTED_ERRORS of them.
+     */
+    private final DoublyLinkedList errors;
+
+    //Wall-clock duration of the import in nanoseconds
+    private final long elapsedNanos;
+
+    public ImportResult(
+        long rowsRead,
+        long rowsImported,
+        long rowsRejected,
+        DoublyLinkedList errors,
+        long elapsedNanos
+    ) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public DoublyLinkedList getErrors() {
+        return errors;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the number of rows read per second, or 0 if nothing was read
+     */
+    public double getRowsPerSecond() {
+        if (rowsRead == 0 || elapsedNanos == 0) {
+            return 0;
+        }
+        return rowsRead * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Import[Read=%d, Imported=%d, Rejected=%d, Time=%.1f ms, Rate=%.0f rows/s]",
+            rowsRead,
+            rowsImported,
+            rowsRejected,
+            elapsedNanos / 1_000_000.0,
+            getRowsPerSecond()
+        );
+    }
+}
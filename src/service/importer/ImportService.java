@@ -0,0 +1,9 @@
+package service.importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface ImportService {
+    ImportResult importProducts(Path file) throws IOException;
+    ImportResult importSales(Path file) throws IOException;
+}
@@ -0,0 +1,528 @@
+package service.importer;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import entities.Sale;
+import service.inventory.InventoryService;
+import service.inventory.InventoryServiceImpl;
+import service.sale.SaleService;
+import service.sale.SaleServiceImpl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Implementation of the ImportService interface that bulk loads products and
+ * sales from CSV files.
+ *
+ * The import runs in three phases:
+ *
+ *   The file is split into chunks of whole records, each a few megabytes
+ *   Chunks are memory-mapped and parsed in parallel on a fixed thread pool,
+ *   every row being validated with the same rules the services apply
+ *   Valid rows are handed to the target service in one bulk insert
+ *
+ * Nothing is printed per row. Rejected rows are counted and the first few
+ * rejection messages are kept in the returned ImportResult.
+ *
+ * Expected file layouts (a header line with exactly these names is skipped):
+ *
+ *   Products: id,name,price,quantity
+ *   Sales: id,productId,productName,quantity,unitPrice,date
+ *
+ * Fields follow RFC 4180: a field may be wrapped in double quotes, with ""
+ * standing for a literal quote, and a quoted field may hold commas and line
+ * breaks, so a record can span several lines. Records end with LF or CRLF.
+ * Finding chunk boundaries outside quoted fields takes one sequential scan
+ * for quote characters ahead of the parallel parse. The sale id may be left
+ * empty to have a new one generated, and the date uses the ISO-8601 local
+ * date-time format (for example 2025-01-31T14:05:00).
+ *
+ * Imported sales are history: they are appended as-is and do not change
+ * inventory quantities.
+ */
+public class ImportServiceImpl implements ImportService {
+
+    //Header lines recognised and skipped at the start of a file
+    static final String PRODUCT_HEADER = "id,name,price,quantity";
+    static final String SALE_HEADER =
+        "id,productId,productName,quantity,unitPrice,date";
+
+    //Maximum number of rejection messages kept in an ImportResult
+    static final int MAX_REPORTED_ERRORS = 20;
+
+    //Bounds on the size of a parse chunk in bytes
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    private static final long MAX_CHUNK_SIZE = 64L << 20;
+
+    /**
+     * Converts the fields of one CSV row into an entity, throwing a
+     * RuntimeException with a readable message if the row is invalid.
+     */
+    private interface RowParser {
+        Object parse(String[] fields);
+    }
+
+    //A rejected row, with its line number relative to the chunk start
+    private static class RowError {
+
+        final long line;
+        final String message;
+
+        RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+    }
+
+    //Output of parsing one chunk
+    private static class Chunk {
+
+        //Parsed and validated entities in file order
+        final DoublyLinkedList rows = new DoublyLinkedList();
+
+        //First rejected rows of this chunk, at most MAX_REPORTED_ERRORS
+        final DoublyLinkedList errors = new DoublyLinkedList();
+
+        //Number of lines in the chunk, including header and blank lines
+        long lines;
+
+        //Number of data rows, excluding header and blank lines
+        long rowsRead;
+
+        long rowsRejected;
+    }
+
+    private final InventoryService inventoryService;
+    private final SaleService saleService;
+
+    //Number of threads used to parse chunks
+    private final int threads;
+
+    /**
+     * Constructs an importer that parses on one thread per available core.
+     *
+     * @param inventoryService the inventory service receiving products
+     * @param saleService the sales service receiving sales
+     * @throws NullPointerException if either service parameter is null
+     */
+    public ImportServiceImpl(
+        InventoryService inventoryService,
+        SaleService saleService
+    ) {
+        this(
+            inventoryService,
+            saleService,
+            Runtime.getRuntime().availableProcessors()
+        );
+    }
+
+    /**
+     * Constructs an importer with an explicit parser thread count.
+     *
+     * @param inventoryService the inventory service receiving products
+     * @param saleService the sales service receiving sales
+     * @param threads the number of threads used to parse chunks
+     * @throws NullPointerException if either service parameter is null
+     * @throws IllegalArgumentException if threads is less than 1
+     */
+    public ImportServiceImpl(
+        InventoryService inventoryService,
+        SaleService saleService,
+        int threads
+    ) {
+        if (inventoryService == null) {
+            throw new NullPointerException("InventoryService cannot be null");
+        }
+        if (saleService == null) {
+            throw new NullPointerException("SaleService cannot be null");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                "Thread count must be at least 1."
+            );
+        }
+        this.inventoryService = inventoryService;
+        this.saleService = saleService;
+        this.threads = threads;
+    }
+
+    /**
+     * Imports products from a CSV file into the inventory.
+     *
+     * Rows whose product ID already exists in the inventory, or appears
+     * earlier in the same file, are rejected as duplicates.
+     *
+     * @param file the CSV file to read
+     * @return a summary of the import
+     * @throws IOException if the file cannot be read
+     */
+    @Override
+    public ImportResult importProducts(Path file) throws IOException {
+        long startTime = System.nanoTime();
+        List<Chunk> chunks = parseFile(
+            file,
+            PRODUCT_HEADER,
+            ImportServiceImpl::parseProduct
+        );
+
+        DoublyLinkedList errors = new DoublyLinkedList();
+        long[] counts = collectErrors(chunks, errors);
+        long rowsRejected = counts[1];
+
+        // Duplicates can only be detected once all chunks are merged
+        DoublyLinkedList batch = new DoublyLinkedList();
+        Set<String> seenIds = new HashSet<>();
+        for (Chunk chunk : chunks) {
+            for (Object o : chunk.rows) {
+                Product product = (Product) o;
+                if (
+                    inventoryService.findProductById(product.getId()) !=
+                        null ||
+                    !seenIds.add(product.getId())
+                ) {
+                    rowsRejected++;
+                    addError(
+                        errors,
+                        "Product ID already exists: " + product.getId()
+                    );
+                } else {
+                    batch.add(product);
+                }
+            }
+        }
+
+        inventoryService.addProducts(batch);
+        return new ImportResult(
+            counts[0],
+            batch.size(),
+            rowsRejected,
+            errors,
+            System.nanoTime() - startTime
+        );
+    }
+
+    /**
+     * Imports historical sales from a CSV file into the sales history.
+     *
+     * @param file the CSV file to read
+     * @return a summary of the import
+     * @throws IOException if the file cannot be read
+     */
+    @Override
+    public ImportResult importSales(Path file) throws IOException {
+        long startTime = System.nanoTime();
+        List<Chunk> chunks = parseFile(
+            file,
+            SALE_HEADER,
+            ImportServiceImpl::parseSale
+        );
+
+        DoublyLinkedList errors = new DoublyLinkedList();
+        long[] counts = collectErrors(chunks, errors);
+
+        DoublyLinkedList batch = new DoublyLinkedList();
+        for (Chunk chunk : chunks) {
+            for (Object o : chunk.rows) {
+                batch.add(o);
+            }
+        }
+
+        saleService.addSales(batch);
+        return new ImportResult(
+            counts[0],
+            batch.size(),
+            counts[1],
+            errors,
+            System.nanoTime() - startTime
+        );
+    }
+
+    private static Object parseProduct(String[] fields) {
+        if (fields.length != 4) {
+            throw new IllegalArgumentException(
+                "Expected 4 fields but found " + fields.length + "."
+            );
+        }
+        Product product = new Product(
+            fields[0],
+            fields[1],
+            Double.parseDouble(fields[2]),
+            Integer.parseInt(fields[3])
+        );
+        InventoryServiceImpl.isProductValid(product);
+        return product;
+    }
+
+    private static Object parseSale(String[] fields) {
+        if (fields.length != 6) {
+            throw new IllegalArgumentException(
+                "Expected 6 fields but found " + fields.length + "."
+            );
+        }
+        UUID id = fields[0].isEmpty()
+            ? UUID.randomUUID()
+            : UUID.fromString(fields[0]);
+        int quantity = Integer.parseInt(fields[3]);
+        double unitPrice = Double.parseDouble(fields[4]);
+        LocalDateTime date = LocalDateTime.parse(fields[5]);
+        //checked before the Sale adds its ID and name to the dictionary
+        SaleServiceImpl.isSaleValid(fields[1], quantity, unitPrice, date);
+        return new Sale(id, fields[1], fields[2], quantity, unitPrice, date);
+    }
+
+    /**
+     * Splits the file into line-aligned chunks and parses them in parallel.
+     *
+     * @return the parsed chunks in file order
+     */
+    private List<Chunk> parseFile(Path file, String header, RowParser parser)
+        throws IOException {
+        try (
+            FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.READ
+            )
+        ) {
+            long size = channel.size();
+            long chunkSize = Math.max(
+                MIN_CHUNK_SIZE,
+                Math.min(MAX_CHUNK_SIZE, size / (threads * 4L))
+            );
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Chunk>> futures = new ArrayList<>();
+                long start = 0;
+                while (start < size) {
+                    long end = Math.min(size, start + chunkSize);
+                    if (end < size) {
+                        end = nextRecordStart(channel, start, end, size);
+                    }
+                    long chunkStart = start;
+                    long chunkEnd = end;
+                    futures.add(
+                        pool.submit(() ->
+                            parseChunk(
+                                channel,
+                                chunkStart,
+                                chunkEnd,
+                                header,
+                                parser
+                            )
+                        )
+                    );
+                    start = end;
+                }
+
+                List<Chunk> chunks = new ArrayList<>(futures.size());
+                for (Future<Chunk> future : futures) {
+                    chunks.add(future.get());
+                }
+                return chunks;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Import interrupted", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException ioe) {
+                    throw ioe;
+                }
+                throw new IllegalStateException(cause);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Scans from from, which must be the start of a record, tracking quoted
+     * fields, so a newline inside a quoted field is never taken for the end
+     * of a record.
+     *
+     * @return the position just after the first newline at or after pos
+     *         that is outside quotes, or size if there is none
+     */
+    private static long nextRecordStart(
+        FileChannel channel,
+        long from,
+        long pos,
+        long size
+    ) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        boolean quoted = false;
+        long at = from;
+        while (at < size) {
+            buffer.clear();
+            int read = channel.read(buffer, at);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                //an escaped "" toggles twice, leaving the state unchanged
+                if (b == '"') {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted && at + i >= pos) {
+                    return at + i + 1;
+                }
+            }
+            at += read;
+        }
+        return size;
+    }
+
+    private static Chunk parseChunk(
+        FileChannel channel,
+        long start,
+        long end,
+        String header,
+        RowParser parser
+    ) throws IOException {
+        Chunk chunk = new Chunk();
+        MappedByteBuffer buffer = channel.map(
+            FileChannel.MapMode.READ_ONLY,
+            start,
+            end - start
+        );
+        byte[] line = new byte[256];
+        int limit = buffer.limit();
+        int pos = 0;
+
+        while (pos < limit) {
+            //a record ends at the first newline outside quotes
+            int recordEnd = pos;
+            int breaks = 0;
+            boolean quoted = false;
+            while (recordEnd < limit) {
+                byte b = buffer.get(recordEnd);
+                if (b == '"') {
+                    quoted = !quoted;
+                } else if (b == '\n') {
+                    if (!quoted) {
+                        break;
+                    }
+                    breaks++;
+                }
+                recordEnd++;
+            }
+            int length = recordEnd - pos;
+            if (length > 0 && buffer.get(recordEnd - 1) == '\r') {
+                length--;
+            }
+            if (length > line.length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            buffer.get(pos, line, 0, length);
+            String text = new String(line, 0, length, StandardCharsets.UTF_8);
+            pos = recordEnd + 1;
+            long firstLine = chunk.lines + 1;
+            chunk.lines += 1 + breaks;
+
+            if (text.isBlank()) {
+                continue;
+            }
+            if (
+                start == 0 &&
+                firstLine == 1 &&
+                text.equalsIgnoreCase(header)
+            ) {
+                continue;
+            }
+
+            chunk.rowsRead++;
+            try {
+                chunk.rows.add(parser.parse(splitRecord(text)));
+            } catch (RuntimeException e) {
+                chunk.rowsRejected++;
+                if (chunk.errors.size() < MAX_REPORTED_ERRORS) {
+                    chunk.errors.add(
+                        new RowError(firstLine, e.getMessage())
+                    );
+                }
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Splits one CSV record into fields, honouring double-quoted fields,
+     * whose line breaks are kept as part of the field.
+     */
+    static String[] splitRecord(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Copies chunk errors into errors with file line numbers and sums the
+     * per-chunk counters.
+     *
+     * @return the total rows read and rows rejected, in that order
+     */
+    private static long[] collectErrors(
+        List<Chunk> chunks,
+        DoublyLinkedList errors
+    ) {
+        long lineOffset = 0;
+        long rowsRead = 0;
+        long rowsRejected = 0;
+        for (Chunk chunk : chunks) {
+            for (Object o : chunk.errors) {
+                RowError error = (RowError) o;
+                addError(
+                    errors,
+                    "Line " + (lineOffset + error.line) + ": " + error.message
+                );
+            }
+            lineOffset += chunk.lines;
+            rowsRead += chunk.rowsRead;
+            rowsRejected += chunk.rowsRejected;
+        }
+        return new long[] { rowsRead, rowsRejected };
+    }
+
+    private static void addError(DoublyLinkedList errors, String message) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(message);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package service.ingest;
+
+import entities.Sale;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Completion handle of a sale submitted to a SaleIngestor.
+ *
+ * A handle is completed once by the ingestor's consumer thread, with the
+ * recorded sale or the exception recordSale threw. Producers that want an
+ * allocation-free steady state keep one handle per thread and pass it to
+ * every submit; the ingestor resets it when the next sale is published.
+ */
+public final class SaleHandle {
+
+    private static final int PENDING = 0;
+    private static final int SUCCEEDED = 1;
+    private static final int FAILED = 2;
+
+    //Iterations join spins before parking; none on a single core, where
+    //spinning only delays the consumer it is waiting for
+    private static final int SPINS =
+        Runtime.getRuntime().availableProcessors() > 1 ? 1 << 10 : 0;
+
+    private volatile int state = PENDING;
+    private Sale sale;
+    private RuntimeException error;
+
+    //Thread parked in join, unparked by complete
+    private volatile Thread waiter;
+
+    /**
+     * @return true once the sale has been recorded or has failed
+     */
+    public boolean isDone() {
+        return state != PENDING;
+    }
+
+    /**
+     * Waits for the sale to be processed.
+     *
+     * @return the recorded sale
+     * @throws RuntimeException the exception recordSale threw, such as
+     *         IllegalArgumentException for unknown products or insufficient
+     *         stock
+     */
+    public Sale join() {
+        for (int i = 0; i < SPINS && state == PENDING; i++) {
+            Thread.onSpinWait();
+        }
+        if (state == PENDING) {
+            waiter = Thread.currentThread();
+            //re-checked after publishing the waiter, complete may have run
+            while (state == PENDING) {
+                LockSupport.park(this);
+            }
+            waiter = null;
+        }
+        if (state == FAILED) {
+            throw error;
+        }
+        return sale;
+    }
+
+    //called by a producer before publishing the handle with a new sale
+    void reset() {
+        sale = null;
+        error = null;
+        state = PENDING;
+    }
+
+    //called once by the consumer; the volatile state write publishes the
+    //result fields
+    void complete(Sale sale, RuntimeException error) {
+        this.sale = sale;
+        this.error = error;
+        state = error == null ? SUCCEEDED : FAILED;
+        Thread parked = waiter;
+        if (parked != null) {
+            LockSupport.unpark(parked);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package service.ingest;
+
+import entities.Sale;
+import service.sale.SaleService;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * High-throughput front end for recording sales from many threads.
+ *
+ * Producers publish sale requests into a pre-allocated ring of slots and a
+ * single consumer thread records them, so the sale service itself is only
+ * ever called from one thread and producers never contend on its
+ * structures. The ring is lock-free:
+ *
+ *   A producer claims the next sequence number with one atomic increment,
+ *   waits until the consumer has freed the slot that sequence maps to,
+ *   fills the slot and publishes it by writing the sequence into it
+ *   The consumer reads slots in sequence order for as long as they are
+ *   published, records each sale and completes its SaleHandle, then frees
+ *   the whole batch with a single write of its cursor
+ *
+ * Each batch is recorded while holding the optional service lock, so the
+ * sale service can be shared with callers that synchronize on that lock,
+ * such as report threads, at the cost of one acquisition per batch rather
+ * than per sale. Slots and, when producers reuse their handles, handles are
+ * allocated once, so the steady state allocates nothing beyond the sales
+ * the service records.
+ *
+ * Producers must stop submitting before close is called; a submit racing
+ * close may never be completed.
+ */
+public class SaleIngestor implements AutoCloseable {
+
+    //Ring slots when no capacity is given
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    //Empty polls the consumer spins through before parking, none on a
+    //single core where the producers need the time
+    private static final int IDLE_SPINS =
+        Runtime.getRuntime().availableProcessors() > 1 ? 1 << 8 : 1;
+
+    //How long an idle consumer parks before polling again
+    private static final long IDLE_PARK_NANOS = 50_000;
+
+    /**
+     * One pre-allocated entry of the ring. The request fields are written by
+     * the producer that claimed the slot before it writes published, and
+     * read by the consumer only after it reads published.
+     */
+    private static final class Slot {
+
+        volatile long published = -1;
+        String productId;
+        int quantity;
+        SaleHandle handle;
+    }
+
+    private final SaleService saleService;
+    private final Object serviceLock;
+    private final Slot[] slots;
+    private final int mask;
+
+    //Next sequence number to be claimed by a producer
+    private final AtomicLong claimed = new AtomicLong();
+
+    //Next sequence number the consumer will read; slots below it are free
+    private volatile long consumed;
+
+    private volatile boolean closed;
+
+    //Set while the idle consumer parks, so producers know to wake it
+    private volatile boolean parked;
+
+    private final Thread consumer;
+
+    /**
+     * Starts an ingestor with DEFAULT_CAPACITY slots and no service lock.
+     *
+     * @param saleService the service the consumer records sales through
+     * @throws NullPointerException if saleService is null
+     */
+    public SaleIngestor(SaleService saleService) {
+        this(saleService, DEFAULT_CAPACITY, null);
+    }
+
+    /**
+     * Starts an ingestor and its consumer thread.
+     *
+     * @param saleService the service the consumer records sales through
+     * @param capacity the number of ring slots, a power of two
+     * @param serviceLock the lock held while a batch is recorded, or null
+     *        if nothing else calls the service
+     * @throws NullPointerException if saleService is null
+     * @throws IllegalArgumentException if capacity is not a positive power
+     *         of two
+     */
+    public SaleIngestor(
+        SaleService saleService,
+        int capacity,
+        Object serviceLock
+    ) {
+        if (saleService == null) {
+            throw new NullPointerException("SaleService cannot be null");
+        }
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException(
+                "Capacity must be a positive power of two."
+            );
+        }
+        this.saleService = saleService;
+        this.serviceLock = serviceLock;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.consumer = new Thread(this::consume, "sale-ingestor");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Submits a sale, allocating a new handle for it.
+     *
+     * @param productId the product being sold
+     * @param quantity the number of units being sold
+     * @return the handle completed once the sale has been processed
+     * @throws IllegalStateException if the ingestor is closed
+     */
+    public SaleHandle submit(String productId, int quantity) {
+        SaleHandle handle = new SaleHandle();
+        submit(productId, quantity, handle);
+        return handle;
+    }
+
+    /**
+     * Submits a sale, completing the given handle once it has been
+     * processed. The handle must not be in use by another pending sale.
+     *
+     * @param productId the product being sold
+     * @param quantity the number of units being sold
+     * @param handle the handle to reset and complete
+     * @throws NullPointerException if handle is null
+     * @throws IllegalStateException if the ingestor is closed
+     */
+    public void submit(String productId, int quantity, SaleHandle handle) {
+        if (handle == null) {
+            throw new NullPointerException("SaleHandle cannot be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("Sale ingestor is closed.");
+        }
+        handle.reset();
+        long sequence = claimed.getAndIncrement();
+        //wait for the consumer to free the slot from the previous lap,
+        //yielding so a full ring cannot starve the consumer of a core
+        while (sequence - consumed >= slots.length) {
+            Thread.yield();
+        }
+        Slot slot = slots[(int) sequence & mask];
+        slot.productId = productId;
+        slot.quantity = quantity;
+        slot.handle = handle;
+        slot.published = sequence;
+        if (parked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * @return the number of sales submitted but not yet processed
+     */
+    public long getBacklog() {
+        return claimed.get() - consumed;
+    }
+
+    /**
+     * Processes every sale already submitted, then stops the consumer.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(consumer);
+        boolean interrupted = false;
+        while (consumer.isAlive()) {
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consume() {
+        long next = consumed;
+        int idle = 0;
+        while (true) {
+            int batch = batchSize(next);
+            if (batch > 0) {
+                if (serviceLock == null) {
+                    record(next, batch);
+                } else {
+                    synchronized (serviceLock) {
+                        record(next, batch);
+                    }
+                }
+                next += batch;
+                //frees the whole batch for producers at once
+                consumed = next;
+                idle = 0;
+            } else if (closed && next == claimed.get()) {
+                return;
+            } else if (++idle < IDLE_SPINS) {
+                Thread.onSpinWait();
+            } else {
+                //a sale published before parked is seen waits at most one
+                //park interval
+                parked = true;
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                parked = false;
+            }
+        }
+    }
+
+    //number of consecutive published slots starting at sequence next
+    private int batchSize(long next) {
+        int batch = 0;
+        while (
+            batch < slots.length &&
+            slots[(int) (next + batch) & mask].published == next + batch
+        ) {
+            batch++;
+        }
+        return batch;
+    }
+
+    private void record(long first, int batch) {
+        for (int i = 0; i < batch; i++) {
+            Slot slot = slots[(int) (first + i) & mask];
+            SaleHandle handle = slot.handle;
+            Sale sale = null;
+            RuntimeException error = null;
+            try {
+                sale = saleService.recordSale(slot.productId, slot.quantity);
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            slot.productId = null;
+            slot.handle = null;
+            handle.complete(sale, error);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package service.inventory;
+
+/**
+ * Thrown when a sale, reservation or stock adjustment asks for more units
+ * than a product has.
+ *
+ * A subclass of IllegalArgumentException, so callers that treat every
+ * rejected request alike keep working, while callers that expect running
+ * out of stock, like the WorkloadGenerator, can tell it apart from a bad
+ * request or a failure.
+ */
+public class InsufficientStockException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param message the detail message
+     */
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
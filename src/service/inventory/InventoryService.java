@@ -5,6 +5,7 @@ import entities.Product;
 
 public interface InventoryService {
     void addProduct(Product product);
+    void addProducts(DoublyLinkedList products);
     Product findProductById(String id);
     void deleteProduct(String id);
     void displayProductsForward();
@@ -15,6 +16,18 @@ public interface InventoryService {
         double newPrice,
         int newQuantity
     );
+    void adjustQuantity(String id, int delta);
 
     DoublyLinkedList getAllProducts();
+    int getProductCount();
+
+    DoublyLinkedList searchProductsByName(String text, int limit);
+    DoublyLinkedList searchProductsByNamePrefix(String prefix, int limit);
+
+    DoublyLinkedList findProductsByPriceRange(double minPrice, double maxPrice);
+    DoublyLinkedList findProductsWithQuantityBelow(int threshold);
+    DoublyLinkedList getProductsSortedByPrice();
+    DoublyLinkedList getProductsSortedByQuantity();
+
+    long getVersion();
 }
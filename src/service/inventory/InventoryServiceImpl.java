@@ -2,36 +2,132 @@ package service.inventory;
 
 import entities.DoublyLinkedList;
 import entities.Product;
+import service.console.Console;
+import service.jfr.InventoryMutationEvent;
+import service.view.MaterializedView;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of the InventoryService interface over an in-memory list
+ * of products with an ID map and name and range indexes.
+ *
+ * The service is safe to call from any number of threads. Mutations are
+ * serialized by the write side of a StampedLock. Lookups by ID, which far
+ * outnumber writes, take no lock: the ID map is a ConcurrentHashMap, safe to
+ * read while the single writer changes it.
+ *
+ * Reads of the whole catalog, getAllProducts and the displays, are
+ * optimistic. They read an immutable array of the products under a
+ * tryOptimisticRead stamp and take the read lock only if a writer got in
+ * before the stamp was validated. Adding or removing a product drops the
+ * array and the first catalog read after it rebuilds it under the read
+ * lock, so writes stay O(1) and the rebuild is paid by a read that copies
+ * the catalog anyway. Updates and stock changes keep the array, since a
+ * product's state lives in the product. Only the name and range index
+ * queries still take the read lock, since a walk racing a write could follow
+ * a half-linked node or a rebalancing tree indefinitely; they run
+ * concurrently with each other. Methods returning lists return copies, never
+ * the live structures.
+ */
 public class InventoryServiceImpl implements InventoryService {
 
     private final DoublyLinkedList products;
+    private final Map<String, Product> productsById;
+    private final ProductNameIndex nameIndex;
+    private final ProductRangeIndex rangeIndex;
+
+    //bumped by every mutation so cached reports can tell they are stale;
+    //volatile so it can be read without taking the lock
+    private volatile long version;
+
+    //Writers take the write lock; index readers take the read lock
+    private final StampedLock lock = new StampedLock();
+
+    //The products in list order, null from a product being added or
+    //removed until the next catalog read rebuilds it
+    private volatile Product[] catalog = new Product[0];
+
+    //attaches products to this inventory, so only it can change them
+    private final Object productKey = new Object();
+
+    //notified of every mutation, an array because it is walked on every sale
+    private MaterializedView[] views = new MaterializedView[0];
 
     public InventoryServiceImpl() {
         this.products = new DoublyLinkedList();
+        this.productsById = new ConcurrentHashMap<>();
+        this.nameIndex = new ProductNameIndex();
+        this.rangeIndex = new ProductRangeIndex();
     }
 
     public void addProduct(Product product) {
-        //check for product IDs
-        for (int i = 0; i < products.size(); i++) {
-            Product p = (Product) products.get(i);
-            if (p.getId().equals(product.getId())) {
+        long stamp = lock.writeLock();
+        try {
+            InventoryMutationEvent event = new InventoryMutationEvent();
+            event.begin();
+            isProductValid(product);
+            //check for product IDs
+            if (productsById.containsKey(product.getId())) {
                 throw new IllegalArgumentException(
                     "Product ID already exists: " + product.getId()
                 );
             }
+            insert(product);
+            version++;
+            Console.out().println("✓ Product added: " + product.getName());
+            commit(
+                event,
+                "addProduct",
+                product.getId(),
+                product.getQuantity(),
+                1
+            );
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        isProductValid(product);
-        products.add(product);
-        System.out.println("✓ Product added: " + product.getName());
     }
 
-    public Product findProductById(String id) {
-        for (int i = 0; i < products.size(); i++) {
-            Product p = (Product) products.get(i);
-            if (p.getId().equals(id)) return p;
+    //bulk insert without per-product output; the whole batch is checked
+    //first so a bad product leaves the inventory untouched
+    public void addProducts(DoublyLinkedList batch) {
+        long stamp = lock.writeLock();
+        try {
+            InventoryMutationEvent event = new InventoryMutationEvent();
+            event.begin();
+            Set<String> batchIds = new HashSet<>();
+            for (Object o : batch) {
+                Product product = (Product) o;
+                isProductValid(product);
+                if (
+                    productsById.containsKey(product.getId()) ||
+                    !batchIds.add(product.getId())
+                ) {
+                    throw new IllegalArgumentException(
+                        "Product ID already exists: " + product.getId()
+                    );
+                }
+            }
+            for (Object o : batch) {
+                insert((Product) o);
+            }
+            version++;
+            commit(event, "addProducts", "", 0, batch.size());
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        return null;
+    }
+
+    //lock-free, the map is safe to read during a write
+    public Product findProductById(String id) {
+        return productsById.get(id);
     }
 
     public void updateProduct(
@@ -40,88 +136,305 @@ public class InventoryServiceImpl implements InventoryService {
         double newPrice,
         int newQuantity
     ) {
-        Product product = findProductById(id);
-        if (product == null) {
-            throw new NullPointerException("Product not found: " + id);
-        }
+        long stamp = lock.writeLock();
+        try {
+            InventoryMutationEvent event = new InventoryMutationEvent();
+            event.begin();
+            Product product = productsById.get(id);
+            if (product == null) {
+                throw new NullPointerException("Product not found: " + id);
+            }
 
-        if (newPrice < 0 || newQuantity < 0) {
-            throw new IllegalArgumentException(
-                "New price or quantity cannot be less than 0."
+            if (newPrice < 0 || newQuantity < 0) {
+                throw new IllegalArgumentException(
+                    "New price or quantity cannot be less than 0."
+                );
+            }
+
+            // Writers are serialized by the lock and products can only be
+            // changed through their inventory, so the swap cannot conflict
+            Product.State old = product.update(
+                productKey,
+                newName,
+                newPrice,
+                newQuantity
+            );
+            String oldName = old.name();
+            double oldPrice = old.price();
+            int oldQuantity = old.quantity();
+
+            //re-indexing a name costs a trie walk and a posting per n-gram
+            if (!Objects.equals(oldName, newName)) {
+                nameIndex.add(product);
+            }
+            rangeIndex.add(product);
+            version++;
+            for (MaterializedView view : views) {
+                view.productChanged(product, oldQuantity);
+            }
+
+            Console.out().println(
+                "✓ Updated product " +
+                    oldName +
+                    ": Name(" +
+                    oldName +
+                    " -> " +
+                    newName +
+                    "), Price(" +
+                    oldPrice +
+                    " -> " +
+                    newPrice +
+                    "), Quantity(" +
+                    oldQuantity +
+                    " -> " +
+                    newQuantity +
+                    ")"
             );
+            commit(event, "updateProduct", id, newQuantity, 1);
+        } finally {
+            lock.unlockWrite(stamp);
         }
+    }
+
+    //stock change without console output, used by the sale path
+    public void adjustQuantity(String id, int delta) {
+        long stamp = lock.writeLock();
+        try {
+            InventoryMutationEvent event = new InventoryMutationEvent();
+            event.begin();
+            Product product = productsById.get(id);
+            if (product == null) {
+                throw new NullPointerException("Product not found: " + id);
+            }
 
-        String oldName = product.getName();
-        double oldPrice = product.getPrice();
-        int oldQuantity = product.getQuantity();
-
-        product.setName(newName);
-        product.setPrice(newPrice);
-        product.setQuantity(newQuantity);
-
-        System.out.println(
-            "✓ Updated product " +
-                oldName +
-                ": Name(" +
-                oldName +
-                " -> " +
-                newName +
-                "), Price(" +
-                oldPrice +
-                " -> " +
-                newPrice +
-                "), Quantity(" +
-                oldQuantity +
-                " -> " +
-                newQuantity +
-                ")"
-        );
+            Product.State old = product.getState();
+            if (old.quantity() + delta < 0) {
+                throw new InsufficientStockException(
+                    "Quantity cannot be less than 0."
+                );
+            }
+            product.update(
+                productKey,
+                old.name(),
+                old.price(),
+                old.quantity() + delta
+            );
+            int oldQuantity = old.quantity();
+
+            rangeIndex.add(product);
+            version++;
+            for (MaterializedView view : views) {
+                view.productChanged(product, oldQuantity);
+            }
+            commit(event, "adjustQuantity", id, delta, 1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     public void deleteProduct(String id) {
-        for (int i = 0; i < products.size(); i++) {
-            Product p = (Product) products.get(i);
-            if (p.getId().equals(id)) {
-                products.remove(i);
-                System.out.println("✓ Product deleted: " + p.getName());
+        long stamp = lock.writeLock();
+        try {
+            InventoryMutationEvent event = new InventoryMutationEvent();
+            event.begin();
+            Product p = productsById.remove(id);
+            if (p != null) {
+                products.remove(p);
+                catalog = null;
+                nameIndex.remove(p);
+                rangeIndex.remove(p);
+                p.detach(productKey);
+                version++;
+                for (MaterializedView view : views) {
+                    view.productRemoved(p);
+                }
+                Console.out().println("✓ Product deleted: " + p.getName());
+                commit(event, "deleteProduct", id, p.getQuantity(), 1);
             }
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
 
     public void displayProductsForward() {
-        if (products.isEmpty()) {
-            System.out.println("No products in inventory");
+        Product[] snapshot = catalog();
+        if (snapshot.length == 0) {
+            Console.out().println("No products in inventory");
             return;
         }
-        System.out.println("\n=== INVENTORY ===");
-        for (int i = 0; i < products.size(); i++) {
-            Product p = (Product) products.get(i); // ← EXPLICIT CAST
-            System.out.println(p);
+        Console.out().println("\n=== INVENTORY ===");
+        for (Product p : snapshot) {
+            Console.out().println(p);
         }
     }
 
     public void displayProductsBackward() {
-        if (products.isEmpty()) {
-            System.out.println("No products in inventory");
+        Product[] snapshot = catalog();
+        if (snapshot.length == 0) {
+            Console.out().println("No products in inventory");
             return;
         }
-        System.out.println("\n=== INVENTORY (REVERSED) ===");
-        for (int i = products.size() - 1; i >= 0; i--) {
-            Product p = (Product) products.get(i); // ← EXPLICIT CAST
-            System.out.println(p);
+        Console.out().println("\n=== INVENTORY (REVERSED) ===");
+        for (int i = snapshot.length - 1; i >= 0; i--) {
+            Console.out().println(snapshot[i]);
         }
     }
 
-    //for report service access
+    //for report service access; a copy, since the list changes under writers
     public DoublyLinkedList getAllProducts() {
-        return products;
+        DoublyLinkedList copy = new DoublyLinkedList();
+        for (Product product : catalog()) {
+            copy.add(product);
+        }
+        return copy;
+    }
+
+    //case-insensitive, results capped at limit; texts of any length are
+    //answered from the n-gram postings, never by scanning every name
+    public DoublyLinkedList searchProductsByName(String text, int limit) {
+        return read(() -> nameIndex.findBySubstring(text, limit));
+    }
+
+    //case-insensitive, alphabetical by name, results capped at limit
+    public DoublyLinkedList searchProductsByNamePrefix(
+        String prefix,
+        int limit
+    ) {
+        return read(() -> nameIndex.findByPrefix(prefix, limit));
+    }
+
+    //inclusive on both ends, cheapest first
+    public DoublyLinkedList findProductsByPriceRange(
+        double minPrice,
+        double maxPrice
+    ) {
+        return read(() -> rangeIndex.findByPriceRange(minPrice, maxPrice));
+    }
+
+    //strictly below threshold, lowest quantity first
+    public DoublyLinkedList findProductsWithQuantityBelow(int threshold) {
+        return read(() -> rangeIndex.findByQuantityBelow(threshold));
+    }
+
+    public DoublyLinkedList getProductsSortedByPrice() {
+        return read(rangeIndex::orderedByPrice);
+    }
+
+    public DoublyLinkedList getProductsSortedByQuantity() {
+        return read(rangeIndex::orderedByQuantity);
+    }
+
+    //lock-free like findProductById, without copying the catalog
+    public int getProductCount() {
+        return productsById.size();
+    }
+
+    //number of mutations so far, changes whenever the inventory does
+    public long getVersion() {
+        return version;
+    }
+
+    //the view first receives productAdded for every current product
+    public void registerView(MaterializedView view) {
+        long stamp = lock.writeLock();
+        try {
+            if (view == null) {
+                throw new NullPointerException("View cannot be null.");
+            }
+            for (Object o : products) {
+                view.productAdded((Product) o);
+            }
+            views = Arrays.copyOf(views, views.length + 1);
+            views[views.length - 1] = view;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
-    private void isProductValid(Product product) {
+    /**
+     * Returns the catalog array without locking unless a writer overlaps
+     * the read, rebuilding it under the read lock if a product was added or
+     * removed since the last catalog read. Readers racing to rebuild each
+     * publish an equal array, so the rebuild needs no lock of its own.
+     */
+    private Product[] catalog() {
+        long stamp = lock.tryOptimisticRead();
+        Product[] snapshot = catalog;
+        if (snapshot != null && lock.validate(stamp)) {
+            return snapshot;
+        }
+        stamp = lock.readLock();
+        try {
+            snapshot = catalog;
+            if (snapshot == null) {
+                snapshot = new Product[products.size()];
+                int i = 0;
+                for (Object o : products) {
+                    snapshot[i++] = (Product) o;
+                }
+                catalog = snapshot;
+            }
+            return snapshot;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs an index query under the read lock. Index walks are never run
+     * optimistically: a walk over a tree that a writer is relinking can
+     * loop or recurse without end before any validation is reached.
+     */
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //fields are only filled in while a recording has the event enabled
+    private static void commit(
+        InventoryMutationEvent event,
+        String operation,
+        String productId,
+        int quantity,
+        int count
+    ) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.productId = productId;
+            event.quantity = quantity;
+            event.products = count;
+            event.commit();
+        }
+    }
+
+    private void insert(Product product) {
+        product.attach(productKey);
+        products.add(product);
+        catalog = null;
+        productsById.put(product.getId(), product);
+        nameIndex.add(product);
+        rangeIndex.add(product);
+        for (MaterializedView view : views) {
+            view.productAdded(product);
+        }
+    }
+
+    //shared with the bulk importer so imported rows follow the same rules
+    public static void isProductValid(Product product) {
         if (product == null) {
             throw new NullPointerException("Product cannot be null.");
         }
 
+        if (product.isAttached()) {
+            throw new IllegalArgumentException(
+                "Product already belongs to an inventory: " + product.getId()
+            );
+        }
+
         if (product.getQuantity() < 0) {
             throw new IllegalArgumentException(
                 "Product quantity cannot be less than 0."
@@ -0,0 +1,292 @@
+package service.inventory;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory search index over product names.
+ *
+ * The index is maintained incrementally by InventoryServiceImpl and supports
+ * two kinds of case-insensitive lookups:
+ *
+ *   Prefix search - backed by a character trie, results come back in
+ *   alphabetical order of the product name
+ *   Substring search - backed by an inverted index of every one, two and
+ *   three character n-gram of the names, candidates are taken from the
+ *   smallest posting list and verified against the name
+ *
+ * Both lookups take a result limit so that unselective queries (for example a
+ * single letter against a million products) stop as soon as enough matches
+ * have been collected instead of materializing the whole catalog.
+ */
+class ProductNameIndex {
+
+    //Longest n-grams stored in the inverted index; shorter ones are stored
+    //too, so queries of any length are answered from it
+    private static final int MAX_GRAM_LENGTH = 3;
+
+    /**
+     * Trie node. Children are kept sorted so that a depth-first walk yields
+     * names in alphabetical order. Both collections are created on first use
+     * because most nodes of a large trie have a single child and no product.
+     */
+    private static class TrieNode {
+
+        //Child nodes keyed by the next character of the name
+        TreeMap<Character, TrieNode> children;
+
+        //Products whose normalized name ends at this node
+        Set<Product> products;
+
+        boolean isEmpty() {
+            return (
+                (children == null || children.isEmpty()) &&
+                (products == null || products.isEmpty())
+            );
+        }
+    }
+
+    /**
+     * Products containing one n-gram, stored as a plain array.
+     *
+     * Removal is lazy: a removed product stays in the array and is filtered
+     * out at query time by checking indexedNames. The stale counter tracks how
+     * many such entries there are, and the array is compacted once they make
+     * up half of it. Compared with a hash set per n-gram this keeps a posting
+     * entry at one reference, which matters at millions of products.
+     */
+    private static class Posting {
+
+        Product[] items = new Product[4];
+        int size;
+        int stale;
+
+        void append(Product product) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = product;
+        }
+    }
+
+    private final TrieNode root = new TrieNode();
+
+    //N-gram -> products whose normalized name contains that n-gram
+    private final Map<String, Posting> grams = new HashMap<>();
+
+    /**
+     * Normalized name each product was indexed under. Kept so that a product
+     * can be removed correctly even if its name was changed in the meantime,
+     * and used to filter stale posting entries.
+     */
+    private final Map<Product, String> indexedNames = new IdentityHashMap<>();
+
+    /**
+     * Adds the product to the index under its current name.
+     * Re-adding an already indexed product replaces its previous entry.
+     *
+     * @param product the product to index
+     */
+    void add(Product product) {
+        remove(product);
+        String name = normalize(product.getName());
+        indexedNames.put(product, name);
+
+        TrieNode node = root;
+        for (int i = 0; i < name.length(); i++) {
+            if (node.children == null) {
+                node.children = new TreeMap<>();
+            }
+            node = node.children.computeIfAbsent(
+                name.charAt(i),
+                c -> new TrieNode()
+            );
+        }
+        if (node.products == null) {
+            node.products = new HashSet<>(2);
+        }
+        node.products.add(product);
+
+        for (String gram : gramsOf(name)) {
+            grams.computeIfAbsent(gram, g -> new Posting()).append(product);
+        }
+    }
+
+    /**
+     * Removes the product from the index. Does nothing if it is not indexed.
+     *
+     * @param product the product to remove
+     */
+    void remove(Product product) {
+        String name = indexedNames.remove(product);
+        if (name == null) {
+            return;
+        }
+
+        // Walk down recording the path so empty branches can be pruned
+        TrieNode[] path = new TrieNode[name.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < name.length(); i++) {
+            path[i + 1] = path[i].children.get(name.charAt(i));
+        }
+        path[name.length()].products.remove(product);
+        for (int i = name.length(); i > 0; i--) {
+            if (!path[i].isEmpty()) {
+                break;
+            }
+            path[i - 1].children.remove(name.charAt(i - 1));
+        }
+
+        for (String gram : gramsOf(name)) {
+            Posting posting = grams.get(gram);
+            if (posting != null && ++posting.stale * 2 >= posting.size) {
+                compact(gram, posting);
+            }
+        }
+    }
+
+    /**
+     * Returns products whose name starts with the given prefix, in
+     * alphabetical order of name.
+     *
+     * @param prefix the name prefix, matched case-insensitively
+     * @param limit the maximum number of products to return
+     * @return a list of at most limit matching products
+     */
+    DoublyLinkedList findByPrefix(String prefix, int limit) {
+        DoublyLinkedList result = new DoublyLinkedList();
+        String key = normalize(prefix);
+        TrieNode node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children == null
+                ? null
+                : node.children.get(key.charAt(i));
+        }
+        if (node != null) {
+            collect(node, result, limit);
+        }
+        return result;
+    }
+
+    /**
+     * Returns products whose name contains the given text anywhere.
+     *
+     * A query of up to three characters is itself an n-gram, so its posting
+     * holds exactly the candidates. A longer query takes the smallest of the
+     * postings of its trigrams. Either way only names that contain the
+     * query's n-grams are verified, so a rare or absent pair costs its
+     * posting rather than a pass over every name, and a common letter stops
+     * after limit matches.
+     *
+     * @param text the text to look for, matched case-insensitively
+     * @param limit the maximum number of products to return
+     * @return a list of at most limit matching products
+     */
+    DoublyLinkedList findBySubstring(String text, int limit) {
+        DoublyLinkedList result = new DoublyLinkedList();
+        String key = normalize(text);
+        if (limit <= 0) {
+            return result;
+        }
+
+        if (key.isEmpty()) {
+            for (Product p : indexedNames.keySet()) {
+                result.add(p);
+                if (result.size() >= limit) break;
+            }
+            return result;
+        }
+
+        // Every match must appear in all of the query's postings,
+        // so scanning the smallest one and verifying is sufficient
+        Posting candidates = null;
+        int length = Math.min(key.length(), MAX_GRAM_LENGTH);
+        for (int i = 0; i + length <= key.length(); i++) {
+            Posting posting = grams.get(key.substring(i, i + length));
+            if (posting == null) {
+                return result;
+            }
+            if (candidates == null || posting.size < candidates.size) {
+                candidates = posting;
+            }
+        }
+
+        // A product renamed back and forth can appear twice in a posting
+        Set<Product> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < candidates.size; i++) {
+            Product p = candidates.items[i];
+            String name = indexedNames.get(p);
+            if (name != null && name.contains(key) && seen.add(p)) {
+                result.add(p);
+                if (result.size() >= limit) break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops stale entries from a posting, or the whole posting if nothing
+     * live is left in it.
+     */
+    private void compact(String gram, Posting posting) {
+        Set<Product> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        int size = 0;
+        for (int i = 0; i < posting.size; i++) {
+            Product p = posting.items[i];
+            String name = indexedNames.get(p);
+            if (name != null && name.contains(gram) && kept.add(p)) {
+                posting.items[size++] = p;
+            }
+        }
+        if (size == 0) {
+            grams.remove(gram);
+            return;
+        }
+        Arrays.fill(posting.items, size, posting.size, null);
+        posting.size = size;
+        posting.stale = 0;
+    }
+
+    //distinct n-grams of a normalized name, one to MAX_GRAM_LENGTH long
+    private static Set<String> gramsOf(String name) {
+        Set<String> result = new HashSet<>();
+        for (int length = 1; length <= MAX_GRAM_LENGTH; length++) {
+            for (int i = 0; i + length <= name.length(); i++) {
+                result.add(name.substring(i, i + length));
+            }
+        }
+        return result;
+    }
+
+    private void collect(TrieNode node, DoublyLinkedList result, int limit) {
+        if (result.size() >= limit) {
+            return;
+        }
+        if (node.products != null) {
+            for (Product p : node.products) {
+                result.add(p);
+                if (result.size() >= limit) return;
+            }
+        }
+        if (node.children != null) {
+            for (TrieNode child : node.children.values()) {
+                collect(child, result, limit);
+                if (result.size() >= limit) return;
+            }
+        }
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
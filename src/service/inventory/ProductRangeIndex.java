@@ -0,0 +1,125 @@
+package service.inventory;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Ordered secondary indexes on product price and quantity.
+ *
+ * Each index is a sorted map from the attribute value to the products that
+ * currently have that value, so range queries cost O(log n + k) where k is the
+ * number of products returned. Products with equal keys are kept in insertion
+ * order.
+ *
+ * The key a product was indexed under is remembered separately, so a product
+ * is always removed from the right bucket even if its fields were changed
+ * before the index was told about it. InventoryServiceImpl re-indexes a
+ * product after every change to its price or quantity.
+ */
+class ProductRangeIndex {
+
+    private final NavigableMap<Double, Set<Product>> byPrice = new TreeMap<>();
+    private final NavigableMap<Integer, Set<Product>> byQuantity =
+        new TreeMap<>();
+
+    //Keys each product is currently indexed under
+    private final Map<Product, Double> indexedPrice = new IdentityHashMap<>();
+    private final Map<Product, Integer> indexedQuantity =
+        new IdentityHashMap<>();
+
+    /**
+     * Adds the product under its current price and quantity.
+     * Re-adding an already indexed product moves it to its new keys.
+     *
+     * @param product the product to index
+     */
+    void add(Product product) {
+        remove(product);
+        double price = product.getPrice();
+        int quantity = product.getQuantity();
+        indexedPrice.put(product, price);
+        indexedQuantity.put(product, quantity);
+        byPrice.computeIfAbsent(price, k -> new LinkedHashSet<>()).add(product);
+        byQuantity
+            .computeIfAbsent(quantity, k -> new LinkedHashSet<>())
+            .add(product);
+    }
+
+    /**
+     * Removes the product from both indexes. Does nothing if it is not indexed.
+     *
+     * @param product the product to remove
+     */
+    void remove(Product product) {
+        Double price = indexedPrice.remove(product);
+        if (price != null) {
+            removeFromBucket(byPrice, price, product);
+        }
+        Integer quantity = indexedQuantity.remove(product);
+        if (quantity != null) {
+            removeFromBucket(byQuantity, quantity, product);
+        }
+    }
+
+    /**
+     * @return products priced between min and max inclusive, cheapest first
+     */
+    DoublyLinkedList findByPriceRange(double min, double max) {
+        if (min > max) {
+            return new DoublyLinkedList();
+        }
+        return flatten(byPrice.subMap(min, true, max, true));
+    }
+
+    /**
+     * @return products with quantity strictly below threshold, lowest first
+     */
+    DoublyLinkedList findByQuantityBelow(int threshold) {
+        return flatten(byQuantity.headMap(threshold, false));
+    }
+
+    /**
+     * @return all indexed products ordered by price, cheapest first
+     */
+    DoublyLinkedList orderedByPrice() {
+        return flatten(byPrice);
+    }
+
+    /**
+     * @return all indexed products ordered by quantity, lowest first
+     */
+    DoublyLinkedList orderedByQuantity() {
+        return flatten(byQuantity);
+    }
+
+    private static <K> void removeFromBucket(
+        NavigableMap<K, Set<Product>> index,
+        K key,
+        Product product
+    ) {
+        Set<Product> bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(product);
+            if (bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static DoublyLinkedList flatten(Map<?, Set<Product>> buckets) {
+        DoublyLinkedList result = new DoublyLinkedList();
+        for (Set<Product> bucket : buckets.values()) {
+            for (Product p : bucket) {
+                result.add(p);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a change to the inventory made through
+ * InventoryServiceImpl: adding, bulk adding, updating or deleting products
+ * and adjusting stock. Disabled by default.
+ */
+@Name("smartinventory.InventoryMutation")
+@Label("Inventory Mutation")
+@Category({ "Smart Inventory", "Inventory" })
+@Description("A product added, updated, deleted or its stock adjusted")
+@Enabled(false)
+@StackTrace(false)
+public class InventoryMutationEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description(
+        "addProduct, addProducts, updateProduct, deleteProduct or adjustQuantity"
+    )
+    public String operation;
+
+    @Label("Product ID")
+    @Description("Empty for bulk operations")
+    public String productId;
+
+    @Label("Quantity")
+    @Description(
+        "Stock after the change, or the change itself for adjustQuantity"
+    )
+    public int quantity;
+
+    @Label("Products")
+    @Description("Number of products affected")
+    public int products;
+}
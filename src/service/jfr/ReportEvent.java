@@ -0,0 +1,29 @@
+package service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one ReportServiceImpl or ViewReportService
+ * report, with the number of products and sales it had to look at. Disabled
+ * by default.
+ */
+@Name("smartinventory.Report")
+@Label("Report")
+@Category({ "Smart Inventory", "Reports" })
+@Description("A ReportService report and the rows it scanned")
+@Enabled(false)
+@StackTrace(false)
+public class ReportEvent extends jdk.jfr.Event {
+
+    @Label("Report")
+    public String report;
+
+    @Label("Rows Scanned")
+    @Description("Products and sales read to produce the report")
+    public long rowsScanned;
+}
@@ -0,0 +1,37 @@
+package service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one SaleServiceImpl.recordSale call.
+ *
+ * Like all events in this package it is disabled by default, so unless a
+ * recording explicitly enables smartinventory.SaleRecorded the begin/commit
+ * calls are no-ops the JIT removes together with the event object.
+ */
+@Name("smartinventory.SaleRecorded")
+@Label("Sale Recorded")
+@Category({ "Smart Inventory", "Sales" })
+@Description("A call to SaleService.recordSale, successful or rejected")
+@Enabled(false)
+@StackTrace(false)
+public class SaleRecordedEvent extends jdk.jfr.Event {
+
+    @Label("Product ID")
+    public String productId;
+
+    @Label("Quantity")
+    public int quantity;
+
+    @Label("Total Amount")
+    public double totalAmount;
+
+    @Label("Succeeded")
+    @Description("False if the sale was rejected, for example for low stock")
+    public boolean succeeded;
+}
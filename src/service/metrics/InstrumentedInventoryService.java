@@ -0,0 +1,322 @@
+package service.metrics;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import service.inventory.InventoryService;
+
+/**
+ * InventoryService decorator that records call counts, errors and latency
+ * for every method into a MetricsRegistry, then delegates unchanged.
+ */
+public class InstrumentedInventoryService implements InventoryService {
+
+    private final InventoryService delegate;
+
+    private final MethodMetrics addProduct;
+    private final MethodMetrics addProducts;
+    private final MethodMetrics findProductById;
+    private final MethodMetrics deleteProduct;
+    private final MethodMetrics displayProductsForward;
+    private final MethodMetrics displayProductsBackward;
+    private final MethodMetrics updateProduct;
+    private final MethodMetrics adjustQuantity;
+    private final MethodMetrics getAllProducts;
+    private final MethodMetrics searchProductsByName;
+    private final MethodMetrics searchProductsByNamePrefix;
+    private final MethodMetrics findProductsByPriceRange;
+    private final MethodMetrics findProductsWithQuantityBelow;
+    private final MethodMetrics getProductsSortedByPrice;
+    private final MethodMetrics getProductsSortedByQuantity;
+
+    /**
+     * Wraps the given service, registering one MethodMetrics per method.
+     *
+     * @param delegate the service that does the actual work
+     * @param registry the registry to create the metrics in
+     * @throws NullPointerException if either parameter is null
+     */
+    public InstrumentedInventoryService(
+        InventoryService delegate,
+        MetricsRegistry registry
+    ) {
+        if (delegate == null) {
+            throw new NullPointerException("InventoryService cannot be null");
+        }
+        if (registry == null) {
+            throw new NullPointerException("MetricsRegistry cannot be null");
+        }
+        this.delegate = delegate;
+        this.addProduct = registry.register("InventoryService", "addProduct");
+        this.addProducts = registry.register("InventoryService", "addProducts");
+        this.findProductById = registry.register(
+            "InventoryService",
+            "findProductById"
+        );
+        this.deleteProduct = registry.register(
+            "InventoryService",
+            "deleteProduct"
+        );
+        this.displayProductsForward = registry.register(
+            "InventoryService",
+            "displayProductsForward"
+        );
+        this.displayProductsBackward = registry.register(
+            "InventoryService",
+            "displayProductsBackward"
+        );
+        this.updateProduct = registry.register(
+            "InventoryService",
+            "updateProduct"
+        );
+        this.adjustQuantity = registry.register(
+            "InventoryService",
+            "adjustQuantity"
+        );
+        this.getAllProducts = registry.register(
+            "InventoryService",
+            "getAllProducts"
+        );
+        this.searchProductsByName = registry.register(
+            "InventoryService",
+            "searchProductsByName"
+        );
+        this.searchProductsByNamePrefix = registry.register(
+            "InventoryService",
+            "searchProductsByNamePrefix"
+        );
+        this.findProductsByPriceRange = registry.register(
+            "InventoryService",
+            "findProductsByPriceRange"
+        );
+        this.findProductsWithQuantityBelow = registry.register(
+            "InventoryService",
+            "findProductsWithQuantityBelow"
+        );
+        this.getProductsSortedByPrice = registry.register(
+            "InventoryService",
+            "getProductsSortedByPrice"
+        );
+        this.getProductsSortedByQuantity = registry.register(
+            "InventoryService",
+            "getProductsSortedByQuantity"
+        );
+    }
+
+    @Override
+    public void addProduct(Product product) {
+        long start = addProduct.start();
+        try {
+            delegate.addProduct(product);
+        } catch (RuntimeException e) {
+            addProduct.fail();
+            throw e;
+        } finally {
+            addProduct.stop(start);
+        }
+    }
+
+    @Override
+    public void addProducts(DoublyLinkedList products) {
+        long start = addProducts.start();
+        try {
+            delegate.addProducts(products);
+        } catch (RuntimeException e) {
+            addProducts.fail();
+            throw e;
+        } finally {
+            addProducts.stop(start);
+        }
+    }
+
+    @Override
+    public Product findProductById(String id) {
+        long start = findProductById.start();
+        try {
+            return delegate.findProductById(id);
+        } catch (RuntimeException e) {
+            findProductById.fail();
+            throw e;
+        } finally {
+            findProductById.stop(start);
+        }
+    }
+
+    @Override
+    public void deleteProduct(String id) {
+        long start = deleteProduct.start();
+        try {
+            delegate.deleteProduct(id);
+        } catch (RuntimeException e) {
+            deleteProduct.fail();
+            throw e;
+        } finally {
+            deleteProduct.stop(start);
+        }
+    }
+
+    @Override
+    public void displayProductsForward() {
+        long start = displayProductsForward.start();
+        try {
+            delegate.displayProductsForward();
+        } catch (RuntimeException e) {
+            displayProductsForward.fail();
+            throw e;
+        } finally {
+            displayProductsForward.stop(start);
+        }
+    }
+
+    @Override
+    public void displayProductsBackward() {
+        long start = displayProductsBackward.start();
+        try {
+            delegate.displayProductsBackward();
+        } catch (RuntimeException e) {
+            displayProductsBackward.fail();
+            throw e;
+        } finally {
+            displayProductsBackward.stop(start);
+        }
+    }
+
+    @Override
+    public void updateProduct(
+        String id,
+        String newName,
+        double newPrice,
+        int newQuantity
+    ) {
+        long start = updateProduct.start();
+        try {
+            delegate.updateProduct(id, newName, newPrice, newQuantity);
+        } catch (RuntimeException e) {
+            updateProduct.fail();
+            throw e;
+        } finally {
+            updateProduct.stop(start);
+        }
+    }
+
+    @Override
+    public void adjustQuantity(String id, int delta) {
+        long start = adjustQuantity.start();
+        try {
+            delegate.adjustQuantity(id, delta);
+        } catch (RuntimeException e) {
+            adjustQuantity.fail();
+            throw e;
+        } finally {
+            adjustQuantity.stop(start);
+        }
+    }
+
+    @Override
+    public DoublyLinkedList getAllProducts() {
+        long start = getAllProducts.start();
+        try {
+            return delegate.getAllProducts();
+        } catch (RuntimeException e) {
+            getAllProducts.fail();
+            throw e;
+        } finally {
+            getAllProducts.stop(start);
+        }
+    }
+
+    @Override
+    public DoublyLinkedList searchProductsByName(String text, int limit) {
+        long start = searchProductsByName.start();
+        try {
+            return delegate.searchProductsByName(text, limit);
+        } catch (RuntimeException e) {
+            searchProductsByName.fail();
+            throw e;
+        } finally {
+            searchProductsByName.stop(start);
+        }
+    }
+
+    @Override
+    public DoublyLinkedList searchProductsByNamePrefix(
+        String prefix,
+        int limit
+    ) {
+        long start = searchProductsByNamePrefix.start();
+        try {
+            return delegate.searchProductsByNamePrefix(prefix, limit);
+        } catch (RuntimeException e) {
+            searchProductsByNamePrefix.fail();
+            throw e;
+        } finally {
+            searchProductsByNamePrefix.stop(start);
+        }
+    }
+
+    @Override
+    public DoublyLinkedList findProductsByPriceRange(
+        double minPrice,
+        double maxPrice
+    ) {
+        long start = findProductsByPriceRange.start();
+        try {
+            return delegate.findProductsByPriceRange(minPrice, maxPrice);
+        } catch (RuntimeException e) {
+            findProductsByPriceRange.fail();
+            throw e;
+        } finally {
+            findProductsByPriceRange.stop(start);
+        }
+    }
+
+    @Override
+    public DoublyLinkedList findProductsWithQuantityBelow(int threshold) {
+        long start = findProductsWithQuantityBelow.start();
+        try {
+            return delegate.findProductsWithQuantityBelow(threshold);
+        } catch (RuntimeException e) {
+            findProductsWithQuantityBelow.fail();
+            throw e;
+        } finally {
+            findProductsWithQuantityBelow.stop(start);
+        }
+    }
+
+    @Override
+    public DoublyLinkedList getProductsSortedByPrice() {
+        long start = getProductsSortedByPrice.start();
+        try {
+            return delegate.getProductsSortedByPrice();
+        } catch (RuntimeException e) {
+            getProductsSortedByPrice.fail();
+            throw e;
+        } finally {
+            getProductsSortedByPrice.stop(start);
+        }
+    }
+
+    @Override
+    public DoublyLinkedList getProductsSortedByQuantity() {
+        long start = getProductsSortedByQuantity.start();
+        try {
+            return delegate.getProductsSortedByQuantity();
+        } catch (RuntimeException e) {
+            getProductsSortedByQuantity.fail();
+            throw e;
+        } finally {
+            getProductsSortedByQuantity.stop(start);
+        }
+    }
+
+    //not measured, a lock-free count like getVersion
+    @Override
+    public int getProductCount() {
+        return delegate.getProductCount();
+    }
+
+    //not measured, it is a field read made by every cached report
+    @Override
+    public long getVersion() {
+        return delegate.getVersion();
+    }
+}
@@ -0,0 +1,179 @@
+package service.metrics;
+
+import entities.DoublyLinkedList;
+import entities.ProductSales;
+import service.report.ReportService;
+import service.view.SalesRate;
+
+import java.time.Duration;
+
+/**
+ * ReportService decorator that records call counts, errors and latency for
+ * every method into a MetricsRegistry, then delegates unchanged.
+ */
+public class InstrumentedReportService implements ReportService {
+
+    private final ReportService delegate;
+
+    private final MethodMetrics getTotalNumberOfProducts;
+    private final MethodMetrics getTotalSalesRevenue;
+    private final MethodMetrics displayProductWithHighestSales;
+    private final MethodMetrics getProductWithHighestSales;
+    private final MethodMetrics getOutOfStockProducts;
+    private final MethodMetrics getHeavyHitters;
+    private final MethodMetrics estimateDistinctProductsSold;
+    private final MethodMetrics getSalesRate;
+
+    /**
+     * Wraps the given service, registering one MethodMetrics per method.
+     *
+     * @param delegate the service that does the actual work
+     * @param registry the registry to create the metrics in
+     * @throws NullPointerException if either parameter is null
+     */
+    public InstrumentedReportService(
+        ReportService delegate,
+        MetricsRegistry registry
+    ) {
+        if (delegate == null) {
+            throw new NullPointerException("ReportService cannot be null");
+        }
+        if (registry == null) {
+            throw new NullPointerException("MetricsRegistry cannot be null");
+        }
+        this.delegate = delegate;
+        this.getTotalNumberOfProducts = registry.register(
+            "ReportService",
+            "getTotalNumberOfProducts"
+        );
+        this.getTotalSalesRevenue = registry.register(
+            "ReportService",
+            "getTotalSalesRevenue"
+        );
+        this.displayProductWithHighestSales = registry.register(
+            "ReportService",
+            "displayProductWithHighestSales"
+        );
+        this.getProductWithHighestSales = registry.register(
+            "ReportService",
+            "getProductWithHighestSales"
+        );
+        this.getOutOfStockProducts = registry.register(
+            "ReportService",
+            "getOutOfStockProducts"
+        );
+        this.getHeavyHitters = registry.register(
+            "ReportService",
+            "getHeavyHitters"
+        );
+        this.estimateDistinctProductsSold = registry.register(
+            "ReportService",
+            "estimateDistinctProductsSold"
+        );
+        this.getSalesRate = registry.register("ReportService", "getSalesRate");
+    }
+
+    @Override
+    public int getTotalNumberOfProducts() {
+        long start = getTotalNumberOfProducts.start();
+        try {
+            return delegate.getTotalNumberOfProducts();
+        } catch (RuntimeException e) {
+            getTotalNumberOfProducts.fail();
+            throw e;
+        } finally {
+            getTotalNumberOfProducts.stop(start);
+        }
+    }
+
+    @Override
+    public double getTotalSalesRevenue() {
+        long start = getTotalSalesRevenue.start();
+        try {
+            return delegate.getTotalSalesRevenue();
+        } catch (RuntimeException e) {
+            getTotalSalesRevenue.fail();
+            throw e;
+        } finally {
+            getTotalSalesRevenue.stop(start);
+        }
+    }
+
+    @Override
+    public void displayProductWithHighestSales() {
+        long start = displayProductWithHighestSales.start();
+        try {
+            delegate.displayProductWithHighestSales();
+        } catch (RuntimeException e) {
+            displayProductWithHighestSales.fail();
+            throw e;
+        } finally {
+            displayProductWithHighestSales.stop(start);
+        }
+    }
+
+    @Override
+    public ProductSales getProductWithHighestSales() {
+        long start = getProductWithHighestSales.start();
+        try {
+            return delegate.getProductWithHighestSales();
+        } catch (RuntimeException e) {
+            getProductWithHighestSales.fail();
+            throw e;
+        } finally {
+            getProductWithHighestSales.stop(start);
+        }
+    }
+
+    @Override
+    public DoublyLinkedList getOutOfStockProducts() {
+        long start = getOutOfStockProducts.start();
+        try {
+            return delegate.getOutOfStockProducts();
+        } catch (RuntimeException e) {
+            getOutOfStockProducts.fail();
+            throw e;
+        } finally {
+            getOutOfStockProducts.stop(start);
+        }
+    }
+
+    @Override
+    public DoublyLinkedList getHeavyHitters(int limit) {
+        long start = getHeavyHitters.start();
+        try {
+            return delegate.getHeavyHitters(limit);
+        } catch (RuntimeException e) {
+            getHeavyHitters.fail();
+            throw e;
+        } finally {
+            getHeavyHitters.stop(start);
+        }
+    }
+
+    @Override
+    public long estimateDistinctProductsSold(Duration window) {
+        long start = estimateDistinctProductsSold.start();
+        try {
+            return delegate.estimateDistinctProductsSold(window);
+        } catch (RuntimeException e) {
+            estimateDistinctProductsSold.fail();
+            throw e;
+        } finally {
+            estimateDistinctProductsSold.stop(start);
+        }
+    }
+
+    @Override
+    public SalesRate getSalesRate(Duration window) {
+        long start = getSalesRate.start();
+        try {
+            return delegate.getSalesRate(window);
+        } catch (RuntimeException e) {
+            getSalesRate.fail();
+            throw e;
+        } finally {
+            getSalesRate.stop(start);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package service.metrics;
+
+import entities.DoublyLinkedList;
+import entities.Sale;
+import service.sale.SaleService;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * SaleService decorator that records call counts, errors and latency for
+ * every method into a MetricsRegistry, then delegates unchanged.
+ */
+public class InstrumentedSaleService implements SaleService {
+
+    private final SaleService delegate;
+
+    private final MethodMetrics recordSale;
+    private final MethodMetrics addSales;
+    private final MethodMetrics displayAllSales;
+    private final MethodMetrics getAllSales;
+    private final MethodMetrics forEachSale;
+    private final MethodMetrics forEachSaleBetween;
+    private final MethodMetrics getSaleCount;
+
+    /**
+     * Wraps the given service, registering one MethodMetrics per method.
+     *
+     * @param delegate the service that does the actual work
+     * @param registry the registry to create the metrics in
+     * @throws NullPointerException if either parameter is null
+     */
+    public InstrumentedSaleService(
+        SaleService delegate,
+        MetricsRegistry registry
+    ) {
+        if (delegate == null) {
+            throw new NullPointerException("SaleService cannot be null");
+        }
+        if (registry == null) {
+            throw new NullPointerException("MetricsRegistry cannot be null");
+        }
+        this.delegate = delegate;
+        this.recordSale = registry.register("SaleService", "recordSale");
+        this.addSales = registry.register("SaleService", "addSales");
+        this.displayAllSales = registry.register(
+            "SaleService",
+            "displayAllSales"
+        );
+        this.getAllSales = registry.register("SaleService", "getAllSales");
+        this.forEachSale = registry.register("SaleService", "forEachSale");
+        this.forEachSaleBetween = registry.register(
+            "SaleService",
+            "forEachSaleBetween"
+        );
+        this.getSaleCount = registry.register("SaleService", "getSaleCount");
+    }
+
+    @Override
+    public Sale recordSale(String productId, int quantity) {
+        long start = recordSale.start();
+        try {
+            return delegate.recordSale(productId, quantity);
+        } catch (RuntimeException e) {
+            recordSale.fail();
+            throw e;
+        } finally {
+            recordSale.stop(start);
+        }
+    }
+
+    @Override
+    public void addSales(DoublyLinkedList sales) {
+        long start = addSales.start();
+        try {
+            delegate.addSales(sales);
+        } catch (RuntimeException e) {
+            addSales.fail();
+            throw e;
+        } finally {
+            addSales.stop(start);
+        }
+    }
+
+    @Override
+    public void displayAllSales() {
+        long start = displayAllSales.start();
+        try {
+            delegate.displayAllSales();
+        } catch (RuntimeException e) {
+            displayAllSales.fail();
+            throw e;
+        } finally {
+            displayAllSales.stop(start);
+        }
+    }
+
+    @Override
+    public DoublyLinkedList getAllSales() {
+        long start = getAllSales.start();
+        try {
+            return delegate.getAllSales();
+        } catch (RuntimeException e) {
+            getAllSales.fail();
+            throw e;
+        } finally {
+            getAllSales.stop(start);
+        }
+    }
+
+    @Override
+    public void forEachSale(Consumer<Sale> action) {
+        long start = forEachSale.start();
+        try {
+            delegate.forEachSale(action);
+        } catch (RuntimeException e) {
+            forEachSale.fail();
+            throw e;
+        } finally {
+            forEachSale.stop(start);
+        }
+    }
+
+    @Override
+    public void forEachSaleBetween(
+        LocalDateTime from,
+        LocalDateTime to,
+        Consumer<Sale> action
+    ) {
+        long start = forEachSaleBetween.start();
+        try {
+            delegate.forEachSaleBetween(from, to, action);
+        } catch (RuntimeException e) {
+            forEachSaleBetween.fail();
+            throw e;
+        } finally {
+            forEachSaleBetween.stop(start);
+        }
+    }
+
+    @Override
+    public int getSaleCount() {
+        long start = getSaleCount.start();
+        try {
+            return delegate.getSaleCount();
+        } catch (RuntimeException e) {
+            getSaleCount.fail();
+            throw e;
+        } finally {
+            getSaleCount.stop(start);
+        }
+    }
+
+    //not measured, it is a field read made by every cached report
+    @Override
+    public long getVersion() {
+        return delegate.getVersion();
+    }
+}
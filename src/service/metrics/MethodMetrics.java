@@ -0,0 +1,174 @@
+package service.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, error count and latency histogram for one service method.
+ *
+ * Instrumented services call start() before delegating, fail() if the call
+ * throws and stop(start) afterwards. Counters are LongAdders, so concurrent
+ * callers update separate cells instead of contending on one value.
+ *
+ * Reading the clock twice costs far more than the counters, so latency can
+ * be sampled: with a sample interval of n, each call is timed with
+ * probability 1/n while calls and errors are still counted exactly. Latency
+ * figures then describe the sampled calls.
+ *
+ * Instances are exposed over JMX through MethodMetricsMBean.
+ */
+public class MethodMetrics implements MethodMetricsMBean {
+
+    //Qualified method name, for example InventoryService.findProductById
+    private final String name;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder timedCalls = new LongAdder();
+
+    //Sample interval minus one; the interval is a power of two
+    private final int sampleMask;
+
+    //Start of the current measurement period, moved by reset()
+    private volatile long periodStart = System.nanoTime();
+
+    //Returned by start() for calls that are not timed
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    MethodMetrics(String name, int sampleInterval) {
+        this.name = name;
+        this.sampleMask = sampleInterval - 1;
+    }
+
+    /**
+     * @return the value to pass to stop(long) for this call
+     */
+    public long start() {
+        if (
+            sampleMask != 0 &&
+            (ThreadLocalRandom.current().nextInt() & sampleMask) != 0
+        ) {
+            return NOT_TIMED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a finished call, successful or not.
+     *
+     * @param start the value returned by start() for this call
+     */
+    public void stop(long start) {
+        calls.increment();
+        if (start != NOT_TIMED) {
+            long elapsed = System.nanoTime() - start;
+            timedCalls.increment();
+            totalNanos.add(elapsed);
+            histogram.record(elapsed);
+        }
+    }
+
+    /**
+     * Counts a call that ended with an exception. stop(long) must still be
+     * called for it.
+     */
+    public void fail() {
+        errors.increment();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCallCount() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    //average since creation or the last reset
+    @Override
+    public double getCallsPerSecond() {
+        long elapsed = System.nanoTime() - periodStart;
+        return elapsed <= 0 ? 0 : calls.sum() * 1_000_000_000.0 / elapsed;
+    }
+
+    @Override
+    public long getTimedCallCount() {
+        return timedCalls.sum();
+    }
+
+    @Override
+    public int getSampleInterval() {
+        return sampleMask + 1;
+    }
+
+    @Override
+    public double getMeanLatency() {
+        long count = timedCalls.sum();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    @Override
+    public long getMedianLatency() {
+        return histogram.percentile(0.5);
+    }
+
+    @Override
+    public long getP90Latency() {
+        return histogram.percentile(0.9);
+    }
+
+    @Override
+    public long getP99Latency() {
+        return histogram.percentile(0.99);
+    }
+
+    @Override
+    public long getMaxLatency() {
+        return histogram.max();
+    }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        totalNanos.reset();
+        timedCalls.reset();
+        histogram.reset();
+        periodStart = System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        String counts = String.format(
+            "%-45s calls=%-9d errors=%-6d rate=%9.1f/s timed=%-8d",
+            name,
+            getCallCount(),
+            getErrorCount(),
+            getCallsPerSecond(),
+            getTimedCallCount()
+        );
+        if (getTimedCallCount() == 0) {
+            return counts + " (no timed calls yet)";
+        }
+        return (
+            counts +
+            String.format(
+                " mean=%9.0fns p50=%8dns p90=%8dns p99=%8dns max=%9dns",
+                getMeanLatency(),
+                getMedianLatency(),
+                getP90Latency(),
+                getP99Latency(),
+                getMaxLatency()
+            )
+        );
+    }
+}
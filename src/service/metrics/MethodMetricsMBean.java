@@ -0,0 +1,20 @@
+package service.metrics;
+
+/**
+ * JMX view of the metrics collected for one service method.
+ * All latencies are in nanoseconds.
+ */
+public interface MethodMetricsMBean {
+    String getName();
+    long getCallCount();
+    long getErrorCount();
+    double getCallsPerSecond();
+    long getTimedCallCount();
+    int getSampleInterval();
+    double getMeanLatency();
+    long getMedianLatency();
+    long getP90Latency();
+    long getP99Latency();
+    long getMaxLatency();
+    void reset();
+}
@@ -0,0 +1,141 @@
+package service.metrics;
+
+import entities.DoublyLinkedList;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Creates MethodMetrics for instrumented services and publishes them as
+ * JMX MBeans on the platform MBean server under the domain
+ * "smartinventory", one MBean per method.
+ *
+ * The registry also keeps its metrics in creation order so they can be
+ * printed together, which is what the Main metrics menu does.
+ *
+ * By default one call in DEFAULT_SAMPLE_INTERVAL is timed, which keeps the
+ * overhead of an instrumented call to about 20 ns as measured by
+ * MetricsOverheadBenchmark; see MethodMetrics.
+ */
+public class MetricsRegistry {
+
+    //JMX domain all method MBeans are registered under
+    static final String JMX_DOMAIN = "smartinventory";
+
+    //Default latency sample interval, one timed call in this many
+    public static final int DEFAULT_SAMPLE_INTERVAL = 16;
+
+    private final DoublyLinkedList metrics = new DoublyLinkedList();
+    private final MBeanServer server;
+    private final int sampleInterval;
+
+    /**
+     * Constructs a registry that publishes to the platform MBean server
+     * with the default sample interval.
+     */
+    public MetricsRegistry() {
+        this(
+            ManagementFactory.getPlatformMBeanServer(),
+            DEFAULT_SAMPLE_INTERVAL
+        );
+    }
+
+    /**
+     * Constructs a registry that publishes to the given MBean server,
+     * or only keeps metrics in memory if server is null.
+     *
+     * @param server the MBean server to register with, may be null
+     * @param sampleInterval time one call in this many, 1 to time every call
+     * @throws IllegalArgumentException if sampleInterval is not a positive
+     *         power of two
+     */
+    public MetricsRegistry(MBeanServer server, int sampleInterval) {
+        if (sampleInterval < 1 || Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException(
+                "Sample interval must be a positive power of two."
+            );
+        }
+        this.server = server;
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * Creates and registers the metrics for one method.
+     *
+     * An MBean already registered under the same name, for example by an
+     * earlier registry in the same JVM, is replaced.
+     *
+     * @param service the service interface name, for example SaleService
+     * @param method the method name, for example recordSale
+     * @return the new metrics
+     */
+    public synchronized MethodMetrics register(String service, String method) {
+        MethodMetrics methodMetrics = new MethodMetrics(
+            service + "." + method,
+            sampleInterval
+        );
+        metrics.add(methodMetrics);
+        if (server != null) {
+            try {
+                ObjectName objectName = new ObjectName(
+                    JMX_DOMAIN +
+                        ":type=MethodMetrics,service=" +
+                        service +
+                        ",method=" +
+                        method
+                );
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+                server.registerMBean(methodMetrics, objectName);
+            } catch (JMException e) {
+                throw new IllegalStateException(
+                    "Could not register metrics MBean for " +
+                        methodMetrics.getName(),
+                    e
+                );
+            }
+        }
+        return methodMetrics;
+    }
+
+    /**
+     * @return the registered MethodMetrics in registration order
+     */
+    public synchronized DoublyLinkedList getAll() {
+        DoublyLinkedList copy = new DoublyLinkedList();
+        for (Object o : metrics) {
+            copy.add(o);
+        }
+        return copy;
+    }
+
+    /**
+     * Prints one line per method that has been called at least once.
+     */
+    public void display() {
+        boolean any = false;
+        System.out.println("\n=== SERVICE METRICS ===");
+        for (Object o : getAll()) {
+            MethodMetrics methodMetrics = (MethodMetrics) o;
+            if (methodMetrics.getCallCount() > 0) {
+                System.out.println(methodMetrics);
+                any = true;
+            }
+        }
+        if (!any) {
+            System.out.println("No service calls recorded.");
+        }
+    }
+
+    /**
+     * Resets every registered metric.
+     */
+    public void resetAll() {
+        for (Object o : getAll()) {
+            ((MethodMetrics) o).reset();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package service.query;
+
+import java.util.List;
+
+/**
+ * The answer to a SalesQuery: one row per group, with one value per
+ * aggregate in the order the query selected them.
+ */
+public class QueryResult {
+
+    /**
+     * One group of the result. The key is the product ID, the start of the
+     * time bucket, or "All sales" when the query does not group.
+     */
+    public record Row(String key, double[] values) {}
+
+    private final SalesQuery query;
+    private final List<Row> rows;
+
+    //Sales the scan looked at after the time range was applied
+    private final int scanned;
+
+    //Sales that passed every filter
+    private final int matched;
+
+    //Time taken to run the query, in nanoseconds
+    private final long elapsedNanos;
+
+    public QueryResult(
+        SalesQuery query,
+        List<Row> rows,
+        int scanned,
+        int matched,
+        long elapsedNanos
+    ) {
+        this.query = query;
+        this.rows = rows;
+        this.scanned = scanned;
+        this.matched = matched;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public SalesQuery getQuery() {
+        return query;
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    public int getScanned() {
+        return scanned;
+    }
+
+    public int getMatched() {
+        return matched;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Prints the query, a summary line and the rows as a table.
+     */
+    public void display() {
+        System.out.println("\n=== QUERY RESULT ===");
+        System.out.println(query);
+        System.out.printf(
+            "Matched %d of %d sales in %.3f ms%n",
+            matched,
+            scanned,
+            elapsedNanos / 1_000_000.0
+        );
+        if (rows.isEmpty()) {
+            System.out.println("No matching sales.");
+            return;
+        }
+        List<SalesQuery.Aggregate> aggregates = query.getAggregates();
+        StringBuilder header = new StringBuilder(String.format("%-20s", "Key"));
+        for (SalesQuery.Aggregate aggregate : aggregates) {
+            header.append(String.format(" %16s", aggregate));
+        }
+        System.out.println(header);
+        for (Row row : rows) {
+            StringBuilder line = new StringBuilder(
+                String.format("%-20s", row.key())
+            );
+            for (int i = 0; i < aggregates.size(); i++) {
+                boolean count =
+                    aggregates.get(i).function() == SalesQuery.Function.COUNT;
+                line.append(
+                    count
+                        ? String.format(" %16d", (long) row.values()[i])
+                        : String.format(" %16.2f", row.values()[i])
+                );
+            }
+            System.out.println(line);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package service.query;
+
+import entities.Sale;
+import service.view.MaterializedView;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * The sales history laid out column by column in primitive arrays, kept up
+ * to date as a MaterializedView.
+ *
+ * Row i of every column describes the i-th sale recorded. Queries scan only
+ * the columns they filter or aggregate on, reading contiguous ints, longs
+ * and doubles instead of following a reference to each Sale, which keeps
+ * the scans cache friendly and lets the JIT unroll and vectorize them.
+ *
+ * Dates are stored as seconds of the local date-time counted as if it were
+ * UTC, so they compare and bucket exactly like the LocalDateTime values they
+ * come from. The columns also track whether dates arrived in order; while
+ * they do, a time range is found by binary search instead of a filter.
+ *
+ * Archiving does not remove sales from views, so the columns keep the whole
+ * history in memory, at about 36 bytes per sale. Quantities are held as
+ * doubles like the other measures, so one aggregation loop serves them all.
+ */
+final class SaleColumns implements MaterializedView {
+
+    private int[] products = new int[1024];
+    private long[] seconds = new long[1024];
+    private double[] quantities = new double[1024];
+    private double[] prices = new double[1024];
+    private double[] amounts = new double[1024];
+    private int size;
+    private boolean sorted = true;
+
+    @Override
+    public void saleRecorded(Sale sale) {
+        if (size == products.length) {
+            int capacity = size * 2;
+            products = Arrays.copyOf(products, capacity);
+            seconds = Arrays.copyOf(seconds, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        long second = toSeconds(sale.getDate());
+        if (size > 0 && second < seconds[size - 1]) {
+            sorted = false;
+        }
+        products[size] = sale.getProductOrdinal();
+        seconds[size] = second;
+        quantities[size] = sale.getQuantity();
+        prices[size] = sale.getUnitPrice();
+        amounts[size] = sale.getTotalAmount();
+        size++;
+    }
+
+    static long toSeconds(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime toDate(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * @param second a date in seconds
+     * @return the first row dated at or after it, or size if there is none;
+     *         only meaningful while isSorted
+     */
+    int lowerBound(long second) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (seconds[mid] < second) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isSorted() {
+        return sorted;
+    }
+
+    //the arrays are returned as is for the engine's loops; rows at and
+    //beyond size are unused
+
+    int[] products() {
+        return products;
+    }
+
+    long[] seconds() {
+        return seconds;
+    }
+
+    double[] quantities() {
+        return quantities;
+    }
+
+    double[] prices() {
+        return prices;
+    }
+
+    double[] amounts() {
+        return amounts;
+    }
+}
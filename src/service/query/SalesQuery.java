@@ -0,0 +1,267 @@
+package service.query;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An ad-hoc question about the sales history: which sales to consider, how
+ * to group them and what to compute per group.
+ *
+ * A query is built from key=value arguments, for example
+ * "group=product select=sum(amount),count from=2024-01-01T00:00 limit=10".
+ * Keys that are not given keep their default value.
+ *
+ * Keys:
+ *
+ *   product - comma separated product IDs to keep, all products by default
+ *   from - earliest sale date to keep, inclusive, as 2024-01-31T09:00
+ *   to - sale date to stop before, exclusive; both dates are compared to
+ *     the second
+ *   minprice - lowest unit price to keep, inclusive
+ *   maxprice - highest unit price to keep, inclusive
+ *   group - none, product, hour or day
+ *   select - comma separated aggregates, each count or one of sum, min,
+ *     max and avg applied to quantity, price or amount, as avg(price);
+ *     count,sum(amount) by default
+ *   limit - most groups returned; product groups come highest first by the
+ *     first aggregate, time groups oldest first
+ */
+public class SalesQuery {
+
+    /**
+     * How sales are grouped; each group becomes one result row.
+     */
+    public enum GroupBy {
+        NONE,
+        PRODUCT,
+        HOUR,
+        DAY,
+    }
+
+    /**
+     * The sale figure an aggregate is computed over.
+     */
+    public enum Measure {
+        QUANTITY,
+        PRICE,
+        AMOUNT,
+    }
+
+    /**
+     * The function an aggregate applies to its measure.
+     */
+    public enum Function {
+        COUNT,
+        SUM,
+        MIN,
+        MAX,
+        AVG,
+    }
+
+    /**
+     * One computed column of the result. The measure of COUNT is null.
+     */
+    public record Aggregate(Function function, Measure measure) {
+        @Override
+        public String toString() {
+            return function == Function.COUNT
+                ? "count"
+                : function.name().toLowerCase() +
+                    "(" +
+                    measure.name().toLowerCase() +
+                    ")";
+        }
+    }
+
+    private Set<String> productIds = null;
+    private LocalDateTime from = null;
+    private LocalDateTime to = null;
+    private double minPrice = Double.NEGATIVE_INFINITY;
+    private double maxPrice = Double.POSITIVE_INFINITY;
+    private GroupBy groupBy = GroupBy.NONE;
+    private List<Aggregate> aggregates = List.of(
+        new Aggregate(Function.COUNT, null),
+        new Aggregate(Function.SUM, Measure.AMOUNT)
+    );
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Builds a query from key=value arguments.
+     *
+     * @param args the arguments, each of the form key=value
+     * @return the parsed query
+     * @throws IllegalArgumentException if an argument is malformed, a key is
+     *         unknown or a value is out of range
+     */
+    public static SalesQuery parse(String[] args) {
+        SalesQuery query = new SalesQuery();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException(
+                    "Expected key=value but found: " + arg
+                );
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            try {
+                switch (key) {
+                    case "product" -> query.productIds = new LinkedHashSet<>(
+                        Arrays.asList(value.split(","))
+                    );
+                    case "from" -> query.from = LocalDateTime.parse(value);
+                    case "to" -> query.to = LocalDateTime.parse(value);
+                    case "minprice" -> query.minPrice = Double.parseDouble(
+                        value
+                    );
+                    case "maxprice" -> query.maxPrice = Double.parseDouble(
+                        value
+                    );
+                    case "group" -> query.groupBy = parseEnum(
+                        GroupBy.class,
+                        key,
+                        value
+                    );
+                    case "select" -> query.aggregates = parseAggregates(value);
+                    case "limit" -> query.limit = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException(
+                        "Unknown query option: " + key
+                    );
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException(
+                    "Invalid value for " + key + ": " + value
+                );
+            }
+        }
+        query.validate();
+        return query;
+    }
+
+    private static List<Aggregate> parseAggregates(String value) {
+        List<Aggregate> aggregates = new ArrayList<>();
+        for (String item : value.split(",")) {
+            String text = item.trim().toLowerCase();
+            if (text.equals("count")) {
+                aggregates.add(new Aggregate(Function.COUNT, null));
+                continue;
+            }
+            int open = text.indexOf('(');
+            if (open <= 0 || !text.endsWith(")")) {
+                throw new IllegalArgumentException(
+                    "Expected count or function(measure) but found: " + item
+                );
+            }
+            Function function = parseEnum(
+                Function.class,
+                "select",
+                text.substring(0, open)
+            );
+            Measure measure = parseEnum(
+                Measure.class,
+                "select",
+                text.substring(open + 1, text.length() - 1)
+            );
+            if (function == Function.COUNT) {
+                measure = null;
+            }
+            aggregates.add(new Aggregate(function, measure));
+        }
+        return List.copyOf(aggregates);
+    }
+
+    //valueOf would report the enum's class name rather than the option
+    private static <E extends Enum<E>> E parseEnum(
+        Class<E> type,
+        String key,
+        String value
+    ) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                "Invalid value for " + key + ": " + value
+            );
+        }
+    }
+
+    private void validate() {
+        if (aggregates.isEmpty()) {
+            throw new IllegalArgumentException(
+                "select needs at least one aggregate."
+            );
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1.");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to.");
+        }
+        if (minPrice > maxPrice) {
+            throw new IllegalArgumentException(
+                "minprice cannot be greater than maxprice."
+            );
+        }
+    }
+
+    /**
+     * @return the product IDs to keep, or null to keep every product
+     */
+    public Set<String> getProductIds() {
+        return productIds;
+    }
+
+    /**
+     * @return the earliest date to keep, or null for no lower bound
+     */
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    /**
+     * @return the date to stop before, or null for no upper bound
+     */
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public double getMinPrice() {
+        return minPrice;
+    }
+
+    public double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public GroupBy getGroupBy() {
+        return groupBy;
+    }
+
+    public List<Aggregate> getAggregates() {
+        return aggregates;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Query[Select=%s, Group=%s, Products=%s, From=%s, To=%s, Price=%s..%s, Limit=%s]",
+            aggregates,
+            groupBy,
+            productIds == null ? "all" : productIds,
+            from,
+            to,
+            minPrice == Double.NEGATIVE_INFINITY ? "any" : minPrice,
+            maxPrice == Double.POSITIVE_INFINITY ? "any" : maxPrice,
+            limit == Integer.MAX_VALUE ? "none" : limit
+        );
+    }
+}
@@ -0,0 +1,328 @@
+package service.query;
+
+import entities.ProductDictionary;
+import service.sale.SaleServiceImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs SalesQuery questions over a columnar copy of the sales history.
+ *
+ * The engine registers a SaleColumns view with the sale service, so the
+ * history is kept as primitive columns as sales are recorded, and runs
+ * each query as a few passes of primitive loops over them:
+ *
+ *   Range - with dates in order, the time filter becomes a row range found
+ *   by binary search
+ *   Select - one branch-free loop evaluates every filter on each row and
+ *   appends the indexes of the rows that pass to a selection array
+ *   Group - a loop maps each selected row to a dense group number, the
+ *   product ordinal or the time bucket, counting the rows of each group
+ *   Aggregate - one loop per measure the query needs fills the sum, min
+ *   and max arrays of every group; averages come from sum and count
+ *
+ * No Sale objects are touched and nothing is boxed or hashed per row, so
+ * new questions cost no new code and run at the speed of array scans.
+ * The loops are written for the JIT's auto-vectorizer rather than the JDK
+ * Vector API, which is still an incubator module.
+ *
+ * Queries read the columns the sale service appends to, so they must be
+ * serialized with the service's writes like its other reads.
+ */
+public class SalesQueryEngine {
+
+    //Most time buckets one query may produce
+    static final int MAX_BUCKETS = 1 << 20;
+
+    private static final long SECONDS_PER_HOUR = 3600;
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final SaleColumns columns = new SaleColumns();
+    private final ProductDictionary dictionary = ProductDictionary.shared();
+
+    /**
+     * Constructs an engine over the given service's sales, copying the
+     * existing history into columns.
+     *
+     * @param saleService the service whose sales are queried
+     * @throws NullPointerException if saleService is null
+     */
+    public SalesQueryEngine(SaleServiceImpl saleService) {
+        if (saleService == null) {
+            throw new NullPointerException("SaleService cannot be null");
+        }
+        saleService.registerView(columns);
+    }
+
+    /**
+     * Runs a query.
+     *
+     * @param query the query to run
+     * @return the groups and their aggregates
+     * @throws NullPointerException if query is null
+     * @throws IllegalArgumentException if the query spans more than
+     *         MAX_BUCKETS time buckets
+     */
+    public QueryResult run(SalesQuery query) {
+        if (query == null) {
+            throw new NullPointerException("Query cannot be null");
+        }
+        long start = System.nanoTime();
+        int size = columns.size();
+        long from = query.getFrom() == null
+            ? Long.MIN_VALUE
+            : SaleColumns.toSeconds(query.getFrom());
+        long to = query.getTo() == null
+            ? Long.MAX_VALUE
+            : SaleColumns.toSeconds(query.getTo());
+
+        //with dates in order the range is exact and needs no row filter
+        int first = 0;
+        int last = size;
+        boolean timeFilter = query.getFrom() != null || query.getTo() != null;
+        if (columns.isSorted() && timeFilter) {
+            first = query.getFrom() == null ? 0 : columns.lowerBound(from);
+            last = query.getTo() == null ? size : columns.lowerBound(to);
+            last = Math.max(first, last);
+            timeFilter = false;
+        }
+
+        int[] selection = new int[last - first];
+        int matched = select(
+            query,
+            first,
+            last,
+            from,
+            to,
+            timeFilter,
+            selection
+        );
+
+        //group number of each selected row, null if there is one group
+        int[] keys = null;
+        long[] counts;
+        long base = 0;
+        long bucket = 0;
+        SalesQuery.GroupBy groupBy = query.getGroupBy();
+        if (groupBy == SalesQuery.GroupBy.NONE) {
+            counts = new long[] { matched };
+        } else if (groupBy == SalesQuery.GroupBy.PRODUCT) {
+            keys = new int[matched];
+            counts = new long[dictionary.size()];
+            int[] products = columns.products();
+            for (int k = 0; k < matched; k++) {
+                int key = products[selection[k]];
+                keys[k] = key;
+                counts[key]++;
+            }
+        } else {
+            bucket = groupBy == SalesQuery.GroupBy.HOUR
+                ? SECONDS_PER_HOUR
+                : SECONDS_PER_DAY;
+            long[] seconds = columns.seconds();
+            long lowest = Long.MAX_VALUE;
+            long highest = Long.MIN_VALUE;
+            for (int k = 0; k < matched; k++) {
+                long second = seconds[selection[k]];
+                lowest = Math.min(lowest, second);
+                highest = Math.max(highest, second);
+            }
+            base = matched == 0 ? 0 : Math.floorDiv(lowest, bucket);
+            long buckets = matched == 0
+                ? 0
+                : Math.floorDiv(highest, bucket) - base + 1;
+            if (buckets > MAX_BUCKETS) {
+                throw new IllegalArgumentException(
+                    "Query spans " +
+                        buckets +
+                        " time buckets, more than " +
+                        MAX_BUCKETS +
+                        "; narrow it with from and to."
+                );
+            }
+            keys = new int[matched];
+            counts = new long[(int) buckets];
+            for (int k = 0; k < matched; k++) {
+                long second = seconds[selection[k]];
+                int key = (int) (Math.floorDiv(second, bucket) - base);
+                keys[k] = key;
+                counts[key]++;
+            }
+        }
+
+        //sum, min and max per group of each measure the query needs
+        int groups = counts.length;
+        Set<SalesQuery.Measure> measures = EnumSet.noneOf(
+            SalesQuery.Measure.class
+        );
+        for (SalesQuery.Aggregate aggregate : query.getAggregates()) {
+            if (aggregate.measure() != null) {
+                measures.add(aggregate.measure());
+            }
+        }
+        double[][] sums = new double[SalesQuery.Measure.values().length][];
+        double[][] mins = new double[sums.length][];
+        double[][] maxes = new double[sums.length][];
+        for (SalesQuery.Measure measure : measures) {
+            int m = measure.ordinal();
+            sums[m] = new double[groups];
+            mins[m] = new double[groups];
+            maxes[m] = new double[groups];
+            aggregate(
+                column(measure),
+                selection,
+                matched,
+                keys,
+                sums[m],
+                mins[m],
+                maxes[m]
+            );
+        }
+
+        List<QueryResult.Row> rows = new ArrayList<>();
+        List<SalesQuery.Aggregate> aggregates = query.getAggregates();
+        for (int g = 0; g < groups; g++) {
+            if (counts[g] == 0) {
+                continue;
+            }
+            double[] values = new double[aggregates.size()];
+            for (int a = 0; a < values.length; a++) {
+                SalesQuery.Aggregate aggregate = aggregates.get(a);
+                int m = aggregate.measure() == null
+                    ? -1
+                    : aggregate.measure().ordinal();
+                values[a] = switch (aggregate.function()) {
+                    case COUNT -> counts[g];
+                    case SUM -> sums[m][g];
+                    case MIN -> mins[m][g];
+                    case MAX -> maxes[m][g];
+                    case AVG -> sums[m][g] / counts[g];
+                };
+            }
+            String key = switch (groupBy) {
+                case NONE -> "All sales";
+                case PRODUCT -> dictionary.productId(g);
+                default -> SaleColumns.toDate((base + g) * bucket).toString();
+            };
+            rows.add(new QueryResult.Row(key, values));
+        }
+        if (groupBy == SalesQuery.GroupBy.PRODUCT) {
+            rows.sort(
+                Comparator.comparingDouble((QueryResult.Row row) ->
+                    row.values()[0]
+                ).reversed()
+            );
+        }
+        if (rows.size() > query.getLimit()) {
+            rows = new ArrayList<>(rows.subList(0, query.getLimit()));
+        }
+
+        return new QueryResult(
+            query,
+            rows,
+            last - first,
+            matched,
+            System.nanoTime() - start
+        );
+    }
+
+    //fills selection with the rows in [first, last) passing every filter
+    //and returns how many there are
+    private int select(
+        SalesQuery query,
+        int first,
+        int last,
+        long from,
+        long to,
+        boolean timeFilter,
+        int[] selection
+    ) {
+        boolean[] productMask = null;
+        if (query.getProductIds() != null) {
+            productMask = new boolean[dictionary.size()];
+            for (String productId : query.getProductIds()) {
+                int ordinal = dictionary.find(productId);
+                if (ordinal != ProductDictionary.NO_PRODUCT) {
+                    productMask[ordinal] = true;
+                }
+            }
+        }
+        double minPrice = query.getMinPrice();
+        double maxPrice = query.getMaxPrice();
+        boolean priceFilter =
+            minPrice != Double.NEGATIVE_INFINITY ||
+            maxPrice != Double.POSITIVE_INFINITY;
+
+        int n = 0;
+        if (productMask == null && !priceFilter && !timeFilter) {
+            for (int i = first; i < last; i++) {
+                selection[n++] = i;
+            }
+            return n;
+        }
+        int[] products = columns.products();
+        long[] seconds = columns.seconds();
+        double[] prices = columns.prices();
+        for (int i = first; i < last; i++) {
+            //every row is written and kept only if it passes, so the loop
+            //has no data-dependent branch to mispredict
+            boolean keep =
+                (prices[i] >= minPrice) &
+                (prices[i] <= maxPrice) &
+                (seconds[i] >= from) &
+                (seconds[i] < to) &
+                (productMask == null || productMask[products[i]]);
+            selection[n] = i;
+            n += keep ? 1 : 0;
+        }
+        return n;
+    }
+
+    private static void aggregate(
+        double[] column,
+        int[] selection,
+        int matched,
+        int[] keys,
+        double[] sum,
+        double[] min,
+        double[] max
+    ) {
+        if (keys == null) {
+            double total = 0;
+            double lowest = Double.POSITIVE_INFINITY;
+            double highest = Double.NEGATIVE_INFINITY;
+            for (int k = 0; k < matched; k++) {
+                double value = column[selection[k]];
+                total += value;
+                lowest = Math.min(lowest, value);
+                highest = Math.max(highest, value);
+            }
+            sum[0] = total;
+            min[0] = lowest;
+            max[0] = highest;
+            return;
+        }
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (int k = 0; k < matched; k++) {
+            int group = keys[k];
+            double value = column[selection[k]];
+            sum[group] += value;
+            min[group] = Math.min(min[group], value);
+            max[group] = Math.max(max[group], value);
+        }
+    }
+
+    private double[] column(SalesQuery.Measure measure) {
+        return switch (measure) {
+            case QUANTITY -> columns.quantities();
+            case PRICE -> columns.prices();
+            case AMOUNT -> columns.amounts();
+        };
+    }
+}
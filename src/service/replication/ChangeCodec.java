@@ -0,0 +1,177 @@
+package service.replication;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import entities.Sale;
+import service.codec.EntityCodec;
+import service.inventory.InventoryService;
+import service.sale.SaleService;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of the change stream shipped from a primary to its
+ * followers.
+ *
+ * On the wire every change is a frame of a long sequence number, a one-byte
+ * change type, the int byte length of the payload and the payload. Products
+ * and sales travel as EntityCodec records, and bare IDs as EntityCodec
+ * strings, so the stream shares one encoding with the rest of the
+ * application: no length cap on strings and dates at full precision. The
+ * change types and their payloads are:
+ *
+ *   PRODUCT_ADDED - a product record
+ *   PRODUCT_UPDATED - a product record holding the id and the new values
+ *   PRODUCT_DELETED - the id
+ *   QUANTITY_ADJUSTED - the id, then the delta as an int
+ *   SALE_RECORDED - a sale record
+ *   SNAPSHOT_END - empty, sent once the initial state has been sent
+ *
+ * The stream is only ever read by a follower of the same build, so it has
+ * no compatibility constraint of its own beyond the EntityCodec version
+ * byte. The explicit length lets a follower read a whole change before
+ * applying it, so a change its services reject leaves the stream aligned.
+ *
+ * Stock changes from sales travel as deltas rather than new quantities, so
+ * two concurrent sales of one product give the same result on the follower
+ * in whichever order their changes are shipped.
+ */
+final class ChangeCodec {
+
+    static final byte PRODUCT_ADDED = 1;
+    static final byte PRODUCT_UPDATED = 2;
+    static final byte PRODUCT_DELETED = 3;
+    static final byte QUANTITY_ADJUSTED = 4;
+    static final byte SALE_RECORDED = 5;
+    static final byte SNAPSHOT_END = 6;
+
+    //Bytes before the payload: type and length
+    private static final int HEADER_LENGTH = 1 + 4;
+
+    private ChangeCodec() {}
+
+    static byte[] productAdded(Product product) {
+        ByteBuffer change = change(
+            PRODUCT_ADDED,
+            EntityCodec.encodedSize(product)
+        );
+        EntityCodec.encode(product, change);
+        return change.array();
+    }
+
+    static byte[] productUpdated(
+        String id,
+        String name,
+        double price,
+        int quantity
+    ) {
+        //a detached product only carries the values
+        Product values = new Product(id, name, price, quantity);
+        ByteBuffer change = change(
+            PRODUCT_UPDATED,
+            EntityCodec.encodedSize(values)
+        );
+        EntityCodec.encode(values, change);
+        return change.array();
+    }
+
+    static byte[] productDeleted(String id) {
+        ByteBuffer change = change(
+            PRODUCT_DELETED,
+            EntityCodec.encodedStringSize(id)
+        );
+        EntityCodec.encodeString(id, change);
+        return change.array();
+    }
+
+    static byte[] quantityAdjusted(String id, int delta) {
+        ByteBuffer change = change(
+            QUANTITY_ADJUSTED,
+            EntityCodec.encodedStringSize(id) + Integer.BYTES
+        );
+        EntityCodec.encodeString(id, change);
+        change.putInt(delta);
+        return change.array();
+    }
+
+    static byte[] saleRecorded(Sale sale) {
+        ByteBuffer change = change(
+            SALE_RECORDED,
+            EntityCodec.encodedSize(sale)
+        );
+        EntityCodec.encode(sale, change);
+        return change.array();
+    }
+
+    static byte[] snapshotEnd() {
+        return change(SNAPSHOT_END, 0).array();
+    }
+
+    /**
+     * Reads one whole change, after its sequence number, and applies it to
+     * the given services. The change is read before it is applied, so if
+     * the services throw, the stream is positioned at the next change.
+     *
+     * @param in the stream positioned at the change type
+     * @param inventoryService the follower's inventory
+     * @param saleService the follower's sales history
+     * @return the type of the applied change
+     * @throws IOException if the stream cannot be read or holds an unknown
+     *         change type
+     */
+    static byte apply(
+        DataInputStream in,
+        InventoryService inventoryService,
+        SaleService saleService
+    ) throws IOException {
+        byte type = in.readByte();
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative change length: " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        ByteBuffer fields = ByteBuffer.wrap(payload);
+        switch (type) {
+            case PRODUCT_ADDED -> {
+                DoublyLinkedList batch = new DoublyLinkedList();
+                batch.add(EntityCodec.decodeProduct(fields));
+                inventoryService.addProducts(batch);
+            }
+            case PRODUCT_UPDATED -> {
+                Product values = EntityCodec.decodeProduct(fields);
+                inventoryService.updateProduct(
+                    values.getId(),
+                    values.getName(),
+                    values.getPrice(),
+                    values.getQuantity()
+                );
+            }
+            case PRODUCT_DELETED -> inventoryService.deleteProduct(
+                EntityCodec.decodeString(fields)
+            );
+            case QUANTITY_ADJUSTED -> inventoryService.adjustQuantity(
+                EntityCodec.decodeString(fields),
+                fields.getInt()
+            );
+            case SALE_RECORDED -> {
+                DoublyLinkedList batch = new DoublyLinkedList();
+                batch.add(EntityCodec.decodeSale(fields));
+                saleService.addSales(batch);
+            }
+            case SNAPSHOT_END -> {}
+            default -> throw new IOException("Unknown change type: " + type);
+        }
+        return type;
+    }
+
+    //a buffer sized for the whole change, positioned at the payload
+    private static ByteBuffer change(byte type, int payloadLength) {
+        ByteBuffer change = ByteBuffer.allocate(HEADER_LENGTH + payloadLength);
+        change.put(type);
+        change.putInt(payloadLength);
+        return change;
+    }
+}
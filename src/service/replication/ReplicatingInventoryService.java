@@ -0,0 +1,171 @@
+package service.replication;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import service.inventory.InventoryService;
+
+/**
+ * InventoryService decorator that publishes every successful mutation to a
+ * ReplicationPrimary. Reads are passed straight to the delegate.
+ *
+ * A mutation that throws publishes nothing, so followers only ever see
+ * changes the primary accepted.
+ */
+public class ReplicatingInventoryService implements InventoryService {
+
+    private final InventoryService delegate;
+    private final ReplicationPrimary primary;
+
+    /**
+     * @param delegate the service that does the actual work
+     * @param primary the primary to publish changes to
+     * @throws NullPointerException if either parameter is null
+     */
+    public ReplicatingInventoryService(
+        InventoryService delegate,
+        ReplicationPrimary primary
+    ) {
+        if (delegate == null) {
+            throw new NullPointerException("Delegate service cannot be null");
+        }
+        if (primary == null) {
+            throw new NullPointerException("ReplicationPrimary cannot be null");
+        }
+        this.delegate = delegate;
+        this.primary = primary;
+    }
+
+    @Override
+    public void addProduct(Product product) {
+        primary.beginChange();
+        try {
+            delegate.addProduct(product);
+            primary.publish(ChangeCodec.productAdded(product));
+        } finally {
+            primary.endChange();
+        }
+    }
+
+    @Override
+    public void addProducts(DoublyLinkedList products) {
+        primary.beginChange();
+        try {
+            delegate.addProducts(products);
+            for (Object o : products) {
+                primary.publish(ChangeCodec.productAdded((Product) o));
+            }
+        } finally {
+            primary.endChange();
+        }
+    }
+
+    @Override
+    public Product findProductById(String id) {
+        return delegate.findProductById(id);
+    }
+
+    //deleting an unknown ID changes nothing and publishes nothing
+    @Override
+    public void deleteProduct(String id) {
+        primary.beginChange();
+        try {
+            boolean existed = delegate.findProductById(id) != null;
+            delegate.deleteProduct(id);
+            if (existed) {
+                primary.publish(ChangeCodec.productDeleted(id));
+            }
+        } finally {
+            primary.endChange();
+        }
+    }
+
+    @Override
+    public void displayProductsForward() {
+        delegate.displayProductsForward();
+    }
+
+    @Override
+    public void displayProductsBackward() {
+        delegate.displayProductsBackward();
+    }
+
+    @Override
+    public void updateProduct(
+        String id,
+        String newName,
+        double newPrice,
+        int newQuantity
+    ) {
+        primary.beginChange();
+        try {
+            delegate.updateProduct(id, newName, newPrice, newQuantity);
+            primary.publish(
+                ChangeCodec.productUpdated(id, newName, newPrice, newQuantity)
+            );
+        } finally {
+            primary.endChange();
+        }
+    }
+
+    @Override
+    public void adjustQuantity(String id, int delta) {
+        primary.beginChange();
+        try {
+            delegate.adjustQuantity(id, delta);
+            primary.publish(ChangeCodec.quantityAdjusted(id, delta));
+        } finally {
+            primary.endChange();
+        }
+    }
+
+    @Override
+    public DoublyLinkedList getAllProducts() {
+        return delegate.getAllProducts();
+    }
+
+    @Override
+    public DoublyLinkedList searchProductsByName(String text, int limit) {
+        return delegate.searchProductsByName(text, limit);
+    }
+
+    @Override
+    public DoublyLinkedList searchProductsByNamePrefix(
+        String prefix,
+        int limit
+    ) {
+        return delegate.searchProductsByNamePrefix(prefix, limit);
+    }
+
+    @Override
+    public DoublyLinkedList findProductsByPriceRange(
+        double minPrice,
+        double maxPrice
+    ) {
+        return delegate.findProductsByPriceRange(minPrice, maxPrice);
+    }
+
+    @Override
+    public DoublyLinkedList findProductsWithQuantityBelow(int threshold) {
+        return delegate.findProductsWithQuantityBelow(threshold);
+    }
+
+    @Override
+    public DoublyLinkedList getProductsSortedByPrice() {
+        return delegate.getProductsSortedByPrice();
+    }
+
+    @Override
+    public DoublyLinkedList getProductsSortedByQuantity() {
+        return delegate.getProductsSortedByQuantity();
+    }
+
+    @Override
+    public int getProductCount() {
+        return delegate.getProductCount();
+    }
+
+    @Override
+    public long getVersion() {
+        return delegate.getVersion();
+    }
+}
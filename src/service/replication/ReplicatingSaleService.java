@@ -0,0 +1,100 @@
+package service.replication;
+
+import entities.DoublyLinkedList;
+import entities.Sale;
+import service.sale.SaleService;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * SaleService decorator that publishes every recorded sale to a
+ * ReplicationPrimary. Reads are passed straight to the delegate.
+ *
+ * The stock decrement of a sale is published separately by the
+ * ReplicatingInventoryService the delegate adjusts quantities through, so
+ * the delegate must be built over that service and not over the raw one.
+ */
+public class ReplicatingSaleService implements SaleService {
+
+    private final SaleService delegate;
+    private final ReplicationPrimary primary;
+
+    /**
+     * @param delegate the service that does the actual work
+     * @param primary the primary to publish changes to
+     * @throws NullPointerException if either parameter is null
+     */
+    public ReplicatingSaleService(
+        SaleService delegate,
+        ReplicationPrimary primary
+    ) {
+        if (delegate == null) {
+            throw new NullPointerException("Delegate service cannot be null");
+        }
+        if (primary == null) {
+            throw new NullPointerException("ReplicationPrimary cannot be null");
+        }
+        this.delegate = delegate;
+        this.primary = primary;
+    }
+
+    @Override
+    public Sale recordSale(String productId, int quantity) {
+        primary.beginChange();
+        try {
+            Sale sale = delegate.recordSale(productId, quantity);
+            primary.publish(ChangeCodec.saleRecorded(sale));
+            return sale;
+        } finally {
+            primary.endChange();
+        }
+    }
+
+    @Override
+    public void addSales(DoublyLinkedList sales) {
+        primary.beginChange();
+        try {
+            delegate.addSales(sales);
+            for (Object o : sales) {
+                primary.publish(ChangeCodec.saleRecorded((Sale) o));
+            }
+        } finally {
+            primary.endChange();
+        }
+    }
+
+    @Override
+    public void displayAllSales() {
+        delegate.displayAllSales();
+    }
+
+    @Override
+    public DoublyLinkedList getAllSales() {
+        return delegate.getAllSales();
+    }
+
+    @Override
+    public void forEachSale(Consumer<Sale> action) {
+        delegate.forEachSale(action);
+    }
+
+    @Override
+    public void forEachSaleBetween(
+        LocalDateTime from,
+        LocalDateTime to,
+        Consumer<Sale> action
+    ) {
+        delegate.forEachSaleBetween(from, to, action);
+    }
+
+    @Override
+    public int getSaleCount() {
+        return delegate.getSaleCount();
+    }
+
+    @Override
+    public long getVersion() {
+        return delegate.getVersion();
+    }
+}
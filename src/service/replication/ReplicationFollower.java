@@ -0,0 +1,278 @@
+package service.replication;
+
+import entities.DoublyLinkedList;
+import entities.ProductSales;
+import service.console.Console;
+import service.inventory.InventoryServiceImpl;
+import service.report.ReportService;
+import service.report.ViewReportService;
+import service.sale.SaleServiceImpl;
+import service.view.SalesRate;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-only replica of a primary's inventory and sales, kept up to date from
+ * the primary's change stream.
+ *
+ * The follower holds its own InventoryServiceImpl and SaleServiceImpl, which
+ * only the replication thread writes to, and serves reports from them
+ * through getReportService from materialized views that applying each
+ * change keeps current. Report traffic sent to followers therefore never
+ * reaches the primary.
+ *
+ * Changes are applied in the order the primary shipped them, under a write
+ * lock that reports take shared, so a report always sees the state after a
+ * whole number of changes. Changes that arrive together are applied under a
+ * single lock acquisition. Reports lag the primary by the changes still in
+ * flight.
+ *
+ * A change the follower's services reject, which means the replica has
+ * drifted from the primary, is logged and skipped rather than stopping
+ * replication; the stream stays aligned since a change is fully read before
+ * it is applied. getSkippedChanges reports how many were skipped, and a
+ * follower with any should be discarded and reconnected to resync from a
+ * fresh snapshot.
+ */
+public class ReplicationFollower implements AutoCloseable {
+
+    private final InventoryServiceImpl inventoryService =
+        new InventoryServiceImpl();
+    private final SaleServiceImpl saleService = new SaleServiceImpl(
+        inventoryService
+    );
+    private final ReentrantReadWriteLock stateLock =
+        new ReentrantReadWriteLock();
+    private final ReportService reportService = new LockedReportService(
+        new ViewReportService(inventoryService, saleService),
+        stateLock.readLock()
+    );
+
+    private final Socket socket;
+    private final CountDownLatch snapshotLoaded = new CountDownLatch(1);
+
+    private volatile long appliedSequence;
+    private volatile long skippedChanges;
+    private volatile boolean connected = true;
+
+    /**
+     * Connects to a primary and starts applying its change stream.
+     *
+     * @param host the primary's host, normally localhost
+     * @param port the primary's replication port
+     * @throws IOException if the primary cannot be reached
+     */
+    public ReplicationFollower(String host, int port) throws IOException {
+        this.socket = new Socket(host, port);
+        Thread reader = new Thread(this::applyChanges, "replication-apply");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * @return reports over the replicated data, safe to call from any thread
+     */
+    public ReportService getReportService() {
+        return reportService;
+    }
+
+    /**
+     * @return the sequence number of the last change applied
+     */
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * @return the number of changes the follower could not apply, 0 while
+     *         the replica matches the primary
+     */
+    public long getSkippedChanges() {
+        return skippedChanges;
+    }
+
+    /**
+     * @return false once the connection to the primary has been lost
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Waits until the primary's initial snapshot has been applied.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of timeout
+     * @return true if the snapshot was applied in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitSnapshot(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        return snapshotLoaded.await(timeout, unit);
+    }
+
+    private void applyChanges() {
+        try (
+            DataInputStream in = new DataInputStream(
+                new BufferedInputStream(socket.getInputStream(), 1 << 16)
+            )
+        ) {
+            while (true) {
+                //block outside the lock until the next change arrives
+                long sequence = in.readLong();
+                stateLock.writeLock().lock();
+                try {
+                    while (true) {
+                        try {
+                            byte type = ChangeCodec.apply(
+                                in,
+                                inventoryService,
+                                saleService
+                            );
+                            if (type == ChangeCodec.SNAPSHOT_END) {
+                                snapshotLoaded.countDown();
+                            }
+                        } catch (RuntimeException e) {
+                            //only the follower's services throw these
+                            skippedChanges++;
+                            Console.err().println(
+                                "✗ Replication: skipped change " +
+                                    sequence +
+                                    ": " +
+                                    e.getMessage()
+                            );
+                        }
+                        appliedSequence = sequence;
+                        if (in.available() < Long.BYTES) {
+                            break;
+                        }
+                        sequence = in.readLong();
+                    }
+                } finally {
+                    stateLock.writeLock().unlock();
+                }
+            }
+        } catch (EOFException e) {
+            Console.err().println(
+                "✗ Replication: primary closed the connection"
+            );
+        } catch (IOException e) {
+            if (!socket.isClosed()) {
+                Console.err().println(
+                    "✗ Replication: stopped applying changes: " + e.getMessage()
+                );
+            }
+        } finally {
+            connected = false;
+        }
+    }
+
+    /**
+     * Disconnects from the primary. Reports keep answering from the data
+     * replicated so far.
+     */
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    /**
+     * ReportService that holds a lock for the duration of every report
+     * but the sales rate.
+     */
+    private static class LockedReportService implements ReportService {
+
+        private final ReportService delegate;
+        private final Lock lock;
+
+        LockedReportService(ReportService delegate, Lock lock) {
+            this.delegate = delegate;
+            this.lock = lock;
+        }
+
+        @Override
+        public int getTotalNumberOfProducts() {
+            lock.lock();
+            try {
+                return delegate.getTotalNumberOfProducts();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public double getTotalSalesRevenue() {
+            lock.lock();
+            try {
+                return delegate.getTotalSalesRevenue();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void displayProductWithHighestSales() {
+            lock.lock();
+            try {
+                delegate.displayProductWithHighestSales();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public ProductSales getProductWithHighestSales() {
+            lock.lock();
+            try {
+                return delegate.getProductWithHighestSales();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public DoublyLinkedList getOutOfStockProducts() {
+            lock.lock();
+            try {
+                return delegate.getOutOfStockProducts();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public DoublyLinkedList getHeavyHitters(int limit) {
+            lock.lock();
+            try {
+                return delegate.getHeavyHitters(limit);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public long estimateDistinctProductsSold(Duration window) {
+            lock.lock();
+            try {
+                return delegate.estimateDistinctProductsSold(window);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        //the rate view is safe to read while changes are applied
+        @Override
+        public SalesRate getSalesRate(Duration window) {
+            return delegate.getSalesRate(window);
+        }
+    }
+}
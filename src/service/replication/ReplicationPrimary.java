@@ -0,0 +1,320 @@
+package service.replication;
+
+import entities.Product;
+import service.console.Console;
+import service.inventory.InventoryService;
+import service.sale.SaleService;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ships the ordered stream of inventory and sale changes to followers.
+ *
+ * The primary listens on a loopback port. A follower that connects first
+ * receives a snapshot of every product and sale, then every change made
+ * after it, each tagged with an increasing sequence number. Changes are
+ * published by ReplicatingInventoryService and ReplicatingSaleService after
+ * their delegate has applied them.
+ *
+ * Each follower has its own queue and sender thread, so a slow or stalled
+ * follower delays only itself and never the service call that published the
+ * change. The queue holds the follower's snapshot and at most maxBacklog
+ * changes beyond it; a follower that falls further behind is disconnected
+ * rather than buffered without bound, and has to connect again to resync
+ * from a fresh snapshot. A follower whose connection fails is dropped too.
+ *
+ * A mutation holds the change lock from before it applies until it has
+ * published, so applying a change, numbering it and queueing it form one
+ * critical section and the stream is in exactly the order the changes were
+ * applied: a sale can never be shipped after the delete of its product. The
+ * price is that replicated mutations are serialized with each other, even
+ * over a sharded inventory. Taking a snapshot holds the same lock, so a new
+ * follower gets a snapshot that contains exactly the changes published
+ * before it, and every later change once.
+ */
+public class ReplicationPrimary implements AutoCloseable {
+
+    //Most changes queued for a follower by default, besides its snapshot
+    public static final int DEFAULT_MAX_BACKLOG = 1 << 16;
+
+    private final ServerSocket server;
+    private final int maxBacklog;
+    private final CopyOnWriteArrayList<FollowerLink> followers =
+        new CopyOnWriteArrayList<>();
+    //reentrant, a sale adjusts stock through the replicating inventory
+    private final ReentrantLock changeLock = new ReentrantLock();
+
+    //Sequence number of the last published change, written only with the
+    //change lock held
+    private volatile long sequence;
+
+    private InventoryService inventoryService;
+    private SaleService saleService;
+
+    /**
+     * Binds the replication port on the loopback interface, allowing each
+     * follower DEFAULT_MAX_BACKLOG unsent changes. Followers are accepted
+     * once start is called.
+     *
+     * @param port the port to listen on, 0 to pick a free one
+     * @throws IOException if the port cannot be bound
+     */
+    public ReplicationPrimary(int port) throws IOException {
+        this(port, DEFAULT_MAX_BACKLOG);
+    }
+
+    /**
+     * Binds the replication port on the loopback interface. Followers are
+     * accepted once start is called.
+     *
+     * @param port the port to listen on, 0 to pick a free one
+     * @param maxBacklog the most changes queued for a follower besides its
+     *        snapshot before it is disconnected
+     * @throws IOException if the port cannot be bound
+     * @throws IllegalArgumentException if maxBacklog is less than 1
+     */
+    public ReplicationPrimary(int port, int maxBacklog) throws IOException {
+        if (maxBacklog < 1) {
+            throw new IllegalArgumentException(
+                "Replication backlog must be at least 1."
+            );
+        }
+        this.maxBacklog = maxBacklog;
+        this.server = new ServerSocket(
+            port,
+            16,
+            InetAddress.getLoopbackAddress()
+        );
+    }
+
+    /**
+     * Starts accepting followers. The services are read to build each new
+     * follower's snapshot, and should be the replicating ones so that no
+     * change can slip between a snapshot and the stream.
+     *
+     * @param inventoryService the source of the product snapshot
+     * @param saleService the source of the sales snapshot
+     * @throws NullPointerException if either service is null
+     */
+    public void start(
+        InventoryService inventoryService,
+        SaleService saleService
+    ) {
+        if (inventoryService == null) {
+            throw new NullPointerException("InventoryService cannot be null");
+        }
+        if (saleService == null) {
+            throw new NullPointerException("SaleService cannot be null");
+        }
+        this.inventoryService = inventoryService;
+        this.saleService = saleService;
+        Thread acceptor = new Thread(
+            this::acceptFollowers,
+            "replication-accept"
+        );
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public int getFollowerCount() {
+        return followers.size();
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    //held by a mutation from before it applies until it has published
+    void beginChange() {
+        changeLock.lock();
+    }
+
+    void endChange() {
+        changeLock.unlock();
+    }
+
+    //queues the change to every follower under the next sequence number;
+    //only called between beginChange and endChange
+    void publish(byte[] change) {
+        if (!changeLock.isHeldByCurrentThread()) {
+            throw new IllegalStateException(
+                "Changes must be published inside beginChange and endChange."
+            );
+        }
+        sequence++;
+        for (FollowerLink follower : followers) {
+            follower.send(sequence, change);
+        }
+    }
+
+    private void acceptFollowers() {
+        while (!server.isClosed()) {
+            try {
+                attach(server.accept());
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    Console.err().println(
+                        "✗ Replication: could not accept follower: " +
+                            e.getMessage()
+                    );
+                }
+            }
+        }
+    }
+
+    private void attach(Socket socket) throws IOException {
+        FollowerLink follower;
+        changeLock.lock();
+        try {
+            long at = getSequence();
+            List<Frame> snapshot = new ArrayList<>();
+            for (Object o : inventoryService.getAllProducts()) {
+                byte[] change = ChangeCodec.productAdded((Product) o);
+                snapshot.add(new Frame(at, change));
+            }
+            saleService.forEachSale(sale ->
+                snapshot.add(new Frame(at, ChangeCodec.saleRecorded(sale)))
+            );
+            snapshot.add(new Frame(at, ChangeCodec.snapshotEnd()));
+            follower = new FollowerLink(socket, snapshot);
+            followers.add(follower);
+        } finally {
+            changeLock.unlock();
+        }
+        follower.start();
+    }
+
+    /**
+     * Stops accepting followers and closes every follower connection.
+     * Changes still queued for a follower are dropped.
+     */
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (FollowerLink follower : followers) {
+            follower.close();
+        }
+    }
+
+    /**
+     * One connected follower: a bounded queue of encoded changes and the
+     * thread that writes them to the socket, flushing whenever the queue
+     * runs empty.
+     */
+    private class FollowerLink {
+
+        private final Socket socket;
+        private final DataOutputStream out;
+        private final LinkedBlockingQueue<Frame> queue;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread sender;
+
+        //the queue starts with the snapshot and has room for maxBacklog more
+        FollowerLink(Socket socket, List<Frame> snapshot) throws IOException {
+            this.socket = socket;
+            this.out = new DataOutputStream(
+                new BufferedOutputStream(socket.getOutputStream(), 1 << 16)
+            );
+            this.queue = new LinkedBlockingQueue<>(
+                (int) Math.min(
+                    Integer.MAX_VALUE,
+                    (long) snapshot.size() + maxBacklog
+                )
+            );
+            queue.addAll(snapshot);
+        }
+
+        //never blocks the publishing mutation; a full queue drops the link
+        void send(long sequence, byte[] change) {
+            if (!queue.offer(new Frame(sequence, change))) {
+                Console.err().println(
+                    "✗ Replication: follower " +
+                        socket.getRemoteSocketAddress() +
+                        " fell more than " +
+                        maxBacklog +
+                        " changes behind and was disconnected to resync"
+                );
+                close();
+            }
+        }
+
+        void start() {
+            Thread thread = new Thread(
+                this::sendLoop,
+                "replication-send-" + socket.getPort()
+            );
+            thread.setDaemon(true);
+            sender = thread;
+            thread.start();
+        }
+
+        private void sendLoop() {
+            try {
+                while (true) {
+                    Frame frame = queue.take();
+                    out.writeLong(frame.sequence);
+                    out.write(frame.change);
+                    if (queue.isEmpty()) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                if (!closed.get()) {
+                    Console.err().println(
+                        "✗ Replication: follower " +
+                            socket.getRemoteSocketAddress() +
+                            " disconnected"
+                    );
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            followers.remove(this);
+            queue.clear();
+            try {
+                socket.close();
+            } catch (IOException e) {
+                //already closed
+            }
+            //wakes a sender waiting for changes that will not come
+            Thread thread = sender;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    private static class Frame {
+
+        final long sequence;
+        final byte[] change;
+
+        Frame(long sequence, byte[] change) {
+            this.sequence = sequence;
+            this.change = change;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package service.report;
+
+import entities.DoublyLinkedList;
+import entities.ProductSales;
+import service.inventory.InventoryService;
+import service.sale.SaleService;
+import service.view.SalesRate;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * ReportService decorator that memoizes report results between writes.
+ *
+ * Every cached result is stamped with the inventory and sales versions it
+ * was computed at. A report is served from the cache while both versions
+ * are unchanged, and recomputed by the delegate once any product or sale
+ * mutation has bumped either of them. Repeated reads between writes
+ * therefore cost two field reads instead of a scan.
+ *
+ * The versions are read before the delegate runs, so a result that raced
+ * with a write is stamped with the older version and replaced on the next
+ * call; a stale result is never served as current. Lists and aggregates are
+ * copied on the way out so callers cannot alter a cached result.
+ *
+ * displayProductWithHighestSales is passed straight to the delegate, as are
+ * getHeavyHitters, estimateDistinctProductsSold and getSalesRate, whose
+ * results depend on their arguments and, for the latter two, on the time
+ * of the call.
+ */
+public class CachingReportService implements ReportService {
+
+    /**
+     * A cached result and the versions it was computed at. Immutable, so a
+     * cache slot can be replaced with a single volatile write.
+     */
+    private static class Entry<T> {
+
+        final long inventoryVersion;
+        final long saleVersion;
+        final T value;
+
+        Entry(long inventoryVersion, long saleVersion, T value) {
+            this.inventoryVersion = inventoryVersion;
+            this.saleVersion = saleVersion;
+            this.value = value;
+        }
+    }
+
+    private final ReportService delegate;
+    private final InventoryService inventoryService;
+    private final SaleService saleService;
+
+    private volatile Entry<Integer> totalNumberOfProducts;
+    private volatile Entry<Double> totalSalesRevenue;
+    private volatile Entry<ProductSales> productWithHighestSales;
+    private volatile Entry<DoublyLinkedList> outOfStockProducts;
+
+    /**
+     * @param delegate the service that computes the reports
+     * @param inventoryService the inventory the reports read
+     * @param saleService the sales history the reports read
+     * @throws NullPointerException if any parameter is null
+     */
+    public CachingReportService(
+        ReportService delegate,
+        InventoryService inventoryService,
+        SaleService saleService
+    ) {
+        if (delegate == null) {
+            throw new NullPointerException("Delegate service cannot be null");
+        }
+        if (inventoryService == null) {
+            throw new NullPointerException("InventoryService cannot be null");
+        }
+        if (saleService == null) {
+            throw new NullPointerException("SaleService cannot be null");
+        }
+        this.delegate = delegate;
+        this.inventoryService = inventoryService;
+        this.saleService = saleService;
+    }
+
+    @Override
+    public int getTotalNumberOfProducts() {
+        Entry<Integer> entry = totalNumberOfProducts;
+        if (!isCurrent(entry)) {
+            entry = compute(delegate::getTotalNumberOfProducts);
+            totalNumberOfProducts = entry;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public double getTotalSalesRevenue() {
+        Entry<Double> entry = totalSalesRevenue;
+        if (!isCurrent(entry)) {
+            entry = compute(delegate::getTotalSalesRevenue);
+            totalSalesRevenue = entry;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public void displayProductWithHighestSales() {
+        delegate.displayProductWithHighestSales();
+    }
+
+    @Override
+    public ProductSales getProductWithHighestSales() {
+        Entry<ProductSales> entry = productWithHighestSales;
+        if (!isCurrent(entry)) {
+            entry = compute(delegate::getProductWithHighestSales);
+            productWithHighestSales = entry;
+        }
+        ProductSales top = entry.value;
+        if (top == null) {
+            return null;
+        }
+        ProductSales copy = new ProductSales(
+            top.getProductId(),
+            top.getProductName()
+        );
+        copy.add(top.getTotalRevenue(), top.getTotalQuantity());
+        return copy;
+    }
+
+    @Override
+    public DoublyLinkedList getOutOfStockProducts() {
+        Entry<DoublyLinkedList> entry = outOfStockProducts;
+        if (!isCurrent(entry)) {
+            entry = compute(delegate::getOutOfStockProducts);
+            outOfStockProducts = entry;
+        }
+        DoublyLinkedList copy = new DoublyLinkedList();
+        for (Object o : entry.value) {
+            copy.add(o);
+        }
+        return copy;
+    }
+
+    @Override
+    public DoublyLinkedList getHeavyHitters(int limit) {
+        return delegate.getHeavyHitters(limit);
+    }
+
+    @Override
+    public long estimateDistinctProductsSold(Duration window) {
+        return delegate.estimateDistinctProductsSold(window);
+    }
+
+    @Override
+    public SalesRate getSalesRate(Duration window) {
+        return delegate.getSalesRate(window);
+    }
+
+    private boolean isCurrent(Entry<?> entry) {
+        return (
+            entry != null &&
+            entry.inventoryVersion == inventoryService.getVersion() &&
+            entry.saleVersion == saleService.getVersion()
+        );
+    }
+
+    //versions first, so a write during the report makes the entry stale
+    private <T> Entry<T> compute(Supplier<T> report) {
+        long inventoryVersion = inventoryService.getVersion();
+        long saleVersion = saleService.getVersion();
+        return new Entry<>(inventoryVersion, saleVersion, report.get());
+    }
+}
@@ -0,0 +1,147 @@
+package service.report;
+
+import entities.ProductSales;
+import entities.Sale;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Revenue and quantity per product, keyed by ProductDictionary ordinal.
+ *
+ * An open-addressing table sized to the products actually added rather than
+ * to the dictionary, which holds every product ID the process has seen and
+ * only grows. A scan of a slice of the history therefore costs memory for
+ * the products in the slice, and merging two partial results walks only
+ * the entries of the smaller one.
+ *
+ * Not thread-safe; each fork/join leaf fills its own instance.
+ */
+public final class ProductTotals {
+
+    //Marks a free slot; ordinals are never negative
+    private static final int FREE = -1;
+
+    private int[] ordinals;
+    private ProductSales[] totals;
+    private int size;
+
+    public ProductTotals() {
+        ordinals = new int[16];
+        totals = new ProductSales[16];
+        Arrays.fill(ordinals, FREE);
+    }
+
+    /**
+     * Adds one sale to the totals of its product, named after the first
+     * sale of the product added.
+     *
+     * @param sale the sale to count
+     */
+    public void add(Sale sale) {
+        int ordinal = sale.getProductOrdinal();
+        int slot = slotOf(ordinal);
+        ProductSales productSales = totals[slot];
+        if (productSales == null) {
+            productSales = new ProductSales(
+                sale.getProductId(),
+                sale.getProductName()
+            );
+            insert(slot, ordinal, productSales);
+        }
+        productSales.add(sale.getTotalAmount(), sale.getQuantity());
+    }
+
+    /**
+     * @param ordinal a product ordinal
+     * @return the product's totals, or null if none of its sales were added
+     */
+    public ProductSales get(int ordinal) {
+        if (ordinal < 0) {
+            return null;
+        }
+        return totals[slotOf(ordinal)];
+    }
+
+    /**
+     * Passes the totals of every product with added sales to the action, in
+     * no particular order.
+     *
+     * @param action the action to run for each product
+     */
+    public void forEach(Consumer<ProductSales> action) {
+        for (ProductSales productSales : totals) {
+            if (productSales != null) {
+                action.accept(productSales);
+            }
+        }
+    }
+
+    /**
+     * @return the number of products with added sales
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Folds two partial results into one, walking the smaller of the two.
+     * Either argument may be reused as the result; neither may be used
+     * afterwards.
+     *
+     * @param a one partial result
+     * @param b the other partial result
+     * @return the combined totals
+     */
+    static ProductTotals merge(ProductTotals a, ProductTotals b) {
+        ProductTotals into = a.size >= b.size ? a : b;
+        ProductTotals from = into == a ? b : a;
+        for (int i = 0; i < from.ordinals.length; i++) {
+            int ordinal = from.ordinals[i];
+            if (ordinal == FREE) {
+                continue;
+            }
+            ProductSales source = from.totals[i];
+            int slot = into.slotOf(ordinal);
+            ProductSales target = into.totals[slot];
+            if (target == null) {
+                into.insert(slot, ordinal, source);
+            } else {
+                target.add(source.getTotalRevenue(), source.getTotalQuantity());
+            }
+        }
+        return into;
+    }
+
+    //slot holding the ordinal, or the free slot where it belongs
+    private int slotOf(int ordinal) {
+        int mask = ordinals.length - 1;
+        int hash = ordinal * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (ordinals[slot] != FREE && ordinals[slot] != ordinal) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(int slot, int ordinal, ProductSales productSales) {
+        ordinals[slot] = ordinal;
+        totals[slot] = productSales;
+        size++;
+        //kept at most half full, so probe runs stay short
+        if (size * 2 > ordinals.length) {
+            int[] oldOrdinals = ordinals;
+            ProductSales[] oldTotals = totals;
+            ordinals = new int[oldOrdinals.length * 2];
+            totals = new ProductSales[oldOrdinals.length * 2];
+            Arrays.fill(ordinals, FREE);
+            for (int i = 0; i < oldOrdinals.length; i++) {
+                if (oldOrdinals[i] != FREE) {
+                    int moved = slotOf(oldOrdinals[i]);
+                    ordinals[moved] = oldOrdinals[i];
+                    totals[moved] = oldTotals[i];
+                }
+            }
+        }
+    }
+}
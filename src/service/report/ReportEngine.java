@@ -0,0 +1,161 @@
+package service.report;
+
+import entities.Sale;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join execution of the report scans over a sales snapshot.
+ *
+ * A scan is split in halves until a range holds no more than the threshold
+ * number of sales; those ranges are scanned sequentially on the pool's
+ * workers and the partial results are combined on the way back up. The
+ * threshold also decides whether a report is worth parallelizing at all:
+ * ReportServiceImpl keeps to its sequential in-place scan while the history
+ * is no larger than it, or while the pool has a single worker, since
+ * snapshotting and forking would then cost more than they save.
+ *
+ * Revenue is summed in a different order than a sequential scan, so the
+ * last digits of a parallel total can differ from the sequential one.
+ */
+public class ReportEngine {
+
+    //Sales per leaf task, and the history size up to which reports stay
+    //sequential
+    public static final int DEFAULT_THRESHOLD = 1 << 15;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Constructs an engine running on the common pool, which has one worker
+     * per core, with the default threshold.
+     */
+    public ReportEngine() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param pool the pool to run scans on
+     * @param threshold the largest number of sales scanned sequentially
+     * @throws NullPointerException if pool is null
+     * @throws IllegalArgumentException if threshold is less than 1
+     */
+    public ReportEngine(ForkJoinPool pool, int threshold) {
+        if (pool == null) {
+            throw new NullPointerException("ForkJoinPool cannot be null");
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException(
+                "Threshold must be at least 1."
+            );
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @param saleCount the size of the history a report would scan
+     * @return whether a parallel scan is expected to beat a sequential one
+     */
+    public boolean shouldParallelize(int saleCount) {
+        return saleCount > threshold && pool.getParallelism() > 1;
+    }
+
+    /**
+     * @param sales the sales to sum
+     * @return the sum of their total amounts
+     */
+    public double totalRevenue(Sale[] sales) {
+        return pool.invoke(new RevenueTask(sales, 0, sales.length, threshold));
+    }
+
+    /**
+     * @param sales the sales to aggregate
+     * @return revenue and quantity per product sold, each named after one
+     *         of the product's sales
+     */
+    public ProductTotals totalsByProduct(Sale[] sales) {
+        return pool.invoke(new TotalsTask(sales, 0, sales.length, threshold));
+    }
+
+    //static, so a task holds no reference to the engine and its pool
+    private static final class RevenueTask extends RecursiveTask<Double> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Sale[] sales;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        RevenueTask(Sale[] sales, int from, int to, int threshold) {
+            this.sales = sales;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= threshold) {
+                double total = 0;
+                for (int i = from; i < to; i++) {
+                    total += sales[i].getTotalAmount();
+                }
+                return total;
+            }
+            int mid = (from + to) >>> 1;
+            RevenueTask left = new RevenueTask(sales, from, mid, threshold);
+            left.fork();
+            double right = new RevenueTask(sales, mid, to, threshold).compute();
+            return left.join() + right;
+        }
+    }
+
+    //each leaf sizes its table to the products in its range, so the cost
+    //does not grow with the dictionary
+    private static final class TotalsTask
+        extends RecursiveTask<ProductTotals> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Sale[] sales;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        TotalsTask(Sale[] sales, int from, int to, int threshold) {
+            this.sales = sales;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected ProductTotals compute() {
+            if (to - from <= threshold) {
+                ProductTotals totals = new ProductTotals();
+                for (int i = from; i < to; i++) {
+                    totals.add(sales[i]);
+                }
+                return totals;
+            }
+            int mid = (from + to) >>> 1;
+            TotalsTask left = new TotalsTask(sales, from, mid, threshold);
+            left.fork();
+            ProductTotals right = new TotalsTask(
+                sales,
+                mid,
+                to,
+                threshold
+            ).compute();
+            return ProductTotals.merge(left.join(), right);
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package service.report;
 
 import entities.DoublyLinkedList;
+import entities.ProductSales;
+import service.view.SalesRate;
+
+import java.time.Duration;
 
 public interface ReportService {
     int getTotalNumberOfProducts();
     double getTotalSalesRevenue();
     void displayProductWithHighestSales();
+    ProductSales getProductWithHighestSales();
     DoublyLinkedList getOutOfStockProducts();
+    DoublyLinkedList getHeavyHitters(int limit);
+    long estimateDistinctProductsSold(Duration window);
+    SalesRate getSalesRate(Duration window);
 }
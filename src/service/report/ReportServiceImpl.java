@@ -2,9 +2,23 @@ package service.report;
 
 import entities.DoublyLinkedList;
 import entities.Product;
+import entities.ProductDictionary;
+import entities.ProductSales;
 import entities.Sale;
+import service.console.Console;
 import service.inventory.InventoryService;
+import service.jfr.ReportEvent;
 import service.sale.SaleService;
+import service.sketch.HeavyHitter;
+import service.view.SalesRate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * Implementation of the ReportService interface that provides
@@ -17,6 +31,9 @@ import service.sale.SaleService;
  *   Sales revenue calculations and financial summaries
  *   Top-performing product identification by sales volume
  *   Out-of-stock product tracking and alerts
+ *   Best sellers by quantity and distinct products sold recently, computed
+ *   exactly by scanning
+ *   Sales, units and revenue over a recent window, as rates
  *
  *
  * The service acts as a facade over multiple data sources, providing a unified
@@ -38,6 +55,15 @@ public class ReportServiceImpl implements ReportService {
      */
     private final SaleService saleService;
 
+    /**
+     * Runs the sales scans with fork/join once the history is larger than
+     * the engine's threshold.
+     */
+    private final ReportEngine engine;
+
+    //Maps product IDs to the ordinals sales are grouped by
+    private final ProductDictionary dictionary = ProductDictionary.shared();
+
     /**
      * Constructs a new ReportServiceImpl with the specified dependencies.
      *
@@ -54,6 +80,23 @@ public class ReportServiceImpl implements ReportService {
     public ReportServiceImpl(
         InventoryService inventoryService,
         SaleService saleService
+    ) {
+        this(inventoryService, saleService, new ReportEngine());
+    }
+
+    /**
+     * Constructs a new ReportServiceImpl that runs its large sales scans on
+     * the given engine.
+     *
+     * @param inventoryService the inventory service for product data access
+     * @param saleService the sales service for transaction data access
+     * @param engine the engine for parallel scans
+     * @throws NullPointerException if any parameter is null
+     */
+    public ReportServiceImpl(
+        InventoryService inventoryService,
+        SaleService saleService,
+        ReportEngine engine
     ) {
         if (inventoryService == null) {
             throw new NullPointerException("InventoryService cannot be null");
@@ -61,8 +104,12 @@ public class ReportServiceImpl implements ReportService {
         if (saleService == null) {
             throw new NullPointerException("SaleService cannot be null");
         }
+        if (engine == null) {
+            throw new NullPointerException("ReportEngine cannot be null");
+        }
         this.inventoryService = inventoryService;
         this.saleService = saleService;
+        this.engine = engine;
     }
 
     /**
@@ -73,133 +120,302 @@ public class ReportServiceImpl implements ReportService {
      */
     @Override
     public int getTotalNumberOfProducts() {
-        return inventoryService.getAllProducts().size();
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        int total = inventoryService.getProductCount();
+        commit(event, "getTotalNumberOfProducts", 0);
+        return total;
     }
 
     /**
      * Calculates and returns the total sales revenue from all transactions.
      *
-     * <p>This method iterates through all recorded sales and sums the total
-     * amounts.
+     * <p>This method iterates through all recorded sales in place, without
+     * copying the history, and sums the total amounts. Histories larger than
+     * the engine threshold are summed in parallel over a snapshot.
      * @return the sum of all sale amounts, or 0.0 if no sales have been recorded
      */
     @Override
     public double getTotalSalesRevenue() {
-        DoublyLinkedList sales = saleService.getAllSales();
-        double totalRevenue = 0;
-
-        for (int i = 0; i < sales.size(); i++) {
-            Sale sale = (Sale) sales.get(i);
-            totalRevenue += sale.getTotalAmount();
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        if (engine.shouldParallelize(saleService.getSaleCount())) {
+            Sale[] sales = snapshotSales();
+            double totalRevenue = engine.totalRevenue(sales);
+            commit(event, "getTotalSalesRevenue", sales.length);
+            return totalRevenue;
         }
-
-        return totalRevenue;
+        double[] totalRevenue = { 0 };
+        long[] scanned = { 0 };
+        saleService.forEachSale(sale -> {
+            totalRevenue[0] += sale.getTotalAmount();
+            scanned[0]++;
+        });
+        commit(event, "getTotalSalesRevenue", scanned[0]);
+        return totalRevenue[0];
     }
 
     /**
      * Identifies and displays the product with the highest total sales revenue.
      *
-     * This method performs the following analysis:
-     *
-     *   Iterates through all products in inventory
-     *   For each product, calculates total sales revenue from all transactions
-     *   Tracks the quantity sold for each product
-     *   Identifies the product with maximum sales revenue
-     *   Displays comprehensive information about the top product
-     *
-     *
      * The displayed information includes product ID, name, current unit price,
      * total sales revenue, and total quantity sold across all transactions.
      */
     @Override
     public void displayProductWithHighestSales() {
-        DoublyLinkedList products = inventoryService.getAllProducts();
-        DoublyLinkedList sales = saleService.getAllSales();
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        try {
+            printProductWithHighestSales();
+        } finally {
+            commit(event, "displayProductWithHighestSales", 0);
+        }
+    }
 
+    private void printProductWithHighestSales() {
         // Validate data availability
-        if (products.isEmpty()) {
-            System.out.println("No products available.");
+        if (inventoryService.getProductCount() == 0) {
+            Console.out().println("No products available.");
             return;
         }
-        if (sales.isEmpty()) {
-            System.out.println("No sales available.");
+        if (saleService.getSaleCount() == 0) {
+            Console.out().println("No sales available.");
             return;
         }
 
-        // Track the top-performing product
-        String topProductId = null;
-        String topProductName = null;
-        double highestSales = 0;
-        int totalQuantitySold = 0;
-
-        // Iterate through each product and calculate its total sales
-        for (int i = 0; i < products.size(); i++) {
-            Product product = (Product) products.get(i);
-            double productTotalSales = 0;
-            int productQuantitySold = 0;
-
-            // Sum sales for this specific product
-            for (int j = 0; j < sales.size(); j++) {
-                Sale sale = (Sale) sales.get(j);
-                if (sale.getProductId().equals(product.getId())) {
-                    productTotalSales += sale.getTotalAmount();
-                    productQuantitySold += sale.getQuantity();
-                }
-            }
-
-            // Update if this product has higher sales than current top
-            if (productTotalSales > highestSales) {
-                highestSales = productTotalSales;
-                topProductId = product.getId();
-                topProductName = product.getName();
-                totalQuantitySold = productQuantitySold;
-            }
-        }
+        ProductSales top = getProductWithHighestSales();
+        printTopProduct(
+            top,
+            top == null
+                ? null
+                : inventoryService.findProductById(top.getProductId())
+        );
+    }
 
+    //shared with ViewReportService so both reports print alike
+    static void printTopProduct(ProductSales top, Product product) {
         // Display the results
-        if (topProductId != null) {
-            System.out.println("\n=== Product with Highest Sales ===");
-            System.out.println("ID: " + topProductId);
-            System.out.println("Name: " + topProductName);
-            System.out.println(
+        if (top != null) {
+            Console.out().println("\n=== Product with Highest Sales ===");
+            Console.out().println("ID: " + top.getProductId());
+            Console.out().println("Name: " + top.getProductName());
+            Console.out().println(
                 "Current Unit Price: $" +
-                    String.format(
-                        "%.2f",
-                        inventoryService
-                            .findProductById(topProductId)
-                            .getPrice()
-                    )
+                    String.format("%.2f", product.getPrice())
+            );
+            Console.out().println(
+                "Total Sales Revenue: $" +
+                    String.format("%.2f", top.getTotalRevenue())
             );
-            System.out.println(
-                "Total Sales Revenue: $" + String.format("%.2f", highestSales)
+            Console.out().println(
+                "Total Quantity Sold: " + top.getTotalQuantity()
             );
-            System.out.println("Total Quantity Sold: " + totalQuantitySold);
         } else {
-            System.out.println("Unable to determine top product.");
+            Console.out().println("Unable to determine top product.");
+        }
+    }
+
+    /**
+     * Finds the product with the highest total sales revenue.
+     *
+     * This method performs the following analysis:
+     *
+     *   Sums revenue and quantity per product ID in one pass over the sales,
+     *   split across cores when the history exceeds the engine threshold
+     *   Walks the products in inventory order
+     *   Keeps the first product whose revenue exceeds all earlier ones
+     *
+     * Sales of products no longer in inventory are not considered.
+     *
+     * @return the totals of the top product, named as it currently is in
+     *         inventory, or null if no current product has positive sales
+     */
+    @Override
+    public ProductSales getProductWithHighestSales() {
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        long[] scanned = { 0 };
+        ProductTotals totals = totalsByProduct(scanned);
+
+        ProductSales top = null;
+        for (Object o : inventoryService.getAllProducts()) {
+            Product product = (Product) o;
+            ProductSales productSales = totals.get(
+                dictionary.find(product.getId())
+            );
+            if (
+                productSales != null &&
+                productSales.getTotalRevenue() >
+                    (top == null ? 0 : top.getTotalRevenue())
+            ) {
+                top = productSales;
+                top.setProductName(product.getName());
+            }
+            scanned[0]++;
+        }
+        commit(event, "getProductWithHighestSales", scanned[0]);
+        return top;
+    }
+
+    /**
+     * Returns the products with the most units sold, counted exactly over
+     * the whole history, including products no longer in inventory.
+     *
+     * @param limit the most entries to return
+     * @return a DoublyLinkedList of HeavyHitter, most units first, each
+     *         with an error of 0
+     * @throws IllegalArgumentException if limit is less than 1
+     */
+    @Override
+    public DoublyLinkedList getHeavyHitters(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1.");
+        }
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        long[] scanned = { 0 };
+        List<ProductSales> sold = new ArrayList<>();
+        totalsByProduct(scanned).forEach(sold::add);
+        sold.sort(
+            Comparator.comparingLong(ProductSales::getTotalQuantity).reversed()
+        );
+        DoublyLinkedList heavyHitters = new DoublyLinkedList();
+        for (int i = 0; i < Math.min(limit, sold.size()); i++) {
+            ProductSales productSales = sold.get(i);
+            heavyHitters.add(
+                new HeavyHitter(
+                    productSales.getProductId(),
+                    productSales.getProductName(),
+                    productSales.getTotalQuantity(),
+                    0
+                )
+            );
+        }
+        commit(event, "getHeavyHitters", scanned[0]);
+        return heavyHitters;
+    }
+
+    /**
+     * Counts exactly the distinct products sold from window ago until now,
+     * scanning only the sales in that range.
+     *
+     * @param window how far back to look
+     * @return the number of distinct products sold in the window
+     * @throws IllegalArgumentException if window is not positive
+     */
+    @Override
+    public long estimateDistinctProductsSold(Duration window) {
+        if (window == null || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Window must be positive.");
         }
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        BitSet sold = new BitSet(dictionary.size());
+        long[] scanned = { 0 };
+        LocalDateTime now = LocalDateTime.now();
+        saleService.forEachSaleBetween(
+            now.minus(window),
+            LocalDateTime.MAX,
+            sale -> {
+                sold.set(sale.getProductOrdinal());
+                scanned[0]++;
+            }
+        );
+        commit(event, "estimateDistinctProductsSold", scanned[0]);
+        return sold.cardinality();
+    }
+
+    /**
+     * Totals the sales from window ago until now, scanning only the sales
+     * in that range.
+     *
+     * @param window how far back to look
+     * @return the sales in the window and their rates
+     * @throws IllegalArgumentException if window is shorter than a second
+     */
+    @Override
+    public SalesRate getSalesRate(Duration window) {
+        if (window == null || window.getSeconds() < 1) {
+            throw new IllegalArgumentException(
+                "Window must be at least one second."
+            );
+        }
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        long[] totals = { 0, 0 };
+        double[] revenue = { 0 };
+        saleService.forEachSaleBetween(
+            LocalDateTime.now().minus(window),
+            LocalDateTime.MAX,
+            sale -> {
+                totals[0]++;
+                totals[1] += sale.getQuantity();
+                revenue[0] += sale.getTotalAmount();
+            }
+        );
+        commit(event, "getSalesRate", totals[0]);
+        return new SalesRate(window, totals[0], totals[1], revenue[0]);
+    }
+
+    //revenue and quantity per product ordinal, counting scanned sales
+    private ProductTotals totalsByProduct(long[] scanned) {
+        if (engine.shouldParallelize(saleService.getSaleCount())) {
+            Sale[] sales = snapshotSales();
+            scanned[0] += sales.length;
+            return engine.totalsByProduct(sales);
+        }
+        ProductTotals totals = new ProductTotals();
+        saleService.forEachSale(sale -> {
+            totals.add(sale);
+            scanned[0]++;
+        });
+        return totals;
     }
 
     /**
      * Returns a list of all products that are currently out of stock.
      *
-     * This method filters the complete product inventory and identifies
-     * products with zero quantity.
+     * This method reads the products with zero quantity from the inventory's
+     * quantity index instead of filtering the complete product list.
 
      * @return a DoublyLinkedList containing all out-of-stock products,
      *         or an empty list if all products are in stock or inventory is empty
      */
     @Override
     public DoublyLinkedList getOutOfStockProducts() {
-        DoublyLinkedList products = inventoryService.getAllProducts();
-        DoublyLinkedList outOfStock = new DoublyLinkedList();
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        DoublyLinkedList outOfStock =
+            inventoryService.findProductsWithQuantityBelow(1);
+        commit(event, "getOutOfStockProducts", outOfStock.size());
+        return outOfStock;
+    }
 
-        for (int i = 0; i < products.size(); i++) {
-            Product product = (Product) products.get(i);
-            if (product.isOutOfStock()) {
-                outOfStock.add(product);
+    //the history as an array, so the engine can split it into ranges
+    private Sale[] snapshotSales() {
+        Sale[][] sales = { new Sale[saleService.getSaleCount()] };
+        int[] size = { 0 };
+        saleService.forEachSale(sale -> {
+            if (size[0] == sales[0].length) {
+                sales[0] = Arrays.copyOf(sales[0], size[0] * 2 + 1);
             }
-        }
+            sales[0][size[0]++] = sale;
+        });
+        return size[0] == sales[0].length
+            ? sales[0]
+            : Arrays.copyOf(sales[0], size[0]);
+    }
 
-        return outOfStock;
+    //fields are only filled in while a recording has the event enabled
+    private static void commit(
+        ReportEvent event,
+        String report,
+        long rowsScanned
+    ) {
+        if (event.shouldCommit()) {
+            event.report = report;
+            event.rowsScanned = rowsScanned;
+            event.commit();
+        }
     }
 }
@@ -0,0 +1,205 @@
+package service.report;
+
+import entities.DoublyLinkedList;
+import entities.ProductSales;
+import service.console.Console;
+import service.inventory.InventoryServiceImpl;
+import service.jfr.ReportEvent;
+import service.sale.SaleServiceImpl;
+import service.view.OutOfStockView;
+import service.view.ProductCountView;
+import service.view.RevenueView;
+import service.view.SalesRate;
+import service.view.SalesRateView;
+import service.view.SalesSketchView;
+import service.view.TopProductView;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * ReportService answered from materialized views instead of scans.
+ *
+ * The constructor registers one view per report with the inventory and
+ * sales services; from then on each mutation updates the views as it
+ * happens and every report is a read of the view, with no pass over the
+ * products or the sales history. The results are those of ReportServiceImpl,
+ * except that of several products tied for the highest revenue, the one that
+ * reached it first is reported rather than the first in inventory order.
+ *
+ * Heavy hitters and distinct product counts come from a SalesSketchView,
+ * so they are estimates within its error bounds rather than exact figures,
+ * and hold constant memory however large the catalog and history grow.
+ * Sales rates come from a SalesRateView of one-second slots over the last
+ * hour.
+ *
+ * The views are updated on the services' write path, so like the services
+ * themselves this class is not thread-safe and must be called from the
+ * thread (or under the lock) that mutates the services. The one exception
+ * is getSalesRate, which may be called from any thread without a lock.
+ */
+public class ViewReportService implements ReportService {
+
+    private final InventoryServiceImpl inventoryService;
+    private final SaleServiceImpl saleService;
+
+    private final ProductCountView productCount = new ProductCountView();
+    private final RevenueView revenue = new RevenueView();
+    private final TopProductView topProduct = new TopProductView();
+    private final OutOfStockView outOfStock = new OutOfStockView();
+    private final SalesSketchView sketches;
+    private final SalesRateView rates = new SalesRateView();
+
+    /**
+     * Registers the report views with the given services, with default
+     * sketch error bounds. Existing products and sales are replayed into the
+     * views once, here.
+     *
+     * @param inventoryService the inventory to report on
+     * @param saleService the sales history to report on
+     * @throws NullPointerException if either service parameter is null
+     */
+    public ViewReportService(
+        InventoryServiceImpl inventoryService,
+        SaleServiceImpl saleService
+    ) {
+        this(inventoryService, saleService, new SalesSketchView());
+    }
+
+    /**
+     * Registers the report views with the given services, answering the
+     * approximate reports from the given sketches.
+     *
+     * @param inventoryService the inventory to report on
+     * @param saleService the sales history to report on
+     * @param sketches the sketch view, not yet registered anywhere
+     * @throws NullPointerException if any parameter is null
+     */
+    public ViewReportService(
+        InventoryServiceImpl inventoryService,
+        SaleServiceImpl saleService,
+        SalesSketchView sketches
+    ) {
+        if (inventoryService == null) {
+            throw new NullPointerException("InventoryService cannot be null");
+        }
+        if (saleService == null) {
+            throw new NullPointerException("SaleService cannot be null");
+        }
+        this.inventoryService = inventoryService;
+        if (sketches == null) {
+            throw new NullPointerException("SalesSketchView cannot be null");
+        }
+        this.saleService = saleService;
+        this.sketches = sketches;
+        inventoryService.registerView(productCount);
+        inventoryService.registerView(topProduct);
+        inventoryService.registerView(outOfStock);
+        saleService.registerView(revenue);
+        saleService.registerView(topProduct);
+        saleService.registerView(sketches);
+        saleService.registerView(rates);
+    }
+
+    @Override
+    public int getTotalNumberOfProducts() {
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        int total = productCount.getCount();
+        commit(event, "getTotalNumberOfProducts");
+        return total;
+    }
+
+    @Override
+    public double getTotalSalesRevenue() {
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        double totalRevenue = revenue.getTotalRevenue();
+        commit(event, "getTotalSalesRevenue");
+        return totalRevenue;
+    }
+
+    @Override
+    public void displayProductWithHighestSales() {
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        try {
+            if (productCount.getCount() == 0) {
+                Console.out().println("No products available.");
+            } else if (saleService.getSaleCount() == 0) {
+                Console.out().println("No sales available.");
+            } else {
+                ProductSales top = topProduct.getTop();
+                ReportServiceImpl.printTopProduct(
+                    top,
+                    top == null
+                        ? null
+                        : inventoryService.findProductById(top.getProductId())
+                );
+            }
+        } finally {
+            commit(event, "displayProductWithHighestSales");
+        }
+    }
+
+    @Override
+    public ProductSales getProductWithHighestSales() {
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        ProductSales top = topProduct.getTop();
+        commit(event, "getProductWithHighestSales");
+        return top;
+    }
+
+    @Override
+    public DoublyLinkedList getOutOfStockProducts() {
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        DoublyLinkedList products = outOfStock.getProducts();
+        commit(event, "getOutOfStockProducts");
+        return products;
+    }
+
+    @Override
+    public DoublyLinkedList getHeavyHitters(int limit) {
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        DoublyLinkedList heavyHitters = sketches.getHeavyHitters(limit);
+        commit(event, "getHeavyHitters");
+        return heavyHitters;
+    }
+
+    @Override
+    public long estimateDistinctProductsSold(Duration window) {
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        long distinct = sketches.estimateDistinctProducts(
+            window,
+            LocalDateTime.now()
+        );
+        commit(event, "estimateDistinctProductsSold");
+        return distinct;
+    }
+
+    /**
+     * @throws IllegalArgumentException if window is shorter than a second or
+     *         longer than an hour
+     */
+    @Override
+    public SalesRate getSalesRate(Duration window) {
+        ReportEvent event = new ReportEvent();
+        event.begin();
+        SalesRate rate = rates.getRate(window, LocalDateTime.now());
+        commit(event, "getSalesRate");
+        return rate;
+    }
+
+    //a view read scans no rows
+    private static void commit(ReportEvent event, String report) {
+        if (event.shouldCommit()) {
+            event.report = report;
+            event.rowsScanned = 0;
+            event.commit();
+        }
+    }
+}
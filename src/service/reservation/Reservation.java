@@ -0,0 +1,86 @@
+package service.reservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * A hold on a quantity of one product's stock, made for a shopping cart
+ * before checkout.
+ *
+ * While a reservation is active its units are taken out of the product's
+ * quantity, so neither sales nor other reservations can use them. It ends
+ * in one of three ways: committed into a sale, released by the cart, or
+ * expired when its time to live runs out before either.
+ */
+public class Reservation {
+
+    /**
+     * The lifecycle of a reservation. Only ACTIVE reservations hold stock.
+     */
+    public enum Status {
+        ACTIVE,
+        COMMITTED,
+        RELEASED,
+        EXPIRED,
+    }
+
+    private final String id;
+    private final String productId;
+    private final int quantity;
+    private final LocalDateTime expiresAt;
+    private Status status = Status.ACTIVE;
+
+    //Expiry timer, null once the reservation is no longer active
+    TimingWheel.Timer<Reservation> timer;
+
+    Reservation(
+        String id,
+        String productId,
+        int quantity,
+        LocalDateTime expiresAt
+    ) {
+        this.id = id;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * @return the time the hold is released unless committed or released
+     *         earlier
+     */
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Reservation[ID=%s, Product=%s, Quantity=%d, Expires=%s, Status=%s]",
+            id,
+            productId,
+            quantity,
+            expiresAt,
+            status
+        );
+    }
+}
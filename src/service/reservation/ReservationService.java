@@ -0,0 +1,14 @@
+package service.reservation;
+
+import entities.Sale;
+
+import java.time.Duration;
+
+public interface ReservationService {
+    Reservation reserve(String productId, int quantity, Duration ttl);
+    Sale commit(String reservationId);
+    void release(String reservationId);
+    Reservation findReservation(String reservationId);
+    int expireReservations();
+    int getActiveCount();
+}
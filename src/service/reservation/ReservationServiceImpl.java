@@ -0,0 +1,348 @@
+package service.reservation;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import entities.Sale;
+import service.console.Console;
+import service.inventory.InsufficientStockException;
+import service.inventory.InventoryService;
+import service.sale.SaleService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the ReservationService interface that holds stock for
+ * shopping carts until checkout.
+ *
+ * Reserving takes the units out of the product's quantity through the
+ * InventoryService, so sales and other carts see them as gone and its
+ * indexes and views stay correct. Committing records the sale against the
+ * held units through SaleService.addSales, which validates it and adds it
+ * to the history and views without touching stock again, so no other buyer
+ * can take the units between the hold and the sale. Releasing or expiring
+ * gives the units back.
+ *
+ * Expiry is driven by a hierarchical TimingWheel with TICK_MILLIS ticks
+ * rather than a scan of every hold or one scheduled task per hold, so
+ * reserving, committing, releasing and expiring each cost O(1) however
+ * many holds are outstanding. The wheel is advanced to the current time at
+ * the start of every call, and once start has been called a daemon thread
+ * also advances it every EXPIRY_PERIOD_MILLIS, so abandoned holds are
+ * released while nobody calls the service.
+ *
+ * Every call, including the expiry thread's, is serialized on the service's
+ * monitor. The inventory service is called from the expiry thread too, so
+ * it must be thread-safe, as InventoryServiceImpl is.
+ */
+public class ReservationServiceImpl
+    implements ReservationService, AutoCloseable {
+
+    //Resolution of expiry; a hold is released within one tick of its time
+    static final long TICK_MILLIS = 10;
+
+    //How often the expiry thread runs once started
+    static final long EXPIRY_PERIOD_MILLIS = 100;
+
+    private final InventoryService inventoryService;
+    private final SaleService saleService;
+    private final Clock clock;
+    private final TimingWheel<Reservation> wheel;
+
+    //Active reservations only, by id
+    private final Map<String, Reservation> active = new HashMap<>();
+    private long nextId;
+
+    //Runs the expiry thread between start and close, null otherwise
+    private ScheduledExecutorService expiry;
+
+    /**
+     * Constructs a service using the system clock.
+     *
+     * @param inventoryService the service whose stock is held
+     * @param saleService the service committed reservations are recorded in
+     * @throws NullPointerException if either service is null
+     */
+    public ReservationServiceImpl(
+        InventoryService inventoryService,
+        SaleService saleService
+    ) {
+        this(inventoryService, saleService, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a service that tells time with the given clock.
+     *
+     * @param inventoryService the service whose stock is held
+     * @param saleService the service committed reservations are recorded in
+     * @param clock the clock time to live is measured with
+     * @throws NullPointerException if any parameter is null
+     */
+    public ReservationServiceImpl(
+        InventoryService inventoryService,
+        SaleService saleService,
+        Clock clock
+    ) {
+        if (inventoryService == null) {
+            throw new NullPointerException("InventoryService cannot be null");
+        }
+        if (saleService == null) {
+            throw new NullPointerException("SaleService cannot be null");
+        }
+        if (clock == null) {
+            throw new NullPointerException("Clock cannot be null");
+        }
+        this.inventoryService = inventoryService;
+        this.saleService = saleService;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(clock.millis() / TICK_MILLIS);
+    }
+
+    /**
+     * Holds stock of a product for the given time.
+     *
+     * @param productId the product to hold
+     * @param quantity the number of units to hold
+     * @param ttl how long the hold lasts unless committed or released
+     * @return the new active reservation
+     * @throws IllegalArgumentException if the product does not exist, the
+     *         quantity or ttl is not positive, or there is not enough stock
+     */
+    @Override
+    public synchronized Reservation reserve(String productId, int quantity, Duration ttl) {
+        expireReservations();
+        if (quantity <= 0) {
+            throw new IllegalArgumentException(
+                "Quantity must be greater than 0."
+            );
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException(
+                "Reservation time must be greater than 0."
+            );
+        }
+        Product product = inventoryService.findProductById(productId);
+        if (product == null) {
+            throw new IllegalArgumentException(
+                "Product not found: " + productId
+            );
+        }
+        int available = product.getQuantity();
+        if (available < quantity) {
+            throw new InsufficientStockException(
+                String.format(
+                    "Insufficient stock. Available: %d, Requested: %d",
+                    available,
+                    quantity
+                )
+            );
+        }
+        inventoryService.adjustQuantity(productId, -quantity);
+
+        long deadline = clock.millis() + ttl.toMillis();
+        Reservation reservation = new Reservation(
+            "R" + ++nextId,
+            productId,
+            quantity,
+            LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(deadline),
+                clock.getZone()
+            )
+        );
+        //rounded up, so a hold never expires before its time
+        reservation.timer = wheel.schedule(
+            reservation,
+            (deadline + TICK_MILLIS - 1) / TICK_MILLIS
+        );
+        active.put(reservation.getId(), reservation);
+        return reservation;
+    }
+
+    /**
+     * Turns an active reservation into a sale of its product and quantity,
+     * at the product's current name and price. The held units become the
+     * sold units, so the stock is never given back in between. If recording
+     * the sale fails, the held units go back to stock and the reservation
+     * counts as released.
+     *
+     * @param reservationId the reservation to commit
+     * @return the recorded sale
+     * @throws IllegalArgumentException if no active reservation has the id,
+     *         or the sale cannot be recorded
+     */
+    @Override
+    public synchronized Sale commit(String reservationId) {
+        expireReservations();
+        Reservation reservation = end(
+            reservationId,
+            Reservation.Status.RELEASED
+        );
+        Product product = inventoryService.findProductById(
+            reservation.getProductId()
+        );
+        if (product == null) {
+            throw new IllegalArgumentException(
+                "Product not found: " + reservation.getProductId()
+            );
+        }
+        Product.State state = product.getState();
+        Sale sale = new Sale(
+            reservation.getProductId(),
+            state.name(),
+            reservation.getQuantity(),
+            state.price(),
+            LocalDateTime.now(clock)
+        );
+        DoublyLinkedList batch = new DoublyLinkedList();
+        batch.add(sale);
+        try {
+            saleService.addSales(batch);
+        } catch (RuntimeException e) {
+            returnStock(reservation);
+            throw e;
+        }
+        reservation.setStatus(Reservation.Status.COMMITTED);
+        Console.out().println("✓ Sale recorded: " + sale);
+        return sale;
+    }
+
+    /**
+     * Gives the units of an active reservation back to stock.
+     *
+     * @param reservationId the reservation to release
+     * @throws IllegalArgumentException if no active reservation has the id
+     */
+    @Override
+    public synchronized void release(String reservationId) {
+        expireReservations();
+        returnStock(end(reservationId, Reservation.Status.RELEASED));
+    }
+
+    /**
+     * @param reservationId the reservation to look up
+     * @return the reservation, or null if no active reservation has the id
+     */
+    @Override
+    public synchronized Reservation findReservation(String reservationId) {
+        expireReservations();
+        return active.get(reservationId);
+    }
+
+    /**
+     * Releases every reservation whose time to live has run out.
+     *
+     * @return the number of reservations expired
+     */
+    @Override
+    public synchronized int expireReservations() {
+        int before = active.size();
+        wheel.advance(clock.millis() / TICK_MILLIS, reservation -> {
+            reservation.timer = null;
+            reservation.setStatus(Reservation.Status.EXPIRED);
+            active.remove(reservation.getId());
+            returnStock(reservation);
+        });
+        return before - active.size();
+    }
+
+    /**
+     * @return the number of reservations holding stock
+     */
+    @Override
+    public synchronized int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * Starts the expiry thread, which releases expired holds every
+     * EXPIRY_PERIOD_MILLIS until close. Does nothing if it is already
+     * running.
+     */
+    public synchronized void start() {
+        if (expiry != null) {
+            return;
+        }
+        expiry = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread t = new Thread(task, "reservation-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        expiry.scheduleWithFixedDelay(
+            this::expireOnSchedule,
+            EXPIRY_PERIOD_MILLIS,
+            EXPIRY_PERIOD_MILLIS,
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Stops the expiry thread, waiting for a run in progress to finish.
+     * Active holds are kept and still expire on the next call.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService stopping;
+        synchronized (this) {
+            stopping = expiry;
+            expiry = null;
+        }
+        if (stopping == null) {
+            return;
+        }
+        //waited for outside the monitor, which a running tick needs
+        stopping.shutdown();
+        boolean interrupted = false;
+        while (!stopping.isTerminated()) {
+            try {
+                stopping.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //a scheduled task that throws is never run again, so failures are logged
+    private void expireOnSchedule() {
+        try {
+            expireReservations();
+        } catch (RuntimeException e) {
+            Console.err().println(
+                "✗ Could not expire reservations: " + e.getMessage()
+            );
+        }
+    }
+
+    //removes an active reservation and cancels its expiry
+    private Reservation end(String reservationId, Reservation.Status status) {
+        Reservation reservation = active.remove(reservationId);
+        if (reservation == null) {
+            throw new IllegalArgumentException(
+                "No active reservation: " + reservationId
+            );
+        }
+        wheel.cancel(reservation.timer);
+        reservation.timer = null;
+        reservation.setStatus(status);
+        return reservation;
+    }
+
+    //false if the product was deleted while its units were held
+    private boolean returnStock(Reservation reservation) {
+        String productId = reservation.getProductId();
+        if (inventoryService.findProductById(productId) == null) {
+            return false;
+        }
+        inventoryService.adjustQuantity(productId, reservation.getQuantity());
+        return true;
+    }
+}
@@ -0,0 +1,203 @@
+package service.reservation;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: a set of timers, each firing at a deadline
+ * measured in ticks, with constant-time scheduling and cancellation.
+ *
+ * The wheel has LEVELS levels of SLOTS slots each. A level 0 slot holds the
+ * timers due in one tick, a level 1 slot those due in one turn of level 0,
+ * and so on, so the four levels together span SLOTS^4 ticks. A timer is
+ * linked into the slot of the lowest level whose span still reaches its
+ * deadline. Whenever a level completes a turn, the next slot of the level
+ * above is emptied and its timers are linked again one level lower, until
+ * they reach level 0 and fire. Each timer is therefore moved at most once
+ * per level, whatever the number of timers, and advancing the wheel never
+ * scans timers that are not yet due.
+ *
+ * Timers due beyond the span of the top level are parked in its last slot
+ * and re-linked when it comes round. A wheel is not thread-safe.
+ *
+ * @param <T> the type of the value each timer carries
+ */
+final class TimingWheel<T> {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    //Ticks spanned by the whole wheel
+    private static final long SPAN = 1L << (LEVELS * SLOT_BITS);
+
+    /**
+     * A scheduled timer, linked into the circular list of its slot.
+     */
+    static final class Timer<T> {
+
+        private final T value;
+        private final long deadline;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T value, long deadline) {
+            this.value = value;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return the tick the timer fires at
+         */
+        long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * @return true while the timer is scheduled
+         */
+        boolean isScheduled() {
+            return next != null;
+        }
+    }
+
+    //Sentinel heads of the circular slot lists, [level][slot]
+    private final Timer<T>[][] slots;
+
+    //The last tick processed; timers are due after it
+    private long now;
+    private int size;
+
+    /**
+     * Creates an empty wheel.
+     *
+     * @param startTick the current tick
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    TimingWheel(long startTick) {
+        this.now = startTick;
+        this.slots = new Timer[LEVELS][SLOTS];
+        for (Timer<T>[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                Timer<T> head = new Timer<>(null, 0);
+                head.prev = head;
+                head.next = head;
+                level[i] = head;
+            }
+        }
+    }
+
+    /**
+     * Schedules a timer. A deadline that has already passed fires on the
+     * next advance.
+     *
+     * @param value the value passed to the expiry action
+     * @param deadline the tick the timer fires at
+     * @return the timer, for cancel
+     */
+    Timer<T> schedule(T value, long deadline) {
+        Timer<T> timer = new Timer<>(value, Math.max(deadline, now + 1));
+        link(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Unschedules a timer. Does nothing if it has fired or was cancelled.
+     *
+     * @param timer a timer returned by schedule
+     */
+    void cancel(Timer<T> timer) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+            size--;
+        }
+    }
+
+    /**
+     * Moves the wheel forward to the given tick, passing the value of every
+     * timer due by then to the action, earliest tick first. The action may
+     * schedule and cancel timers.
+     *
+     * @param tick the tick to advance to; earlier ticks are ignored
+     * @param expired the action to run for each due value
+     */
+    void advance(long tick, Consumer<T> expired) {
+        while (now < tick) {
+            if (size == 0) {
+                //nothing can fire in between, so skip the idle ticks
+                now = tick;
+                return;
+            }
+            now++;
+            //from the top, so timers moved down can cascade again this tick
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int shift = level * SLOT_BITS;
+                if ((now & ((1L << shift) - 1)) == 0) {
+                    cascade(slots[level][(int) (now >>> shift) & SLOT_MASK]);
+                }
+            }
+            Timer<T> head = slots[0][(int) now & SLOT_MASK];
+            while (head.next != head) {
+                Timer<T> timer = head.next;
+                unlink(timer);
+                size--;
+                expired.accept(timer.value);
+            }
+        }
+    }
+
+    /**
+     * @return the number of scheduled timers
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the last tick the wheel was advanced to
+     */
+    long getTick() {
+        return now;
+    }
+
+    private void cascade(Timer<T> head) {
+        Timer<T> timer = head.next;
+        head.prev = head;
+        head.next = head;
+        while (timer != head) {
+            Timer<T> next = timer.next;
+            link(timer);
+            timer = next;
+        }
+    }
+
+    private void link(Timer<T> timer) {
+        //overdue timers being cascaded fire at the current tick
+        long delta = Math.max(timer.deadline - now, 0);
+        Timer<T> head;
+        if (delta >= SPAN) {
+            head = slots[LEVELS - 1][
+                (int) ((now >>> ((LEVELS - 1) * SLOT_BITS)) - 1) & SLOT_MASK
+            ];
+        } else {
+            int level = 0;
+            while (delta >= 1L << ((level + 1) * SLOT_BITS)) {
+                level++;
+            }
+            long slot = Math.max(timer.deadline, now) >>> (level * SLOT_BITS);
+            head = slots[level][(int) slot & SLOT_MASK];
+        }
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+    }
+}
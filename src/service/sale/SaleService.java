@@ -1,9 +1,22 @@
 package service.sale;
 
 import entities.DoublyLinkedList;
+import entities.Sale;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
 
 public interface SaleService {
-    void recordSale(String productId, int quantity);
+    Sale recordSale(String productId, int quantity);
+    void addSales(DoublyLinkedList sales);
     void displayAllSales();
     DoublyLinkedList getAllSales();
+    void forEachSale(Consumer<Sale> action);
+    void forEachSaleBetween(
+        LocalDateTime from,
+        LocalDateTime to,
+        Consumer<Sale> action
+    );
+    int getSaleCount();
+    long getVersion();
 }
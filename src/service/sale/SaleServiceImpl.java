@@ -3,9 +3,19 @@ package service.sale;
 import entities.DoublyLinkedList;
 import entities.Product;
 import entities.Sale;
+import service.archive.SaleArchive;
+import service.console.Console;
+import service.inventory.InsufficientStockException;
 import service.inventory.InventoryService;
+import service.jfr.SaleRecordedEvent;
+import service.view.MaterializedView;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.function.Consumer;
 
 /**
  * Implementation of the SaleService interface that manages sales transactions.
@@ -21,10 +31,25 @@ import java.time.LocalDateTime;
  * providing efficient append operations for new transactions. It coordinates with
  * the InventoryService to ensure data consistency between sales and inventory.
  *
+ * With a SaleArchive the list only holds the hot part of the history: sales
+ * older than the configured age are moved into paged segment files on
+ * disk, checked every ARCHIVE_CHECK_INTERVAL recorded sales. Archived pages
+ * are decoded only when a read reaches them. Every read
+ * (forEachSale, getAllSales, getSaleCount, registered views) sees the
+ * archived sales followed by the in-memory ones, so callers cannot tell
+ * where the history is kept.
+ *
+ * Views are not persisted. Registering one replays the whole history to it,
+ * archived pages included, so a service with views registered starts in
+ * time proportional to the history however little of it is kept hot.
+ *
 
  */
 public class SaleServiceImpl implements SaleService {
 
+    //Number of recorded sales between two checks for sales to archive
+    static final int ARCHIVE_CHECK_INTERVAL = 4096;
+
     /**
      * Internal storage for all recorded sales transactions.
      * Sales are stored in chronological order (oldest to newest).
@@ -37,6 +62,27 @@ public class SaleServiceImpl implements SaleService {
      */
     private final InventoryService inventoryService;
 
+    /**
+     * Number of changes made to the history, bumped by every recorded sale
+     * and batch. Report caches compare it to tell whether a cached result is
+     * still current. Volatile so readers on other threads see it; the
+     * service has a single writer.
+     */
+    private volatile long version;
+
+    /**
+     * Views notified of every recorded sale. An array rather than a list
+     * because it is walked on every sale.
+     */
+    private MaterializedView[] views = new MaterializedView[0];
+
+    //Cold storage for sales older than hotAge, null when not tiering
+    private final SaleArchive archive;
+    private final Duration hotAge;
+
+    //Sales recorded since the last archive check
+    private int uncheckedSales;
+
     /**
      * Constructs a new SaleServiceImpl with the specified inventory service.
      *
@@ -53,6 +99,43 @@ public class SaleServiceImpl implements SaleService {
         }
         this.sales = new DoublyLinkedList();
         this.inventoryService = inventoryService;
+        this.archive = null;
+        this.hotAge = null;
+    }
+
+    /**
+     * Constructs a SaleServiceImpl that keeps only sales younger than
+     * hotAge in memory and moves older ones into the archive. Sales already
+     * in the archive are part of the history from the start.
+     *
+     * @param inventoryService the inventory service to use for product lookups
+     *                        and stock updates
+     * @param archive the archive receiving sales older than hotAge
+     * @param hotAge how long a sale stays in memory after its date
+     * @throws NullPointerException if any parameter is null
+     * @throws IllegalArgumentException if hotAge is negative
+     */
+    public SaleServiceImpl(
+        InventoryService inventoryService,
+        SaleArchive archive,
+        Duration hotAge
+    ) {
+        if (inventoryService == null) {
+            throw new NullPointerException("InventoryService cannot be null");
+        }
+        if (archive == null) {
+            throw new NullPointerException("SaleArchive cannot be null");
+        }
+        if (hotAge == null) {
+            throw new NullPointerException("Hot age cannot be null");
+        }
+        if (hotAge.isNegative()) {
+            throw new IllegalArgumentException("Hot age cannot be negative.");
+        }
+        this.sales = new DoublyLinkedList();
+        this.inventoryService = inventoryService;
+        this.archive = archive;
+        this.hotAge = hotAge;
     }
 
     /**
@@ -69,49 +152,221 @@ public class SaleServiceImpl implements SaleService {
      *
      * @param productId the unique identifier of the product being sold
      * @param quantity the number of units being sold
+     * @return the recorded sale
      * @throws IllegalArgumentException if the product is not found,
      *         if quantity is negative or zero, or if there is insufficient stock
      * @throws NullPointerException if productId is null
      */
     @Override
-    public void recordSale(String productId, int quantity) {
-        // Retrieve product from inventory
-        Product product = inventoryService.findProductById(productId);
-        if (product == null) {
-            throw new IllegalArgumentException(
-                "Product not found: " + productId
+    public Sale recordSale(String productId, int quantity) {
+        SaleRecordedEvent event = new SaleRecordedEvent();
+        event.begin();
+        Sale sale = null;
+        try {
+            // Retrieve product from inventory
+            Product product = inventoryService.findProductById(productId);
+            if (product == null) {
+                throw new IllegalArgumentException(
+                    "Product not found: " + productId
+                );
+            }
+
+            // Name, price and stock are read from one consistent version
+            Product.State state = product.getState();
+
+            // Validate sufficient stock
+            if (state.quantity() < quantity) {
+                throw new InsufficientStockException(
+                    String.format(
+                        "Insufficient stock. Available: %d, Requested: %d",
+                        state.quantity(),
+                        quantity
+                    )
+                );
+            }
+
+            // Create sale record with current timestamp
+            LocalDateTime date = LocalDateTime.now();
+            Sale created = new Sale(
+                productId,
+                state.name(),
+                quantity,
+                state.price(),
+                date
             );
+
+            // Update inventory quantity through the service so its indexes follow
+            inventoryService.adjustQuantity(productId, -quantity);
+
+            // Record the sale transaction
+            sales.add(created);
+            sale = created;
+            version++;
+            for (MaterializedView view : views) {
+                view.saleRecorded(created);
+            }
+            checkArchive(1);
+
+            // Provide user feedback
+            Console.out().println("✓ Sale recorded: " + sale);
+            return sale;
+        } finally {
+            // Only filled in while a recording has the event enabled
+            if (event.shouldCommit()) {
+                event.productId = productId;
+                event.quantity = quantity;
+                event.succeeded = sale != null;
+                event.totalAmount = sale != null ? sale.getTotalAmount() : 0;
+                event.commit();
+            }
         }
+    }
 
-        // Validate sufficient stock
-        if (product.getQuantity() < quantity) {
-            throw new IllegalArgumentException(
-                String.format(
-                    "Insufficient stock. Available: %d, Requested: %d",
-                    product.getQuantity(),
-                    quantity
-                )
-            );
+    /**
+     * Appends a batch of previously recorded sales to the history.
+     *
+     * This is the bulk counterpart of recordSale, intended for restoring
+     * historical transactions. Every sale in the batch is validated before
+     * any is appended, so an invalid sale leaves the history untouched.
+     * Inventory quantities are not changed and nothing is printed per sale.
+     *
+     * @param batch a DoublyLinkedList of Sale objects in chronological order
+     * @throws IllegalArgumentException if any sale in the batch is invalid
+     * @throws NullPointerException if the batch contains a null sale
+     */
+    @Override
+    public void addSales(DoublyLinkedList batch) {
+        for (Object o : batch) {
+            isSaleValid((Sale) o);
+        }
+        for (Object o : batch) {
+            sales.add(o);
+            for (MaterializedView view : views) {
+                view.saleRecorded((Sale) o);
+            }
+        }
+        version++;
+        checkArchive(batch.size());
+    }
+
+    /**
+     * Moves every in-memory sale older than the hot age into a new archive
+     * segment. Sales are taken from the oldest end of the history until the
+     * first one young enough to stay. Views and the version are unaffected,
+     * since the history itself does not change.
+     *
+     * @return the number of sales archived
+     * @throws IllegalStateException if this service has no archive
+     * @throws UncheckedIOException if the segment cannot be written, in
+     *         which case every sale stays in memory
+     */
+    public int archiveColdSales() {
+        if (archive == null) {
+            throw new IllegalStateException("No archive configured.");
+        }
+        uncheckedSales = 0;
+        LocalDateTime cutoff = LocalDateTime.now().minus(hotAge);
+        Sale[] cold = new Sale[16];
+        int count = 0;
+        for (Object o : sales) {
+            Sale sale = (Sale) o;
+            if (!sale.getDate().isBefore(cutoff)) {
+                break;
+            }
+            if (count == cold.length) {
+                cold = Arrays.copyOf(cold, count * 2);
+            }
+            cold[count++] = sale;
+        }
+        if (count == 0) {
+            return 0;
         }
 
-        // Create sale record with current timestamp
-        LocalDateTime date = LocalDateTime.now();
-        Sale sale = new Sale(
-            productId,
-            product.getName(),
-            quantity,
-            product.getPrice(),
-            date
-        );
+        try {
+            archive.append(cold, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int i = 0; i < count; i++) {
+            sales.remove(0);
+        }
+        return count;
+    }
 
-        // Update inventory quantity
-        product.setQuantity(product.getQuantity() - quantity);
+    //archives once enough sales have been added since the last check; a
+    //failure leaves the sales in memory and is retried at the next check
+    private void checkArchive(int added) {
+        if (archive == null) {
+            return;
+        }
+        uncheckedSales += added;
+        if (uncheckedSales < ARCHIVE_CHECK_INTERVAL) {
+            return;
+        }
+        try {
+            archiveColdSales();
+        } catch (UncheckedIOException e) {
+            Console.err().println(
+                "✗ Could not archive sales: " + e.getCause().getMessage()
+            );
+        }
+    }
 
-        // Record the sale transaction
-        sales.add(sale);
+    /**
+     * Checks that a sale carries the data every recorded sale must have.
+     * Shared with the bulk importer so imported rows follow the same rules.
+     *
+     * @param sale the sale to check
+     * @throws IllegalArgumentException if a field holds an invalid value
+     * @throws NullPointerException if the sale or a required field is null
+     */
+    public static void isSaleValid(Sale sale) {
+        if (sale == null) {
+            throw new NullPointerException("Sale cannot be null.");
+        }
+        isSaleValid(
+            sale.getProductId(),
+            sale.getQuantity(),
+            sale.getUnitPrice(),
+            sale.getDate()
+        );
+    }
 
-        // Provide user feedback
-        System.out.println("✓ Sale recorded: " + sale);
+    /**
+     * Checks the fields of a sale before it is built. Building a Sale adds
+     * its product ID and name to the shared ProductDictionary, so the bulk
+     * importer checks rows with this first and rejected rows leave no
+     * entries behind.
+     *
+     * @param productId the product ID of the sale
+     * @param quantity the number of units sold
+     * @param unitPrice the price per unit
+     * @param date the date of the sale
+     * @throws IllegalArgumentException if a field holds an invalid value
+     * @throws NullPointerException if the date is null
+     */
+    public static void isSaleValid(
+        String productId,
+        int quantity,
+        double unitPrice,
+        LocalDateTime date
+    ) {
+        if (productId == null || productId.isEmpty()) {
+            throw new IllegalArgumentException("Sale product ID is missing.");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException(
+                "Sale quantity must be greater than 0."
+            );
+        }
+        if (unitPrice < 0) {
+            throw new IllegalArgumentException(
+                "Sale unit price cannot be less than 0."
+            );
+        }
+        if (date == null) {
+            throw new NullPointerException("Sale date cannot be null.");
+        }
     }
 
     /**
@@ -123,17 +378,13 @@ public class SaleServiceImpl implements SaleService {
      */
     @Override
     public void displayAllSales() {
-        if (sales.isEmpty()) {
-            System.out.println("No sales recorded.");
+        if (getSaleCount() == 0) {
+            Console.out().println("No sales recorded.");
             return;
         }
 
-        System.out.println("\n=== SALES TRANSACTIONS ===");
-        for (int i = 0; i < sales.size(); i++) {
-            // Explicit cast required due to DoublyLinkedList storing Object type
-            Sale s = (Sale) sales.get(i);
-            System.out.println(s);
-        }
+        Console.out().println("\n=== SALES TRANSACTIONS ===");
+        forEachSale(Console.out()::println);
     }
 
     /**
@@ -149,9 +400,103 @@ public class SaleServiceImpl implements SaleService {
     public DoublyLinkedList getAllSales() {
         // Return unmodifiable view
         DoublyLinkedList copy = new DoublyLinkedList();
-        for (int i = 0; i < sales.size(); i++) {
-            copy.add(sales.get(i));
-        }
+        forEachSale(copy::add);
         return copy;
     }
+
+    /**
+     * Passes every recorded sale, oldest first, to the given action.
+     *
+     * Unlike getAllSales this walks the history in place without copying it,
+     * so callers that only need to read each sale once (reports, exports)
+     * use constant extra memory regardless of history size.
+     *
+     * @param action the action to run for each sale
+     * @throws UncheckedIOException if an archive segment cannot be read
+     */
+    @Override
+    public void forEachSale(Consumer<Sale> action) {
+        if (archive != null) {
+            try {
+                archive.forEachSale(action);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        for (Object o : sales) {
+            action.accept((Sale) o);
+        }
+    }
+
+    /**
+     * Passes every sale dated in [from, to), oldest first, to the given
+     * action. Archive segments entirely outside the range are skipped
+     * without being read.
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @param action the action to run for each matching sale
+     * @throws NullPointerException if from or to is null
+     * @throws UncheckedIOException if an archive segment cannot be read
+     */
+    @Override
+    public void forEachSaleBetween(
+        LocalDateTime from,
+        LocalDateTime to,
+        Consumer<Sale> action
+    ) {
+        if (from == null || to == null) {
+            throw new NullPointerException("Range bounds cannot be null.");
+        }
+        if (archive != null) {
+            try {
+                archive.forEachSale(from, to, action);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        //imported batches may be out of order, so every hot sale is checked
+        for (Object o : sales) {
+            Sale sale = (Sale) o;
+            if (!sale.getDate().isBefore(from) && sale.getDate().isBefore(to)) {
+                action.accept(sale);
+            }
+        }
+    }
+
+    /**
+     * @return the number of recorded sales, archived ones included
+     */
+    @Override
+    public int getSaleCount() {
+        return archive == null
+            ? sales.size()
+            : sales.size() + archive.getSaleCount();
+    }
+
+    /**
+     * Registers a view to be updated with every sale recorded from now on.
+     * The view first receives every sale already in the history, oldest
+     * first, which decodes every archived page once: the cost of
+     * registering grows with the whole history, not the hot part.
+     *
+     * @param view the view to keep up to date
+     * @throws NullPointerException if view is null
+     */
+    public void registerView(MaterializedView view) {
+        if (view == null) {
+            throw new NullPointerException("View cannot be null.");
+        }
+        forEachSale(view::saleRecorded);
+        views = Arrays.copyOf(views, views.length + 1);
+        views[views.length - 1] = view;
+    }
+
+    /**
+     * @return the number of changes made to the history so far
+     */
+    @Override
+    public long getVersion() {
+        return version;
+    }
 }
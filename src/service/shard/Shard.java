@@ -0,0 +1,114 @@
+package service.shard;
+
+import service.inventory.InventoryServiceImpl;
+import service.report.ReportService;
+import service.report.ViewReportService;
+import service.sale.SaleServiceImpl;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One partition of the catalog together with the sales of its products.
+ *
+ * A shard owns plain, single-threaded service implementations and a single
+ * writer thread. Every operation on the shard is queued to that thread and
+ * executed there in submission order, so the services are never touched by
+ * two threads at once and need no locking of their own. Callers wait on the
+ * returned Future; exceptions thrown by the services are rethrown to them.
+ */
+class Shard {
+
+    final int index;
+    final InventoryServiceImpl inventory = new InventoryServiceImpl();
+    final SaleServiceImpl sales = new SaleServiceImpl(inventory);
+    final ReportService reports = new ViewReportService(inventory, sales);
+
+    private final ExecutorService writer;
+
+    //The writer thread, set once it has been started
+    private volatile Thread thread;
+
+    Shard(int index) {
+        this.index = index;
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread t = new Thread(task, "inventory-shard-" + index);
+            t.setDaemon(true);
+            thread = t;
+            return t;
+        });
+    }
+
+    /**
+     * Queues a task to the writer thread.
+     *
+     * A task submitted from the writer thread itself, for example by a
+     * sale action that reads its own shard, runs immediately instead of
+     * waiting behind itself forever.
+     *
+     * @param task the task to run on this shard
+     * @return a future holding the task's result
+     */
+    <T> Future<T> submit(Callable<T> task) {
+        if (Thread.currentThread() == thread) {
+            FutureTask<T> inline = new FutureTask<>(task);
+            inline.run();
+            return inline;
+        }
+        return writer.submit(task);
+    }
+
+    /**
+     * Runs a task on the writer thread and waits for its result.
+     *
+     * @param task the task to run on this shard
+     * @return the task's result
+     */
+    <T> T call(Callable<T> task) {
+        return await(submit(task));
+    }
+
+    //like call, for tasks without a result
+    void run(Runnable task) {
+        call(Executors.callable(task));
+    }
+
+    /**
+     * Waits for a task of this shard, rethrowing what it threw.
+     *
+     * @param future a future returned by submit
+     * @return the task's result
+     * @throws IllegalStateException if the waiting thread is interrupted
+     */
+    <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                "Interrupted while waiting for shard " + index,
+                e
+            );
+        }
+    }
+
+    //lets queued tasks finish, then stops the writer thread
+    void close() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,95 @@
+package service.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * A fixed set of shards the catalog is partitioned across by hash of the
+ * product ID.
+ *
+ * A product, its stock and all of its sales live in exactly one shard, so
+ * the operations on one product (a sale, a stock adjustment, an update)
+ * are handled by one writer thread, while operations on products of
+ * different shards run in parallel. Queries over the whole catalog are
+ * sent to every shard at once and their partial results merged.
+ *
+ * The sharded services (ShardedInventoryService, ShardedSaleService and
+ * ShardedReportService) are views over one ShardGroup and must be created
+ * over the same group to see each other's data.
+ */
+public class ShardGroup implements AutoCloseable {
+
+    private final Shard[] shards;
+
+    /**
+     * Creates the shards and starts their writer threads.
+     *
+     * @param shardCount the number of shards, usually the number of cores
+     * @throws IllegalArgumentException if shardCount is less than 1
+     */
+    public ShardGroup(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException(
+                "Shard count must be at least 1."
+            );
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @param productId the product ID
+     * @return the shard that owns the product
+     * @throws NullPointerException if productId is null
+     */
+    Shard shardFor(String productId) {
+        if (productId == null) {
+            throw new NullPointerException("Product ID cannot be null.");
+        }
+        return shards[Math.floorMod(productId.hashCode(), shards.length)];
+    }
+
+    Shard shard(int index) {
+        return shards[index];
+    }
+
+    /**
+     * Runs a query on every shard in parallel and collects the results.
+     *
+     * @param query the query, run on each shard's writer thread
+     * @return the results in shard order
+     */
+    <T> List<T> fanOut(Function<Shard, T> query) {
+        List<Future<T>> futures = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            futures.add(shard.submit(() -> query.apply(shard)));
+        }
+        List<T> results = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            results.add(shards[i].await(futures.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Finishes the queued operations and stops the writer threads.
+     */
+    @Override
+    public void close() {
+        try {
+            for (Shard shard : shards) {
+                shard.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
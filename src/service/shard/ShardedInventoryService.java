@@ -0,0 +1,301 @@
+package service.shard;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import service.console.Console;
+import service.inventory.InventoryService;
+import service.inventory.InventoryServiceImpl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * InventoryService over a ShardGroup.
+ *
+ * Operations on one product are routed to the shard that owns its ID and
+ * run on that shard's writer thread. Catalog-wide queries are fanned out to
+ * all shards and their results merged: ordered results (prefix search,
+ * sorting by price or quantity) are merged in order, the others are
+ * concatenated in shard order. Listing the whole catalog therefore shows
+ * products grouped by shard rather than in insertion order.
+ *
+ * The service is safe to call from any number of threads.
+ */
+public class ShardedInventoryService implements InventoryService {
+
+    //the order the name index returns prefix matches in
+    private static final Comparator<Product> BY_NAME = Comparator.comparing(
+        p -> p.getName() == null
+            ? ""
+            : p.getName().trim().toLowerCase(Locale.ROOT)
+    );
+    private static final Comparator<Product> BY_PRICE =
+        Comparator.comparingDouble(Product::getPrice);
+    private static final Comparator<Product> BY_QUANTITY =
+        Comparator.comparingInt(Product::getQuantity);
+
+    private final ShardGroup shards;
+
+    /**
+     * @param shards the shards holding the catalog
+     * @throws NullPointerException if shards is null
+     */
+    public ShardedInventoryService(ShardGroup shards) {
+        if (shards == null) {
+            throw new NullPointerException("ShardGroup cannot be null");
+        }
+        this.shards = shards;
+    }
+
+    public void addProduct(Product product) {
+        InventoryServiceImpl.isProductValid(product);
+        Shard shard = shards.shardFor(product.getId());
+        shard.run(() -> shard.inventory.addProduct(product));
+    }
+
+    //the batch is checked against every shard before any shard inserts,
+    //so a bad product leaves the inventory untouched unless a concurrent
+    //addProduct takes one of its IDs in between
+    public void addProducts(DoublyLinkedList batch) {
+        DoublyLinkedList[] parts = new DoublyLinkedList[shards.getShardCount()];
+        Set<String> batchIds = new HashSet<>();
+        for (Object o : batch) {
+            Product product = (Product) o;
+            InventoryServiceImpl.isProductValid(product);
+            if (!batchIds.add(product.getId())) {
+                throw new IllegalArgumentException(
+                    "Product ID already exists: " + product.getId()
+                );
+            }
+            int index = shards.shardFor(product.getId()).index;
+            if (parts[index] == null) {
+                parts[index] = new DoublyLinkedList();
+            }
+            parts[index].add(product);
+        }
+
+        shards.fanOut(shard -> {
+            if (parts[shard.index] != null) {
+                for (Object o : parts[shard.index]) {
+                    String id = ((Product) o).getId();
+                    if (shard.inventory.findProductById(id) != null) {
+                        throw new IllegalArgumentException(
+                            "Product ID already exists: " + id
+                        );
+                    }
+                }
+            }
+            return null;
+        });
+        shards.fanOut(shard -> {
+            if (parts[shard.index] != null) {
+                shard.inventory.addProducts(parts[shard.index]);
+            }
+            return null;
+        });
+    }
+
+    public Product findProductById(String id) {
+        Shard shard = shards.shardFor(id);
+        return shard.call(() -> shard.inventory.findProductById(id));
+    }
+
+    public void updateProduct(
+        String id,
+        String newName,
+        double newPrice,
+        int newQuantity
+    ) {
+        Shard shard = shards.shardFor(id);
+        shard.run(() ->
+            shard.inventory.updateProduct(id, newName, newPrice, newQuantity)
+        );
+    }
+
+    public void adjustQuantity(String id, int delta) {
+        Shard shard = shards.shardFor(id);
+        shard.run(() -> shard.inventory.adjustQuantity(id, delta));
+    }
+
+    public void deleteProduct(String id) {
+        Shard shard = shards.shardFor(id);
+        shard.run(() -> shard.inventory.deleteProduct(id));
+    }
+
+    public void displayProductsForward() {
+        DoublyLinkedList products = getAllProducts();
+        if (products.isEmpty()) {
+            Console.out().println("No products in inventory");
+            return;
+        }
+        Console.out().println("\n=== INVENTORY ===");
+        for (Object o : products) {
+            Console.out().println(o);
+        }
+    }
+
+    public void displayProductsBackward() {
+        DoublyLinkedList products = getAllProducts();
+        if (products.isEmpty()) {
+            Console.out().println("No products in inventory");
+            return;
+        }
+        Console.out().println("\n=== INVENTORY (REVERSED) ===");
+        for (int i = products.size() - 1; i >= 0; i--) {
+            Console.out().println(products.get(i));
+        }
+    }
+
+    //a snapshot grouped by shard, each shard in insertion order
+    public DoublyLinkedList getAllProducts() {
+        return concat(
+            shards.fanOut(shard -> shard.inventory.getAllProducts()),
+            Integer.MAX_VALUE
+        );
+    }
+
+    //case-insensitive, results capped at limit
+    public DoublyLinkedList searchProductsByName(String text, int limit) {
+        return concat(
+            shards.fanOut(shard ->
+                shard.inventory.searchProductsByName(text, limit)
+            ),
+            limit
+        );
+    }
+
+    //case-insensitive, alphabetical by name, results capped at limit
+    public DoublyLinkedList searchProductsByNamePrefix(
+        String prefix,
+        int limit
+    ) {
+        return merge(
+            shards.fanOut(shard ->
+                shard.inventory.searchProductsByNamePrefix(prefix, limit)
+            ),
+            BY_NAME,
+            limit
+        );
+    }
+
+    //inclusive on both ends, cheapest first
+    public DoublyLinkedList findProductsByPriceRange(
+        double minPrice,
+        double maxPrice
+    ) {
+        return merge(
+            shards.fanOut(shard ->
+                shard.inventory.findProductsByPriceRange(minPrice, maxPrice)
+            ),
+            BY_PRICE,
+            Integer.MAX_VALUE
+        );
+    }
+
+    //strictly below threshold, lowest quantity first
+    public DoublyLinkedList findProductsWithQuantityBelow(int threshold) {
+        return merge(
+            shards.fanOut(shard ->
+                shard.inventory.findProductsWithQuantityBelow(threshold)
+            ),
+            BY_QUANTITY,
+            Integer.MAX_VALUE
+        );
+    }
+
+    public DoublyLinkedList getProductsSortedByPrice() {
+        return merge(
+            shards.fanOut(shard -> shard.inventory.getProductsSortedByPrice()),
+            BY_PRICE,
+            Integer.MAX_VALUE
+        );
+    }
+
+    public DoublyLinkedList getProductsSortedByQuantity() {
+        return merge(
+            shards.fanOut(shard ->
+                shard.inventory.getProductsSortedByQuantity()
+            ),
+            BY_QUANTITY,
+            Integer.MAX_VALUE
+        );
+    }
+
+    //sum of the shard counts, read without queueing to the shards
+    public int getProductCount() {
+        int count = 0;
+        for (int i = 0; i < shards.getShardCount(); i++) {
+            count += shards.shard(i).inventory.getProductCount();
+        }
+        return count;
+    }
+
+    //sum of the shard versions, read without queueing to the shards
+    public long getVersion() {
+        long version = 0;
+        for (int i = 0; i < shards.getShardCount(); i++) {
+            version += shards.shard(i).inventory.getVersion();
+        }
+        return version;
+    }
+
+    private static DoublyLinkedList concat(
+        List<DoublyLinkedList> parts,
+        int limit
+    ) {
+        DoublyLinkedList result = new DoublyLinkedList();
+        for (DoublyLinkedList part : parts) {
+            for (Object o : part) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                result.add(o);
+            }
+        }
+        return result;
+    }
+
+    //k-way merge of lists that are each sorted by order; equal products are
+    //taken from the lower shard first. A linear scan over the list heads is
+    //enough for the handful of shards a group has.
+    private static DoublyLinkedList merge(
+        List<DoublyLinkedList> parts,
+        Comparator<Product> order,
+        int limit
+    ) {
+        List<Iterator<Object>> iterators = new ArrayList<>(parts.size());
+        Product[] heads = new Product[parts.size()];
+        for (int i = 0; i < heads.length; i++) {
+            iterators.add(parts.get(i).iterator());
+            heads[i] = iterators.get(i).hasNext()
+                ? (Product) iterators.get(i).next()
+                : null;
+        }
+
+        DoublyLinkedList result = new DoublyLinkedList();
+        while (result.size() < limit) {
+            int next = -1;
+            for (int i = 0; i < heads.length; i++) {
+                if (
+                    heads[i] != null &&
+                    (next < 0 || order.compare(heads[i], heads[next]) < 0)
+                ) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            result.add(heads[next]);
+            heads[next] = iterators.get(next).hasNext()
+                ? (Product) iterators.get(next).next()
+                : null;
+        }
+        return result;
+    }
+}
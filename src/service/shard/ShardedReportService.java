@@ -0,0 +1,164 @@
+package service.shard;
+
+import entities.DoublyLinkedList;
+import entities.ProductSales;
+import service.console.Console;
+import service.report.ReportService;
+import service.sketch.HeavyHitter;
+import service.view.SalesRate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * ReportService over a ShardGroup.
+ *
+ * Each report runs as a per-shard report on every shard in parallel, each
+ * on its shard's writer thread and read from that shard's materialized
+ * views, and the partial results are merged here:
+ * counts and revenue are summed and out-of-stock lists concatenated. All
+ * sales of a product live in the product's shard, so the best product of
+ * each shard is exact and the overall best is the best of those. For the
+ * same reason the overall heavy hitters are among the shards' own, and the
+ * products sold on different shards are disjoint sets whose distinct
+ * counts add up.
+ *
+ * Sales rates are summed from the shards' rate views, read directly from
+ * the calling thread rather than queued behind the shards' writes, as
+ * those views need no lock.
+ *
+ * The service is safe to call from any number of threads.
+ */
+public class ShardedReportService implements ReportService {
+
+    private final ShardGroup shards;
+
+    /**
+     * @param shards the shards holding the catalog and its sales
+     * @throws NullPointerException if shards is null
+     */
+    public ShardedReportService(ShardGroup shards) {
+        if (shards == null) {
+            throw new NullPointerException("ShardGroup cannot be null");
+        }
+        this.shards = shards;
+    }
+
+    @Override
+    public int getTotalNumberOfProducts() {
+        int total = 0;
+        for (int count : shards.fanOut(s ->
+            s.reports.getTotalNumberOfProducts()
+        )) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public double getTotalSalesRevenue() {
+        double total = 0;
+        for (double revenue : shards.fanOut(s ->
+            s.reports.getTotalSalesRevenue()
+        )) {
+            total += revenue;
+        }
+        return total;
+    }
+
+    //printed by the shard that owns the best product, in the usual format
+    @Override
+    public void displayProductWithHighestSales() {
+        int best = bestShard(
+            shards.fanOut(s -> s.reports.getProductWithHighestSales())
+        );
+        if (best >= 0) {
+            Shard shard = shards.shard(best);
+            shard.run(() -> shard.reports.displayProductWithHighestSales());
+        } else if (getTotalNumberOfProducts() == 0) {
+            Console.out().println("No products available.");
+        } else {
+            Console.out().println("No sales available.");
+        }
+    }
+
+    //ties go to the lower shard
+    @Override
+    public ProductSales getProductWithHighestSales() {
+        List<ProductSales> tops = shards.fanOut(s ->
+            s.reports.getProductWithHighestSales()
+        );
+        int best = bestShard(tops);
+        return best < 0 ? null : tops.get(best);
+    }
+
+    //grouped by shard, lowest quantity first within a shard
+    @Override
+    public DoublyLinkedList getOutOfStockProducts() {
+        DoublyLinkedList result = new DoublyLinkedList();
+        for (DoublyLinkedList part : shards.fanOut(s ->
+            s.reports.getOutOfStockProducts()
+        )) {
+            for (Object o : part) {
+                result.add(o);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public DoublyLinkedList getHeavyHitters(int limit) {
+        List<HeavyHitter> all = new ArrayList<>();
+        for (DoublyLinkedList part : shards.fanOut(s ->
+            s.reports.getHeavyHitters(limit)
+        )) {
+            for (Object o : part) {
+                all.add((HeavyHitter) o);
+            }
+        }
+        all.sort(Comparator.comparingLong(HeavyHitter::quantity).reversed());
+        DoublyLinkedList result = new DoublyLinkedList();
+        for (int i = 0; i < Math.min(limit, all.size()); i++) {
+            result.add(all.get(i));
+        }
+        return result;
+    }
+
+    @Override
+    public long estimateDistinctProductsSold(Duration window) {
+        long total = 0;
+        for (long distinct : shards.fanOut(s ->
+            s.reports.estimateDistinctProductsSold(window)
+        )) {
+            total += distinct;
+        }
+        return total;
+    }
+
+    @Override
+    public SalesRate getSalesRate(Duration window) {
+        SalesRate total = shards.shard(0).reports.getSalesRate(window);
+        for (int i = 1; i < shards.getShardCount(); i++) {
+            total = total.plus(shards.shard(i).reports.getSalesRate(window));
+        }
+        return total;
+    }
+
+    //index of the shard with the highest revenue product, -1 if none sold
+    private static int bestShard(List<ProductSales> tops) {
+        int best = -1;
+        for (int i = 0; i < tops.size(); i++) {
+            ProductSales top = tops.get(i);
+            if (
+                top != null &&
+                (best < 0 ||
+                    top.getTotalRevenue() > tops.get(best).getTotalRevenue())
+            ) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
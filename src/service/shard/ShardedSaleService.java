@@ -0,0 +1,164 @@
+package service.shard;
+
+import entities.DoublyLinkedList;
+import entities.Sale;
+import service.console.Console;
+import service.sale.SaleService;
+import service.sale.SaleServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * SaleService over a ShardGroup.
+ *
+ * A sale is routed to the shard that owns its product, where the stock check,
+ * the stock decrement and the append to that shard's sales history all run on
+ * the shard's writer thread. Sales of products in different shards are
+ * therefore recorded in parallel without any locking.
+ *
+ * Each shard keeps its own history in chronological order. getAllSales and
+ * displayAllSales merge them by date; forEachSale visits the shards one after
+ * another, so it is only chronological within a shard.
+ *
+ * The service is safe to call from any number of threads.
+ */
+public class ShardedSaleService implements SaleService {
+
+    private final ShardGroup shards;
+
+    /**
+     * @param shards the shards holding the catalog and its sales
+     * @throws NullPointerException if shards is null
+     */
+    public ShardedSaleService(ShardGroup shards) {
+        if (shards == null) {
+            throw new NullPointerException("ShardGroup cannot be null");
+        }
+        this.shards = shards;
+    }
+
+    @Override
+    public Sale recordSale(String productId, int quantity) {
+        Shard shard = shards.shardFor(productId);
+        return shard.call(() -> shard.sales.recordSale(productId, quantity));
+    }
+
+    //every sale is validated before any shard appends
+    @Override
+    public void addSales(DoublyLinkedList batch) {
+        DoublyLinkedList[] parts = new DoublyLinkedList[shards.getShardCount()];
+        for (Object o : batch) {
+            Sale sale = (Sale) o;
+            SaleServiceImpl.isSaleValid(sale);
+            int index = shards.shardFor(sale.getProductId()).index;
+            if (parts[index] == null) {
+                parts[index] = new DoublyLinkedList();
+            }
+            parts[index].add(sale);
+        }
+        shards.fanOut(shard -> {
+            if (parts[shard.index] != null) {
+                shard.sales.addSales(parts[shard.index]);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void displayAllSales() {
+        DoublyLinkedList sales = getAllSales();
+        if (sales.isEmpty()) {
+            Console.out().println("No sales recorded.");
+            return;
+        }
+
+        Console.out().println("\n=== SALES TRANSACTIONS ===");
+        for (Object o : sales) {
+            Console.out().println(o);
+        }
+    }
+
+    //a snapshot of every shard's history merged by date, oldest first
+    @Override
+    public DoublyLinkedList getAllSales() {
+        List<DoublyLinkedList> parts = shards.fanOut(shard ->
+            shard.sales.getAllSales()
+        );
+
+        List<Iterator<Object>> iterators = new ArrayList<>(parts.size());
+        Sale[] heads = new Sale[parts.size()];
+        for (int i = 0; i < heads.length; i++) {
+            iterators.add(parts.get(i).iterator());
+            heads[i] = iterators.get(i).hasNext()
+                ? (Sale) iterators.get(i).next()
+                : null;
+        }
+
+        DoublyLinkedList result = new DoublyLinkedList();
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < heads.length; i++) {
+                if (
+                    heads[i] != null &&
+                    (next < 0 ||
+                        heads[i].getDate().isBefore(heads[next].getDate()))
+                ) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                return result;
+            }
+            result.add(heads[next]);
+            heads[next] = iterators.get(next).hasNext()
+                ? (Sale) iterators.get(next).next()
+                : null;
+        }
+    }
+
+    //shard by shard, each on its own writer thread so no sale is appended
+    //to a history while it is being walked
+    @Override
+    public void forEachSale(Consumer<Sale> action) {
+        for (int i = 0; i < shards.getShardCount(); i++) {
+            Shard shard = shards.shard(i);
+            shard.run(() -> shard.sales.forEachSale(action));
+        }
+    }
+
+    //shard by shard like forEachSale
+    @Override
+    public void forEachSaleBetween(
+        LocalDateTime from,
+        LocalDateTime to,
+        Consumer<Sale> action
+    ) {
+        for (int i = 0; i < shards.getShardCount(); i++) {
+            Shard shard = shards.shard(i);
+            shard.run(() -> shard.sales.forEachSaleBetween(from, to, action));
+        }
+    }
+
+    @Override
+    public int getSaleCount() {
+        int count = 0;
+        for (int shardCount : shards.fanOut(s -> s.sales.getSaleCount())) {
+            count += shardCount;
+        }
+        return count;
+    }
+
+    //sum of the shard versions, read without queueing to the shards
+    @Override
+    public long getVersion() {
+        long version = 0;
+        for (int i = 0; i < shards.getShardCount(); i++) {
+            version += shards.shard(i).sales.getVersion();
+        }
+        return version;
+    }
+}
@@ -0,0 +1,118 @@
+package service.sketch;
+
+/**
+ * Count-Min sketch: approximate counts of a stream of keys in fixed memory.
+ *
+ * The sketch is a grid of depth rows of width counters. Each row hashes a
+ * key to one of its counters, and a key's count is estimated as the
+ * smallest of its depth counters. Collisions can only add to a counter, so
+ * an estimate is never below the true count, and with width e/epsilon and
+ * depth ln(1/delta) it exceeds it by more than epsilon times the stream
+ * total with probability at most delta, however many distinct keys there
+ * are.
+ *
+ * Additions use the conservative update, raising a key's counters only as
+ * far as its new estimate, which keeps the same guarantee with less
+ * overestimation. Counts must therefore not be negative.
+ */
+public class CountMinSketch {
+
+    private final double epsilon;
+    private final int width;
+    private final int depth;
+
+    //Row r is counters[r * width, (r + 1) * width)
+    private final long[] counters;
+    private long total;
+
+    /**
+     * Creates an empty sketch sized for the given error bounds.
+     *
+     * @param epsilon the largest overestimate as a fraction of the total
+     * @param delta the probability of exceeding it
+     * @throws IllegalArgumentException if epsilon or delta is not between
+     *         0 and 1, exclusive
+     */
+    public CountMinSketch(double epsilon, double delta) {
+        if (!(epsilon > 0 && epsilon < 1) || !(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException(
+                "Epsilon and delta must be between 0 and 1."
+            );
+        }
+        this.epsilon = epsilon;
+        this.width = (int) Math.ceil(Math.E / epsilon);
+        this.depth = Math.max(1, (int) Math.ceil(Math.log(1 / delta)));
+        this.counters = new long[width * depth];
+    }
+
+    /**
+     * Adds occurrences of a key.
+     *
+     * @param key the key
+     * @param count the number of occurrences, not negative
+     * @return the key's estimated count after the addition
+     * @throws IllegalArgumentException if count is negative
+     */
+    public long add(long key, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative.");
+        }
+        long hash = Hashing.mix64(key);
+        long estimate = estimateHash(hash);
+        long target = estimate + count;
+        for (int row = 0; row < depth; row++) {
+            int index = index(hash, row);
+            if (counters[index] < target) {
+                counters[index] = target;
+            }
+        }
+        total += count;
+        return target;
+    }
+
+    /**
+     * @param key the key
+     * @return the estimated count, never below the true count
+     */
+    public long estimate(long key) {
+        return estimateHash(Hashing.mix64(key));
+    }
+
+    /**
+     * @return the sum of all counts added
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return the overestimate that estimates stay within with probability
+     *         1 - delta, given the current total
+     */
+    public long getErrorBound() {
+        return (long) Math.ceil(epsilon * total);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    private long estimateHash(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[index(hash, row)]);
+        }
+        return min;
+    }
+
+    //row hashes derived from the two halves of one hash, which is as good
+    //as independent hash functions for this purpose
+    private int index(long hash, int row) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return row * width + (combined & Integer.MAX_VALUE) % width;
+    }
+}
@@ -0,0 +1,24 @@
+package service.sketch;
+
+/**
+ * Hash function shared by the sketches.
+ */
+final class Hashing {
+
+    private Hashing() {}
+
+    /**
+     * Spreads a key over all 64 bits, so that keys differing in a single
+     * bit, such as consecutive ordinals, give unrelated hashes. This is the
+     * finalizer of the SplitMix64 generator.
+     *
+     * @param key the key to hash
+     * @return the 64-bit hash
+     */
+    static long mix64(long key) {
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
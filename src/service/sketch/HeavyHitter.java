@@ -0,0 +1,26 @@
+package service.sketch;
+
+/**
+ * A product among the most sold, with the number of units sold.
+ *
+ * When the quantity comes from a sketch it may be overestimated, by at
+ * most error units with high probability; exact reports give an error of
+ * 0.
+ */
+public record HeavyHitter(
+    String productId,
+    String productName,
+    long quantity,
+    long error
+) {
+    @Override
+    public String toString() {
+        return String.format(
+            "HeavyHitter[ID=%s, Name=%s, Quantity=%d%s]",
+            productId,
+            productName,
+            quantity,
+            error == 0 ? "" : ", At Most " + error + " Too High"
+        );
+    }
+}
@@ -0,0 +1,143 @@
+package service.sketch;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog sketch: an approximate count of the distinct keys in a
+ * stream in fixed memory.
+ *
+ * The hash of each key picks one of 2^precision registers with its top
+ * bits, and the register keeps the longest run of leading zeros seen in
+ * the remaining bits. Long runs are rare, so the registers together tell
+ * how many distinct hashes went past; the estimate has a standard error of
+ * about 1.04 / sqrt(2^precision), 1.6% with the 4 KB of precision 12.
+ *
+ * Sketches of equal precision merge into the sketch of the union of their
+ * streams, which is how counts over several windows are combined.
+ */
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param precision the number of hash bits selecting a register
+     * @throws IllegalArgumentException if precision is not between
+     *         MIN_PRECISION and MAX_PRECISION
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException(
+                "Precision must be between " +
+                    MIN_PRECISION +
+                    " and " +
+                    MAX_PRECISION +
+                    "."
+            );
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * @param relativeError the largest acceptable standard error, such as
+     *        0.02 for 2%
+     * @return the smallest precision meeting it, capped at MAX_PRECISION
+     * @throws IllegalArgumentException if relativeError is not between 0
+     *         and 1, exclusive
+     */
+    public static int precisionFor(double relativeError) {
+        if (!(relativeError > 0 && relativeError < 1)) {
+            throw new IllegalArgumentException(
+                "Relative error must be between 0 and 1."
+            );
+        }
+        double registers = Math.pow(1.04 / relativeError, 2);
+        int precision = (int) Math.ceil(Math.log(registers) / Math.log(2));
+        return Math.max(MIN_PRECISION, Math.min(MAX_PRECISION, precision));
+    }
+
+    /**
+     * @param key the key to count
+     */
+    public void add(long key) {
+        long hash = Hashing.mix64(key);
+        int index = (int) (hash >>> (64 - precision));
+        //a guard bit bounds the run when the remaining bits are all zero
+        long rest = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * @return the estimated number of distinct keys added
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+        double estimate = alpha * m * m / sum;
+        //small cardinalities are counted more accurately from the empty
+        //registers
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Adds every key of another sketch to this one.
+     *
+     * @param other a sketch of the same precision
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException(
+                "Cannot merge sketches of different precision."
+            );
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Empties the sketch.
+     */
+    public void clear() {
+        Arrays.fill(registers, (byte) 0);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * @return the standard error of the estimate, as a fraction
+     */
+    public double getRelativeError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+}
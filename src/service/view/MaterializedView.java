@@ -0,0 +1,31 @@
+package service.view;
+
+import entities.Product;
+import entities.Sale;
+
+/**
+ * An aggregation kept up to date incrementally as the data changes, so that
+ * reading it never needs a scan.
+ *
+ * A view is registered with InventoryServiceImpl, SaleServiceImpl or both,
+ * and from then on receives a call for every mutation of the service it is
+ * registered with, made on the thread that performed the mutation, after the
+ * mutation has been applied. Registering replays the existing products or
+ * sales to the view first, so a view registered late starts out complete.
+ * View state is never persisted, so that replay is a pass over the whole
+ * history, archived sales included, every time the process starts.
+ *
+ * Views run on the write path of every sale, so their updates must be cheap:
+ * constant time per event is the goal. All methods default to doing
+ * nothing; a view overrides the events it aggregates.
+ */
+public interface MaterializedView {
+    default void productAdded(Product product) {}
+
+    //after the name, price or quantity of the product changed
+    default void productChanged(Product product, int previousQuantity) {}
+
+    default void productRemoved(Product product) {}
+
+    default void saleRecorded(Sale sale) {}
+}
@@ -0,0 +1,52 @@
+package service.view;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Products whose quantity is zero, in the order they ran out.
+ * Register with InventoryServiceImpl.
+ */
+public class OutOfStockView implements MaterializedView {
+
+    private final Map<String, Product> outOfStock = new LinkedHashMap<>();
+
+    @Override
+    public void productAdded(Product product) {
+        if (product.getQuantity() == 0) {
+            outOfStock.put(product.getId(), product);
+        }
+    }
+
+    @Override
+    public void productChanged(Product product, int previousQuantity) {
+        if (product.getQuantity() == 0) {
+            outOfStock.putIfAbsent(product.getId(), product);
+        } else if (previousQuantity == 0) {
+            outOfStock.remove(product.getId());
+        }
+    }
+
+    @Override
+    public void productRemoved(Product product) {
+        outOfStock.remove(product.getId());
+    }
+
+    public int getCount() {
+        return outOfStock.size();
+    }
+
+    /**
+     * @return a new list of the out-of-stock products
+     */
+    public DoublyLinkedList getProducts() {
+        DoublyLinkedList result = new DoublyLinkedList();
+        for (Product product : outOfStock.values()) {
+            result.add(product);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+package service.view;
+
+import entities.Product;
+
+/**
+ * Number of products currently in the inventory.
+ * Register with InventoryServiceImpl.
+ */
+public class ProductCountView implements MaterializedView {
+
+    private int count;
+
+    @Override
+    public void productAdded(Product product) {
+        count++;
+    }
+
+    @Override
+    public void productRemoved(Product product) {
+        count--;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
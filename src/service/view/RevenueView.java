@@ -0,0 +1,25 @@
+package service.view;
+
+import entities.Sale;
+
+/**
+ * Total amount of all recorded sales, including sales of products that
+ * have since been deleted. Register with SaleServiceImpl.
+ *
+ * Amounts are added in the order the sales were recorded, the same order a
+ * full scan of the history adds them in, so the total matches a scan
+ * exactly.
+ */
+public class RevenueView implements MaterializedView {
+
+    private double totalRevenue;
+
+    @Override
+    public void saleRecorded(Sale sale) {
+        totalRevenue += sale.getTotalAmount();
+    }
+
+    public double getTotalRevenue() {
+        return totalRevenue;
+    }
+}
@@ -0,0 +1,65 @@
+package service.view;
+
+import java.time.Duration;
+
+/**
+ * Sales recorded over a recent window, with the rates they amount to.
+ *
+ * Rates divide by the whole window, so a window reaching back before the
+ * first sale, or before the process started, averages in the idle time.
+ */
+public record SalesRate(
+    Duration window,
+    long sales,
+    long units,
+    double revenue
+) {
+    /**
+     * @return the sales recorded per second over the window
+     */
+    public double salesPerSecond() {
+        return sales / (double) window.getSeconds();
+    }
+
+    /**
+     * @return the units sold per second over the window
+     */
+    public double unitsPerSecond() {
+        return units / (double) window.getSeconds();
+    }
+
+    /**
+     * @return the revenue taken per minute over the window
+     */
+    public double revenuePerMinute() {
+        return revenue * 60 / window.getSeconds();
+    }
+
+    /**
+     * Adds the figures of another rate over the same window, as when
+     * combining shards.
+     *
+     * @param other the rate to add
+     * @return the combined rate
+     */
+    public SalesRate plus(SalesRate other) {
+        return new SalesRate(
+            window,
+            sales + other.sales,
+            units + other.units,
+            revenue + other.revenue
+        );
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "SalesRate[Window=%ds, Sales=%d, Sales/s=%.2f, Units/s=%.2f, Revenue/min=$%.2f]",
+            window.getSeconds(),
+            sales,
+            salesPerSecond(),
+            unitsPerSecond(),
+            revenuePerMinute()
+        );
+    }
+}
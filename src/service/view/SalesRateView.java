@@ -0,0 +1,167 @@
+package service.view;
+
+import entities.Sale;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sales, units and revenue per second over a sliding window, for rates such
+ * as sales per second over the last five minutes. Register with
+ * SaleServiceImpl.
+ *
+ * A ring of one-second slots covers the longest window kept, an hour by
+ * default. Each sale lands in the slot of its second, clearing it first if
+ * it still holds a second that has left the ring, so recording costs the
+ * same however busy the window; a window is read by summing its slots.
+ * Sales dated before the ring are ignored.
+ *
+ * Sales are recorded by one writer at a time, as the sale service already
+ * guarantees, but rates may be read from any thread without a lock. Every
+ * slot is stamped with its second, and a reader skips a slot whose stamp
+ * changes while it is being read, so it never mixes the figures of two
+ * seconds. A reader racing a sale in the current second may see that sale
+ * counted in some totals and not yet in others.
+ */
+public class SalesRateView implements MaterializedView {
+
+    public static final Duration DEFAULT_MAX_WINDOW = Duration.ofHours(1);
+
+    //Stamp of a slot being cleared, matching no second
+    private static final long CLEARING = Long.MIN_VALUE;
+
+    private final int slots;
+
+    //Second each slot holds, CLEARING while empty or being cleared
+    private final AtomicLongArray seconds;
+    private final AtomicLongArray sales;
+    private final AtomicLongArray units;
+
+    //Revenue as Double.doubleToRawLongBits, for atomic reads of a double
+    private final AtomicLongArray revenue;
+
+    /**
+     * Creates a view covering windows of up to an hour.
+     */
+    public SalesRateView() {
+        this(DEFAULT_MAX_WINDOW);
+    }
+
+    /**
+     * @param maxWindow the longest window rates can be read over, at least
+     *        a second; one slot is kept per second of it
+     * @throws IllegalArgumentException if maxWindow is shorter than a second
+     *         or longer than a day
+     */
+    public SalesRateView(Duration maxWindow) {
+        if (
+            maxWindow == null ||
+            maxWindow.getSeconds() < 1 ||
+            maxWindow.compareTo(Duration.ofDays(1)) > 0
+        ) {
+            throw new IllegalArgumentException(
+                "Max window must be between a second and a day."
+            );
+        }
+        //one spare slot, so the partial current second does not cost the
+        //oldest second of a full window
+        this.slots = (int) maxWindow.getSeconds() + 1;
+        this.seconds = new AtomicLongArray(slots);
+        this.sales = new AtomicLongArray(slots);
+        this.units = new AtomicLongArray(slots);
+        this.revenue = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            seconds.set(i, CLEARING);
+        }
+    }
+
+    @Override
+    public void saleRecorded(Sale sale) {
+        long second = toSeconds(sale.getDate());
+        int slot = (int) Math.floorMod(second, (long) slots);
+        long stamp = seconds.get(slot);
+        if (stamp != second) {
+            if (stamp != CLEARING && stamp > second) {
+                //older than every second the ring still holds
+                return;
+            }
+            //readers that see CLEARING, or the new stamp after reading, skip
+            //the slot instead of mixing two seconds
+            seconds.set(slot, CLEARING);
+            sales.set(slot, 0);
+            units.set(slot, 0);
+            revenue.set(slot, Double.doubleToRawLongBits(0));
+            seconds.set(slot, second);
+        }
+        //the only writer, so plain read-then-set cannot lose an update
+        sales.set(slot, sales.get(slot) + 1);
+        units.set(slot, units.get(slot) + sale.getQuantity());
+        revenue.set(
+            slot,
+            Double.doubleToRawLongBits(
+                Double.longBitsToDouble(revenue.get(slot)) +
+                    sale.getTotalAmount()
+            )
+        );
+    }
+
+    /**
+     * Totals the sales dated from window before now until now, to the
+     * second.
+     *
+     * @param window the length of the window
+     * @param now the end of the window
+     * @return the sales in the window and their rates
+     * @throws IllegalArgumentException if window is shorter than a second or
+     *         longer than getMaxWindow
+     */
+    public SalesRate getRate(Duration window, LocalDateTime now) {
+        if (window == null || window.getSeconds() < 1) {
+            throw new IllegalArgumentException(
+                "Window must be at least one second."
+            );
+        }
+        if (window.compareTo(getMaxWindow()) > 0) {
+            throw new IllegalArgumentException(
+                "Window cannot be longer than " +
+                    getMaxWindow().toMinutes() +
+                    " minutes."
+            );
+        }
+        long last = toSeconds(now);
+        long first = toSeconds(now.minus(window));
+        long salesTotal = 0;
+        long unitsTotal = 0;
+        double revenueTotal = 0;
+        for (long second = first; second <= last; second++) {
+            int slot = (int) Math.floorMod(second, (long) slots);
+            if (seconds.get(slot) != second) {
+                continue;
+            }
+            long slotSales = sales.get(slot);
+            long slotUnits = units.get(slot);
+            double slotRevenue = Double.longBitsToDouble(revenue.get(slot));
+            if (seconds.get(slot) != second) {
+                //cleared for a newer second while being read
+                continue;
+            }
+            salesTotal += slotSales;
+            unitsTotal += slotUnits;
+            revenueTotal += slotRevenue;
+        }
+        return new SalesRate(window, salesTotal, unitsTotal, revenueTotal);
+    }
+
+    /**
+     * @return the longest window rates can be read over
+     */
+    public Duration getMaxWindow() {
+        return Duration.ofSeconds(slots - 1);
+    }
+
+    private static long toSeconds(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,246 @@
+package service.view;
+
+import entities.DoublyLinkedList;
+import entities.Sale;
+import service.sketch.CountMinSketch;
+import service.sketch.HeavyHitter;
+import service.sketch.HyperLogLog;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Approximate sales analytics in fixed memory, for streams too large for an
+ * exact counter per product and window. Register with SaleServiceImpl.
+ *
+ * Heavy hitters: every sale adds its quantity to a CountMinSketch keyed by
+ * product ordinal, and a min-heap keeps the topK products with the highest
+ * estimates seen so far. A product enters the heap once its estimate beats
+ * the smallest entry, so memory stays at the sketch plus topK entries
+ * however many products are sold.
+ *
+ * Distinct products: sales fall into tumbling buckets of bucketLength,
+ * each with its own HyperLogLog of the products sold in it. A ring keeps
+ * the latest buckets, and a window is answered by merging the buckets it
+ * covers, rounded out to whole buckets and including the current one.
+ * Sales older than the ring are only counted as heavy hitters.
+ *
+ * Each sale costs the sketch depth, a bucket register and, for products
+ * in or entering the heap, O(topK); nothing grows with the history.
+ */
+public class SalesSketchView implements MaterializedView {
+
+    //Defaults: 0.1% of the total quantity, exceeded with probability 1%
+    public static final double DEFAULT_EPSILON = 0.001;
+    public static final double DEFAULT_DELTA = 0.01;
+    public static final int DEFAULT_TOP_K = 32;
+    public static final double DEFAULT_DISTINCT_ERROR = 0.02;
+    public static final Duration DEFAULT_BUCKET_LENGTH = Duration.ofMinutes(1);
+    public static final int DEFAULT_BUCKETS = 60;
+
+    /**
+     * A product in the heavy-hitter heap, with its estimate when it was
+     * last sold.
+     */
+    private static final class Candidate {
+
+        final int ordinal;
+        final String productId;
+        String productName;
+        long estimate;
+
+        Candidate(int ordinal, String productId) {
+            this.ordinal = ordinal;
+            this.productId = productId;
+        }
+    }
+
+    private final CountMinSketch quantities;
+    private final int topK;
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(
+        Comparator.comparingLong((Candidate c) -> c.estimate)
+    );
+    private final Map<Integer, Candidate> candidates = new HashMap<>();
+
+    private final long bucketSeconds;
+    private final HyperLogLog[] buckets;
+
+    //Bucket number each ring slot holds, Long.MIN_VALUE while empty
+    private final long[] bucketNumbers;
+
+    /**
+     * Creates a view with the default error bounds, top 32 heavy hitters and
+     * an hour of one-minute buckets.
+     */
+    public SalesSketchView() {
+        this(
+            DEFAULT_EPSILON,
+            DEFAULT_DELTA,
+            DEFAULT_TOP_K,
+            DEFAULT_DISTINCT_ERROR,
+            DEFAULT_BUCKET_LENGTH,
+            DEFAULT_BUCKETS
+        );
+    }
+
+    /**
+     * @param epsilon the largest quantity overestimate, as a fraction of all
+     *        units sold
+     * @param delta the probability of exceeding epsilon
+     * @param topK the number of heavy hitters tracked
+     * @param distinctError the standard error of distinct counts, as a
+     *        fraction
+     * @param bucketLength the length of a distinct-count bucket, at least a
+     *        second
+     * @param buckets the number of buckets kept
+     * @throws IllegalArgumentException if a bound is out of range, or topK
+     *         or buckets is less than 1
+     */
+    public SalesSketchView(
+        double epsilon,
+        double delta,
+        int topK,
+        double distinctError,
+        Duration bucketLength,
+        int buckets
+    ) {
+        if (topK < 1 || buckets < 1) {
+            throw new IllegalArgumentException(
+                "topK and buckets must be at least 1."
+            );
+        }
+        if (bucketLength == null || bucketLength.getSeconds() < 1) {
+            throw new IllegalArgumentException(
+                "Bucket length must be at least one second."
+            );
+        }
+        this.quantities = new CountMinSketch(epsilon, delta);
+        this.topK = topK;
+        this.bucketSeconds = bucketLength.getSeconds();
+        int precision = HyperLogLog.precisionFor(distinctError);
+        this.buckets = new HyperLogLog[buckets];
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new HyperLogLog(precision);
+        }
+        this.bucketNumbers = new long[buckets];
+        Arrays.fill(bucketNumbers, Long.MIN_VALUE);
+    }
+
+    @Override
+    public void saleRecorded(Sale sale) {
+        int ordinal = sale.getProductOrdinal();
+        long estimate = quantities.add(ordinal, sale.getQuantity());
+        updateHeap(ordinal, sale, estimate);
+
+        long bucket = bucketOf(sale.getDate());
+        int slot = (int) Math.floorMod(bucket, (long) buckets.length);
+        if (bucketNumbers[slot] != bucket) {
+            if (bucketNumbers[slot] > bucket) {
+                //older than every bucket the ring still holds
+                return;
+            }
+            buckets[slot].clear();
+            bucketNumbers[slot] = bucket;
+        }
+        buckets[slot].add(ordinal);
+    }
+
+    /**
+     * @param limit the most entries to return
+     * @return the heavy hitters, most sold first, at most topK of them
+     * @throws IllegalArgumentException if limit is less than 1
+     */
+    public DoublyLinkedList getHeavyHitters(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1.");
+        }
+        List<Candidate> sorted = new ArrayList<>(heap);
+        sorted.sort(
+            Comparator.comparingLong((Candidate c) -> c.estimate).reversed()
+        );
+        long error = quantities.getErrorBound();
+        DoublyLinkedList result = new DoublyLinkedList();
+        for (int i = 0; i < Math.min(limit, sorted.size()); i++) {
+            Candidate candidate = sorted.get(i);
+            //re-read, the estimate may have grown through collisions
+            result.add(
+                new HeavyHitter(
+                    candidate.productId,
+                    candidate.productName,
+                    quantities.estimate(candidate.ordinal),
+                    error
+                )
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the number of distinct products sold in the window ending
+     * at the given time.
+     *
+     * @param window the length of the window, widened to the whole buckets
+     *        it touches and capped at the buckets kept
+     * @param now the end of the window
+     * @return the estimated number of distinct products
+     * @throws IllegalArgumentException if window is not positive
+     */
+    public long estimateDistinctProducts(Duration window, LocalDateTime now) {
+        if (window == null || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Window must be positive.");
+        }
+        long current = bucketOf(now);
+        long first = Math.max(
+            bucketOf(now.minus(window)),
+            current - buckets.length + 1
+        );
+        //a new sketch per call, so concurrent readers share no state
+        HyperLogLog union = new HyperLogLog(buckets[0].getPrecision());
+        for (long bucket = first; bucket <= current; bucket++) {
+            int slot = (int) Math.floorMod(bucket, (long) buckets.length);
+            if (bucketNumbers[slot] == bucket) {
+                union.merge(buckets[slot]);
+            }
+        }
+        return union.estimate();
+    }
+
+    /**
+     * @return the longest window distinct counts cover
+     */
+    public Duration getMaxWindow() {
+        return Duration.ofSeconds(bucketSeconds * buckets.length);
+    }
+
+    private void updateHeap(int ordinal, Sale sale, long estimate) {
+        Candidate candidate = candidates.get(ordinal);
+        if (candidate == null) {
+            if (heap.size() == topK) {
+                if (estimate <= heap.peek().estimate) {
+                    return;
+                }
+                candidates.remove(heap.poll().ordinal);
+            }
+            candidate = new Candidate(ordinal, sale.getProductId());
+            candidates.put(ordinal, candidate);
+        } else {
+            //re-inserted below so the heap sees the larger estimate
+            heap.remove(candidate);
+        }
+        candidate.productName = sale.getProductName();
+        candidate.estimate = estimate;
+        heap.add(candidate);
+    }
+
+    private long bucketOf(LocalDateTime date) {
+        return Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+    }
+}
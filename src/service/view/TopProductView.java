@@ -0,0 +1,109 @@
+package service.view;
+
+import entities.Product;
+import entities.ProductDictionary;
+import entities.ProductSales;
+import entities.Sale;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Revenue and quantity sold per product, and the current product with the
+ * highest revenue. Register with both InventoryServiceImpl and
+ * SaleServiceImpl.
+ *
+ * Revenue per product only grows, so a sale or a re-added product can only
+ * replace the top product, which takes constant time. Deleting the top
+ * product is the one event that rescans, over the current products in
+ * inventory order. Like the scanning report, totals of products no longer in
+ * inventory are kept but never reported. Unlike it, a tie keeps the product
+ * that reached the revenue first rather than the one earlier in inventory
+ * order, except right after the rescan, so the two can name different
+ * products when revenues tie exactly. ViewReportService documents the
+ * difference.
+ */
+public class TopProductView implements MaterializedView {
+
+    private final ProductDictionary dictionary = ProductDictionary.shared();
+
+    //Totals of every product ever sold, by dictionary ordinal
+    private ProductSales[] totals = new ProductSales[64];
+
+    //Current products in inventory order, by product ID
+    private final Map<String, Product> products = new LinkedHashMap<>();
+
+    private ProductSales top;
+
+    @Override
+    public void productAdded(Product product) {
+        products.put(product.getId(), product);
+        consider(totalsOf(product.getId()));
+    }
+
+    @Override
+    public void productRemoved(Product product) {
+        products.remove(product.getId());
+        if (top != null && top.getProductId().equals(product.getId())) {
+            top = null;
+            for (String id : products.keySet()) {
+                consider(totalsOf(id));
+            }
+        }
+    }
+
+    @Override
+    public void saleRecorded(Sale sale) {
+        int ordinal = sale.getProductOrdinal();
+        if (ordinal >= totals.length) {
+            totals = Arrays.copyOf(
+                totals,
+                Math.max(ordinal + 1, totals.length * 2)
+            );
+        }
+        ProductSales productSales = totals[ordinal];
+        if (productSales == null) {
+            productSales = new ProductSales(
+                sale.getProductId(),
+                sale.getProductName()
+            );
+            totals[ordinal] = productSales;
+        }
+        productSales.add(sale.getTotalAmount(), sale.getQuantity());
+        if (products.containsKey(sale.getProductId())) {
+            consider(productSales);
+        }
+    }
+
+    /**
+     * @return a copy of the top product's totals, named as the product
+     *         currently is, or null if no current product has positive sales
+     */
+    public ProductSales getTop() {
+        if (top == null) {
+            return null;
+        }
+        ProductSales copy = new ProductSales(
+            top.getProductId(),
+            products.get(top.getProductId()).getName()
+        );
+        copy.add(top.getTotalRevenue(), top.getTotalQuantity());
+        return copy;
+    }
+
+    private ProductSales totalsOf(String productId) {
+        int ordinal = dictionary.find(productId);
+        return ordinal >= 0 && ordinal < totals.length ? totals[ordinal] : null;
+    }
+
+    private void consider(ProductSales candidate) {
+        if (
+            candidate != null &&
+            candidate.getTotalRevenue() >
+                (top == null ? 0 : top.getTotalRevenue())
+        ) {
+            top = candidate;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package service.workload;
+
+import service.archive.SaleArchive;
+
+/**
+ * Parameters of a synthetic workload run.
+ *
+ * A config is built from key=value arguments, for example
+ * "products=100000 sales=1000000 reports=500 threads=4 skew=1.1".
+ * Keys that are not given keep their default value.
+ *
+ * Keys:
+ *
+ *   products - number of products created before the run
+ *   sales - number of sales recorded during the run
+ *   reports - number of reports run during the run, interleaved at random
+ *     with the sales so the two make up the read/write mix
+ *   threads - number of threads issuing sales and reports
+ *   skew - Zipf exponent for picking the product of each sale, 0 is uniform
+ *   shards - number of inventory shards, 0 for the unsharded services
+ *   views - true to answer reports from materialized views, false to scan;
+ *     sharded runs always use views
+ *   cache - true to serve reports through CachingReportService
+ *   archive - directory to archive cold sales into, none by default;
+ *     ignored by sharded runs
+ *   hot - age in seconds after which a sale is archived
+ *   pages - number of archive pages kept decoded in memory
+ *   ingest - true to record sales through a SaleIngestor ring buffer
+ *   admit - number of AdmissionController workers running the sales and
+ *     reports, 0 to call the services directly, otherwise at least 2 so one
+ *     is always left for sales; the workers call the services concurrently,
+ *     so admitted runs use the sharded services, with one shard if shards=0
+ *   queue - most sales, and separately most reports, waiting for an
+ *     admission worker before further ones are rejected
+ *   seed - random seed, so runs can be repeated
+ */
+public class WorkloadConfig {
+
+    private int products = 10_000;
+    private int sales = 100_000;
+    private int reports = 100;
+    private int threads = 1;
+    private double skew = 1.0;
+    private int shards = 0;
+    private boolean viewReports = true;
+    private boolean cacheReports = false;
+    private String archive = null;
+    private long hotSeconds = 60;
+    private int pages = SaleArchive.DEFAULT_CACHED_PAGES;
+    private boolean ingest = false;
+    private int admit = 0;
+    private int queue = 64;
+    private long seed = 42;
+
+    /**
+     * Builds a config from key=value arguments.
+     *
+     * @param args the arguments, each of the form key=value
+     * @return the parsed config
+     * @throws IllegalArgumentException if an argument is malformed, a key is
+     *         unknown or a value is out of range
+     */
+    public static WorkloadConfig parse(String[] args) {
+        WorkloadConfig config = new WorkloadConfig();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException(
+                    "Expected key=value but found: " + arg
+                );
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            try {
+                switch (key) {
+                    case "products" -> config.products = Integer.parseInt(value);
+                    case "sales" -> config.sales = Integer.parseInt(value);
+                    case "reports" -> config.reports = Integer.parseInt(value);
+                    case "threads" -> config.threads = Integer.parseInt(value);
+                    case "skew" -> config.skew = Double.parseDouble(value);
+                    case "shards" -> config.shards = Integer.parseInt(value);
+                    case "views" -> config.viewReports = parseBoolean(value);
+                    case "cache" -> config.cacheReports = parseBoolean(value);
+                    case "archive" -> config.archive = value;
+                    case "hot" -> config.hotSeconds = Long.parseLong(value);
+                    case "pages" -> config.pages = Integer.parseInt(value);
+                    case "ingest" -> config.ingest = parseBoolean(value);
+                    case "admit" -> config.admit = Integer.parseInt(value);
+                    case "queue" -> config.queue = Integer.parseInt(value);
+                    case "seed" -> config.seed = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException(
+                        "Unknown workload option: " + key
+                    );
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                    "Invalid number for " + key + ": " + value
+                );
+            }
+        }
+        config.validate();
+        return config;
+    }
+
+    //stricter than Boolean.parseBoolean, which reads any typo as false
+    private static boolean parseBoolean(String value) {
+        return switch (value) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new NumberFormatException(value);
+        };
+    }
+
+    private void validate() {
+        if (products < 1 || threads < 1) {
+            throw new IllegalArgumentException(
+                "products and threads must be at least 1."
+            );
+        }
+        if (sales < 0 || reports < 0 || shards < 0 || admit < 0) {
+            throw new IllegalArgumentException(
+                "sales, reports, shards and admit cannot be less than 0."
+            );
+        }
+        if (admit == 1) {
+            throw new IllegalArgumentException(
+                "admit must be 0 or at least 2."
+            );
+        }
+        if (queue < 1 || pages < 1) {
+            throw new IllegalArgumentException(
+                "queue and pages must be at least 1."
+            );
+        }
+        if (hotSeconds < 0) {
+            throw new IllegalArgumentException("hot cannot be less than 0.");
+        }
+        if (skew < 0) {
+            throw new IllegalArgumentException("skew cannot be less than 0.");
+        }
+    }
+
+    public int getProducts() {
+        return products;
+    }
+
+    public int getSales() {
+        return sales;
+    }
+
+    public int getReports() {
+        return reports;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public double getSkew() {
+        return skew;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public boolean isViewReports() {
+        return viewReports;
+    }
+
+    public boolean isCacheReports() {
+        return cacheReports;
+    }
+
+    /**
+     * @return the archive directory, or null to keep every sale in memory
+     */
+    public String getArchive() {
+        return archive;
+    }
+
+    public long getHotSeconds() {
+        return hotSeconds;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public boolean isIngest() {
+        return ingest;
+    }
+
+    /**
+     * @return the number of admission workers, 0 if admission is off
+     */
+    public int getAdmit() {
+        return admit;
+    }
+
+    public int getQueue() {
+        return queue;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Workload[Products=%d, Sales=%d, Reports=%d, Threads=%d, Skew=%.2f, Shards=%d, Views=%b, Cache=%b, Archive=%s, Hot=%ds, Pages=%d, Ingest=%b, Admit=%d, Queue=%d, Seed=%d]",
+            products,
+            sales,
+            reports,
+            threads,
+            skew,
+            shards,
+            viewReports,
+            cacheReports,
+            archive,
+            hotSeconds,
+            pages,
+            ingest,
+            admit,
+            queue,
+            seed
+        );
+    }
+}
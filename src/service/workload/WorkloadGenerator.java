@@ -0,0 +1,301 @@
+package service.workload;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import service.console.Console;
+import service.inventory.InsufficientStockException;
+import service.inventory.InventoryService;
+import service.metrics.MethodMetrics;
+import service.metrics.MetricsRegistry;
+import service.ingest.SaleHandle;
+import service.ingest.SaleIngestor;
+import service.report.ReportService;
+import service.sale.SaleService;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Drives the services with a synthetic, repeatable workload.
+ *
+ * A run has two phases:
+ *
+ *   Setup - the configured number of products is created in one
+ *   InventoryService.addProducts batch, with enough stock for the run
+ *   Run - the configured sales and reports are split across the worker
+ *   threads; each thread interleaves its share at random, so the ratio of
+ *   reports to sales is the configured read/write mix throughout the run
+ *
+ * The product of each sale is drawn from a Zipf distribution over the
+ * catalog, so a few products receive most of the sales as in real shops.
+ * Reports are drawn uniformly from the ReportService report methods.
+ *
+ * The services print a line per sale, so their output is switched off
+ * through Console while the run phase lasts; otherwise the run would mostly
+ * measure the terminal. Sales that fail for lack of stock are counted as
+ * failed and the run goes on; any other exception fails the run.
+ *
+ * Services that are not thread-safe are called under one lock, so with more
+ * than one thread such a run measures throughput and tail latency under
+ * contention rather than parallel speed-up. Thread-safe services, such as
+ * the sharded ones, are called concurrently.
+ *
+ * With ingest=true the workers instead submit sales to a SaleIngestor,
+ * whose consumer thread records them in batches under the same lock, and
+ * wait on a per-thread SaleHandle. Reports still take the lock directly.
+ *
+ * Services behind an AdmissionController are passed as thread-safe, since
+ * the controller serializes or limits the calls itself; calls it rejects
+ * are counted as failed operations.
+ */
+public class WorkloadGenerator {
+
+    //Units of stock each generated product starts with
+    static final int INITIAL_STOCK = 1_000_000;
+
+    //Largest quantity a generated sale asks for
+    static final int MAX_SALE_QUANTITY = 5;
+
+    private final InventoryService inventoryService;
+    private final SaleService saleService;
+    private final ReportService reportService;
+
+    //Serializes service calls from the worker threads, null if the
+    //services are thread-safe
+    private final Object lock;
+
+    /**
+     * Constructs a generator that drives the given services.
+     *
+     * @param inventoryService the service products are created in
+     * @param saleService the service sales are recorded through
+     * @param reportService the service reports are run against
+     * @param threadSafe whether the services may be called concurrently
+     * @throws NullPointerException if any service parameter is null
+     */
+    public WorkloadGenerator(
+        InventoryService inventoryService,
+        SaleService saleService,
+        ReportService reportService,
+        boolean threadSafe
+    ) {
+        if (inventoryService == null) {
+            throw new NullPointerException("InventoryService cannot be null");
+        }
+        if (saleService == null) {
+            throw new NullPointerException("SaleService cannot be null");
+        }
+        if (reportService == null) {
+            throw new NullPointerException("ReportService cannot be null");
+        }
+        this.inventoryService = inventoryService;
+        this.saleService = saleService;
+        this.reportService = reportService;
+        this.lock = threadSafe ? null : new Object();
+    }
+
+    /**
+     * Creates the products and runs the configured sales and reports.
+     *
+     * Product ids are "W" followed by the product's popularity rank, W0
+     * being the most sold, so generated products do not collide with ones
+     * that already exist under the usual P-prefixed ids.
+     *
+     * @param config the workload parameters
+     * @return throughput and latency figures of the run
+     * @throws IllegalArgumentException if a generated product id already
+     *         exists in the inventory
+     */
+    public WorkloadResult run(WorkloadConfig config) {
+        long setupStart = System.nanoTime();
+        createProducts(config);
+        ZipfDistribution zipf = new ZipfDistribution(
+            config.getProducts(),
+            config.getSkew()
+        );
+        long setupNanos = System.nanoTime() - setupStart;
+
+        //sample interval 1 so every operation is timed
+        MetricsRegistry registry = new MetricsRegistry(null, 1);
+        MethodMetrics sales = registry.register("Workload", "sales");
+        MethodMetrics reports = registry.register("Workload", "reports");
+
+        int threads = config.getThreads();
+        SaleIngestor ingestor = config.isIngest()
+            ? new SaleIngestor(saleService, SaleIngestor.DEFAULT_CAPACITY, lock)
+            : null;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        //the services' per-sale messages only; System.out stays untouched
+        boolean consoleEnabled = Console.setEnabled(false);
+        long start = System.nanoTime();
+        try {
+            Future<?>[] workers = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                //the first threads take one extra operation of the remainder
+                int saleShare =
+                    config.getSales() / threads +
+                    (t < config.getSales() % threads ? 1 : 0);
+                int reportShare =
+                    config.getReports() / threads +
+                    (t < config.getReports() % threads ? 1 : 0);
+                Random random = new Random(config.getSeed() + t);
+                workers[t] = pool.submit(() ->
+                    work(
+                        saleShare,
+                        reportShare,
+                        random,
+                        zipf,
+                        ingestor,
+                        sales,
+                        reports
+                    )
+                );
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Workload run was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(
+                "Workload worker failed",
+                e.getCause()
+            );
+        } finally {
+            pool.shutdownNow();
+            if (ingestor != null) {
+                ingestor.close();
+            }
+            Console.setEnabled(consoleEnabled);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        return new WorkloadResult(
+            config,
+            setupNanos,
+            elapsedNanos,
+            sales,
+            reports
+        );
+    }
+
+    private void createProducts(WorkloadConfig config) {
+        Random random = new Random(config.getSeed());
+        DoublyLinkedList batch = new DoublyLinkedList();
+        for (int i = 0; i < config.getProducts(); i++) {
+            //prices between 1.00 and 1000.00
+            double price = (100 + random.nextInt(99_901)) / 100.0;
+            batch.add(
+                new Product("W" + i, "Product " + i, price, INITIAL_STOCK)
+            );
+        }
+        inventoryService.addProducts(batch);
+    }
+
+    private void work(
+        int saleCount,
+        int reportCount,
+        Random random,
+        ZipfDistribution zipf,
+        SaleIngestor ingestor,
+        MethodMetrics sales,
+        MethodMetrics reports
+    ) {
+        //reused for every sale of this worker, so ingestion allocates nothing
+        SaleHandle handle = new SaleHandle();
+        while (saleCount + reportCount > 0) {
+            //pick by remaining counts so the mix holds for the whole run
+            if (random.nextInt(saleCount + reportCount) < reportCount) {
+                reportCount--;
+                runReport(random.nextInt(7), reports);
+            } else {
+                saleCount--;
+                String productId = "W" + zipf.sample(random);
+                int quantity = 1 + random.nextInt(MAX_SALE_QUANTITY);
+                if (ingestor == null) {
+                    recordSale(productId, quantity, sales);
+                } else {
+                    ingestSale(productId, quantity, ingestor, handle, sales);
+                }
+            }
+        }
+    }
+
+    private void recordSale(
+        String productId,
+        int quantity,
+        MethodMetrics sales
+    ) {
+        long start = sales.start();
+        try {
+            if (lock == null) {
+                saleService.recordSale(productId, quantity);
+            } else {
+                synchronized (lock) {
+                    saleService.recordSale(productId, quantity);
+                }
+            }
+        } catch (InsufficientStockException | RejectedExecutionException e) {
+            //out of stock or shed by admission control, the run goes on and
+            //the failure is counted; anything else fails the run
+            sales.fail();
+        } finally {
+            sales.stop(start);
+        }
+    }
+
+    private void ingestSale(
+        String productId,
+        int quantity,
+        SaleIngestor ingestor,
+        SaleHandle handle,
+        MethodMetrics sales
+    ) {
+        long start = sales.start();
+        try {
+            ingestor.submit(productId, quantity, handle);
+            handle.join();
+        } catch (InsufficientStockException | RejectedExecutionException e) {
+            sales.fail();
+        } finally {
+            sales.stop(start);
+        }
+    }
+
+    private void runReport(int report, MethodMetrics reports) {
+        long start = reports.start();
+        try {
+            if (lock == null) {
+                report(report);
+            } else {
+                synchronized (lock) {
+                    report(report);
+                }
+            }
+        } catch (RejectedExecutionException e) {
+            reports.fail();
+        } finally {
+            reports.stop(start);
+        }
+    }
+
+    private void report(int report) {
+        switch (report) {
+            case 0 -> reportService.getTotalNumberOfProducts();
+            case 1 -> reportService.getTotalSalesRevenue();
+            case 2 -> reportService.getProductWithHighestSales();
+            case 3 -> reportService.getOutOfStockProducts();
+            case 4 -> reportService.getHeavyHitters(10);
+            case 5 -> reportService.estimateDistinctProductsSold(
+                Duration.ofMinutes(5)
+            );
+            default -> reportService.getSalesRate(Duration.ofMinutes(5));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package service.workload;
+
+import service.metrics.MethodMetrics;
+
+/**
+ * Outcome of one synthetic workload run: how long it took, the overall
+ * throughput and the latency distribution of sales and reports.
+ *
+ * Latencies come from MethodMetrics that time every call, so the
+ * percentiles describe all operations of the run.
+ */
+public class WorkloadResult {
+
+    private final WorkloadConfig config;
+
+    //Time taken to create the products before the run, in nanoseconds
+    private final long setupNanos;
+
+    //Wall-clock duration of the sales and reports phase, in nanoseconds
+    private final long elapsedNanos;
+
+    private final MethodMetrics sales;
+    private final MethodMetrics reports;
+
+    public WorkloadResult(
+        WorkloadConfig config,
+        long setupNanos,
+        long elapsedNanos,
+        MethodMetrics sales,
+        MethodMetrics reports
+    ) {
+        this.config = config;
+        this.setupNanos = setupNanos;
+        this.elapsedNanos = elapsedNanos;
+        this.sales = sales;
+        this.reports = reports;
+    }
+
+    public WorkloadConfig getConfig() {
+        return config;
+    }
+
+    public long getSetupNanos() {
+        return setupNanos;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public MethodMetrics getSales() {
+        return sales;
+    }
+
+    public MethodMetrics getReports() {
+        return reports;
+    }
+
+    /**
+     * @return sales and reports completed per second, failed ones included
+     */
+    public double getOperationsPerSecond() {
+        long operations = sales.getCallCount() + reports.getCallCount();
+        if (operations == 0 || elapsedNanos == 0) {
+            return 0;
+        }
+        return operations * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Prints the run parameters, throughput and latency percentiles.
+     */
+    public void display() {
+        System.out.println("\n=== WORKLOAD RESULT ===");
+        System.out.println(config);
+        System.out.printf(
+            "Setup: %.1f ms, Run: %.1f ms, Throughput: %.0f ops/s%n",
+            setupNanos / 1_000_000.0,
+            elapsedNanos / 1_000_000.0,
+            getOperationsPerSecond()
+        );
+        print(sales);
+        print(reports);
+    }
+
+    private static void print(MethodMetrics metrics) {
+        if (metrics.getCallCount() == 0) {
+            System.out.printf("%-16s none%n", metrics.getName());
+            return;
+        }
+        System.out.printf(
+            "%-16s count=%d failed=%d p50=%.1f µs p90=%.1f µs p99=%.1f µs max=%.1f µs%n",
+            metrics.getName(),
+            metrics.getCallCount(),
+            metrics.getErrorCount(),
+            metrics.getMedianLatency() / 1000.0,
+            metrics.getP90Latency() / 1000.0,
+            metrics.getP99Latency() / 1000.0,
+            metrics.getMaxLatency() / 1000.0
+        );
+    }
+}
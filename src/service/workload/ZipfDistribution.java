@@ -0,0 +1,62 @@
+package service.workload;
+
+import java.util.Random;
+
+/**
+ * Samples ranks 0..n-1 from a Zipf distribution, where rank k is drawn with
+ * probability proportional to 1 / (k + 1)^exponent.
+ *
+ * The cumulative distribution is computed once (O(n) memory) and each sample
+ * is a binary search, O(log n). An exponent of 0 gives a uniform
+ * distribution; around 1 matches typical retail sales where a few SKUs
+ * account for most of the volume.
+ */
+class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    /**
+     * @param n the number of ranks
+     * @param exponent the skew, 0 or greater
+     * @throws IllegalArgumentException if n is less than 1 or exponent is
+     *         negative
+     */
+    ZipfDistribution(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Rank count must be at least 1.");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException(
+                "Zipf exponent cannot be less than 0."
+            );
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    /**
+     * @param random the source of randomness, owned by the calling thread
+     * @return a rank between 0 and n-1, lower ranks being more likely
+     */
+    int sample(Random random) {
+        double u = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
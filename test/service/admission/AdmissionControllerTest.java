@@ -0,0 +1,129 @@
+package service.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class AdmissionControllerTest {
+
+    @Test
+    void closeRunsQueuedReportsAndStopsIdleWorkers() throws Exception {
+        //four workers and one report slot, so three wait for the slot
+        AdmissionController controller = new AdmissionController(4, 1, 8, 8);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+
+        List<Thread> callers = new ArrayList<>();
+        callers.add(
+            caller(() ->
+                controller.run(OperationClass.REPORT, () -> {
+                    firstStarted.countDown();
+                    await(releaseFirst);
+                    completed.incrementAndGet();
+                })
+            )
+        );
+        firstStarted.await();
+        for (int i = 0; i < 3; i++) {
+            callers.add(
+                caller(() ->
+                    controller.run(OperationClass.REPORT, () -> {
+                        //long enough for woken workers to wait again
+                        sleep(50);
+                        completed.incrementAndGet();
+                    })
+                )
+            );
+        }
+        while (controller.getQueueLength(OperationClass.REPORT) < 3) {
+            Thread.onSpinWait();
+        }
+
+        Thread closer = caller(controller::close);
+        //let close() mark the controller closed before the backlog drains
+        while (closer.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        releaseFirst.countDown();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            closer.join();
+            for (Thread thread : callers) {
+                thread.join();
+            }
+        });
+        assertEquals(4, completed.get());
+        assertThrows(RejectedExecutionException.class, () ->
+            controller.run(OperationClass.SALE, () -> {})
+        );
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        AdmissionController controller = new AdmissionController(2, 1, 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread running = caller(() ->
+            controller.run(OperationClass.REPORT, () -> {
+                started.countDown();
+                await(release);
+            })
+        );
+        started.await();
+        Thread queued = caller(() ->
+            controller.run(OperationClass.REPORT, () -> {})
+        );
+        while (controller.getQueueLength(OperationClass.REPORT) < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(RejectedExecutionException.class, () ->
+            controller.run(OperationClass.REPORT, () -> {})
+        );
+        assertEquals(1, controller.getRejectedCount(OperationClass.REPORT));
+
+        //the worker left for sales still runs them
+        assertEquals(
+            7,
+            (int) controller.call(OperationClass.SALE, () -> 7)
+        );
+
+        release.countDown();
+        running.join();
+        queued.join();
+        controller.close();
+    }
+
+    private static Thread caller(Runnable body) {
+        Thread thread = new Thread(body);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package service.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import entities.Sale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+class SaleSegmentTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(
+        2024,
+        1,
+        1,
+        0,
+        0
+    );
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void pagesAreCompressedAndReadBackOneByOne() throws IOException {
+        Sale[] sales = sales(20_000);
+        Path file = dir.resolve("segment.sales");
+        SaleSegment written = SaleSegment.write(file, sales, sales.length);
+
+        assertTrue(written.isPaged());
+        assertTrue(written.getPageCount() > 1);
+        //padded pages took PAGE_SIZE bytes each
+        assertTrue(
+            Files.size(file) <
+                (long) written.getPageCount() * SaleSegment.PAGE_SIZE / 2
+        );
+        try (
+            DataInputStream in = new DataInputStream(
+                Files.newInputStream(file)
+            )
+        ) {
+            assertEquals(SaleSegment.MAGIC, in.readInt());
+            assertEquals(SaleSegment.FORMAT_VERSION, in.readShort());
+        }
+
+        SaleSegment opened = SaleSegment.open(file);
+        assertEquals(sales.length, opened.getSaleCount());
+        assertEquals(written.getPageCount(), opened.getPageCount());
+        //last page first, so no page depends on the ones before it
+        int index = sales.length;
+        for (int p = opened.getPageCount() - 1; p >= 0; p--) {
+            Sale[] page = opened.readPage(p);
+            index -= page.length;
+            for (int i = 0; i < page.length; i++) {
+                assertSameSale(sales[index + i], page[i]);
+            }
+        }
+        assertEquals(0, index);
+    }
+
+    @Test
+    void pageIndexSkipsPagesOutsideARange() throws IOException {
+        Sale[] sales = sales(20_000);
+        Path file = dir.resolve("segment.sales");
+        SaleSegment.write(file, sales, sales.length);
+        SaleSegment segment = SaleSegment.open(file);
+
+        LocalDateTime from = sales[0].getDate();
+        LocalDateTime to = from.plusMinutes(1);
+        assertTrue(segment.pageOverlaps(0, from, to));
+        assertFalse(
+            segment.pageOverlaps(segment.getPageCount() - 1, from, to)
+        );
+    }
+
+    private static Sale[] sales(int count) {
+        Sale[] sales = new Sale[count];
+        for (int i = 0; i < count; i++) {
+            sales[i] = new Sale(
+                "SEG-" + (i % 50),
+                i % 7 == 0 ? null : "Product " + (i % 50),
+                1 + i % 5,
+                9.99 + i % 3,
+                START.plusSeconds(i)
+            );
+        }
+        return sales;
+    }
+
+    private static void assertSameSale(Sale expected, Sale actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getProductId(), actual.getProductId());
+        assertEquals(expected.getProductName(), actual.getProductName());
+        assertEquals(expected.getQuantity(), actual.getQuantity());
+        assertEquals(expected.getUnitPrice(), actual.getUnitPrice());
+        assertEquals(expected.getTotalAmount(), actual.getTotalAmount());
+        assertEquals(expected.getDate(), actual.getDate());
+    }
+}
@@ -0,0 +1,118 @@
+package service.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import entities.Product;
+import entities.Sale;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+class EntityCodecTest {
+
+    @Test
+    void productsRoundTripIncludingNullNames() {
+        Product named = new Product("P-1", "Grüner Tee ☕", 4.25, 12);
+        Product unnamed = new Product("P-2", null, 0.0, 0);
+        ByteBuffer buffer = ByteBuffer.allocate(
+            EntityCodec.encodedSize(named) + EntityCodec.encodedSize(unnamed)
+        );
+        EntityCodec.encode(named, buffer);
+        EntityCodec.encode(unnamed, buffer);
+        assertEquals(0, buffer.remaining());
+        buffer.flip();
+
+        assertEquals(EntityCodec.PRODUCT, EntityCodec.peekType(buffer));
+        Product first = EntityCodec.decodeProduct(buffer);
+        assertEquals("P-1", first.getId());
+        assertEquals("Grüner Tee ☕", first.getName());
+        assertEquals(4.25, first.getPrice());
+        assertEquals(12, first.getQuantity());
+
+        Product second = EntityCodec.decodeProduct(buffer);
+        assertEquals("P-2", second.getId());
+        assertNull(second.getName());
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void salesRoundTripIncludingNullNamesAndDates() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime date = LocalDateTime.of(2024, 3, 15, 10, 30, 0, 123_456);
+        Sale dated = new Sale(id, "P-1", "Widget", 3, 1.5, date);
+        dated.setTotalAmount(4.0);
+        Sale undated = new Sale("P-2", null, 1, 2.0, null);
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        EntityCodec.encode(dated, buffer);
+        EntityCodec.encode(undated, buffer);
+        buffer.flip();
+
+        assertEquals(EntityCodec.SALE, EntityCodec.peekType(buffer));
+        Sale first = EntityCodec.decodeSale(buffer);
+        assertEquals(id, first.getId());
+        assertEquals("P-1", first.getProductId());
+        assertEquals("Widget", first.getProductName());
+        assertEquals(3, first.getQuantity());
+        assertEquals(1.5, first.getUnitPrice());
+        assertEquals(4.0, first.getTotalAmount());
+        assertEquals(date, first.getDate());
+
+        Sale second = EntityCodec.decodeSale(buffer);
+        assertEquals(undated.getId(), second.getId());
+        assertNull(second.getProductName());
+        assertNull(second.getDate());
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void fieldsAppendedByALaterVersionAreSkipped() {
+        Product product = new Product("P-1", "Widget", 1.0, 2);
+        ByteBuffer original = ByteBuffer.allocate(
+            EntityCodec.encodedSize(product)
+        );
+        EntityCodec.encode(product, original);
+        byte[] bytes = original.array();
+
+        //same record with four unknown bytes after the known fields; the
+        //length fits one varint byte either way
+        int length = bytes[2];
+        ByteBuffer extended = ByteBuffer.allocate(bytes.length + 4 + 64);
+        extended.put(bytes, 0, 2);
+        extended.put((byte) (length + 4));
+        extended.put(bytes, 3, length);
+        extended.putInt(0xCAFEBABE);
+        EntityCodec.encodeString("next", extended);
+        extended.flip();
+
+        Product decoded = EntityCodec.decodeProduct(extended);
+        assertEquals("Widget", decoded.getName());
+        assertEquals(2, decoded.getQuantity());
+        assertEquals("next", EntityCodec.decodeString(extended));
+    }
+
+    @Test
+    void overflowWritesNothingAndUnknownVersionsAreRejected() {
+        Sale sale = new Sale("P-1", "Widget", 1, 1.0, LocalDateTime.now());
+        ByteBuffer small = ByteBuffer.allocate(
+            EntityCodec.encodedSize(sale) - 1
+        );
+        assertThrows(
+            BufferOverflowException.class,
+            () -> EntityCodec.encode(sale, small)
+        );
+        assertEquals(0, small.position());
+
+        ByteBuffer future = ByteBuffer.wrap(
+            new byte[] { EntityCodec.FORMAT_VERSION + 1, EntityCodec.SALE, 0 }
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> EntityCodec.decodeSale(future)
+        );
+    }
+}
@@ -0,0 +1,102 @@
+package service.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import entities.Product;
+import entities.ProductDictionary;
+import entities.Sale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.inventory.InventoryService;
+import service.inventory.InventoryServiceImpl;
+import service.sale.SaleService;
+import service.sale.SaleServiceImpl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class ImportServiceImplTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rejectedSaleRowsAddNothingToTheDictionary() throws IOException {
+        Path file = dir.resolve("sales.csv");
+        Files.writeString(
+            file,
+            ImportServiceImpl.SALE_HEADER +
+                "\n" +
+                ",REJECTED-QTY,Widget,0,1.50,2024-03-15T10:30:00\n" +
+                ",REJECTED-PRICE,Widget,1,-1,2024-03-15T10:30:00\n" +
+                ",REJECTED-DATE,Widget,1,1.50,yesterday\n" +
+                ",ACCEPTED,Widget,2,1.50,2024-03-15T10:30:00\n"
+        );
+        InventoryService inventory = new InventoryServiceImpl();
+        SaleService sales = new SaleServiceImpl(inventory);
+
+        ImportResult result = new ImportServiceImpl(
+            inventory,
+            sales,
+            2
+        ).importSales(file);
+
+        assertEquals(1, result.getRowsImported());
+        assertEquals(3, result.getRowsRejected());
+        ProductDictionary dictionary = ProductDictionary.shared();
+        assertEquals(
+            ProductDictionary.NO_PRODUCT,
+            dictionary.find("REJECTED-QTY")
+        );
+        assertEquals(
+            ProductDictionary.NO_PRODUCT,
+            dictionary.find("REJECTED-PRICE")
+        );
+        assertEquals(
+            ProductDictionary.NO_PRODUCT,
+            dictionary.find("REJECTED-DATE")
+        );
+        Sale imported = (Sale) sales.getAllSales().get(0);
+        assertEquals("ACCEPTED", imported.getProductId());
+    }
+
+    @Test
+    void quotedFieldsMaySpanLinesAcrossChunkBoundaries() throws IOException {
+        //several megabytes, so the parallel parse splits the file into
+        //chunks and has to place every boundary outside the quoted names
+        int rows = 60_000;
+        StringBuilder csv = new StringBuilder(
+            ImportServiceImpl.PRODUCT_HEADER
+        ).append('\n');
+        for (int i = 0; i < rows; i++) {
+            csv.append("P")
+                .append(i)
+                .append(",\"Line one\nline two, \"\"quoted\"\" ")
+                .append(i)
+                .append("\",1.25,")
+                .append(i % 7)
+                .append('\n');
+        }
+        Path file = dir.resolve("products.csv");
+        Files.writeString(file, csv);
+        InventoryService inventory = new InventoryServiceImpl();
+
+        ImportResult result = new ImportServiceImpl(
+            inventory,
+            new SaleServiceImpl(inventory),
+            4
+        ).importProducts(file);
+
+        assertEquals(rows, result.getRowsImported());
+        assertEquals(0, result.getRowsRejected());
+        for (int i = 0; i < rows; i += 997) {
+            Product product = inventory.findProductById("P" + i);
+            assertEquals(
+                "Line one\nline two, \"quoted\" " + i,
+                product.getName()
+            );
+            assertEquals(i % 7, product.getQuantity());
+        }
+    }
+}
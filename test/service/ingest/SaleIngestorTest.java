@@ -0,0 +1,83 @@
+package service.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import entities.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.console.Console;
+import service.inventory.InventoryServiceImpl;
+import service.sale.SaleServiceImpl;
+
+import java.time.Duration;
+
+class SaleIngestorTest {
+
+    private boolean consoleEnabled;
+
+    @BeforeEach
+    void silenceConsole() {
+        consoleEnabled = Console.setEnabled(false);
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        Console.setEnabled(consoleEnabled);
+    }
+
+    @Test
+    void everySaleIsRecordedWhenProducersLapASmallRing() {
+        InventoryServiceImpl inventory = new InventoryServiceImpl();
+        inventory.addProduct(new Product("P", "Widget", 1.0, 100_000));
+        SaleServiceImpl sales = new SaleServiceImpl(inventory);
+        int producers = 4;
+        int perProducer = 2_000;
+
+        assertTimeoutPreemptively(
+            Duration.ofSeconds(30),
+            () -> {
+                //four slots, so every producer laps the ring many times
+                try (SaleIngestor ingestor = new SaleIngestor(sales, 4, null)) {
+                    Thread[] threads = new Thread[producers];
+                    for (int t = 0; t < producers; t++) {
+                        threads[t] = new Thread(() -> {
+                            SaleHandle handle = new SaleHandle();
+                            for (int i = 0; i < perProducer; i++) {
+                                ingestor.submit("P", 1, handle);
+                                handle.join();
+                            }
+                        });
+                        threads[t].start();
+                    }
+                    for (Thread thread : threads) {
+                        thread.join();
+                    }
+                }
+            }
+        );
+
+        assertEquals(producers * perProducer, sales.getSaleCount());
+        assertEquals(
+            100_000 - producers * perProducer,
+            inventory.findProductById("P").getQuantity()
+        );
+    }
+
+    @Test
+    void failedSalesCompleteTheirHandleWithTheError() {
+        InventoryServiceImpl inventory = new InventoryServiceImpl();
+        SaleServiceImpl sales = new SaleServiceImpl(inventory);
+        try (SaleIngestor ingestor = new SaleIngestor(sales, 2, null)) {
+            SaleHandle handle = ingestor.submit("MISSING", 1);
+            assertThrows(RuntimeException.class, handle::join);
+            ingestor.close();
+            assertThrows(
+                IllegalStateException.class,
+                () -> ingestor.submit("MISSING", 1)
+            );
+        }
+    }
+}
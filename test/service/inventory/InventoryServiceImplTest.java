@@ -0,0 +1,103 @@
+package service.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.console.Console;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+class InventoryServiceImplTest {
+
+    private boolean consoleEnabled;
+
+    @BeforeEach
+    void silenceConsole() {
+        consoleEnabled = Console.setEnabled(false);
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        Console.setEnabled(consoleEnabled);
+    }
+
+    @Test
+    void catalogFollowsAddsAndDeletesAndSeesUpdates() {
+        InventoryServiceImpl inventory = new InventoryServiceImpl();
+        inventory.addProduct(new Product("A", "Apple", 1.0, 5));
+        inventory.addProduct(new Product("B", "Banana", 2.0, 6));
+        assertIds(inventory.getAllProducts(), "A", "B");
+
+        inventory.adjustQuantity("A", -2);
+        inventory.updateProduct("B", "Blueberry", 3.0, 7);
+        DoublyLinkedList products = inventory.getAllProducts();
+        assertIds(products, "A", "B");
+        assertEquals(3, ((Product) products.get(0)).getQuantity());
+        assertEquals("Blueberry", ((Product) products.get(1)).getName());
+
+        inventory.deleteProduct("A");
+        inventory.addProduct(new Product("C", "Cherry", 4.0, 8));
+        assertIds(inventory.getAllProducts(), "B", "C");
+    }
+
+    @Test
+    void catalogReadsRacingWritesSeeWholeCatalogs() throws Exception {
+        InventoryServiceImpl inventory = new InventoryServiceImpl();
+        for (int i = 0; i < 100; i++) {
+            inventory.addProduct(new Product("P" + i, "Product", 1.0, 10));
+        }
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                try {
+                    while (!stop.get()) {
+                        DoublyLinkedList products = inventory.getAllProducts();
+                        //the writer keeps between 100 and 101 products
+                        int size = products.size();
+                        assertTrue(size == 100 || size == 101, "size " + size);
+                        for (Object o : products) {
+                            assertNotNull(o);
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            readers[r].start();
+        }
+
+        for (int i = 0; i < 20_000; i++) {
+            inventory.addProduct(new Product("X", "Extra", 1.0, 1));
+            //each product loses a unit one round and gets it back the next
+            int delta = i / 100 % 2 == 0 ? -1 : 1;
+            inventory.adjustQuantity("P" + (i % 100), delta);
+            inventory.deleteProduct("X");
+        }
+        stop.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(100, inventory.getAllProducts().size());
+    }
+
+    private static void assertIds(DoublyLinkedList products, String... ids) {
+        assertEquals(ids.length, products.size());
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(ids[i], ((Product) products.get(i)).getId());
+        }
+    }
+}
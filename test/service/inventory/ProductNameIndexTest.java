@@ -0,0 +1,72 @@
+package service.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+class ProductNameIndexTest {
+
+    @Test
+    void shortQueriesMatchAnywhereInTheName() {
+        ProductNameIndex index = new ProductNameIndex();
+        index.add(new Product("A", "Apple", 1.0, 1));
+        index.add(new Product("B", "Banana", 1.0, 1));
+        index.add(new Product("C", "Cherry", 1.0, 1));
+
+        assertEquals(Set.of("A", "C"), ids(index.findBySubstring("e", 10)));
+        assertEquals(Set.of("B"), ids(index.findBySubstring("AN", 10)));
+        assertEquals(Set.of("C"), ids(index.findBySubstring("rry", 10)));
+        assertEquals(Set.of("B"), ids(index.findBySubstring("anana", 10)));
+        assertTrue(ids(index.findBySubstring("qz", 10)).isEmpty());
+        assertEquals(3, index.findBySubstring("", 10).size());
+        assertEquals(2, index.findBySubstring("a", 2).size());
+    }
+
+    @Test
+    void removedAndRenamedProductsLeaveTheirShortGrams() {
+        ProductNameIndex index = new ProductNameIndex();
+        Product kiwi = new Product("K", "Kiwi", 1.0, 1);
+        index.add(kiwi);
+        index.add(new Product("L", "Lime", 1.0, 1));
+        for (int i = 0; i < 10; i++) {
+            Product p = new Product("T" + i, "Kx", 1.0, 1);
+            index.add(p);
+            index.remove(p);
+        }
+
+        assertEquals(Set.of("K", "L"), ids(index.findBySubstring("i", 10)));
+        assertEquals(Set.of("K"), ids(index.findBySubstring("k", 10)));
+        assertTrue(ids(index.findBySubstring("kx", 10)).isEmpty());
+
+        index.remove(kiwi);
+        assertEquals(Set.of("L"), ids(index.findBySubstring("i", 10)));
+        assertTrue(ids(index.findBySubstring("wi", 10)).isEmpty());
+    }
+
+    @Test
+    void renamedProductIsFoundOnlyUnderItsNewName() {
+        InventoryServiceImpl inventory = new InventoryServiceImpl();
+        inventory.addProduct(new Product("A", "Fig", 1.0, 1));
+        inventory.updateProduct("A", "Date", 1.0, 1);
+        inventory.updateProduct("A", "Fig", 1.0, 1);
+        inventory.updateProduct("A", "Date", 1.0, 1);
+
+        assertTrue(ids(inventory.searchProductsByName("fi", 10)).isEmpty());
+        assertEquals(Set.of("A"), ids(inventory.searchProductsByName("t", 10)));
+        assertEquals(1, inventory.searchProductsByName("da", 10).size());
+    }
+
+    private static Set<String> ids(DoublyLinkedList products) {
+        Set<String> ids = new HashSet<>();
+        for (Object o : products) {
+            ids.add(((Product) o).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,142 @@
+package service.replication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import entities.DoublyLinkedList;
+import entities.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.console.Console;
+import service.inventory.InventoryService;
+import service.inventory.InventoryServiceImpl;
+import service.report.ReportServiceImpl;
+import service.sale.SaleService;
+import service.sale.SaleServiceImpl;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+class ReplicationPrimaryTest {
+
+    private boolean consoleEnabled;
+
+    @BeforeEach
+    void silenceConsole() {
+        consoleEnabled = Console.setEnabled(false);
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        Console.setEnabled(consoleEnabled);
+    }
+
+    @Test
+    void followerReceivesSnapshotAndLaterChanges() throws Exception {
+        try (ReplicationPrimary primary = new ReplicationPrimary(0)) {
+            InventoryService inventory = new ReplicatingInventoryService(
+                new InventoryServiceImpl(),
+                primary
+            );
+            SaleService sales = new ReplicatingSaleService(
+                new SaleServiceImpl(inventory),
+                primary
+            );
+            inventory.addProducts(products(50));
+            primary.start(inventory, sales);
+
+            try (
+                ReplicationFollower follower = new ReplicationFollower(
+                    "localhost",
+                    primary.getPort()
+                )
+            ) {
+                assertTrue(follower.awaitSnapshot(10, TimeUnit.SECONDS));
+                for (int i = 0; i < 500; i++) {
+                    sales.recordSale("P" + (i % 50), 1);
+                }
+                inventory.deleteProduct("P0");
+
+                long deadline = System.nanoTime() + 10_000_000_000L;
+                while (
+                    follower.getAppliedSequence() < primary.getSequence() &&
+                    System.nanoTime() < deadline
+                ) {
+                    Thread.sleep(5);
+                }
+                assertEquals(
+                    primary.getSequence(),
+                    follower.getAppliedSequence()
+                );
+                assertEquals(0, follower.getSkippedChanges());
+                assertEquals(
+                    49,
+                    follower.getReportService().getTotalNumberOfProducts()
+                );
+                assertEquals(
+                    new ReportServiceImpl(inventory, sales)
+                        .getTotalSalesRevenue(),
+                    follower.getReportService().getTotalSalesRevenue(),
+                    1e-6
+                );
+            }
+        }
+    }
+
+    @Test
+    void stalledFollowerIsDisconnectedOnceItsBacklogIsFull()
+        throws Exception {
+        try (ReplicationPrimary primary = new ReplicationPrimary(0, 100)) {
+            InventoryService inventory = new ReplicatingInventoryService(
+                new InventoryServiceImpl(),
+                primary
+            );
+            SaleService sales = new ReplicatingSaleService(
+                new SaleServiceImpl(inventory),
+                primary
+            );
+            inventory.addProducts(products(1));
+            primary.start(inventory, sales);
+
+            //connects and never reads, so the primary's writes back up
+            try (Socket stalled = new Socket()) {
+                stalled.setReceiveBufferSize(1024);
+                stalled.connect(
+                    new InetSocketAddress(
+                        InetAddress.getLoopbackAddress(),
+                        primary.getPort()
+                    )
+                );
+                long deadline = System.nanoTime() + 10_000_000_000L;
+                while (
+                    primary.getFollowerCount() == 0 &&
+                    System.nanoTime() < deadline
+                ) {
+                    Thread.sleep(5);
+                }
+                assertEquals(1, primary.getFollowerCount());
+
+                //far more than the socket buffers and the backlog can hold
+                for (
+                    int i = 0;
+                    i < 2_000_000 && primary.getFollowerCount() > 0;
+                    i++
+                ) {
+                    inventory.adjustQuantity("P0", i % 2 == 0 ? 1 : -1);
+                }
+                assertEquals(0, primary.getFollowerCount());
+            }
+        }
+    }
+
+    private static DoublyLinkedList products(int count) {
+        DoublyLinkedList products = new DoublyLinkedList();
+        for (int i = 0; i < count; i++) {
+            products.add(new Product("P" + i, "Product " + i, 2.0, 1_000));
+        }
+        return products;
+    }
+}
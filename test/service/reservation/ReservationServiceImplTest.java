@@ -0,0 +1,181 @@
+package service.reservation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import entities.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.console.Console;
+import service.inventory.InventoryService;
+import service.inventory.InventoryServiceImpl;
+import service.sale.SaleService;
+import service.sale.SaleServiceImpl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+class ReservationServiceImplTest {
+
+    /**
+     * A clock that only moves when the test moves it.
+     */
+    private static final class ManualClock extends Clock {
+
+        private volatile long millis = 1_700_000_000_000L;
+
+        void advance(Duration duration) {
+            millis += duration.toMillis();
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private InventoryService inventory;
+    private SaleService sales;
+
+    @BeforeEach
+    void setUp() {
+        boolean enabled = Console.setEnabled(false);
+        try {
+            inventory = new InventoryServiceImpl();
+            inventory.addProduct(new Product("P1", "Widget", 2.5, 10));
+        } finally {
+            Console.setEnabled(enabled);
+        }
+        sales = new SaleServiceImpl(inventory);
+    }
+
+    @Test
+    void holdExpiresOnceItsTimeToLiveRunsOut() {
+        ManualClock clock = new ManualClock();
+        ReservationServiceImpl service = new ReservationServiceImpl(
+            inventory,
+            sales,
+            clock
+        );
+        Reservation reservation = service.reserve(
+            "P1",
+            4,
+            Duration.ofSeconds(30)
+        );
+        assertEquals(6, quantity());
+
+        clock.advance(Duration.ofMillis(29_999));
+        assertEquals(0, service.expireReservations());
+        assertEquals(Reservation.Status.ACTIVE, reservation.getStatus());
+        assertEquals(6, quantity());
+
+        clock.advance(Duration.ofMillis(1));
+        assertEquals(1, service.expireReservations());
+        assertEquals(Reservation.Status.EXPIRED, reservation.getStatus());
+        assertEquals(10, quantity());
+        assertNull(service.findReservation(reservation.getId()));
+        assertThrows(IllegalArgumentException.class, () ->
+            service.commit(reservation.getId())
+        );
+        assertEquals(0, sales.getSaleCount());
+    }
+
+    @Test
+    void holdsExpireInDeadlineOrderAcrossWheelLevels() {
+        ManualClock clock = new ManualClock();
+        ReservationServiceImpl service = new ReservationServiceImpl(
+            inventory,
+            sales,
+            clock
+        );
+        //a second, a minute and an hour are on different wheel levels
+        service.reserve("P1", 1, Duration.ofSeconds(1));
+        service.reserve("P1", 2, Duration.ofMinutes(1));
+        service.reserve("P1", 3, Duration.ofHours(1));
+        assertEquals(4, quantity());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(1, service.expireReservations());
+        assertEquals(5, quantity());
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(1, service.expireReservations());
+        assertEquals(7, quantity());
+        clock.advance(Duration.ofHours(1));
+        assertEquals(1, service.expireReservations());
+        assertEquals(10, quantity());
+        assertEquals(0, service.getActiveCount());
+    }
+
+    @Test
+    void committedHoldIsNotExpired() {
+        ManualClock clock = new ManualClock();
+        ReservationServiceImpl service = new ReservationServiceImpl(
+            inventory,
+            sales,
+            clock
+        );
+        Reservation reservation = service.reserve(
+            "P1",
+            4,
+            Duration.ofSeconds(1)
+        );
+        boolean enabled = Console.setEnabled(false);
+        try {
+            service.commit(reservation.getId());
+        } finally {
+            Console.setEnabled(enabled);
+        }
+
+        clock.advance(Duration.ofSeconds(5));
+        assertEquals(0, service.expireReservations());
+        assertEquals(Reservation.Status.COMMITTED, reservation.getStatus());
+        assertEquals(6, quantity());
+        assertEquals(1, sales.getSaleCount());
+    }
+
+    @Test
+    void startedServiceReleasesAbandonedHoldsWhileIdle() throws Exception {
+        ReservationServiceImpl service = new ReservationServiceImpl(
+            inventory,
+            sales
+        );
+        service.start();
+        try {
+            service.reserve("P1", 4, Duration.ofMillis(50));
+            assertEquals(6, quantity());
+
+            //no further calls to the service; only its own thread expires
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (quantity() != 10 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(10, quantity());
+            assertEquals(0, service.getActiveCount());
+        } finally {
+            service.close();
+        }
+    }
+
+    private int quantity() {
+        return inventory.findProductById("P1").getQuantity();
+    }
+}
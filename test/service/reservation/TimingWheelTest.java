@@ -0,0 +1,108 @@
+package service.reservation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class TimingWheelTest {
+
+    //Ticks spanned by one slot of each level
+    private static final long LEVEL_1 = 1L << 6;
+    private static final long LEVEL_2 = 1L << 12;
+    private static final long LEVEL_3 = 1L << 18;
+    private static final long SPAN = 1L << 24;
+
+    @Test
+    void firesEachTimerAtItsDeadlineThroughEveryLevel() {
+        long start = 1_000;
+        TimingWheel<Long> wheel = new TimingWheel<>(start);
+        long[] delays = {
+            1,
+            LEVEL_1 - 1,
+            LEVEL_1,
+            LEVEL_1 + 1,
+            LEVEL_2 - 1,
+            LEVEL_2,
+            LEVEL_2 + 7,
+            LEVEL_3 + 3,
+            5 * LEVEL_3 + LEVEL_2 + LEVEL_1 + 1,
+            SPAN + 11,
+        };
+        for (long delay : delays) {
+            wheel.schedule(start + delay, start + delay);
+        }
+
+        //one tick at a time, so a timer cascading too late or too early
+        //fires at the wrong tick
+        Map<Long, Long> firedAt = new HashMap<>();
+        long end = start + SPAN + LEVEL_3;
+        for (long tick = start + 1; tick <= end; tick++) {
+            long now = tick;
+            wheel.advance(tick, deadline -> firedAt.put(deadline, now));
+        }
+
+        assertEquals(delays.length, firedAt.size());
+        for (long delay : delays) {
+            assertEquals(start + delay, firedAt.get(start + delay));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void fireInDeadlineOrderWhenAdvancedAtOnce() {
+        TimingWheel<Long> wheel = new TimingWheel<>(0);
+        long[] deadlines = { LEVEL_2 + 5, 3, LEVEL_1 * 3, LEVEL_3, 70, 2 };
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(LEVEL_3 - 1, fired::add);
+        assertEquals(
+            List.of(2L, 3L, 70L, LEVEL_1 * 3, LEVEL_2 + 5),
+            fired
+        );
+
+        wheel.advance(LEVEL_3, fired::add);
+        assertEquals(LEVEL_3, fired.get(fired.size() - 1));
+        assertEquals(LEVEL_3, wheel.getTick());
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        TimingWheel.Timer<String> near = wheel.schedule("near", 10);
+        TimingWheel.Timer<String> far = wheel.schedule("far", LEVEL_2 + 1);
+        wheel.schedule("kept", LEVEL_2 + 1);
+        wheel.cancel(near);
+        wheel.cancel(far);
+        wheel.cancel(far);
+
+        assertFalse(near.isScheduled());
+        assertEquals(1, wheel.size());
+        List<String> fired = new ArrayList<>();
+        wheel.advance(LEVEL_2 + 1, fired::add);
+        assertEquals(List.of("kept"), fired);
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(500);
+        TimingWheel.Timer<String> timer = wheel.schedule("late", 100);
+        assertTrue(timer.isScheduled());
+        assertEquals(501, timer.getDeadline());
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(500, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advance(501, fired::add);
+        assertEquals(List.of("late"), fired);
+    }
+}
@@ -0,0 +1,84 @@
+package service.sketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+class SketchAccuracyTest {
+
+    @Test
+    void countMinStaysWithinItsBoundOnASkewedStream() {
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.01);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            //squaring skews the keys towards the low ones
+            double u = random.nextDouble();
+            long key = (long) (u * u * 20_000);
+            long count = 1 + random.nextInt(3);
+            sketch.add(key, count);
+            exact.merge(key, count, Long::sum);
+        }
+
+        long bound = sketch.getErrorBound();
+        int over = 0;
+        for (Map.Entry<Long, Long> e : exact.entrySet()) {
+            long estimate = sketch.estimate(e.getKey());
+            assertTrue(estimate >= e.getValue(), "underestimate");
+            if (estimate - e.getValue() > bound) {
+                over++;
+            }
+        }
+        //delta is 1% per key; allow twice that for the seed
+        assertTrue(over <= exact.size() / 50, over + " keys over the bound");
+        assertEquals(
+            exact.values().stream().mapToLong(Long::longValue).sum(),
+            sketch.getTotal()
+        );
+    }
+
+    @Test
+    void hyperLogLogEstimatesWithinThreeStandardErrors() {
+        Random random = new Random(7);
+        HyperLogLog left = new HyperLogLog(12);
+        HyperLogLog right = new HyperLogLog(12);
+        int distinct = 100_000;
+        for (int i = 0; i < distinct; i++) {
+            long key = random.nextLong();
+            //every key twice, so duplicates must not count
+            (i % 2 == 0 ? left : right).add(key);
+            (i % 2 == 0 ? left : right).add(key);
+        }
+        double error = 3 * left.getRelativeError();
+        assertWithin(distinct / 2, left.estimate(), error);
+
+        left.merge(right);
+        assertWithin(distinct, left.estimate(), error);
+    }
+
+    @Test
+    void hyperLogLogIsNearlyExactForSmallCounts() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (long key = 0; key < 100; key++) {
+            sketch.add(key);
+            sketch.add(key);
+        }
+        //counted from the empty registers, so only collisions are missed
+        assertWithin(100, sketch.estimate(), 0.05);
+
+        sketch.clear();
+        assertEquals(0, sketch.estimate());
+    }
+
+    private static void assertWithin(long expected, long actual, double error) {
+        assertTrue(
+            Math.abs(actual - expected) <= expected * error,
+            "estimate " + actual + " for " + expected
+        );
+    }
+}
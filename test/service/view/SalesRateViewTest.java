@@ -0,0 +1,77 @@
+package service.view;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import entities.Sale;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+class SalesRateViewTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(
+        2024,
+        3,
+        15,
+        10,
+        30
+    );
+
+    @Test
+    void windowIncludesBothEndSeconds() {
+        SalesRateView view = new SalesRateView(Duration.ofSeconds(10));
+        record(view, NOW, 1);
+        record(view, NOW.minusSeconds(5), 2);
+        record(view, NOW.minusSeconds(10), 4);
+        record(view, NOW.minusSeconds(11), 8);
+
+        SalesRate rate = view.getRate(Duration.ofSeconds(10), NOW);
+        assertEquals(3, rate.sales());
+        assertEquals(7, rate.units());
+        assertEquals(14.0, rate.revenue());
+
+        SalesRate last = view.getRate(Duration.ofSeconds(1), NOW);
+        assertEquals(1, last.units());
+    }
+
+    @Test
+    void slotsAreReusedOnceTheRingWrapsAround() {
+        SalesRateView view = new SalesRateView(Duration.ofSeconds(10));
+        record(view, NOW, 1);
+        //eleven slots, so this second reuses the slot of NOW
+        LocalDateTime later = NOW.plusSeconds(11);
+        record(view, later, 2);
+
+        assertEquals(2, view.getRate(Duration.ofSeconds(10), later).units());
+        //NOW's figures were cleared, not added to
+        assertEquals(0, view.getRate(Duration.ofSeconds(1), NOW).sales());
+
+        //older than the ring now holds, so ignored
+        record(view, NOW, 4);
+        assertEquals(2, view.getRate(Duration.ofSeconds(10), later).units());
+    }
+
+    @Test
+    void windowsOutsideTheRingAreRejected() {
+        SalesRateView view = new SalesRateView(Duration.ofSeconds(10));
+        assertEquals(Duration.ofSeconds(10), view.getMaxWindow());
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> view.getRate(Duration.ofSeconds(11), NOW)
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> view.getRate(Duration.ofMillis(500), NOW)
+        );
+    }
+
+    private static void record(
+        SalesRateView view,
+        LocalDateTime date,
+        int quantity
+    ) {
+        view.saleRecorded(new Sale("RATE", "Widget", quantity, 2.0, date));
+    }
+}